@@ -0,0 +1,64 @@
+package com.concessionaria.carros.benchmark;
+
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.entity.Operacao;
+import com.concessionaria.carros.entity.Usuario;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Massa de dados determinística compartilhada pelos benchmarks.
+public final class DadosBenchmark {
+
+    private static final String[] MARCAS = {"Toyota", "Honda", "Fiat", "Volkswagen", "Chevrolet"};
+    private static final LocalDateTime DATA_BASE = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private DadosBenchmark() {
+    }
+
+    public static CarroDTO carroDTO(int i) {
+        return new CarroDTO((long) i + 1, MARCAS[i % MARCAS.length], "Modelo " + i, 2015 + i % 10,
+                String.format("BNC%04d", i), new BigDecimal("95000.00"), new BigDecimal("250.00"), i % 3 != 0);
+    }
+
+    public static OperacaoDTO operacaoDTO(int i) {
+        return new OperacaoDTO((long) i + 1, (long) i + 1, 1L + i % 50,
+                i % 2 == 0 ? Operacao.TipoOperacao.ALUGUEL : Operacao.TipoOperacao.VENDA,
+                new BigDecimal("250.00"), DATA_BASE.plusHours(i), i % 4 == 0 ? DATA_BASE.plusDays(3) : null,
+                MARCAS[i % MARCAS.length]);
+    }
+
+    public static List<CarroDTO> carrosDTO(int quantidade) {
+        return IntStream.range(0, quantidade).mapToObj(DadosBenchmark::carroDTO).toList();
+    }
+
+    public static List<OperacaoDTO> operacoesDTO(int quantidade) {
+        return IntStream.range(0, quantidade).mapToObj(DadosBenchmark::operacaoDTO).toList();
+    }
+
+    public static Carro carro(int i) {
+        CarroDTO dto = carroDTO(i);
+        Carro carro = new Carro();
+        carro.setId(dto.getId());
+        carro.setMarca(dto.getMarca());
+        carro.setModelo(dto.getModelo());
+        carro.setAno(dto.getAno());
+        carro.setPlaca(dto.getPlaca());
+        carro.setPrecoVenda(dto.getPrecoVenda());
+        carro.setPrecoAluguel(dto.getPrecoAluguel());
+        carro.setDisponivel(dto.getDisponivel());
+        carro.setDataCadastro(DATA_BASE);
+        return carro;
+    }
+
+    public static Operacao operacao(int i) {
+        OperacaoDTO dto = operacaoDTO(i);
+        Usuario cliente = new Usuario(dto.getClienteId(), "Cliente " + i, "cliente" + i + "@email.com", "senha");
+        return new Operacao(dto.getId(), carro(i), cliente, dto.getTipo(), dto.getValor(),
+                dto.getDataOperacao(), dto.getDataDevolucao());
+    }
+}
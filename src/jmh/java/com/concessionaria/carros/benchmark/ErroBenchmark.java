@@ -0,0 +1,62 @@
+package com.concessionaria.carros.benchmark;
+
+import com.concessionaria.carros.exception.RecursoNaoEncontradoException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Caminho de "não encontrado": exceção com stack trace (como era), exceção sem stack trace (como é hoje) e
+// lista vazia. A profundidade simula a pilha de filtros, proxies e aspectos entre o servlet e o serviço.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErroBenchmark {
+
+    @Param({"20", "150"})
+    private int profundidade;
+
+    @Benchmark
+    public String comStackTrace() {
+        return capturar(profundidade, () -> {
+            throw new RuntimeException("Carro não encontrado");
+        });
+    }
+
+    @Benchmark
+    public String semStackTrace() {
+        return capturar(profundidade, () -> {
+            throw new RecursoNaoEncontradoException("Carro não encontrado");
+        });
+    }
+
+    @Benchmark
+    public List<Object> listaVazia() {
+        return descer(profundidade);
+    }
+
+    private static String capturar(int profundidade, Runnable falha) {
+        try {
+            lancar(profundidade, falha);
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static void lancar(int profundidade, Runnable falha) {
+        if (profundidade == 0) {
+            falha.run();
+            return;
+        }
+        lancar(profundidade - 1, falha);
+    }
+
+    private static List<Object> descer(int profundidade) {
+        return profundidade == 0 ? Collections.emptyList() : descer(profundidade - 1);
+    }
+}
@@ -0,0 +1,91 @@
+package com.concessionaria.carros.benchmark;
+
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Listagens em volume em JSON, CBOR e Smile, configurados como no FormatosConfig.
+// O tamanho de cada carga, crua e com gzip, é impresso uma vez por fork antes das medições.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatosBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String formato;
+
+    @Param({"100000"})
+    private int quantidade;
+
+    private ObjectWriter escritorCarros;
+    private ObjectWriter escritorOperacoes;
+    private List<CarroDTO> carros;
+    private List<OperacaoDTO> operacoes;
+
+    @Setup
+    public void preparar() throws IOException {
+        ObjectMapper objectMapper = switch (formato) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor()
+                    .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile()
+                    .factory(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build())
+                    .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        escritorCarros = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, CarroDTO.class));
+        escritorOperacoes = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, OperacaoDTO.class));
+        carros = DadosBenchmark.carrosDTO(quantidade);
+        operacoes = DadosBenchmark.operacoesDTO(quantidade);
+
+        imprimirTamanho("carros", serializarCarros());
+        imprimirTamanho("operacoes", serializarOperacoes());
+    }
+
+    @Benchmark
+    public byte[] serializarCarros() throws IOException {
+        return escritorCarros.writeValueAsBytes(carros);
+    }
+
+    @Benchmark
+    public byte[] serializarOperacoes() throws IOException {
+        return escritorOperacoes.writeValueAsBytes(operacoes);
+    }
+
+    // O que o Tomcat faz com server.compression ligado, para comparar o custo total de CPU.
+    @Benchmark
+    public byte[] serializarOperacoesComGzip() throws IOException {
+        return gzip(serializarOperacoes());
+    }
+
+    private void imprimirTamanho(String lista, byte[] carga) throws IOException {
+        System.out.printf("%n%s %s (%d linhas): %d bytes, %d bytes com gzip%n",
+                formato, lista, quantidade, carga.length, gzip(carga).length);
+    }
+
+    private static byte[] gzip(byte[] carga) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(carga.length / 4);
+        try (GZIPOutputStream compressor = new GZIPOutputStream(saida)) {
+            compressor.write(carga);
+        }
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,50 @@
+package com.concessionaria.carros.benchmark;
+
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialização JSON das listas devolvidas pelos controllers, com o ObjectMapper padrão do Spring.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    @Param({"50", "1000"})
+    private int quantidade;
+
+    private ObjectWriter escritorCarros;
+    private ObjectWriter escritorOperacoes;
+    private List<CarroDTO> carros;
+    private List<OperacaoDTO> operacoes;
+
+    @Setup
+    public void preparar() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        escritorCarros = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, CarroDTO.class));
+        escritorOperacoes = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, OperacaoDTO.class));
+        carros = DadosBenchmark.carrosDTO(quantidade);
+        operacoes = DadosBenchmark.operacoesDTO(quantidade);
+    }
+
+    @Benchmark
+    public byte[] serializarCarros() throws Exception {
+        return escritorCarros.writeValueAsBytes(carros);
+    }
+
+    @Benchmark
+    public byte[] serializarOperacoes() throws Exception {
+        return escritorOperacoes.writeValueAsBytes(operacoes);
+    }
+}
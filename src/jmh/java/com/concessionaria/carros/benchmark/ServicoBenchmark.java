@@ -0,0 +1,118 @@
+package com.concessionaria.carros.benchmark;
+
+import com.concessionaria.carros.CarrosApplication;
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.dto.PaginaCarrosDTO;
+import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.entity.Operacao;
+import com.concessionaria.carros.entity.Usuario;
+import com.concessionaria.carros.repository.CarroRepository;
+import com.concessionaria.carros.repository.OperacaoRepository;
+import com.concessionaria.carros.repository.UsuarioRepository;
+import com.concessionaria.carros.service.CarroService;
+import com.concessionaria.carros.service.OperacaoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Chamadas completas de serviço (proxy transacional, Hibernate, cache) contra um H2 em memória.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServicoBenchmark {
+
+    private static final int CARROS = 1_000;
+    private static final int CLIENTES = 20;
+    private static final int OPERACOES = 300;
+
+    private ConfigurableApplicationContext contexto;
+    private CarroService carroService;
+    private OperacaoService operacaoService;
+    private Long carroId;
+    private Long clienteId;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(CarrosApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.flyway.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.cache.type=caffeine",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.concessionaria=WARN",
+                        "--logging.file.name=");
+        carroService = contexto.getBean(CarroService.class);
+        operacaoService = contexto.getBean(OperacaoService.class);
+        popular();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    private void popular() {
+        List<CarroDTO> novos = DadosBenchmark.carrosDTO(CARROS);
+        novos.forEach(dto -> dto.setId(null));
+        carroService.criarEmLote(novos);
+
+        UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        List<Usuario> clientes = usuarioRepository.saveAll(IntStream.range(0, CLIENTES)
+                .mapToObj(i -> new Usuario(null, "Cliente " + i, "cliente" + i + "@email.com", "senha"))
+                .toList());
+
+        List<Carro> carros = contexto.getBean(CarroRepository.class).findAll();
+        List<Operacao> operacoes = new ArrayList<>();
+        for (int i = 0; i < OPERACOES; i++) {
+            Operacao operacao = DadosBenchmark.operacao(i);
+            operacao.setId(null);
+            operacao.setCarro(carros.get(i));
+            operacao.setCliente(clientes.get(i % CLIENTES));
+            operacoes.add(operacao);
+        }
+        contexto.getBean(OperacaoRepository.class).saveAll(operacoes);
+
+        carroId = carros.get(CARROS / 2).getId();
+        clienteId = clientes.get(0).getId();
+    }
+
+    @Benchmark
+    public PaginaCarrosDTO listarPaginaDeCarros() {
+        return carroService.listarTodos(null, 50);
+    }
+
+    @Benchmark
+    public List<CarroDTO> buscarCarrosDisponiveis() {
+        return carroService.buscarDisponiveis();
+    }
+
+    @Benchmark
+    public CarroDTO buscarCarroPorId() {
+        return carroService.buscarPorId(carroId);
+    }
+
+    @Benchmark
+    public List<OperacaoDTO> listarOperacoes() {
+        return operacaoService.listarTodos();
+    }
+
+    @Benchmark
+    public List<OperacaoDTO> buscarOperacoesPorCliente() {
+        return operacaoService.buscarPorCliente(clienteId);
+    }
+}
@@ -0,0 +1,124 @@
+package com.concessionaria.carros.benchmark;
+
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.SugestaoDTO;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.indice.IndiceSugestoes;
+import com.concessionaria.carros.repository.CarroRepository;
+import com.concessionaria.carros.repository.CarroRepository.TermosCarro;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Autocompletar com a frota inteira no índice: prefixos curtos (os que alcançam mais termos), prefixo de
+// modelo, consulta com erro de digitação e o custo de uma alteração de carro no índice.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SugestoesBenchmark {
+
+    private static final String[] SILABAS = {"ba", "ce", "di", "fo", "gu", "ha", "je", "ki", "lo", "mu", "na", "pe",
+            "qui", "ro", "sa", "te", "vi", "xo", "za", "bra", "cle", "dri", "flo", "gra"};
+    private static final int MARCAS = 60;
+    private static final int MODELOS_POR_MARCA = 40;
+    private static final int VERSOES = 12;
+    private static final int LIMITE = 10;
+
+    @Param({"10000", "200000"})
+    private int carros;
+
+    private IndiceSugestoes indice;
+    private CarroDTO original;
+    private CarroDTO renomeado;
+
+    @Setup(Level.Trial)
+    public void carregar() {
+        CarroRepository carroRepository = mock(CarroRepository.class);
+        when(carroRepository.streamTermos()).thenAnswer(invocacao -> IntStream.range(0, carros)
+                .mapToObj(i -> new Termos((long) i + 1, marca(i % MARCAS), modelo(i), String.format("FRT%06d", i))));
+        indice = new IndiceSugestoes(carroRepository, mock(PlatformTransactionManager.class));
+        indice.carregar();
+
+        original = carro(1, marca(0), modelo(0));
+        renomeado = carro(1, marca(0), modelo(0) + " Sport");
+    }
+
+    @Benchmark
+    public List<SugestaoDTO> prefixoDeUmaLetra() {
+        return indice.sugerir("c", LIMITE);
+    }
+
+    @Benchmark
+    public List<SugestaoDTO> prefixoDeModelo() {
+        return indice.sugerir(marca(7) + " " + modelo(7).substring(0, 4), LIMITE);
+    }
+
+    @Benchmark
+    public List<SugestaoDTO> erroDeDigitacao() {
+        String modelo = modelo(11);
+        return indice.sugerir(modelo.substring(1, 2) + modelo.charAt(0) + modelo.substring(2), LIMITE);
+    }
+
+    // Renomeia e desfaz, para que o índice volte ao mesmo estado a cada chamada.
+    @Benchmark
+    public void alteracaoDeCarro() {
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.ATUALIZADO, renomeado, original));
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.ATUALIZADO, original, renomeado));
+    }
+
+    private static String marca(int i) {
+        return "Marca " + palavra(i, 3);
+    }
+
+    // Cada marca tem MODELOS_POR_MARCA modelos em VERSOES versões: até 28.800 termos.
+    private static String modelo(int i) {
+        int marca = i % MARCAS;
+        int modelo = i / MARCAS % MODELOS_POR_MARCA;
+        int versao = i / (MARCAS * MODELOS_POR_MARCA) % VERSOES;
+        return palavra(marca * MODELOS_POR_MARCA + modelo, 3) + " " + palavra(versao, 2);
+    }
+
+    // Sementes vizinhas contadas em base 24 repetiriam as sílabas finais ("baba"); o primo espalha as sílabas
+    // por todas as posições, como nos nomes reais.
+    private static String palavra(int semente, int silabas) {
+        StringBuilder palavra = new StringBuilder();
+        for (int s = 0, resto = semente * 7919; s < silabas; s++, resto /= SILABAS.length) {
+            palavra.append(SILABAS[resto % SILABAS.length]);
+        }
+        return palavra.toString();
+    }
+
+    private static CarroDTO carro(long id, String marca, String modelo) {
+        return new CarroDTO(id, marca, modelo, 2024, "FRT000000", new BigDecimal("95000.00"),
+                new BigDecimal("250.00"), true);
+    }
+
+    private record Termos(Long id, String marca, String modelo, String placa) implements TermosCarro {
+        public Long getId() {
+            return id;
+        }
+
+        public String getMarca() {
+            return marca;
+        }
+
+        public String getModelo() {
+            return modelo;
+        }
+
+        public String getPlaca() {
+            return placa;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.concessionaria.carros.service;
+
+import com.concessionaria.carros.benchmark.DadosBenchmark;
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.entity.Operacao;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Conversões entidade -> DTO feitas em toda leitura; fica no pacote do serviço para acessar os conversores.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversaoBenchmark {
+
+    @Param({"1", "1000"})
+    private int quantidade;
+
+    private OperacaoService operacaoService;
+    private List<Carro> carros;
+    private List<Operacao> operacoes;
+
+    @Setup
+    public void preparar() {
+        operacaoService = new OperacaoService(null, null, null, null, null, null);
+        carros = IntStream.range(0, quantidade).mapToObj(DadosBenchmark::carro).toList();
+        operacoes = IntStream.range(0, quantidade).mapToObj(DadosBenchmark::operacao).toList();
+    }
+
+    @Benchmark
+    public List<CarroDTO> converterCarros() {
+        return carros.stream().map(CarroService::converterParaDTO).toList();
+    }
+
+    @Benchmark
+    public List<OperacaoDTO> converterOperacoes() {
+        return operacoes.stream().map(operacaoService::converterParaDTO).toList();
+    }
+}
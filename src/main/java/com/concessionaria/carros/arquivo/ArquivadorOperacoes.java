@@ -0,0 +1,106 @@
+package com.concessionaria.carros.arquivo;
+
+import com.concessionaria.carros.cache.VersaoRecursos;
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.entity.Operacao;
+import com.concessionaria.carros.repository.OperacaoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Move para o ArquivoOperacoes as vendas e os aluguéis finalizados mais antigos que a idade configurada.
+// Cada lote é gravado num segmento sincronizado com o disco antes de ser apagado do banco; se o processo
+// cair entre as duas etapas, a rodada seguinte encontra as linhas já arquivadas e só as apaga. Ao final,
+// os segmentos pequenos gerados pelos lotes são compactados.
+@Component
+public class ArquivadorOperacoes {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArquivadorOperacoes.class);
+
+    private final OperacaoRepository operacaoRepository;
+    private final ArquivoOperacoes arquivoOperacoes;
+    private final TransactionTemplate transactionTemplate;
+    private final VersaoRecursos versaoRecursos;
+    private final Duration idade;
+    private final int tamanhoLote;
+    private final Clock relogio;
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+
+    @Autowired
+    public ArquivadorOperacoes(OperacaoRepository operacaoRepository,
+                               ArquivoOperacoes arquivoOperacoes,
+                               PlatformTransactionManager transactionManager,
+                               VersaoRecursos versaoRecursos,
+                               @Value("${concessionaria.arquivo.idade:730d}") Duration idade,
+                               @Value("${concessionaria.arquivo.lote:50000}") int tamanhoLote) {
+        this(operacaoRepository, arquivoOperacoes, new TransactionTemplate(transactionManager), versaoRecursos, idade,
+                tamanhoLote, Clock.systemDefaultZone());
+    }
+
+    ArquivadorOperacoes(OperacaoRepository operacaoRepository, ArquivoOperacoes arquivoOperacoes,
+                        TransactionTemplate transactionTemplate, VersaoRecursos versaoRecursos, Duration idade,
+                        int tamanhoLote, Clock relogio) {
+        this.operacaoRepository = operacaoRepository;
+        this.arquivoOperacoes = arquivoOperacoes;
+        this.transactionTemplate = transactionTemplate;
+        this.versaoRecursos = versaoRecursos;
+        this.idade = idade;
+        this.tamanhoLote = tamanhoLote;
+        this.relogio = relogio;
+    }
+
+    @Scheduled(cron = "${concessionaria.arquivo.cron:0 30 3 * * *}")
+    public void executar() {
+        arquivar();
+    }
+
+    public int arquivar() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            logger.warn("Arquivamento de operações já está em execução");
+            return 0;
+        }
+        try {
+            LocalDateTime limite = LocalDateTime.now(relogio).minus(idade);
+            logger.info("Arquivando operações anteriores a {}", limite);
+            int arquivadas = 0;
+            long aposId = 0;
+            while (true) {
+                List<OperacaoDTO> lote = operacaoRepository.findArquivaveis(aposId, Operacao.TipoOperacao.VENDA,
+                        limite, PageRequest.of(0, tamanhoLote));
+                if (lote.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = lote.stream().map(OperacaoDTO::getId).toList();
+                Set<Long> jaArquivadas = arquivoOperacoes.arquivados(ids);
+                arquivoOperacoes.gravar(lote.stream()
+                        .filter(operacao -> !jaArquivadas.contains(operacao.getId()))
+                        .toList());
+                transactionTemplate.executeWithoutResult(status -> operacaoRepository.excluirPorIds(ids));
+                versaoRecursos.aoRemoverOperacoes();
+
+                arquivadas += lote.size();
+                aposId = ids.get(ids.size() - 1);
+            }
+            if (arquivadas > 0) {
+                arquivoOperacoes.compactar();
+            }
+            logger.info("Arquivamento de operações concluído: {} operações movidas", arquivadas);
+            return arquivadas;
+        } finally {
+            emExecucao.set(false);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.concessionaria.carros.arquivo;
+
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.entity.Operacao;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// Histórico de operações retirado do banco pelo ArquivadorOperacoes. Cada gravação gera um segmento novo
+// e imutável; leituras percorrem os segmentos abertos com mapeamento em memória.
+// A compactação junta segmentos vizinhos num só, nomeado com a faixa que substitui
+// (operacoes-00000003-00000007.seg). Se o processo cair antes de os antigos serem apagados, abrir()
+// reconhece as sobras por estarem dentro da faixa de outro segmento e as remove.
+@Component
+public class ArquivoOperacoes {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArquivoOperacoes.class);
+    private static final String PREFIXO = "operacoes-";
+    private static final String EXTENSAO = ".seg";
+    private static final String TEMPORARIO = ".tmp";
+
+    private final Path diretorio;
+    private final int registrosPorBloco;
+    private final int registrosPorSegmento;
+    private final Object escrita = new Object();
+    private volatile List<Segmento> segmentos = List.of();
+
+    public ArquivoOperacoes(@Value("${concessionaria.arquivo.diretorio:dados/arquivo-operacoes}") String diretorio,
+                            @Value("${concessionaria.arquivo.registros-por-bloco:1024}") int registrosPorBloco,
+                            @Value("${concessionaria.arquivo.registros-por-segmento:200000}")
+                            int registrosPorSegmento) {
+        this.diretorio = Path.of(diretorio);
+        this.registrosPorBloco = registrosPorBloco;
+        this.registrosPorSegmento = registrosPorSegmento;
+    }
+
+    @PostConstruct
+    public void abrir() {
+        try {
+            Files.createDirectories(diretorio);
+            List<Path> encontrados = new ArrayList<>();
+            try (Stream<Path> arquivos = Files.list(diretorio)) {
+                for (Path arquivo : arquivos.sorted().toList()) {
+                    String nome = arquivo.getFileName().toString();
+                    if (nome.endsWith(TEMPORARIO)) {
+                        // Sobra de uma gravação interrompida: as linhas continuam no banco ou nos segmentos
+                        // que seriam compactados.
+                        Files.delete(arquivo);
+                    } else if (nome.startsWith(PREFIXO) && nome.endsWith(EXTENSAO)) {
+                        encontrados.add(arquivo);
+                    }
+                }
+            }
+            List<Segmento> abertos = new ArrayList<>();
+            for (Path arquivo : encontrados) {
+                if (substituido(arquivo, encontrados)) {
+                    logger.info("Removendo segmento já compactado: {}", arquivo.getFileName());
+                    Files.delete(arquivo);
+                } else {
+                    abertos.add(Segmento.abrir(arquivo));
+                }
+            }
+            segmentos = List.copyOf(abertos);
+            logger.info("Arquivo de operações aberto: diretorio={}, segmentos={}", diretorio, abertos.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o arquivo de operações em " + diretorio, e);
+        }
+    }
+
+    public void gravar(List<OperacaoDTO> operacoes) {
+        if (operacoes.isEmpty()) {
+            return;
+        }
+        List<OperacaoDTO> ordenadas = operacoes.stream()
+                .sorted(Segmento.ORDEM)
+                .toList();
+        synchronized (escrita) {
+            long numero = proximoNumero();
+            Segmento segmento = escrever(String.format("%s%08d%s", PREFIXO, numero, EXTENSAO), ordenadas);
+            List<Segmento> atualizados = new ArrayList<>(segmentos);
+            atualizados.add(segmento);
+            segmentos = List.copyOf(atualizados);
+            logger.info("Segmento de operações gravado: arquivo={}, operacoes={}",
+                    segmento.caminho().getFileName(), ordenadas.size());
+        }
+    }
+
+    // Cada rodada do arquivamento grava um segmento por lote; com o tempo, a busca por carro ou cliente
+    // consultaria o índice de centenas deles. Junta segmentos vizinhos enquanto a soma cabe em
+    // registrosPorSegmento e devolve quantos foram substituídos. O grupo inteiro passa pela memória.
+    public int compactar() {
+        synchronized (escrita) {
+            int substituidos = 0;
+            List<Segmento> grupo = new ArrayList<>();
+            long registros = 0;
+            for (Segmento segmento : segmentos) {
+                if (registros + segmento.registros() > registrosPorSegmento) {
+                    substituidos += juntar(grupo);
+                    grupo = new ArrayList<>();
+                    registros = 0;
+                }
+                grupo.add(segmento);
+                registros += segmento.registros();
+            }
+            return substituidos + juntar(grupo);
+        }
+    }
+
+    public Optional<OperacaoDTO> buscarPorId(long id) {
+        List<OperacaoDTO> encontradas = buscar(bloco -> id >= bloco.menorId() && id <= bloco.maiorId(),
+                operacao -> operacao.getId() == id);
+        return encontradas.stream().findFirst();
+    }
+
+    public List<OperacaoDTO> buscarPorCarro(long carroId) {
+        return buscar(bloco -> bloco.carros().podeConter(carroId), operacao -> operacao.getCarroId() == carroId);
+    }
+
+    public List<OperacaoDTO> buscarPorCliente(long clienteId) {
+        return buscar(bloco -> bloco.clientes().podeConter(clienteId),
+                operacao -> operacao.getClienteId() == clienteId);
+    }
+
+    public List<OperacaoDTO> buscarPorTipo(Operacao.TipoOperacao tipo) {
+        return buscar(bloco -> bloco.contemTipo(tipo), operacao -> operacao.getTipo() == tipo);
+    }
+
+    // Entrega uma a uma as operações com dataOperacao em [inicio, fim), sem acumular a lista em memória e
+    // sem ordem garantida.
+    public void percorrerPeriodo(LocalDateTime inicio, LocalDateTime fim, Consumer<OperacaoDTO> consumidor) {
+        for (Segmento segmento : segmentos) {
+            segmento.percorrer(bloco -> bloco.cobrePeriodo(inicio, fim), operacao -> {
+                if (!operacao.getDataOperacao().isBefore(inicio) && operacao.getDataOperacao().isBefore(fim)) {
+                    consumidor.accept(operacao);
+                }
+            });
+        }
+    }
+
+    // Dos ids informados, quais já estão em algum segmento.
+    public Set<Long> arquivados(Collection<Long> ids) {
+        Set<Long> procurados = new HashSet<>(ids);
+        Set<Long> encontrados = new HashSet<>();
+        if (procurados.isEmpty()) {
+            return encontrados;
+        }
+        long menor = procurados.stream().mapToLong(Long::longValue).min().getAsLong();
+        long maior = procurados.stream().mapToLong(Long::longValue).max().getAsLong();
+        for (Segmento segmento : segmentos) {
+            segmento.percorrer(bloco -> bloco.maiorId() >= menor && bloco.menorId() <= maior, operacao -> {
+                if (procurados.contains(operacao.getId())) {
+                    encontrados.add(operacao.getId());
+                }
+            });
+        }
+        return encontrados;
+    }
+
+    private List<OperacaoDTO> buscar(Predicate<Segmento.Bloco> blocoRelevante, Predicate<OperacaoDTO> filtro) {
+        List<OperacaoDTO> encontradas = new ArrayList<>();
+        for (Segmento segmento : segmentos) {
+            segmento.percorrer(blocoRelevante, operacao -> {
+                if (filtro.test(operacao)) {
+                    encontradas.add(operacao);
+                }
+            });
+        }
+        encontradas.sort(Comparator.comparing(OperacaoDTO::getId));
+        return encontradas;
+    }
+
+    private int juntar(List<Segmento> grupo) {
+        if (grupo.size() < 2) {
+            return 0;
+        }
+        List<OperacaoDTO> operacoes = new ArrayList<>();
+        for (Segmento segmento : grupo) {
+            segmento.percorrer(bloco -> true, operacoes::add);
+        }
+        operacoes.sort(Segmento.ORDEM);
+        long primeiro = faixa(grupo.get(0).caminho())[0];
+        long ultimo = faixa(grupo.get(grupo.size() - 1).caminho())[1];
+        Segmento juntado = escrever(String.format("%s%08d-%08d%s", PREFIXO, primeiro, ultimo, EXTENSAO), operacoes);
+
+        List<Segmento> atualizados = new ArrayList<>(segmentos);
+        int posicao = atualizados.indexOf(grupo.get(0));
+        atualizados.removeAll(grupo);
+        atualizados.add(posicao, juntado);
+        segmentos = List.copyOf(atualizados);
+        // Leituras em andamento seguem com o mapeamento dos antigos; se o sistema não deixar apagar um
+        // arquivo mapeado, a próxima abertura remove a sobra.
+        for (Segmento segmento : grupo) {
+            try {
+                Files.deleteIfExists(segmento.caminho());
+            } catch (IOException e) {
+                logger.warn("Falha ao apagar segmento compactado {}: {}", segmento.caminho(), e.getMessage());
+            }
+        }
+        logger.info("Segmentos de operações compactados: arquivo={}, segmentos={}, operacoes={}",
+                juntado.caminho().getFileName(), grupo.size(), operacoes.size());
+        return grupo.size();
+    }
+
+    // O segmento é escrito num arquivo temporário e renomeado só depois de sincronizado com o disco,
+    // para que nunca exista um .seg incompleto.
+    private Segmento escrever(String nome, List<OperacaoDTO> ordenadas) {
+        Path destino = diretorio.resolve(nome);
+        Path temporario = destino.resolveSibling(nome + TEMPORARIO);
+        try {
+            Segmento.gravar(temporario, ordenadas, registrosPorBloco);
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            return Segmento.abrir(destino);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar segmento " + destino, e);
+        }
+    }
+
+    private static boolean substituido(Path arquivo, List<Path> encontrados) {
+        long[] faixa = faixa(arquivo);
+        for (Path outro : encontrados) {
+            long[] outra = faixa(outro);
+            boolean contem = outra[0] <= faixa[0] && faixa[1] <= outra[1];
+            if (contem && outra[1] - outra[0] > faixa[1] - faixa[0]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Números do primeiro e do último segmento cobertos pelo arquivo; iguais num segmento não compactado.
+    private static long[] faixa(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        String[] numeros = nome.substring(PREFIXO.length(), nome.length() - EXTENSAO.length()).split("-");
+        long primeiro = Long.parseLong(numeros[0]);
+        return new long[]{primeiro, Long.parseLong(numeros[numeros.length - 1])};
+    }
+
+    private long proximoNumero() {
+        return segmentos.stream()
+                .mapToLong(segmento -> faixa(segmento.caminho())[1])
+                .max()
+                .orElse(0) + 1;
+    }
+}
@@ -0,0 +1,73 @@
+package com.concessionaria.carros.arquivo;
+
+import java.nio.ByteBuffer;
+
+// Filtro de Bloom de tamanho fixo usado no índice esparso dos blocos: responde "talvez" ou "com certeza não"
+// para um id, com cerca de 3% de falsos positivos usando 8 bits por registro e 3 funções de hash.
+final class FiltroBloom {
+
+    static final int BITS_POR_REGISTRO = 8;
+    private static final int FUNCOES = 3;
+
+    private final long[] bits;
+
+    FiltroBloom(int registros) {
+        this(new long[Math.max(1, (registros * BITS_POR_REGISTRO + 63) / 64)]);
+    }
+
+    private FiltroBloom(long[] bits) {
+        this.bits = bits;
+    }
+
+    void adicionar(long valor) {
+        long hash = misturar(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long tamanho = bits.length * 64L;
+        for (int i = 0; i < FUNCOES; i++) {
+            int posicao = (int) Math.floorMod(h1 + (long) i * h2, tamanho);
+            bits[posicao >>> 6] |= 1L << posicao;
+        }
+    }
+
+    boolean podeConter(long valor) {
+        long hash = misturar(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long tamanho = bits.length * 64L;
+        for (int i = 0; i < FUNCOES; i++) {
+            int posicao = (int) Math.floorMod(h1 + (long) i * h2, tamanho);
+            if ((bits[posicao >>> 6] & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void escrever(ByteBuffer destino) {
+        destino.putInt(bits.length);
+        for (long palavra : bits) {
+            destino.putLong(palavra);
+        }
+    }
+
+    int tamanhoSerializado() {
+        return Integer.BYTES + bits.length * Long.BYTES;
+    }
+
+    static FiltroBloom ler(ByteBuffer origem) {
+        long[] bits = new long[origem.getInt()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = origem.getLong();
+        }
+        return new FiltroBloom(bits);
+    }
+
+    // Finalizador do SplitMix64: ids sequenciais viram posições bem espalhadas.
+    private static long misturar(long valor) {
+        long z = valor + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,284 @@
+package com.concessionaria.carros.arquivo;
+
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.entity.Operacao;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Arquivo imutável com operações arquivadas, agrupadas por tipo e em ordem de id dentro de cada tipo:
+//   cabeçalho (mágico, versão) | blocos comprimidos com Deflate | índice | posição do índice, mágico
+// O índice esparso guarda, por bloco, as faixas de id e de data, os tipos e filtros de Bloom de carro e
+// cliente; fica em memória, e só os blocos que podem conter o que se procura são lidos do mapeamento e
+// descomprimidos. Cada bloco tem um único tipo, então a busca por tipo não abre blocos do outro.
+// Segmentos antigos, com blocos de tipos misturados, continuam legíveis: o índice de tipos é uma máscara.
+final class Segmento {
+
+    private static final int MAGICO = 0x4F505347;
+    private static final byte VERSAO = 1;
+    private static final int CABECALHO = Integer.BYTES + 1;
+    private static final int RODAPE = Long.BYTES + Integer.BYTES;
+
+    static final Comparator<OperacaoDTO> ORDEM = Comparator.comparing(OperacaoDTO::getTipo)
+            .thenComparing(OperacaoDTO::getId);
+
+    private final Path caminho;
+    private final MappedByteBuffer dados;
+    private final List<Bloco> blocos;
+
+    private Segmento(Path caminho, MappedByteBuffer dados, List<Bloco> blocos) {
+        this.caminho = caminho;
+        this.dados = dados;
+        this.blocos = blocos;
+    }
+
+    record Bloco(int posicao, int tamanho, int tamanhoOriginal, int registros,
+                 long menorId, long maiorId, LocalDateTime menorData, LocalDateTime maiorData, int tipos,
+                 FiltroBloom carros, FiltroBloom clientes) {
+
+        boolean contemTipo(Operacao.TipoOperacao tipo) {
+            return (tipos & (1 << tipo.ordinal())) != 0;
+        }
+
+        boolean cobrePeriodo(LocalDateTime inicio, LocalDateTime fim) {
+            return !maiorData.isBefore(inicio) && menorData.isBefore(fim);
+        }
+    }
+
+    static Segmento abrir(Path caminho) throws IOException {
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            // O mapeamento continua válido depois que o canal é fechado.
+            MappedByteBuffer dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            int tamanho = dados.capacity();
+            if (tamanho < CABECALHO + RODAPE || dados.getInt(0) != MAGICO
+                    || dados.getInt(tamanho - Integer.BYTES) != MAGICO) {
+                throw new IOException("Segmento de arquivo inválido: " + caminho);
+            }
+            if (dados.get(Integer.BYTES) != VERSAO) {
+                throw new IOException("Versão de segmento não suportada: " + caminho);
+            }
+            int posicaoIndice = Math.toIntExact(dados.getLong(tamanho - RODAPE));
+            ByteBuffer indice = dados.slice(posicaoIndice, tamanho - RODAPE - posicaoIndice);
+            int quantidade = indice.getInt();
+            List<Bloco> blocos = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                blocos.add(new Bloco(indice.getInt(), indice.getInt(), indice.getInt(), indice.getInt(),
+                        indice.getLong(), indice.getLong(), lerData(indice), lerData(indice), indice.get(),
+                        FiltroBloom.ler(indice), FiltroBloom.ler(indice)));
+            }
+            return new Segmento(caminho, dados, List.copyOf(blocos));
+        }
+    }
+
+    // As operações devem vir na ORDEM; o arquivo é escrito por completo e sincronizado com o disco.
+    static void gravar(Path caminho, List<OperacaoDTO> operacoes, int registrosPorBloco) throws IOException {
+        try (FileChannel canal = FileChannel.open(caminho,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            escreverTudo(canal, ByteBuffer.allocate(CABECALHO).putInt(MAGICO).put(VERSAO).flip());
+            List<Bloco> blocos = new ArrayList<>();
+            int posicao = CABECALHO;
+            int fim;
+            for (int inicio = 0; inicio < operacoes.size(); inicio = fim) {
+                fim = fimDoBloco(operacoes, inicio, registrosPorBloco);
+                List<OperacaoDTO> parte = operacoes.subList(inicio, fim);
+                byte[] original = codificar(parte);
+                byte[] comprimido = comprimir(original);
+                escreverTudo(canal, ByteBuffer.wrap(comprimido));
+                blocos.add(indexar(parte, posicao, comprimido.length, original.length));
+                posicao = Math.addExact(posicao, comprimido.length);
+            }
+
+            int tamanhoIndice = Integer.BYTES;
+            for (Bloco bloco : blocos) {
+                tamanhoIndice += 6 * Integer.BYTES + 4 * Long.BYTES + 1
+                        + bloco.carros().tamanhoSerializado() + bloco.clientes().tamanhoSerializado();
+            }
+            ByteBuffer indice = ByteBuffer.allocate(tamanhoIndice + RODAPE).putInt(blocos.size());
+            for (Bloco bloco : blocos) {
+                indice.putInt(bloco.posicao()).putInt(bloco.tamanho()).putInt(bloco.tamanhoOriginal())
+                        .putInt(bloco.registros()).putLong(bloco.menorId()).putLong(bloco.maiorId());
+                escreverData(indice, bloco.menorData());
+                escreverData(indice, bloco.maiorData());
+                indice.put((byte) bloco.tipos());
+                bloco.carros().escrever(indice);
+                bloco.clientes().escrever(indice);
+            }
+            indice.putLong(posicao).putInt(MAGICO);
+            escreverTudo(canal, indice.flip());
+            canal.force(true);
+        }
+    }
+
+    Path caminho() {
+        return caminho;
+    }
+
+    int registros() {
+        return blocos.stream().mapToInt(Bloco::registros).sum();
+    }
+
+    List<Bloco> blocos() {
+        return blocos;
+    }
+
+    void percorrer(Predicate<Bloco> blocoRelevante, Consumer<OperacaoDTO> consumidor) {
+        for (Bloco bloco : blocos) {
+            if (blocoRelevante.test(bloco)) {
+                decodificar(bloco, consumidor);
+            }
+        }
+    }
+
+    private void decodificar(Bloco bloco, Consumer<OperacaoDTO> consumidor) {
+        byte[] original = new byte[bloco.tamanhoOriginal()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(dados.slice(bloco.posicao(), bloco.tamanho()));
+            int lidos = 0;
+            while (lidos < original.length && !inflater.finished()) {
+                lidos += inflater.inflate(original, lidos, original.length - lidos);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Bloco corrompido em " + caminho + " na posição " + bloco.posicao(), e);
+        } finally {
+            inflater.end();
+        }
+
+        try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(original))) {
+            for (int i = 0; i < bloco.registros(); i++) {
+                consumidor.accept(lerOperacao(entrada));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // O bloco termina no limite de registros ou na troca de tipo.
+    private static int fimDoBloco(List<OperacaoDTO> operacoes, int inicio, int registrosPorBloco) {
+        int limite = Math.min(inicio + registrosPorBloco, operacoes.size());
+        Operacao.TipoOperacao tipo = operacoes.get(inicio).getTipo();
+        int fim = inicio + 1;
+        while (fim < limite && operacoes.get(fim).getTipo() == tipo) {
+            fim++;
+        }
+        return fim;
+    }
+
+    private static Bloco indexar(List<OperacaoDTO> parte, int posicao, int tamanho, int tamanhoOriginal) {
+        FiltroBloom carros = new FiltroBloom(parte.size());
+        FiltroBloom clientes = new FiltroBloom(parte.size());
+        LocalDateTime menorData = LocalDateTime.MAX;
+        LocalDateTime maiorData = LocalDateTime.MIN;
+        int tipos = 0;
+        for (OperacaoDTO operacao : parte) {
+            carros.adicionar(operacao.getCarroId());
+            clientes.adicionar(operacao.getClienteId());
+            menorData = operacao.getDataOperacao().isBefore(menorData) ? operacao.getDataOperacao() : menorData;
+            maiorData = operacao.getDataOperacao().isAfter(maiorData) ? operacao.getDataOperacao() : maiorData;
+            tipos |= 1 << operacao.getTipo().ordinal();
+        }
+        return new Bloco(posicao, tamanho, tamanhoOriginal, parte.size(), parte.get(0).getId(),
+                parte.get(parte.size() - 1).getId(), menorData, maiorData, tipos, carros, clientes);
+    }
+
+    private static byte[] codificar(List<OperacaoDTO> operacoes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(operacoes.size() * 64);
+        try (DataOutputStream saida = new DataOutputStream(bytes)) {
+            for (OperacaoDTO operacao : operacoes) {
+                saida.writeLong(operacao.getId());
+                saida.writeLong(operacao.getCarroId());
+                saida.writeLong(operacao.getClienteId());
+                saida.writeByte(operacao.getTipo().ordinal());
+                byte[] valor = operacao.getValor().unscaledValue().toByteArray();
+                saida.writeByte(operacao.getValor().scale());
+                saida.writeByte(valor.length);
+                saida.write(valor);
+                escreverData(saida, operacao.getDataOperacao());
+                saida.writeBoolean(operacao.getDataDevolucao() != null);
+                if (operacao.getDataDevolucao() != null) {
+                    escreverData(saida, operacao.getDataDevolucao());
+                }
+                saida.writeUTF(operacao.getMarca());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static OperacaoDTO lerOperacao(DataInputStream entrada) throws IOException {
+        OperacaoDTO operacao = new OperacaoDTO();
+        operacao.setId(entrada.readLong());
+        operacao.setCarroId(entrada.readLong());
+        operacao.setClienteId(entrada.readLong());
+        operacao.setTipo(Operacao.TipoOperacao.values()[entrada.readByte()]);
+        int escala = entrada.readByte();
+        byte[] valor = new byte[entrada.readUnsignedByte()];
+        entrada.readFully(valor);
+        operacao.setValor(new BigDecimal(new BigInteger(valor), escala));
+        operacao.setDataOperacao(lerData(entrada));
+        if (entrada.readBoolean()) {
+            operacao.setDataDevolucao(lerData(entrada));
+        }
+        operacao.setMarca(entrada.readUTF());
+        return operacao;
+    }
+
+    private static byte[] comprimir(byte[] original) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(original);
+            deflater.finish();
+            ByteArrayOutputStream saida = new ByteArrayOutputStream(original.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                saida.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return saida.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void escreverData(DataOutputStream saida, LocalDateTime data) throws IOException {
+        saida.writeLong(data.toEpochSecond(ZoneOffset.UTC));
+        saida.writeInt(data.getNano());
+    }
+
+    private static LocalDateTime lerData(DataInputStream entrada) throws IOException {
+        return LocalDateTime.ofEpochSecond(entrada.readLong(), entrada.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void escreverData(ByteBuffer destino, LocalDateTime data) {
+        destino.putLong(data.toEpochSecond(ZoneOffset.UTC)).putInt(data.getNano());
+    }
+
+    private static LocalDateTime lerData(ByteBuffer origem) {
+        return LocalDateTime.ofEpochSecond(origem.getLong(), origem.getInt(), ZoneOffset.UTC);
+    }
+
+    private static void escreverTudo(FileChannel canal, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.concessionaria.carros.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cache do Caffeine que recusa o valor de uma leitura que começou antes de uma invalidação da mesma chave.
+// A invalidação pós-commit sozinha perde a corrida: uma leitura que faltou no cache e consultou o banco antes
+// do commit grava o valor antigo depois da invalidação, e ele fica até a expiração. Cada invalidação dá uma
+// versão nova à chave; a falta guarda a versão que viu e o put só passa se ela ainda for a atual.
+// Subclasse, e não decorador, para que as métricas do Caffeine continuem reconhecendo o cache.
+public class CacheVersionado extends CaffeineCache {
+
+    private static final int MAXIMO_CHAVES_INVALIDADAS = 100_000;
+    private static final int MAXIMO_FALTAS_POR_THREAD = 16;
+
+    private final AtomicLong versao = new AtomicLong();
+    // Uma chave fora do mapa foi invalidada no máximo na versão "piso", como em VersaoRecursos.
+    private final AtomicLong piso = new AtomicLong();
+    private final Cache<Object, Long> invalidacoes = Caffeine.newBuilder()
+            .maximumSize(MAXIMO_CHAVES_INVALIDADAS)
+            .evictionListener((chave, versaoChave, causa) -> piso.accumulateAndGet((Long) versaoChave, Math::max))
+            .build();
+    // O @Cacheable consulta e grava na mesma thread; faltas sem put (a leitura lançou exceção) são descartadas
+    // quando o mapa cresce.
+    private final ThreadLocal<Map<Object, Long>> faltas = ThreadLocal.withInitial(HashMap::new);
+
+    public CacheVersionado(String nome, Cache<Object, Object> cache, boolean permiteNulos) {
+        super(nome, cache, permiteNulos);
+    }
+
+    @Override
+    protected Object lookup(Object chave) {
+        Map<Object, Long> faltasDaThread = faltas.get();
+        if (faltasDaThread.size() >= MAXIMO_FALTAS_POR_THREAD) {
+            faltasDaThread.clear();
+        }
+        // A versão é lida antes do valor: uma invalidação entre os dois já faz o put seguinte ser recusado.
+        long versaoLida = versaoDe(chave);
+        Object valor = super.lookup(chave);
+        if (valor == null) {
+            faltasDaThread.put(chave, versaoLida);
+        } else {
+            faltasDaThread.remove(chave);
+        }
+        return valor;
+    }
+
+    // Um put sem falta registrada nesta thread não vem de uma leitura do @Cacheable e passa direto.
+    @Override
+    public void put(Object chave, Object valor) {
+        Long versaoLida = faltas.get().remove(chave);
+        if (versaoLida != null && versaoLida != versaoDe(chave)) {
+            return;
+        }
+        super.put(chave, valor);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object chave, Object valor) {
+        Long versaoLida = faltas.get().remove(chave);
+        if (versaoLida != null && versaoLida != versaoDe(chave)) {
+            return toValueWrapper(super.lookup(chave));
+        }
+        return super.putIfAbsent(chave, valor);
+    }
+
+    @Override
+    public void evict(Object chave) {
+        invalidar(chave);
+        super.evict(chave);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object chave) {
+        invalidar(chave);
+        return super.evictIfPresent(chave);
+    }
+
+    @Override
+    public void clear() {
+        piso.accumulateAndGet(versao.incrementAndGet(), Math::max);
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        piso.accumulateAndGet(versao.incrementAndGet(), Math::max);
+        return super.invalidate();
+    }
+
+    private void invalidar(Object chave) {
+        invalidacoes.asMap().merge(chave, versao.incrementAndGet(), Math::max);
+    }
+
+    private long versaoDe(Object chave) {
+        Long versaoChave = invalidacoes.getIfPresent(chave);
+        long minimo = piso.get();
+        return versaoChave != null ? Math.max(versaoChave, minimo) : minimo;
+    }
+}
@@ -0,0 +1,54 @@
+package com.concessionaria.carros.cache;
+
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.UsuarioEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Invalida só depois do commit, para que uma leitura concorrente não recoloque no cache o estado antigo,
+// e antes de a VersaoRecursos avançar, para que o ETag novo nunca acompanhe um valor do cache antigo. Uma
+// leitura que consultou o banco antes do commit e grava depois daqui é recusada pelo CacheVersionado.
+@Component
+@RequiredArgsConstructor
+public class InvalidacaoCacheListener {
+
+    private final CacheManager cacheManager;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarCarro(CarroEvent evento) {
+        evict("carros", evento.carro().getId());
+        evictChavesNaturais(evento.carro());
+        if (evento.anterior() != null) {
+            evictChavesNaturais(evento.anterior());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarUsuario(UsuarioEvent evento) {
+        evict("usuarios", evento.usuario().getId());
+    }
+
+    private void evictChavesNaturais(CarroDTO carro) {
+        if (carro.getPlaca() != null) {
+            evict("carrosPorPlaca", carro.getPlaca());
+        }
+        if (carro.getMarca() != null && carro.getModelo() != null) {
+            evict("carrosPorMarcaModelo", carro.getMarca() + "|" + carro.getModelo());
+        }
+    }
+
+    private void evict(String nome, Object chave) {
+        Cache cache = cacheManager.getCache(nome);
+        if (cache != null) {
+            cache.evict(chave);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.concessionaria.carros.cache;
+
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.OperacaoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Versões em memória que compõem o ETag das leituras de carros e operações (ver RespostaCondicional).
+// Só avançam depois do commit e depois dos ouvintes que atualizam caches e índices, então quem lê a versão
+// antes dos dados nunca associa uma versão nova a um estado antigo. O prefixo muda a cada inicialização.
+@Component
+public class VersaoRecursos {
+
+    private static final int MAXIMO_ENTIDADES = 100_000;
+
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+    private final Versoes carros = new Versoes();
+    private final Versoes operacoes = new Versoes();
+
+    public String etagCarros() {
+        return etag("carros", carros.tabela());
+    }
+
+    public String etagCarro(Long id) {
+        return etag("carro", carros.entidade(id));
+    }
+
+    // As operações trazem a marca do carro, então também dependem da versão de carros.
+    public String etagOperacoes() {
+        return etag("operacoes", operacoes.tabela(), carros.tabela());
+    }
+
+    public String etagOperacao(Long id) {
+        return etag("operacao", operacoes.entidade(id), carros.tabela());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarCarro(CarroEvent evento) {
+        carros.alterar(evento.carro().getId());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarOperacao(OperacaoEvent evento) {
+        operacoes.alterar(evento.operacao().getId());
+    }
+
+    // Usado quando operações saem da tabela sem mudar de conteúdo, como no arquivamento.
+    public void aoRemoverOperacoes() {
+        operacoes.alterarTabela();
+    }
+
+    private String etag(String recurso, long... versoes) {
+        StringBuilder etag = new StringBuilder("\"").append(recurso).append('-').append(instancia);
+        for (long versao : versoes) {
+            etag.append('-').append(versao);
+        }
+        return etag.append('"').toString();
+    }
+
+    private static final class Versoes {
+
+        private final AtomicLong tabela = new AtomicLong();
+        // Uma entidade fora do mapa foi alterada no máximo na versão "piso": nunca alterada desde a
+        // inicialização (piso 0) ou despejada por tamanho, caso em que o piso sobe para a versão dela.
+        private final AtomicLong piso = new AtomicLong();
+        private final Cache<Long, Long> porId = Caffeine.newBuilder()
+                .maximumSize(MAXIMO_ENTIDADES)
+                .<Long, Long>evictionListener((id, versao, causa) -> piso.accumulateAndGet(versao, Math::max))
+                .build();
+
+        long tabela() {
+            return tabela.get();
+        }
+
+        long entidade(Long id) {
+            Long versao = porId.getIfPresent(id);
+            return versao != null ? versao : piso.get();
+        }
+
+        void alterar(Long id) {
+            long versao = tabela.incrementAndGet();
+            porId.asMap().merge(id, versao, Math::max);
+        }
+
+        void alterarTabela() {
+            tabela.incrementAndGet();
+        }
+    }
+}
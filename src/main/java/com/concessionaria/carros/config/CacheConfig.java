@@ -0,0 +1,49 @@
+package com.concessionaria.carros.config;
+
+import com.concessionaria.carros.cache.CacheVersionado;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+// Fora da classe principal para que os testes de fatia (@WebMvcTest) não exijam um CacheManager.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Substitui o CaffeineCacheManager do Spring Boot, que não deixa trocar a classe dos caches, lendo as mesmas
+    // propriedades spring.cache.*. Os caches saem versionados (ver CacheVersionado); nas facetas, que ninguém
+    // invalida, a versão nunca muda.
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${spring.cache.cache-names:}") List<String> nomes,
+            @Value("${spring.cache.caffeine.spec:}") String especificacao,
+            @Value("${concessionaria.busca.facetas-ttl:30s}") Duration validadeFacetas) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String nome, Cache<Object, Object> cache) {
+                return new CacheVersionado(nome, cache, isAllowNullValues());
+            }
+        };
+        if (!especificacao.isBlank()) {
+            cacheManager.setCacheSpecification(especificacao);
+        }
+        if (!nomes.isEmpty()) {
+            cacheManager.setCacheNames(nomes);
+        }
+        // As facetas da busca não são invalidadas por evento: expiram em poucos segundos.
+        cacheManager.registerCustomCache("facetasCarros", Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(validadeFacetas)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
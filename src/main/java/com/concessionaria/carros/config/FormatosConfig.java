@@ -0,0 +1,41 @@
+package com.concessionaria.carros.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Formatos binários negociados pelo Accept (application/cbor e application/x-jackson-smile) para quem
+// consome as listagens em volume. Partem do mesmo builder do JSON, então seguem as propriedades
+// spring.jackson.*; só as datas saem como arrays de números em vez de texto ISO.
+@Configuration
+public class FormatosConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binario(builder, new CBORFactory()));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        // Marcas e tipos se repetem em todas as linhas; com valores compartilhados viram referências curtas.
+        SmileFactory fabrica = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(binario(builder, fabrica));
+    }
+
+    // O builder do Spring Boot é prototype: cada conversor recebe o seu e pode alterá-lo à vontade.
+    private static ObjectMapper binario(Jackson2ObjectMapperBuilder builder, JsonFactory fabrica) {
+        return builder.factory(fabrica)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
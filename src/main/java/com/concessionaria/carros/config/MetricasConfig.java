@@ -0,0 +1,25 @@
+package com.concessionaria.carros.config;
+
+import com.concessionaria.carros.metricas.MetricasServicoAspect;
+import com.concessionaria.carros.metricas.MetricasSqlFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Beans de métricas declarados aqui para ficarem fora dos testes de fatia, que não têm MeterRegistry.
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public MetricasServicoAspect metricasServicoAspect(MeterRegistry meterRegistry) {
+        return new MetricasServicoAspect(meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<MetricasSqlFilter> metricasSqlFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<MetricasSqlFilter> registro = new FilterRegistrationBean<>(new MetricasSqlFilter(meterRegistry));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
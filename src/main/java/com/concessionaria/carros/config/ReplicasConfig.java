@@ -0,0 +1,83 @@
+package com.concessionaria.carros.config;
+
+import com.concessionaria.carros.replica.LeituraPrimarioCacheAspect;
+import com.concessionaria.carros.replica.RoteamentoDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Só entra em cena com concessionaria.replicas.urls definida; sem ela o Spring Boot monta o DataSource
+// único de sempre. Primário e réplicas usam as mesmas propriedades spring.datasource.hikari.*.
+@Configuration
+@ConditionalOnProperty(prefix = "concessionaria.replicas", name = "urls")
+public class ReplicasConfig {
+
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(
+            DataSourceProperties propriedades,
+            Environment ambiente,
+            MeterRegistry meterRegistry,
+            @Value("${concessionaria.replicas.urls}") List<String> urls,
+            @Value("${concessionaria.replicas.usuario:${spring.datasource.username:}}") String usuario,
+            @Value("${concessionaria.replicas.senha:${spring.datasource.password:}}") String senha,
+            @Value("${concessionaria.replicas.atraso-maximo:5s}") Duration atrasoMaximo,
+            @Value("${concessionaria.replicas.aderencia:10s}") Duration aderencia,
+            @Value("${concessionaria.replicas.selecao:MENOS_CARREGADA}") RoteamentoDataSource.Selecao selecao) {
+        Binder binder = Binder.get(ambiente);
+        HikariDataSource primario = pool(propriedades, binder, meterRegistry, "primario",
+                propriedades.determineUrl(), propriedades.determineUsername(), propriedades.determinePassword());
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String nome = "replica-" + (i + 1);
+            HikariDataSource replica = pool(propriedades, binder, meterRegistry, nome, urls.get(i).trim(),
+                    usuario, senha);
+            replica.setReadOnly(true);
+            replicas.put(nome, replica);
+        }
+        return new RoteamentoDataSource(primario, replicas, atrasoMaximo, aderencia, selecao);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoDataSource);
+    }
+
+    @Bean
+    public LeituraPrimarioCacheAspect leituraPrimarioCacheAspect() {
+        return new LeituraPrimarioCacheAspect();
+    }
+
+    // Os pools não são beans, então as métricas do Hikari são ligadas aqui, uma série por pool, e quem os fecha
+    // é o RoteamentoDataSource.
+    private HikariDataSource pool(DataSourceProperties propriedades, Binder binder, MeterRegistry meterRegistry,
+                                  String nome, String url, String usuario, String senha) {
+        HikariDataSource pool = propriedades.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(usuario)
+                .password(senha)
+                .build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(nome);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
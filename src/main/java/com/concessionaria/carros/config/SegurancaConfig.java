@@ -0,0 +1,18 @@
+package com.concessionaria.carros.config;
+
+import com.concessionaria.carros.seguranca.AutenticacaoFilter;
+import com.concessionaria.carros.seguranca.TokenService;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SegurancaConfig {
+
+    @Bean
+    public FilterRegistrationBean<AutenticacaoFilter> autenticacaoFilter(TokenService tokenService) {
+        FilterRegistrationBean<AutenticacaoFilter> registro = new FilterRegistrationBean<>(new AutenticacaoFilter(tokenService));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
@@ -1,14 +1,32 @@
 package com.concessionaria.carros.controller;
 
+import com.concessionaria.carros.cache.VersaoRecursos;
+import com.concessionaria.carros.dto.BuscaCarrosDTO;
 import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.FiltroCarrosDTO;
+import com.concessionaria.carros.dto.PaginaCarrosDTO;
+import com.concessionaria.carros.dto.ResultadoLoteDTO;
+import com.concessionaria.carros.dto.SugestaoDTO;
+import com.concessionaria.carros.idempotencia.Idempotencia;
 import com.concessionaria.carros.service.CarroService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,25 +36,64 @@ import java.util.List;
 public class CarroController {
 
     private final CarroService carroService;
+    private final ObjectMapper objectMapper;
+    private final VersaoRecursos versaoRecursos;
+    private final Idempotencia idempotencia;
 
     @PostMapping
     @Operation(summary = "Criar um novo carro")
-    public ResponseEntity<CarroDTO> criar(@RequestBody CarroDTO dto) {
-        CarroDTO carroCriado = carroService.criar(dto);
-        return ResponseEntity.created(URI.create("/api/carros/" + carroCriado.getId()))
-                .body(carroCriado);
+    public ResponseEntity<CarroDTO> criar(
+            @RequestBody CarroDTO dto,
+            @RequestHeader(name = Idempotencia.CABECALHO, required = false) String chaveIdempotencia) {
+        return idempotencia.executar("carros", chaveIdempotencia, dto, CarroDTO.class, () -> {
+            CarroDTO carroCriado = carroService.criar(dto);
+            return ResponseEntity.created(URI.create("/api/carros/" + carroCriado.getId()))
+                    .body(carroCriado);
+        });
+    }
+
+    @PostMapping("/lote")
+    @Operation(summary = "Criar carros em lote")
+    public ResponseEntity<ResultadoLoteDTO> criarEmLote(@RequestBody List<CarroDTO> dtos) {
+        return ResponseEntity.ok(carroService.criarEmLote(dtos));
     }
 
     @GetMapping
-    @Operation(summary = "Listar todos os carros")
-    public ResponseEntity<List<CarroDTO>> listarTodos() {
-        return ResponseEntity.ok(carroService.listarTodos());
+    @Operation(summary = "Listar carros com paginação por cursor")
+    public ResponseEntity<PaginaCarrosDTO> listarTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho,
+            WebRequest request) {
+        return RespostaCondicional.responder(request, versaoRecursos.etagCarros(),
+                () -> carroService.listarTodos(cursor, tamanho));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Transmitir todos os carros em NDJSON")
+    public ResponseEntity<StreamingResponseBody> transmitirTodos() {
+        StreamingResponseBody corpo = saida -> {
+            SequenceWriter escritor = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(saida);
+            carroService.transmitirTodos(carro -> {
+                try {
+                    escritor.write(carro);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            escritor.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Buscar carro por ID")
-    public ResponseEntity<CarroDTO> buscarPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(carroService.buscarPorId(id));
+    public ResponseEntity<CarroDTO> buscarPorId(@PathVariable Long id, WebRequest request) {
+        return RespostaCondicional.responder(request, versaoRecursos.etagCarro(id), () -> carroService.buscarPorId(id));
     }
 
     @PutMapping("/{id}")
@@ -54,8 +111,9 @@ public class CarroController {
 
     @GetMapping("/marca/{marca}")
     @Operation(summary = "Buscar carros por marca")
-    public ResponseEntity<List<CarroDTO>> buscarPorMarca(@PathVariable String marca) {
-        return ResponseEntity.ok(carroService.buscarPorMarca(marca));
+    public ResponseEntity<List<CarroDTO>> buscarPorMarca(@PathVariable String marca, WebRequest request) {
+        return RespostaCondicional.responder(request, versaoRecursos.etagCarros(),
+                () -> carroService.buscarPorMarca(marca));
     }
 
     @GetMapping("/marca/{marca}/modelo/{modelo}")
@@ -68,8 +126,42 @@ public class CarroController {
 
     @GetMapping("/disponiveis")
     @Operation(summary = "Listar carros disponíveis")
-    public ResponseEntity<List<CarroDTO>> buscarDisponiveis() {
-        return ResponseEntity.ok(carroService.buscarDisponiveis());
+    public ResponseEntity<List<CarroDTO>> buscarDisponiveis(WebRequest request) {
+        return RespostaCondicional.responder(request, versaoRecursos.etagCarros(), carroService::buscarDisponiveis);
+    }
+
+    @GetMapping(value = "/disponiveis", params = {"de", "ate"})
+    @Operation(summary = "Listar carros disponíveis e sem reserva no período [de, ate)")
+    public ResponseEntity<List<CarroDTO>> buscarDisponiveisNoPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        return ResponseEntity.ok(carroService.buscarDisponiveisNoPeriodo(de, ate));
+    }
+
+    @GetMapping("/disponiveis/marca/{marca}")
+    @Operation(summary = "Listar carros disponíveis de uma marca")
+    public ResponseEntity<List<CarroDTO>> buscarDisponiveisPorMarca(@PathVariable String marca, WebRequest request) {
+        return RespostaCondicional.responder(request, versaoRecursos.etagCarros(),
+                () -> carroService.buscarDisponiveisPorMarca(marca));
+    }
+
+    @GetMapping("/busca")
+    @Operation(summary = "Buscar carros por filtros combinados, com paginação e contagens por marca e faixa de ano")
+    public ResponseEntity<BuscaCarrosDTO> buscar(
+            @ParameterObject FiltroCarrosDTO filtro,
+            @RequestParam(required = false) Integer pagina,
+            @RequestParam(required = false) Integer tamanho,
+            @RequestParam(required = false) String ordenarPor,
+            @RequestParam(required = false) String direcao) {
+        return ResponseEntity.ok(carroService.buscar(filtro, pagina, tamanho, ordenarPor, direcao));
+    }
+
+    @GetMapping("/sugestoes")
+    @Operation(summary = "Sugerir marcas, modelos e placas a partir de um trecho digitado")
+    public ResponseEntity<List<SugestaoDTO>> sugerir(
+            @RequestParam("q") String consulta,
+            @RequestParam(required = false) Integer limite) {
+        return ResponseEntity.ok(carroService.sugerir(consulta, limite));
     }
 
     @GetMapping("/placa/{placa}")
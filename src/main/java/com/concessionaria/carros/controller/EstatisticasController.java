@@ -0,0 +1,26 @@
+package com.concessionaria.carros.controller;
+
+import com.concessionaria.carros.dto.EstatisticasFrotaDTO;
+import com.concessionaria.carros.indice.EstatisticasFrota;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/estatisticas")
+@RequiredArgsConstructor
+@Tag(name = "Estatísticas", description = "Contadores da frota para o painel")
+public class EstatisticasController {
+
+    private final EstatisticasFrota estatisticasFrota;
+
+    @GetMapping
+    @Operation(summary = "Total de carros, disponíveis por marca, aluguéis abertos e vendas do dia")
+    public ResponseEntity<EstatisticasFrotaDTO> consultar() {
+        return ResponseEntity.ok(estatisticasFrota.consultar());
+    }
+}
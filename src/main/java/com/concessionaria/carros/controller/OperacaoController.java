@@ -1,15 +1,24 @@
 package com.concessionaria.carros.controller;
 
+import com.concessionaria.carros.cache.VersaoRecursos;
 import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.dto.PedidoOperacaoDTO;
+import com.concessionaria.carros.dto.RelatorioOperacoesDTO;
 import com.concessionaria.carros.entity.Operacao;
+import com.concessionaria.carros.idempotencia.Idempotencia;
+import com.concessionaria.carros.service.OperacaoAssincronaService;
 import com.concessionaria.carros.service.OperacaoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,23 +28,76 @@ import java.util.List;
 public class OperacaoController {
 
     private final OperacaoService operacaoService;
+    private final OperacaoAssincronaService operacaoAssincronaService;
+    private final VersaoRecursos versaoRecursos;
+    private final Idempotencia idempotencia;
 
     @PostMapping
     @Operation(summary = "Criar nova operação")
-    public ResponseEntity<OperacaoDTO> criar(@Valid @RequestBody OperacaoDTO operacao) {
-        return ResponseEntity.ok(operacaoService.criar(operacao));
+    public ResponseEntity<OperacaoDTO> criar(
+            @Valid @RequestBody OperacaoDTO operacao,
+            @RequestHeader(name = Idempotencia.CABECALHO, required = false) String chaveIdempotencia) {
+        return idempotencia.executar("operacoes", chaveIdempotencia, operacao, OperacaoDTO.class,
+                () -> ResponseEntity.ok(operacaoService.criar(operacao)));
+    }
+
+    // Prefer pode trazer várias preferências ("respond-async, wait=10", "return=minimal; respond-async"), então
+    // o mapeamento só exige o cabeçalho e o token é procurado aqui. Sem respond-async, grava na hora.
+    @PostMapping(headers = "Prefer")
+    @Operation(summary = "Criar nova operação, enfileirando para gravação assíncrona com Prefer: respond-async")
+    public ResponseEntity<?> criarComPreferencia(
+            @Valid @RequestBody OperacaoDTO operacao,
+            @RequestHeader("Prefer") List<String> preferencias,
+            @RequestHeader(name = Idempotencia.CABECALHO, required = false) String chaveIdempotencia) {
+        if (!pedeRespostaAssincrona(preferencias)) {
+            return criar(operacao, chaveIdempotencia);
+        }
+        // Escopo próprio: a mesma chave no caminho síncrono devolve outro tipo de resposta.
+        return idempotencia.executar("operacoes-async", chaveIdempotencia, operacao, PedidoOperacaoDTO.class, () -> {
+            PedidoOperacaoDTO pedido = operacaoAssincronaService.enfileirar(operacao);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/operacoes/pedidos/" + pedido.getId()))
+                    .body(pedido);
+        });
+    }
+
+    @GetMapping("/pedidos/{pedidoId}")
+    @Operation(summary = "Consultar situação de uma operação assíncrona")
+    public ResponseEntity<PedidoOperacaoDTO> buscarPedido(@PathVariable String pedidoId) {
+        return ResponseEntity.ok(operacaoAssincronaService.buscarPedido(pedidoId));
     }
 
     @GetMapping
-    @Operation(summary = "Listar todas as operações")
-    public ResponseEntity<List<OperacaoDTO>> listarTodos() {
-        return ResponseEntity.ok(operacaoService.listarTodos());
+    @Operation(summary = "Listar as operações recentes",
+            description = "Não inclui operações arquivadas; o histórico completo sai nas buscas por carro, "
+                    + "cliente ou tipo")
+    public ResponseEntity<List<OperacaoDTO>> listarTodos(WebRequest request) {
+        return RespostaCondicional.responder(request, versaoRecursos.etagOperacoes(), operacaoService::listarTodos);
+    }
+
+    @GetMapping("/relatorios")
+    @Operation(summary = "Totais, médias e contagens de operações por tipo, marca e período")
+    public ResponseEntity<RelatorioOperacoesDTO> gerarRelatorio(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(required = false) RelatorioOperacoesDTO.Agrupamento agrupamento) {
+        return ResponseEntity.ok(operacaoService.gerarRelatorio(inicio, fim, agrupamento));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Buscar operação por ID")
-    public ResponseEntity<OperacaoDTO> buscarPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(operacaoService.buscarPorId(id));
+    public ResponseEntity<OperacaoDTO> buscarPorId(@PathVariable Long id, WebRequest request) {
+        return RespostaCondicional.responder(request, versaoRecursos.etagOperacao(id),
+                () -> operacaoService.buscarPorId(id));
+    }
+
+    @PostMapping("/reservas/{reservaId}")
+    @Operation(summary = "Alugar o carro de uma reserva em curso",
+            description = "Carros com reserva em curso ficam fora da criação por marca; o cliente da reserva "
+                    + "retira o carro por aqui")
+    public ResponseEntity<OperacaoDTO> alugarReserva(@PathVariable Long reservaId,
+                                                     @Valid @RequestBody OperacaoDTO operacao) {
+        return ResponseEntity.ok(operacaoService.alugarReserva(reservaId, operacao));
     }
 
     @PostMapping("/{id}/finalizar")
@@ -46,19 +108,35 @@ public class OperacaoController {
 
     @GetMapping("/carro/{carroId}")
     @Operation(summary = "Buscar operações por ID do carro")
-    public ResponseEntity<List<OperacaoDTO>> buscarPorCarro(@PathVariable Long carroId) {
-        return ResponseEntity.ok(operacaoService.buscarPorCarro(carroId));
+    public ResponseEntity<List<OperacaoDTO>> buscarPorCarro(@PathVariable Long carroId, WebRequest request) {
+        return RespostaCondicional.responder(request, versaoRecursos.etagOperacoes(),
+                () -> operacaoService.buscarPorCarro(carroId));
     }
 
     @GetMapping("/cliente/{clienteId}")
     @Operation(summary = "Buscar operações por ID do cliente")
-    public ResponseEntity<List<OperacaoDTO>> buscarPorCliente(@PathVariable Long clienteId) {
-        return ResponseEntity.ok(operacaoService.buscarPorCliente(clienteId));
+    public ResponseEntity<List<OperacaoDTO>> buscarPorCliente(@PathVariable Long clienteId, WebRequest request) {
+        return RespostaCondicional.responder(request, versaoRecursos.etagOperacoes(),
+                () -> operacaoService.buscarPorCliente(clienteId));
     }
 
     @GetMapping("/tipo/{tipo}")
     @Operation(summary = "Buscar operações por tipo")
-    public ResponseEntity<List<OperacaoDTO>> buscarPorTipo(@PathVariable Operacao.TipoOperacao tipo) {
-        return ResponseEntity.ok(operacaoService.buscarPorTipo(tipo));
+    public ResponseEntity<List<OperacaoDTO>> buscarPorTipo(
+            @PathVariable Operacao.TipoOperacao tipo,
+            WebRequest request) {
+        return RespostaCondicional.responder(request, versaoRecursos.etagOperacoes(),
+                () -> operacaoService.buscarPorTipo(tipo));
+    }
+
+    // Cada preferência é um token, com valor opcional depois de "=" e parâmetros depois de ";".
+    static boolean pedeRespostaAssincrona(List<String> preferencias) {
+        for (String preferencia : preferencias) {
+            String token = preferencia.split("[;=]", 2)[0].trim();
+            if (token.equalsIgnoreCase("respond-async")) {
+                return true;
+            }
+        }
+        return false;
     }
 }
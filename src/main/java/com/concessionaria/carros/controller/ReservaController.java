@@ -0,0 +1,49 @@
+package com.concessionaria.carros.controller;
+
+import com.concessionaria.carros.dto.ReservaDTO;
+import com.concessionaria.carros.service.ReservaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reservas")
+@RequiredArgsConstructor
+@Tag(name = "Reservas", description = "APIs de reserva de carros para aluguel em datas futuras")
+public class ReservaController {
+
+    private final ReservaService reservaService;
+
+    @PostMapping
+    @Operation(summary = "Reservar um carro no período [inicio, fim)")
+    public ResponseEntity<ReservaDTO> criar(@Valid @RequestBody ReservaDTO dto) {
+        ReservaDTO reservaCriada = reservaService.criar(dto);
+        return ResponseEntity.created(URI.create("/api/reservas/" + reservaCriada.getId()))
+                .body(reservaCriada);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Buscar reserva por ID")
+    public ResponseEntity<ReservaDTO> buscarPorId(@PathVariable Long id) {
+        return ResponseEntity.ok(reservaService.buscarPorId(id));
+    }
+
+    @GetMapping("/carro/{carroId}")
+    @Operation(summary = "Listar reservas vigentes de um carro")
+    public ResponseEntity<List<ReservaDTO>> buscarPorCarro(@PathVariable Long carroId) {
+        return ResponseEntity.ok(reservaService.buscarPorCarro(carroId));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancelar uma reserva")
+    public ResponseEntity<Void> cancelar(@PathVariable Long id) {
+        reservaService.cancelar(id);
+        return ResponseEntity.noContent().build();
+    }
+}
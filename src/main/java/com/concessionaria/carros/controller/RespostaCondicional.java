@@ -0,0 +1,75 @@
+package com.concessionaria.carros.controller;
+
+import com.concessionaria.carros.replica.LeituraPrimario;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// GET condicional: compara o If-None-Match com o ETag antes de montar o corpo, de modo que um 304 não
+// consulta o banco nem serializa nada. O ETag deve ser lido antes dos dados, e os dados vêm do primário:
+// a versão avança no commit, e uma réplica atrasada associaria o ETag novo a um corpo antigo.
+//
+// O ETag sai fraco (W/"..."): o Tomcat não comprime respostas com ETag forte, e o corpo em gzip continua
+// sendo o mesmo recurso. JSON, CBOR e Smile são representações diferentes, então o formato negociado pelo
+// Accept entra no ETag.
+final class RespostaCondicional {
+
+    // Na ordem dos conversores: com Accept genérico (*/*, application/*) o Spring escolhe JSON.
+    private static final Map<MediaType, String> FORMATOS = new LinkedHashMap<>();
+
+    static {
+        FORMATOS.put(MediaType.APPLICATION_JSON, "json");
+        FORMATOS.put(MediaType.APPLICATION_CBOR, "cbor");
+        FORMATOS.put(MediaType.valueOf("application/x-jackson-smile"), "smile");
+    }
+
+    private RespostaCondicional() {
+    }
+
+    static <T> ResponseEntity<T> responder(WebRequest request, String versao, Supplier<T> corpo) {
+        if (request.checkNotModified(etag(versao, formato(request)))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(LeituraPrimario.executar(corpo));
+    }
+
+    // versao vem de VersaoRecursos, já entre aspas.
+    static String etag(String versao, String formato) {
+        return "W/" + versao.substring(0, versao.length() - 1) + "-" + formato + "\"";
+    }
+
+    static String formato(WebRequest request) {
+        List<MediaType> aceitos;
+        try {
+            aceitos = new ArrayList<>(MediaType.parseMediaTypes(request.getHeader(HttpHeaders.ACCEPT)));
+        } catch (InvalidMediaTypeException e) {
+            return "json";
+        }
+        MimeTypeUtils.sortBySpecificity(aceitos);
+        for (MediaType aceito : aceitos) {
+            if (aceito.getQualityValue() == 0) {
+                continue;
+            }
+            for (Map.Entry<MediaType, String> formato : FORMATOS.entrySet()) {
+                if (aceito.isCompatibleWith(formato.getKey())) {
+                    return formato.getValue();
+                }
+            }
+        }
+        return "json";
+    }
+}
@@ -1,11 +1,16 @@
 package com.concessionaria.carros.controller;
 
+import com.concessionaria.carros.dto.LoginDTO;
+import com.concessionaria.carros.dto.TokenDTO;
 import com.concessionaria.carros.dto.UsuarioDTO;
+import com.concessionaria.carros.seguranca.AutenticacaoFilter;
+import com.concessionaria.carros.seguranca.TokenService;
 import com.concessionaria.carros.service.UsuarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,6 +23,7 @@ import java.util.List;
 public class UsuarioController {
     
     private final UsuarioService usuarioService;
+    private final TokenService tokenService;
     
     @PostMapping
     @Operation(summary = "Criar novo usuário")
@@ -25,6 +31,23 @@ public class UsuarioController {
         return ResponseEntity.ok(usuarioService.criar(usuario));
     }
     
+    @PostMapping("/login")
+    @Operation(summary = "Autenticar e obter token de acesso")
+    public ResponseEntity<TokenDTO> login(@Valid @RequestBody LoginDTO login) {
+        UsuarioDTO usuario = usuarioService.autenticar(login.getEmail(), login.getSenha());
+        return ResponseEntity.ok(tokenService.emitir(usuario));
+    }
+    
+    @PostMapping("/logout")
+    @Operation(summary = "Revogar o token de acesso atual")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String token = AutenticacaoFilter.extrairToken(authorization);
+        if (token != null) {
+            tokenService.revogar(token);
+        }
+        return ResponseEntity.noContent().build();
+    }
+    
     @GetMapping
     @Operation(summary = "Listar todos os usuários")
     public ResponseEntity<List<UsuarioDTO>> listarTodos() {
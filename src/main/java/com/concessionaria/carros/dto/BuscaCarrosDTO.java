@@ -0,0 +1,19 @@
+package com.concessionaria.carros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuscaCarrosDTO {
+    private List<CarroDTO> itens;
+    private int pagina;
+    private int tamanho;
+    private long total;
+    private int totalPaginas;
+    private FacetasCarrosDTO facetas;
+}
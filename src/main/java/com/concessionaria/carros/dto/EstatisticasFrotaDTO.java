@@ -0,0 +1,22 @@
+package com.concessionaria.carros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticasFrotaDTO {
+    private long totalCarros;
+    private long carrosDisponiveis;
+    private Map<String, Long> disponiveisPorMarca;
+    private long alugueisAbertos;
+    private long vendasHoje;
+
+    // Última vez em que os contadores foram conferidos com o banco.
+    private LocalDateTime reconciliadoEm;
+}
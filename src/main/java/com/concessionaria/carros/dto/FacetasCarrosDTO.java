@@ -0,0 +1,18 @@
+package com.concessionaria.carros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetasCarrosDTO {
+    // Quantidade de carros por marca, da maior para a menor.
+    private Map<String, Long> marcas;
+
+    // Quantidade de carros por faixa de ano ("2015-2019"), em ordem crescente.
+    private Map<String, Long> faixasAno;
+}
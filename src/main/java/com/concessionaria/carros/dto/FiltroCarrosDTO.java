@@ -0,0 +1,24 @@
+package com.concessionaria.carros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroCarrosDTO {
+    private Integer anoMin;
+    private Integer anoMax;
+    private BigDecimal precoVendaMin;
+    private BigDecimal precoVendaMax;
+    private BigDecimal precoAluguelMin;
+    private BigDecimal precoAluguelMax;
+
+    // Pode ser repetido na query string (?marca=Fiat&marca=Ford); as marcas são combinadas com OU.
+    private List<String> marca;
+    private Boolean disponivel;
+}
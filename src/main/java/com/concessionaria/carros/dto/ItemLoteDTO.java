@@ -0,0 +1,17 @@
+package com.concessionaria.carros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemLoteDTO {
+    // Posição do carro na lista enviada.
+    private int indice;
+    private Long id;
+    private String placa;
+    private boolean sucesso;
+    private String mensagem;
+}
@@ -0,0 +1,17 @@
+package com.concessionaria.carros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCarrosDTO {
+    private List<CarroDTO> itens;
+
+    // Cursor opaco para a próxima página; nulo quando não há mais registros.
+    private String proximoCursor;
+}
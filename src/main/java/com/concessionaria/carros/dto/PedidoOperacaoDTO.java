@@ -0,0 +1,24 @@
+package com.concessionaria.carros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoOperacaoDTO {
+    private String id;
+    private StatusPedido status;
+    private LocalDateTime recebidoEm;
+    private OperacaoDTO operacao;
+    private String mensagem;
+
+    public enum StatusPedido {
+        PENDENTE,
+        CONCLUIDO,
+        FALHOU
+    }
+}
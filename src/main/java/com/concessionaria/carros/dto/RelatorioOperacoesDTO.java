@@ -0,0 +1,32 @@
+package com.concessionaria.carros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatorioOperacoesDTO {
+    // Intervalo fechado: inclui as operações dos dias inicio e fim.
+    private LocalDate inicio;
+    private LocalDate fim;
+    private Agrupamento agrupamento;
+
+    private long quantidade;
+    private BigDecimal total;
+    private BigDecimal media;
+
+    private List<TotalGrupoDTO> porTipo;
+    private List<TotalGrupoDTO> porMarca;
+    private List<TotalGrupoDTO> porPeriodo;
+
+    public enum Agrupamento {
+        DIA,
+        MES
+    }
+}
@@ -0,0 +1,31 @@
+package com.concessionaria.carros.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaDTO {
+    private Long id;
+
+    @NotNull(message = "O ID do carro é obrigatório")
+    private Long carroId;
+
+    @NotNull(message = "O ID do cliente é obrigatório")
+    private Long clienteId;
+
+    @NotNull(message = "A data de início é obrigatória")
+    private LocalDate inicio;
+
+    // Dia da devolução; o carro fica livre a partir dele.
+    @NotNull(message = "A data de fim é obrigatória")
+    private LocalDate fim;
+
+    private LocalDateTime dataCriacao;
+}
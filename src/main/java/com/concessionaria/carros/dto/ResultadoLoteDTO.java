@@ -0,0 +1,17 @@
+package com.concessionaria.carros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+    private int total;
+    private int criados;
+    private int rejeitados;
+    private List<ItemLoteDTO> itens;
+}
@@ -0,0 +1,21 @@
+package com.concessionaria.carros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SugestaoDTO {
+    private TipoSugestao tipo;
+    private String texto;
+    private Long carroId;
+    private Integer quantidade;
+
+    public enum TipoSugestao {
+        MARCA,
+        MODELO,
+        PLACA
+    }
+}
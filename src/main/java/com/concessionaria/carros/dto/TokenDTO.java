@@ -0,0 +1,17 @@
+package com.concessionaria.carros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenDTO {
+    private String token;
+    private String tipo;
+    private Instant expiraEm;
+    private UsuarioDTO usuario;
+}
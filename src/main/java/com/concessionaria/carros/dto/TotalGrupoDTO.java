@@ -0,0 +1,17 @@
+package com.concessionaria.carros.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalGrupoDTO {
+    private String grupo;
+    private long quantidade;
+    private BigDecimal total;
+    private BigDecimal media;
+}
@@ -13,12 +13,25 @@ import java.time.LocalDateTime;
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "carros")
+@Table(name = "carros",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_carros_placa", columnNames = "placa"),
+                @UniqueConstraint(name = "uk_carros_marca_modelo", columnNames = {"marca", "modelo"})
+        },
+        indexes = {
+                @Index(name = "idx_carros_marca_disponivel", columnList = "marca, disponivel"),
+                @Index(name = "idx_carros_disponivel", columnList = "disponivel"),
+                @Index(name = "idx_carros_marca_ano", columnList = "marca, ano"),
+                @Index(name = "idx_carros_ano", columnList = "ano"),
+                @Index(name = "idx_carros_preco_venda", columnList = "preco_venda")
+        })
 public class Carro {
     
 
+    // Sequência com alocação em blocos: IDENTITY impede o Hibernate de agrupar inserts em batch.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carros_seq")
+    @SequenceGenerator(name = "carros_seq", sequenceName = "carros_seq", allocationSize = 50)
     private Long id;
     
 
@@ -34,7 +47,7 @@ public class Carro {
     private Integer ano;
     
    
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String placa;
     
    
@@ -0,0 +1,49 @@
+package com.concessionaria.carros.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+
+// Resposta gravada de um POST com Idempotency-Key. A chave inclui o escopo (o recurso do POST), e status
+// nulo indica que a primeira execução ainda não terminou.
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "chaves_idempotencia", indexes = {
+        @Index(name = "idx_chaves_idempotencia_criada_em", columnList = "criada_em")
+})
+public class ChaveIdempotencia {
+
+
+    @Id
+    @Column(length = 300)
+    private String chave;
+
+
+    @Column(nullable = false, length = 64)
+    private String hashRequisicao;
+
+
+    @Column
+    private Integer status;
+
+
+    @Column
+    private String localizacao;
+
+
+    @Lob
+    @Column
+    @ToString.Exclude
+    private byte[] corpo;
+
+
+    @Column(nullable = false)
+    private LocalDateTime criadaEm;
+}
@@ -3,7 +3,9 @@ package com.concessionaria.carros.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,7 +15,13 @@ import java.time.LocalDateTime;
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "operacoes")
+@Table(name = "operacoes", indexes = {
+        @Index(name = "idx_operacoes_carro_id", columnList = "carro_id"),
+        @Index(name = "idx_operacoes_cliente_id", columnList = "cliente_id"),
+        @Index(name = "idx_operacoes_tipo", columnList = "tipo"),
+        @Index(name = "idx_operacoes_tipo_devolucao", columnList = "tipo, data_devolucao"),
+        @Index(name = "idx_operacoes_relatorio", columnList = "data_operacao, tipo, carro_id, valor")
+})
 public class Operacao {
     
     
@@ -22,13 +30,17 @@ public class Operacao {
     private Long id;
     
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "carro_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Carro carro;
     
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Usuario cliente;
     
     
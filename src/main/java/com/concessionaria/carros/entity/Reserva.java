@@ -0,0 +1,62 @@
+package com.concessionaria.carros.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+
+// Aluguel agendado para um período futuro. O período é [inicio, fim): fim é o dia da devolução.
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "reservas", indexes = {
+        @Index(name = "idx_reservas_carro_periodo", columnList = "carro_id, inicio, fim"),
+        @Index(name = "idx_reservas_fim", columnList = "fim"),
+        @Index(name = "idx_reservas_cliente_id", columnList = "cliente_id")
+})
+public class Reserva {
+
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "carro_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Carro carro;
+
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Usuario cliente;
+
+
+    @Column(nullable = false)
+    private LocalDate inicio;
+
+
+    @Column(nullable = false)
+    private LocalDate fim;
+
+
+    @Column(nullable = false)
+    private LocalDateTime dataCriacao;
+
+
+    @PrePersist
+    protected void onCreate() {
+        dataCriacao = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,13 @@
+package com.concessionaria.carros.event;
+
+import com.concessionaria.carros.dto.CarroDTO;
+
+// Publicado pelos serviços sempre que um carro muda; os ouvintes reagem após o commit.
+// "anterior" só é preenchido quando a alteração pode ter mudado marca, modelo ou placa; um ATUALIZADO
+// sem ele vem das operações e indica apenas a troca de disponibilidade.
+public record CarroEvent(TipoEvento tipo, CarroDTO carro, CarroDTO anterior) {
+
+    public CarroEvent(TipoEvento tipo, CarroDTO carro) {
+        this(tipo, carro, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.concessionaria.carros.event;
+
+import com.concessionaria.carros.dto.OperacaoDTO;
+
+// CRIADO ao registrar uma venda ou aluguel; ATUALIZADO quando um aluguel é finalizado.
+public record OperacaoEvent(TipoEvento tipo, OperacaoDTO operacao) {
+}
@@ -0,0 +1,7 @@
+package com.concessionaria.carros.event;
+
+import com.concessionaria.carros.dto.ReservaDTO;
+
+// CRIADO ao reservar um carro; REMOVIDO ao cancelar a reserva.
+public record ReservaEvent(TipoEvento tipo, ReservaDTO reserva) {
+}
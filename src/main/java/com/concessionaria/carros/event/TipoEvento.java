@@ -0,0 +1,7 @@
+package com.concessionaria.carros.event;
+
+public enum TipoEvento {
+    CRIADO,
+    ATUALIZADO,
+    REMOVIDO
+}
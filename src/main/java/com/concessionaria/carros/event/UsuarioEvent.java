@@ -0,0 +1,11 @@
+package com.concessionaria.carros.event;
+
+import com.concessionaria.carros.dto.UsuarioDTO;
+
+// senhaAlterada faz o TokenService revogar os tokens já emitidos para o usuário.
+public record UsuarioEvent(TipoEvento tipo, UsuarioDTO usuario, boolean senhaAlterada) {
+
+    public UsuarioEvent(TipoEvento tipo, UsuarioDTO usuario) {
+        this(tipo, usuario, false);
+    }
+}
@@ -1,15 +1,17 @@
 package com.concessionaria.carros.exception;
 
 
+// Erro de regra de negócio: resultado esperado, não falha do sistema. Por isso não captura stack trace,
+// que era o grosso do custo de cada lançamento. Respondido com 400; as subclasses definem outros status.
 public class BusinessException extends RuntimeException {
 
 
     public BusinessException(String message) {
-        super(message); 
+        super(message, null, false, false);
     }
 
 
     public BusinessException(String message, Throwable cause) {
-        super(message, cause); 
+        super(message, cause, false, false);
     }
 }
@@ -0,0 +1,12 @@
+package com.concessionaria.carros.exception;
+
+
+// A requisição é válida, mas conflita com o estado atual: duplicidade, carro indisponível, aluguel já
+// finalizado. Respondido com 409.
+public class ConflitoException extends BusinessException {
+
+
+    public ConflitoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.concessionaria.carros.exception;
+
+
+// Sem stack trace: senha errada é resultado esperado, não falha do sistema.
+public class CredenciaisInvalidasException extends RuntimeException {
+
+
+    public CredenciaisInvalidasException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,12 @@
+package com.concessionaria.carros.exception;
+
+
+// A fila de gravação assíncrona de operações está cheia; o cliente reenvia depois (429 com Retry-After).
+// Enquanto o escritor não drena a fila, todo pedido assíncrono termina aqui, por isso sem stack trace.
+public class FilaCheiaException extends RuntimeException {
+
+
+    public FilaCheiaException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,11 @@
+package com.concessionaria.carros.exception;
+
+
+// O recurso pedido (ou referenciado no corpo) não existe. Respondido com 404.
+public class RecursoNaoEncontradoException extends BusinessException {
+
+
+    public RecursoNaoEncontradoException(String message) {
+        super(message);
+    }
+}
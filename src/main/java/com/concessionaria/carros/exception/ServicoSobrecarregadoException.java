@@ -0,0 +1,13 @@
+package com.concessionaria.carros.exception;
+
+
+// O pool de hash de senhas recusou a tarefa ou não respondeu a tempo (503 com Retry-After). Protege login e
+// cadastro de uma rajada de BCrypt; a origem é sempre o mesmo ponto do HashSenhaService, então o stack
+// trace não informa nada.
+public class ServicoSobrecarregadoException extends RuntimeException {
+
+
+    public ServicoSobrecarregadoException(String message) {
+        super(message, null, false, false);
+    }
+}
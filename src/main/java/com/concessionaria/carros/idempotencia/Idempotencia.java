@@ -0,0 +1,234 @@
+package com.concessionaria.carros.idempotencia;
+
+import com.concessionaria.carros.entity.ChaveIdempotencia;
+import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.exception.ConflitoException;
+import com.concessionaria.carros.replica.LeituraPrimario;
+import com.concessionaria.carros.repository.ChaveIdempotenciaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Executa um POST no máximo uma vez por Idempotency-Key. A primeira requisição roda a ação; reenvios com a
+// mesma chave recebem a resposta original sem passar pelo serviço, e duplicatas concorrentes esperam a
+// execução em andamento em vez de disputar o mesmo carro. A memória guarda as chaves recentes; o banco cobre
+// as que já saíram dela, reinícios e as outras instâncias.
+@Component
+public class Idempotencia {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    public static final String CABECALHO_REPRODUZIDA = "Idempotent-Replayed";
+    private static final Logger logger = LoggerFactory.getLogger(Idempotencia.class);
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+    private static final int TENTATIVAS_CONCLUSAO = 3;
+    private static final Duration PAUSA_CONCLUSAO = Duration.ofMillis(200);
+
+    private final ChaveIdempotenciaRepository repositorio;
+    private final ObjectMapper objectMapper;
+    private final Duration esperaMaxima;
+    private final Duration retencao;
+    private final Cache<String, CompletableFuture<ChaveIdempotencia>> respostas;
+
+    public Idempotencia(ChaveIdempotenciaRepository repositorio,
+                        ObjectMapper objectMapper,
+                        @Value("${concessionaria.idempotencia.maximo-chaves:100000}") long maximoChaves,
+                        @Value("${concessionaria.idempotencia.espera-maxima:30s}") Duration esperaMaxima,
+                        @Value("${concessionaria.idempotencia.retencao:24h}") Duration retencao) {
+        this.repositorio = repositorio;
+        this.objectMapper = objectMapper;
+        this.esperaMaxima = esperaMaxima;
+        this.retencao = retencao;
+        this.respostas = Caffeine.newBuilder()
+                .maximumSize(maximoChaves)
+                .expireAfterWrite(retencao)
+                .build();
+    }
+
+    // Sem chave a ação roda normalmente. A requisição entra no hash para detectar a mesma chave reaproveitada
+    // com outro corpo; tipo é a classe do corpo da resposta, usada para reconstruí-lo nos reenvios.
+    public <T> ResponseEntity<T> executar(String escopo, String chave, Object requisicao, Class<T> tipo,
+                                          Supplier<ResponseEntity<T>> acao) {
+        if (chave == null) {
+            return acao.get();
+        }
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new BusinessException("O cabeçalho " + CABECALHO + " deve ter entre 1 e "
+                    + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+        String id = escopo + ":" + chave;
+        String hash = hash(requisicao);
+
+        CompletableFuture<ChaveIdempotencia> nova = new CompletableFuture<>();
+        CompletableFuture<ChaveIdempotencia> existente = respostas.asMap().putIfAbsent(id, nova);
+        if (existente != null) {
+            return reproduzir(aguardar(existente), hash, tipo);
+        }
+
+        try {
+            Optional<ChaveIdempotencia> gravada = LeituraPrimario.executar(() -> repositorio.findById(id));
+            if (gravada.isPresent()) {
+                if (gravada.get().getStatus() == null) {
+                    throw pendente(gravada.get());
+                }
+                nova.complete(gravada.get());
+                return reproduzir(gravada.get(), hash, tipo);
+            }
+            registrar(id, hash);
+
+            ResponseEntity<T> resposta;
+            try {
+                resposta = acao.get();
+            } catch (RuntimeException e) {
+                repositorio.liberar(id);
+                throw e;
+            }
+            nova.complete(gravar(id, hash, resposta));
+            return resposta;
+        } catch (RuntimeException e) {
+            // Falhas não são memorizadas: quem espera recebe o mesmo erro e um reenvio posterior roda de novo.
+            respostas.asMap().remove(id, nova);
+            nova.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${concessionaria.idempotencia.limpeza-ms:3600000}",
+            initialDelayString = "${concessionaria.idempotencia.limpeza-ms:3600000}")
+    public void limpar() {
+        int excluidas = repositorio.excluirAnteriores(LocalDateTime.now().minus(retencao));
+        if (excluidas > 0) {
+            logger.info("Chaves de idempotência expiradas removidas: {}", excluidas);
+        }
+    }
+
+    // Insert puro: se a chave apareceu depois da leitura, outra instância começou a mesma requisição agora.
+    private void registrar(String id, String hash) {
+        try {
+            repositorio.registrar(id, hash, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflitoException("Requisição com esta " + CABECALHO + " ainda em processamento");
+        }
+    }
+
+    // Um registro sem resposta nunca é retomado: a ação pode ter sido confirmada sem que a resposta chegasse ao
+    // banco, e rodá-la de novo duplicaria a operação. Passado o limite de espera, o cliente é avisado de que o
+    // resultado não foi confirmado; o registro sai na limpeza, depois da retenção.
+    private ConflitoException pendente(ChaveIdempotencia gravada) {
+        if (gravada.getCriadaEm().isBefore(LocalDateTime.now().minus(esperaMaxima))) {
+            logger.warn("Chave de idempotência sem resposta registrada: {}", gravada.getChave());
+            return new ConflitoException("O resultado da requisição com esta " + CABECALHO + " não foi confirmado; "
+                    + "consulte as operações antes de repetir com outra chave");
+        }
+        return new ConflitoException("Requisição com esta " + CABECALHO + " ainda em processamento");
+    }
+
+    // Roda depois do commit da ação: uma falha aqui não pode virar erro para o cliente nem liberar a chave,
+    // senão o reenvio executaria a operação de novo. A gravação é tentada algumas vezes; se nenhuma passar, a
+    // resposta fica só na memória e o registro segue pendente.
+    private ChaveIdempotencia gravar(String id, String hash, ResponseEntity<?> resposta) {
+        URI localizacao = resposta.getHeaders().getLocation();
+        ChaveIdempotencia gravada = new ChaveIdempotencia(id, hash, resposta.getStatusCode().value(),
+                localizacao == null ? null : localizacao.toString(), null, LocalDateTime.now());
+        try {
+            gravada.setCorpo(serializar(resposta.getBody()));
+        } catch (RuntimeException e) {
+            logger.error("Falha ao serializar a resposta da chave de idempotência {}", id, e);
+            return gravada;
+        }
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                repositorio.concluir(id, gravada.getStatus(), gravada.getLocalizacao(), gravada.getCorpo());
+                return gravada;
+            } catch (RuntimeException e) {
+                if (tentativa == TENTATIVAS_CONCLUSAO) {
+                    logger.error("Falha ao gravar a resposta da chave de idempotência {}", id, e);
+                    return gravada;
+                }
+                logger.warn("Falha ao gravar a resposta da chave de idempotência {}, tentativa {}", id, tentativa);
+            }
+            try {
+                Thread.sleep(PAUSA_CONCLUSAO.toMillis() * tentativa);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.error("Gravação da resposta da chave de idempotência {} interrompida", id);
+                return gravada;
+            }
+        }
+    }
+
+    private ChaveIdempotencia aguardar(CompletableFuture<ChaveIdempotencia> execucao) {
+        try {
+            return execucao.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConflitoException("Requisição com esta " + CABECALHO + " ainda em processamento");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflitoException("Requisição com esta " + CABECALHO + " ainda em processamento");
+        }
+    }
+
+    private <T> ResponseEntity<T> reproduzir(ChaveIdempotencia gravada, String hash, Class<T> tipo) {
+        if (!gravada.getHashRequisicao().equals(hash)) {
+            throw new BusinessException("A " + CABECALHO + " já foi usada com outro corpo de requisição");
+        }
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.status(gravada.getStatus())
+                .header(CABECALHO_REPRODUZIDA, "true");
+        if (gravada.getLocalizacao() != null) {
+            resposta.header(HttpHeaders.LOCATION, gravada.getLocalizacao());
+        }
+        try {
+            return resposta.body(gravada.getCorpo() == null ? null : objectMapper.readValue(gravada.getCorpo(), tipo));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] serializar(Object corpo) {
+        if (corpo == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(corpo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String hash(Object requisicao) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] corpo = serializar(requisicao);
+            return HexFormat.of().formatHex(sha256.digest(corpo == null ? new byte[0] : corpo));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.concessionaria.carros.indice;
+
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.EstatisticasFrotaDTO;
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.entity.Operacao;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.OperacaoEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.replica.LeituraPrimario;
+import com.concessionaria.carros.repository.CarroRepository;
+import com.concessionaria.carros.repository.OperacaoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Contadores do painel da frota mantidos pelos eventos pós-commit, para que a leitura não consulte o banco.
+// A reconciliação periódica recalcula tudo em um conjunto novo de contadores e o troca de uma vez. As contagens
+// saem de uma única transação REPEATABLE READ; a retenção de eventos só começa depois que a primeira leitura
+// abriu a visão dela, então os eventos retidos são de commits que a visão não inclui e são somados de novo ao
+// conjunto novo. Sobra a distância entre um commit e o seu listener, na mesma thread: um evento que a cruze
+// durante a abertura da visão sai contado a mais ou a menos, e a rodada seguinte corrige.
+@Component
+public class EstatisticasFrota {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstatisticasFrota.class);
+    private final CarroRepository carroRepository;
+    private final OperacaoRepository operacaoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock relogio;
+
+    // Os eventos somam em paralelo sob a leitura; a troca de contadores exclui todos eles.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final EventosPendentes<CarroEvent> carrosPendentes = new EventosPendentes<>();
+    private final EventosPendentes<OperacaoEvent> operacoesPendentes = new EventosPendentes<>();
+    private volatile Contadores contadores;
+
+    @Autowired
+    public EstatisticasFrota(CarroRepository carroRepository, OperacaoRepository operacaoRepository,
+                             PlatformTransactionManager transactionManager) {
+        this(carroRepository, operacaoRepository, transactionManager, Clock.systemDefaultZone());
+    }
+
+    EstatisticasFrota(CarroRepository carroRepository, OperacaoRepository operacaoRepository,
+                      PlatformTransactionManager transactionManager, Clock relogio) {
+        this.carroRepository = carroRepository;
+        this.operacaoRepository = operacaoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.relogio = relogio;
+        this.contadores = new Contadores(LocalDate.now(relogio), null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        reconciliar();
+    }
+
+    @Scheduled(fixedDelayString = "${concessionaria.estatisticas.reconciliacao-ms:60000}",
+            initialDelayString = "${concessionaria.estatisticas.reconciliacao-ms:60000}")
+    public synchronized void reconciliar() {
+        LocalDateTime agora = LocalDateTime.now(relogio);
+        LocalDate hoje = agora.toLocalDate();
+        Contadores novos;
+        try {
+            novos = LeituraPrimario.executar(() -> transactionTemplate.execute(status -> {
+                // A primeira leitura abre a visão da transação; só depois os eventos passam a ser retidos.
+                carroRepository.existsById(0L);
+                carrosPendentes.reter();
+                operacoesPendentes.reter();
+                return contar(hoje, agora);
+            }));
+        } catch (RuntimeException e) {
+            carrosPendentes.liberar();
+            operacoesPendentes.liberar();
+            throw e;
+        }
+
+        Contadores anteriores;
+        lock.writeLock().lock();
+        try {
+            anteriores = contadores;
+            contadores = novos;
+            carrosPendentes.liberar().forEach(evento -> aplicar(novos, evento));
+            operacoesPendentes.liberar().forEach(evento -> aplicar(novos, evento));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (anteriores.reconciliadoEm != null && divergem(anteriores, novos)) {
+            logger.warn("Estatísticas da frota divergentes do banco: carros {}→{}, disponíveis {}→{}, "
+                            + "aluguéis abertos {}→{}",
+                    anteriores.totalCarros.sum(), novos.totalCarros.sum(),
+                    anteriores.disponiveis.sum(), novos.disponiveis.sum(),
+                    anteriores.alugueisAbertos.sum(), novos.alugueisAbertos.sum());
+        }
+        logger.info("Estatísticas da frota carregadas: {} carros, {} disponíveis",
+                novos.totalCarros.sum(), novos.disponiveis.sum());
+    }
+
+    private Contadores contar(LocalDate hoje, LocalDateTime agora) {
+        Contadores novos = new Contadores(hoje, agora);
+        for (CarroRepository.ContagemMarca linha : carroRepository.contarPorMarca()) {
+            novos.totalCarros.add(linha.getTotal());
+            novos.disponiveis.add(linha.getDisponiveis());
+            novos.contador(linha.getMarca()).add(linha.getDisponiveis());
+        }
+        novos.alugueisAbertos.add(
+                operacaoRepository.countByTipoAndDataDevolucaoIsNull(Operacao.TipoOperacao.ALUGUEL));
+        novos.vendas.get().quantidade().add(operacaoRepository.countByTipoAndDataOperacaoGreaterThanEqual(
+                Operacao.TipoOperacao.VENDA, hoje.atStartOfDay()));
+        return novos;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarCarro(CarroEvent evento) {
+        lock.readLock().lock();
+        try {
+            carrosPendentes.registrar(evento);
+            aplicar(contadores, evento);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarOperacao(OperacaoEvent evento) {
+        lock.readLock().lock();
+        try {
+            operacoesPendentes.registrar(evento);
+            aplicar(contadores, evento);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void aplicar(Contadores atuais, CarroEvent evento) {
+        CarroDTO carro = evento.carro();
+        boolean disponivel = Boolean.TRUE.equals(carro.getDisponivel());
+        switch (evento.tipo()) {
+            case CRIADO -> {
+                atuais.totalCarros.increment();
+                if (disponivel) {
+                    atuais.ajustarDisponiveis(carro.getMarca(), 1);
+                }
+            }
+            case REMOVIDO -> {
+                atuais.totalCarros.decrement();
+                if (disponivel) {
+                    atuais.ajustarDisponiveis(carro.getMarca(), -1);
+                }
+            }
+            case ATUALIZADO -> {
+                CarroDTO anterior = evento.anterior();
+                if (anterior == null) {
+                    // Sem o estado anterior o evento é de operação, que sempre inverte a disponibilidade.
+                    atuais.ajustarDisponiveis(carro.getMarca(), disponivel ? 1 : -1);
+                } else {
+                    if (Boolean.TRUE.equals(anterior.getDisponivel())) {
+                        atuais.ajustarDisponiveis(anterior.getMarca(), -1);
+                    }
+                    if (disponivel) {
+                        atuais.ajustarDisponiveis(carro.getMarca(), 1);
+                    }
+                }
+            }
+        }
+    }
+
+    private void aplicar(Contadores atuais, OperacaoEvent evento) {
+        OperacaoDTO operacao = evento.operacao();
+        if (operacao.getTipo() == Operacao.TipoOperacao.ALUGUEL) {
+            if (evento.tipo() == TipoEvento.CRIADO) {
+                atuais.alugueisAbertos.increment();
+            } else if (evento.tipo() == TipoEvento.ATUALIZADO && operacao.getDataDevolucao() != null) {
+                atuais.alugueisAbertos.decrement();
+            }
+        } else if (evento.tipo() == TipoEvento.CRIADO) {
+            atuais.registrarVenda(operacao.getDataOperacao().toLocalDate());
+        }
+    }
+
+    public EstatisticasFrotaDTO consultar() {
+        Contadores atuais = contadores;
+        Map<String, Long> porMarca = new TreeMap<>();
+        atuais.disponiveisPorMarca.forEach((marca, quantidade) -> {
+            long valor = quantidade.sum();
+            if (valor > 0) {
+                porMarca.put(marca, valor);
+            }
+        });
+        VendasDia vendas = atuais.vendas.get();
+        long vendasHoje = vendas.dia().equals(LocalDate.now(relogio)) ? vendas.quantidade().sum() : 0;
+        return new EstatisticasFrotaDTO(atuais.totalCarros.sum(), atuais.disponiveis.sum(), porMarca,
+                atuais.alugueisAbertos.sum(), vendasHoje, atuais.reconciliadoEm);
+    }
+
+    private boolean divergem(Contadores anteriores, Contadores novos) {
+        return anteriores.totalCarros.sum() != novos.totalCarros.sum()
+                || anteriores.disponiveis.sum() != novos.disponiveis.sum()
+                || anteriores.alugueisAbertos.sum() != novos.alugueisAbertos.sum();
+    }
+
+    private record VendasDia(LocalDate dia, LongAdder quantidade) {
+    }
+
+    private static final class Contadores {
+        private final LongAdder totalCarros = new LongAdder();
+        private final LongAdder disponiveis = new LongAdder();
+        private final Map<String, LongAdder> disponiveisPorMarca = new ConcurrentHashMap<>();
+        private final LongAdder alugueisAbertos = new LongAdder();
+        private final AtomicReference<VendasDia> vendas;
+        private final LocalDateTime reconciliadoEm;
+
+        private Contadores(LocalDate hoje, LocalDateTime reconciliadoEm) {
+            this.vendas = new AtomicReference<>(new VendasDia(hoje, new LongAdder()));
+            this.reconciliadoEm = reconciliadoEm;
+        }
+
+        private LongAdder contador(String marca) {
+            return disponiveisPorMarca.computeIfAbsent(marca, chave -> new LongAdder());
+        }
+
+        private void ajustarDisponiveis(String marca, long delta) {
+            disponiveis.add(delta);
+            contador(marca).add(delta);
+        }
+
+        // A primeira venda de um novo dia substitui o contador do dia anterior.
+        private void registrarVenda(LocalDate dia) {
+            while (true) {
+                VendasDia atual = vendas.get();
+                if (atual.dia().equals(dia)) {
+                    atual.quantidade().increment();
+                    return;
+                }
+                if (dia.isBefore(atual.dia())) {
+                    return;
+                }
+                LongAdder quantidade = new LongAdder();
+                quantidade.increment();
+                if (vendas.compareAndSet(atual, new VendasDia(dia, quantidade))) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.concessionaria.carros.indice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Eventos pós-commit recebidos enquanto uma reconciliação lê o banco. O índice novo é montado a partir de uma
+// leitura que pode não enxergar esses commits, então eles são reaplicados sobre ele na troca. Quem só guarda
+// estado por chave retém antes da leitura: um commit que ela já enxerga é reaplicado sem efeito, nunca perdido.
+final class EventosPendentes<E> {
+
+    private List<E> eventos;
+
+    synchronized void reter() {
+        eventos = new ArrayList<>();
+    }
+
+    synchronized void registrar(E evento) {
+        if (eventos != null) {
+            eventos.add(evento);
+        }
+    }
+
+    // Devolve os eventos retidos e encerra a retenção.
+    synchronized List<E> liberar() {
+        List<E> retidos = eventos == null ? List.of() : eventos;
+        eventos = null;
+        return retidos;
+    }
+}
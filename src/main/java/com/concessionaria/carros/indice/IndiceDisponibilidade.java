@@ -0,0 +1,164 @@
+package com.concessionaria.carros.indice;
+
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.replica.LeituraPrimario;
+import com.concessionaria.carros.repository.CarroRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@RequiredArgsConstructor
+public class IndiceDisponibilidade {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceDisponibilidade.class);
+    private final CarroRepository carroRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private BitSet disponiveis = new BitSet();
+    private Map<String, BitSet> disponiveisPorMarca = new HashMap<>();
+    private Map<Integer, CarroDTO> carros = new HashMap<>();
+    private final EventosPendentes<CarroEvent> pendentes = new EventosPendentes<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        reconciliar();
+    }
+
+    // Eventos que chegam durante a leitura do banco são reaplicados sobre o estado novo; como cada evento
+    // define o estado do carro, reaplicar um que a leitura já enxergou não muda nada.
+    @Scheduled(fixedDelayString = "${concessionaria.indice.reconciliacao-ms:300000}",
+            initialDelayString = "${concessionaria.indice.reconciliacao-ms:300000}")
+    public synchronized void reconciliar() {
+        pendentes.reter();
+        List<CarroDTO> atuais;
+        try {
+            atuais = LeituraPrimario.executar(carroRepository::findDisponiveisProjetados);
+        } catch (RuntimeException e) {
+            pendentes.liberar();
+            throw e;
+        }
+
+        BitSet novosDisponiveis = new BitSet();
+        Map<String, BitSet> novosPorMarca = new HashMap<>();
+        Map<Integer, CarroDTO> novosCarros = new HashMap<>(atuais.size() * 2);
+        for (CarroDTO carro : atuais) {
+            int id = Math.toIntExact(carro.getId());
+            novosDisponiveis.set(id);
+            novosPorMarca.computeIfAbsent(carro.getMarca(), marca -> new BitSet()).set(id);
+            novosCarros.put(id, carro);
+        }
+
+        lock.writeLock().lock();
+        try {
+            BitSet divergencias = disponiveis;
+            boolean carregado = !carros.isEmpty();
+            disponiveis = novosDisponiveis;
+            disponiveisPorMarca = novosPorMarca;
+            carros = novosCarros;
+            pendentes.liberar().forEach(this::aplicar);
+
+            divergencias.xor(disponiveis);
+            if (carregado && !divergencias.isEmpty()) {
+                logger.warn("Índice de disponibilidade divergente do banco: {} carros corrigidos", divergencias.cardinality());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de disponibilidade carregado: {} carros disponíveis", atuais.size());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarCarro(CarroEvent evento) {
+        lock.writeLock().lock();
+        try {
+            pendentes.registrar(evento);
+            aplicar(evento);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<CarroDTO> listarDisponiveis() {
+        lock.readLock().lock();
+        try {
+            return coletar(disponiveis);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<CarroDTO> listarDisponiveisPorMarca(String marca) {
+        lock.readLock().lock();
+        try {
+            BitSet ids = disponiveisPorMarca.get(marca);
+            return ids == null ? new ArrayList<>() : coletar(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void aplicar(CarroEvent evento) {
+        CarroDTO carro = evento.carro();
+        if (evento.tipo() == TipoEvento.REMOVIDO || !Boolean.TRUE.equals(carro.getDisponivel())) {
+            remover(carro.getId());
+        } else {
+            adicionar(carro);
+        }
+    }
+
+    private void adicionar(CarroDTO carro) {
+        int id = Math.toIntExact(carro.getId());
+        CarroDTO anterior = carros.put(id, carro);
+        if (anterior != null && !anterior.getMarca().equals(carro.getMarca())) {
+            limparMarca(anterior.getMarca(), id);
+        }
+        disponiveis.set(id);
+        disponiveisPorMarca.computeIfAbsent(carro.getMarca(), marca -> new BitSet()).set(id);
+    }
+
+    private void remover(Long carroId) {
+        int id = Math.toIntExact(carroId);
+        CarroDTO anterior = carros.remove(id);
+        disponiveis.clear(id);
+        if (anterior != null) {
+            limparMarca(anterior.getMarca(), id);
+        }
+    }
+
+    private void limparMarca(String marca, int id) {
+        BitSet ids = disponiveisPorMarca.get(marca);
+        if (ids != null) {
+            ids.clear(id);
+            if (ids.isEmpty()) {
+                disponiveisPorMarca.remove(marca);
+            }
+        }
+    }
+
+    private List<CarroDTO> coletar(BitSet ids) {
+        List<CarroDTO> resultado = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            resultado.add(carros.get(id));
+        }
+        return resultado;
+    }
+}
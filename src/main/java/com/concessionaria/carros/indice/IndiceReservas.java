@@ -0,0 +1,120 @@
+package com.concessionaria.carros.indice;
+
+import com.concessionaria.carros.dto.ReservaDTO;
+import com.concessionaria.carros.event.ReservaEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.replica.LeituraPrimario;
+import com.concessionaria.carros.repository.ReservaRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Reservas vigentes por carro, para responder "quais carros estão livres neste período" sem ir ao banco.
+// As reservas de um carro nunca se sobrepõem (o ReservaService garante no banco), então ordenadas por
+// início também ficam ordenadas por fim e uma árvore de intervalos se reduz a um TreeMap: basta olhar a
+// última reserva que começa antes do fim da janela. Cada verificação é O(log n) no número de reservas do carro.
+@Component
+@RequiredArgsConstructor
+public class IndiceReservas {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceReservas.class);
+    private final ReservaRepository reservaRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, TreeMap<LocalDate, ReservaDTO>> porCarro = new HashMap<>();
+    private final EventosPendentes<ReservaEvent> pendentes = new EventosPendentes<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        reconciliar();
+    }
+
+    // Além de corrigir divergências, descarta as reservas que já terminaram. Eventos que chegam durante a
+    // leitura do banco são reaplicados sobre o mapa novo; reaplicar um que a leitura já enxergou não muda nada.
+    @Scheduled(fixedDelayString = "${concessionaria.indice.reconciliacao-ms:300000}",
+            initialDelayString = "${concessionaria.indice.reconciliacao-ms:300000}")
+    public synchronized void reconciliar() {
+        pendentes.reter();
+        List<ReservaDTO> vigentes;
+        try {
+            vigentes = LeituraPrimario.executar(() -> reservaRepository.findVigentes(LocalDate.now()));
+        } catch (RuntimeException e) {
+            pendentes.liberar();
+            throw e;
+        }
+
+        Map<Long, TreeMap<LocalDate, ReservaDTO>> novas = new HashMap<>();
+        for (ReservaDTO reserva : vigentes) {
+            novas.computeIfAbsent(reserva.getCarroId(), id -> new TreeMap<>()).put(reserva.getInicio(), reserva);
+        }
+
+        lock.writeLock().lock();
+        try {
+            porCarro = novas;
+            pendentes.liberar().forEach(this::aplicar);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de reservas carregado: {} reservas em {} carros", vigentes.size(), novas.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarReserva(ReservaEvent evento) {
+        lock.writeLock().lock();
+        try {
+            pendentes.registrar(evento);
+            aplicar(evento);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Período [de, ate), com ate exclusivo como o fim das reservas.
+    public boolean livre(Long carroId, LocalDate de, LocalDate ate) {
+        lock.readLock().lock();
+        try {
+            TreeMap<LocalDate, ReservaDTO> reservas = porCarro.get(carroId);
+            if (reservas == null) {
+                return true;
+            }
+            Map.Entry<LocalDate, ReservaDTO> anterior = reservas.lowerEntry(ate);
+            return anterior == null || !anterior.getValue().getFim().isAfter(de);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void aplicar(ReservaEvent evento) {
+        ReservaDTO reserva = evento.reserva();
+        if (evento.tipo() == TipoEvento.REMOVIDO) {
+            remover(reserva);
+        } else {
+            porCarro.computeIfAbsent(reserva.getCarroId(), id -> new TreeMap<>()).put(reserva.getInicio(), reserva);
+        }
+    }
+
+    private void remover(ReservaDTO reserva) {
+        TreeMap<LocalDate, ReservaDTO> reservas = porCarro.get(reserva.getCarroId());
+        ReservaDTO atual = reservas == null ? null : reservas.get(reserva.getInicio());
+        if (atual == null || !atual.getId().equals(reserva.getId())) {
+            return;
+        }
+        reservas.remove(reserva.getInicio());
+        if (reservas.isEmpty()) {
+            porCarro.remove(reserva.getCarroId());
+        }
+    }
+}
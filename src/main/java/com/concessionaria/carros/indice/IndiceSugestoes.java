@@ -0,0 +1,566 @@
+package com.concessionaria.carros.indice;
+
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.SugestaoDTO;
+import com.concessionaria.carros.dto.SugestaoDTO.TipoSugestao;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.replica.LeituraPrimario;
+import com.concessionaria.carros.repository.CarroRepository;
+import com.concessionaria.carros.repository.CarroRepository.TermosCarro;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Autocompletar de marca, modelo e placa. Marcas e modelos são indexados a partir de cada palavra, com
+// contagem de carros para o ranking; cada prefixo guarda já ordenados os seus melhores termos, então uma tecla
+// custa uma consulta a um mapa. Sem resultados suficientes por prefixo, trigramas selecionam
+// um número limitado de candidatos para uma busca tolerante a erros de digitação. Placas têm uma árvore própria.
+@Component
+public class IndiceSugestoes {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceSugestoes.class);
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+    private static final int TAMANHO_MINIMO_APROXIMADO = 3;
+    // Chaves que passam pela distância de edição por consulta, escolhidas pelos trigramas em comum.
+    private static final int MAXIMO_CANDIDATOS_APROXIMADOS = 200;
+
+    public static final int LIMITE_MAXIMO = 50;
+
+    private final CarroRepository carroRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Estrutura estrutura = new Estrutura(false);
+    private final EventosPendentes<CarroEvent> pendentes = new EventosPendentes<>();
+
+    public IndiceSugestoes(CarroRepository carroRepository, PlatformTransactionManager transactionManager) {
+        this.carroRepository = carroRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        reconciliar();
+    }
+
+    // Eventos que chegam durante a leitura são reaplicados sobre a estrutura nova. A leitura pode já ter
+    // enxergado alguns deles; como cada evento define o estado do carro, reaplicar um desses não muda nada.
+    @Scheduled(fixedDelayString = "${concessionaria.sugestoes.reconciliacao-ms:900000}",
+            initialDelayString = "${concessionaria.sugestoes.reconciliacao-ms:900000}")
+    public synchronized void reconciliar() {
+        Estrutura nova = new Estrutura(true);
+        pendentes.reter();
+        Integer total;
+        try {
+            total = LeituraPrimario.executar(() -> transactionTemplate.execute(status -> {
+                int contador = 0;
+                try (Stream<TermosCarro> termos = carroRepository.streamTermos()) {
+                    for (TermosCarro carro : (Iterable<TermosCarro>) termos::iterator) {
+                        nova.definir(carro.getId(), carro.getMarca(), carro.getModelo(), carro.getPlaca());
+                        contador++;
+                    }
+                }
+                return contador;
+            }));
+        } catch (RuntimeException e) {
+            pendentes.liberar();
+            throw e;
+        }
+        nova.concluirCarga();
+
+        lock.writeLock().lock();
+        try {
+            pendentes.liberar().forEach(evento -> aplicar(nova, evento));
+            estrutura = nova;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de sugestões carregado: {} carros, {} termos", total, nova.termos.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarCarro(CarroEvent evento) {
+        // Eventos de disponibilidade não trazem o estado anterior e não mudam marca, modelo ou placa.
+        if (evento.tipo() == TipoEvento.ATUALIZADO && evento.anterior() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pendentes.registrar(evento);
+            aplicar(estrutura, evento);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void aplicar(Estrutura alvo, CarroEvent evento) {
+        CarroDTO carro = evento.carro();
+        if (evento.tipo() == TipoEvento.REMOVIDO) {
+            alvo.retirar(carro.getId());
+        } else {
+            alvo.definir(carro.getId(), carro.getMarca(), carro.getModelo(), carro.getPlaca());
+        }
+    }
+
+    public List<SugestaoDTO> sugerir(String consulta, int limite) {
+        String normalizada = normalizar(consulta);
+        if (normalizada.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            return estrutura.buscar(normalizada, Math.min(limite, LIMITE_MAXIMO));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // Menor distância de edição entre a consulta e algum prefixo da chave.
+    static int distanciaPrefixo(String consulta, String chave, int maximo) {
+        int m = consulta.length();
+        int limite = Math.min(chave.length(), m + maximo);
+        int[] anterior = new int[m + 1];
+        int[] atual = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            anterior[j] = j;
+        }
+        int melhor = anterior[m];
+        for (int i = 1; i <= limite; i++) {
+            atual[0] = i;
+            for (int j = 1; j <= m; j++) {
+                int custo = chave.charAt(i - 1) == consulta.charAt(j - 1) ? 0 : 1;
+                atual[j] = Math.min(Math.min(anterior[j] + 1, atual[j - 1] + 1), anterior[j - 1] + custo);
+            }
+            melhor = Math.min(melhor, atual[m]);
+            int[] troca = anterior;
+            anterior = atual;
+            atual = troca;
+        }
+        return melhor;
+    }
+
+    // O índice de cada trigrama na lista é a posição em que ele começa no texto.
+    private static List<String> trigramas(String texto) {
+        List<String> resultado = new ArrayList<>(Math.max(0, texto.length() - 2));
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            resultado.add(texto.substring(i, i + 3));
+        }
+        return resultado;
+    }
+
+    private static String posicional(int posicao, String trigrama) {
+        return posicao + ":" + trigrama;
+    }
+
+    private static final class Termo {
+        private final TipoSugestao tipo;
+        private final String texto;
+        private final String normalizado;
+        private int quantidade;
+
+        private Termo(TipoSugestao tipo, String texto, String normalizado) {
+            this.tipo = tipo;
+            this.texto = texto;
+            this.normalizado = normalizado;
+        }
+
+        private SugestaoDTO paraDTO() {
+            return new SugestaoDTO(tipo, texto, null, quantidade);
+        }
+    }
+
+    private record Placa(Long carroId, String texto) {
+    }
+
+    private record Indexado(String marca, String modelo, String placa) {
+    }
+
+    private static final class Estrutura {
+
+        private static final Comparator<Termo> POR_RELEVANCIA = Comparator
+                .comparingInt((Termo t) -> t.quantidade).reversed()
+                .thenComparingInt(t -> t.texto.length())
+                .thenComparing(t -> t.texto);
+
+        private final Map<String, Termo> termos = new HashMap<>();
+        private final TreeMap<String, Set<Termo>> palavras = new TreeMap<>();
+        private final Map<String, Set<String>> chavesPorTrigrama = new HashMap<>();
+        private final Map<String, Prefixo> prefixos = new HashMap<>();
+        private final TreeMap<String, Placa> placas = new TreeMap<>();
+        // O que cada carro contribui hoje para as contagens: definir e retirar pelo estado, e não por deltas,
+        // deixa a reaplicação de um evento já contado sem efeito.
+        private final Map<Long, Indexado> carros = new HashMap<>();
+        // Na carga completa os prefixos só são montados no fim, com as quantidades finais, e não a cada carro.
+        private boolean emCarga;
+
+        private Estrutura(boolean emCarga) {
+            this.emCarga = emCarga;
+        }
+
+        private void concluirCarga() {
+            for (Termo termo : termos.values()) {
+                for (String prefixo : prefixos(termo.normalizado)) {
+                    prefixos.computeIfAbsent(prefixo, Prefixo::new).inserir(termo);
+                }
+            }
+            emCarga = false;
+        }
+
+        private void definir(Long id, String marca, String modelo, String placa) {
+            Indexado novo = new Indexado(marca, modelo, placa);
+            Indexado atual = carros.put(id, novo);
+            if (novo.equals(atual)) {
+                return;
+            }
+            if (atual != null) {
+                remover(id, atual);
+            }
+            adicionarTermo(TipoSugestao.MARCA, marca);
+            adicionarTermo(TipoSugestao.MODELO, marca + " " + modelo);
+            String chavePlaca = normalizar(placa).replace(" ", "");
+            if (!chavePlaca.isEmpty()) {
+                placas.put(chavePlaca, new Placa(id, placa));
+            }
+        }
+
+        private void retirar(Long id) {
+            Indexado atual = carros.remove(id);
+            if (atual != null) {
+                remover(id, atual);
+            }
+        }
+
+        private void remover(Long id, Indexado carro) {
+            removerTermo(TipoSugestao.MARCA, carro.marca());
+            removerTermo(TipoSugestao.MODELO, carro.marca() + " " + carro.modelo());
+            String chavePlaca = normalizar(carro.placa()).replace(" ", "");
+            Placa atual = placas.get(chavePlaca);
+            if (atual != null && atual.carroId().equals(id)) {
+                placas.remove(chavePlaca);
+            }
+        }
+
+        private void adicionarTermo(TipoSugestao tipo, String texto) {
+            String normalizado = normalizar(texto);
+            if (normalizado.isEmpty()) {
+                return;
+            }
+            Termo termo = termos.computeIfAbsent(tipo + ":" + normalizado, chave -> {
+                Termo novo = new Termo(tipo, texto, normalizado);
+                for (String palavra : sufixos(normalizado)) {
+                    Set<Termo> daPalavra = palavras.get(palavra);
+                    if (daPalavra == null) {
+                        daPalavra = new HashSet<>();
+                        palavras.put(palavra, daPalavra);
+                        List<String> trigramas = trigramas(palavra);
+                        for (int posicao = 0; posicao < trigramas.size(); posicao++) {
+                            chavesPorTrigrama.computeIfAbsent(posicional(posicao, trigramas.get(posicao)),
+                                    t -> new HashSet<>()).add(palavra);
+                        }
+                    }
+                    daPalavra.add(novo);
+                }
+                return novo;
+            });
+            termo.quantidade++;
+            if (!emCarga) {
+                for (String prefixo : prefixos(normalizado)) {
+                    prefixos.computeIfAbsent(prefixo, Prefixo::new).subiu(termo);
+                }
+            }
+        }
+
+        private void removerTermo(TipoSugestao tipo, String texto) {
+            String normalizado = normalizar(texto);
+            String chave = tipo + ":" + normalizado;
+            Termo termo = termos.get(chave);
+            if (termo == null) {
+                return;
+            }
+            boolean removido = --termo.quantidade == 0;
+            if (removido) {
+                termos.remove(chave);
+                for (String palavra : sufixos(normalizado)) {
+                    Set<Termo> daPalavra = palavras.get(palavra);
+                    if (daPalavra == null) {
+                        continue;
+                    }
+                    daPalavra.remove(termo);
+                    if (daPalavra.isEmpty()) {
+                        palavras.remove(palavra);
+                        List<String> trigramas = trigramas(palavra);
+                        for (int posicao = 0; posicao < trigramas.size(); posicao++) {
+                            String trigrama = posicional(posicao, trigramas.get(posicao));
+                            Set<String> chaves = chavesPorTrigrama.get(trigrama);
+                            if (chaves != null && chaves.remove(palavra) && chaves.isEmpty()) {
+                                chavesPorTrigrama.remove(trigrama);
+                            }
+                        }
+                    }
+                }
+            }
+            for (String prefixo : prefixos(normalizado)) {
+                Prefixo doPrefixo = prefixos.get(prefixo);
+                if (doPrefixo == null) {
+                    continue;
+                }
+                if (doPrefixo.desceu(termo, removido)) {
+                    reabastecer(doPrefixo);
+                }
+                if (doPrefixo.melhores.isEmpty()) {
+                    prefixos.remove(prefixo);
+                }
+            }
+        }
+
+        // Refaz a lista truncada de um prefixo que ficou curta demais, percorrendo as palavras que começam por
+        // ele. Só acontece depois de LIMITE_MAXIMO saídas ou quedas no mesmo prefixo.
+        private void reabastecer(Prefixo doPrefixo) {
+            doPrefixo.melhores.clear();
+            doPrefixo.completa = true;
+            Set<Termo> vistos = new HashSet<>();
+            String prefixo = doPrefixo.prefixo;
+            for (Set<Termo> daPalavra : palavras.subMap(prefixo, prefixo + Character.MAX_VALUE).values()) {
+                for (Termo termo : daPalavra) {
+                    if (vistos.add(termo)) {
+                        doPrefixo.inserir(termo);
+                    }
+                }
+            }
+        }
+
+        // Todos os prefixos de todas as palavras indexadas do termo, sem repetição.
+        private static Set<String> prefixos(String normalizado) {
+            Set<String> resultado = new HashSet<>();
+            for (String palavra : sufixos(normalizado)) {
+                for (int fim = 1; fim <= palavra.length(); fim++) {
+                    resultado.add(palavra.substring(0, fim));
+                }
+            }
+            return resultado;
+        }
+
+        // "toyota corolla cross" é indexado também como "corolla cross" e "cross".
+        private static List<String> sufixos(String normalizado) {
+            List<String> resultado = new ArrayList<>();
+            resultado.add(normalizado);
+            for (int i = normalizado.indexOf(' '); i >= 0; i = normalizado.indexOf(' ', i + 1)) {
+                resultado.add(normalizado.substring(i + 1));
+            }
+            return resultado;
+        }
+
+        private List<SugestaoDTO> buscar(String consulta, int limite) {
+            List<SugestaoDTO> deTermos = buscarTermos(consulta, limite);
+            List<SugestaoDTO> dePlacas = buscarPlacas(consulta.replace(" ", ""), limite);
+
+            // Consulta com dígitos provavelmente é uma placa.
+            boolean parecePlaca = consulta.chars().anyMatch(Character::isDigit);
+            List<SugestaoDTO> resultado = new ArrayList<>(limite);
+            adicionarAte(resultado, parecePlaca ? dePlacas : deTermos, limite);
+            adicionarAte(resultado, parecePlaca ? deTermos : dePlacas, limite);
+
+            if (resultado.size() < limite && consulta.length() >= TAMANHO_MINIMO_APROXIMADO) {
+                adicionarAte(resultado, buscarAproximados(consulta, resultado), limite);
+            }
+            return resultado;
+        }
+
+        private List<SugestaoDTO> buscarTermos(String consulta, int limite) {
+            Prefixo doPrefixo = prefixos.get(consulta);
+            if (doPrefixo == null) {
+                return List.of();
+            }
+            return doPrefixo.melhores.stream()
+                    .limit(limite)
+                    .map(Termo::paraDTO)
+                    .toList();
+        }
+
+        private List<SugestaoDTO> buscarPlacas(String consulta, int limite) {
+            List<SugestaoDTO> resultado = new ArrayList<>(limite);
+            for (Placa placa : placas.subMap(consulta, consulta + Character.MAX_VALUE).values()) {
+                if (resultado.size() == limite) {
+                    break;
+                }
+                resultado.add(new SugestaoDTO(TipoSugestao.PLACA, placa.texto(), placa.carroId(), 1));
+            }
+            return resultado;
+        }
+
+        private List<SugestaoDTO> buscarAproximados(String consulta, List<SugestaoDTO> jaEncontrados) {
+            int maximo = consulta.length() <= 5 ? 1 : 2;
+            // Uma edição desloca os trigramas seguintes em uma posição, então o trigrama i da consulta só é
+            // procurado na chave entre as posições i - maximo e i + maximo.
+            List<String> daConsulta = trigramas(consulta);
+            List<List<Set<String>>> grupos = new ArrayList<>();
+            for (int i = 0; i < daConsulta.size(); i++) {
+                List<Set<String>> grupo = new ArrayList<>();
+                for (int posicao = Math.max(0, i - maximo); posicao <= i + maximo; posicao++) {
+                    Set<String> chaves = chavesPorTrigrama.get(posicional(posicao, daConsulta.get(i)));
+                    if (chaves != null) {
+                        grupo.add(chaves);
+                    }
+                }
+                grupos.add(grupo);
+            }
+            grupos.sort(Comparator.comparingInt(grupo -> grupo.stream().mapToInt(Set::size).sum()));
+
+            // Cada edição destrói no máximo três trigramas da consulta: abaixo de minimoEmComum a chave não
+            // tem como ficar dentro da distância. Quem chega ao mínimo aparece em algum dos
+            // (grupos - minimoEmComum + 1) grupos menores, então só eles trazem candidatas novas; os maiores
+            // apenas somam pontos. Uma chave que repete o trigrama dentro da janela conta mais de uma vez, o que
+            // só deixa o filtro mais permissivo. Das candidatas, só as que mais compartilham trigramas são medidas.
+            int minimoEmComum = Math.max(1, grupos.size() - 3 * maximo);
+            int geradores = grupos.size() - minimoEmComum + 1;
+            Map<String, int[]> emComum = new HashMap<>();
+            for (int i = 0; i < grupos.size(); i++) {
+                for (Set<String> chaves : grupos.get(i)) {
+                    for (String chave : chaves) {
+                        if (i < geradores) {
+                            emComum.computeIfAbsent(chave, c -> new int[1])[0]++;
+                        } else {
+                            int[] contagem = emComum.get(chave);
+                            if (contagem != null) {
+                                contagem[0]++;
+                            }
+                        }
+                    }
+                }
+            }
+
+            // Pior candidata no topo da fila, para ser descartada quando passar do limite.
+            PriorityQueue<Map.Entry<String, int[]>> candidatas = new PriorityQueue<>(
+                    Comparator.comparingInt((Map.Entry<String, int[]> e) -> e.getValue()[0])
+                            .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()));
+            for (Map.Entry<String, int[]> chave : emComum.entrySet()) {
+                if (chave.getValue()[0] >= minimoEmComum) {
+                    candidatas.add(chave);
+                    if (candidatas.size() > MAXIMO_CANDIDATOS_APROXIMADOS) {
+                        candidatas.poll();
+                    }
+                }
+            }
+
+            Map<Termo, Integer> distancias = new LinkedHashMap<>();
+            for (Map.Entry<String, int[]> candidata : candidatas) {
+                String chave = candidata.getKey();
+                int distancia = distanciaPrefixo(consulta, chave, maximo);
+                if (distancia <= maximo) {
+                    for (Termo termo : palavras.get(chave)) {
+                        distancias.merge(termo, distancia, Math::min);
+                    }
+                }
+            }
+
+            Set<String> textos = new HashSet<>();
+            jaEncontrados.forEach(s -> textos.add(s.getTipo() + ":" + s.getTexto()));
+            return distancias.entrySet().stream()
+                    .filter(e -> !textos.contains(e.getKey().tipo + ":" + e.getKey().texto))
+                    .sorted(Map.Entry.<Termo, Integer>comparingByValue()
+                            .thenComparing(Map.Entry::getKey, POR_RELEVANCIA))
+                    .map(e -> e.getKey().paraDTO())
+                    .toList();
+        }
+
+        // Os melhores termos alcançáveis por um prefixo, na ordem da resposta: quem começa pelo prefixo vem
+        // antes de quem só tem uma palavra interna com ele, depois a relevância. Completa, a lista tem todos os
+        // termos do prefixo; truncada, todo termo de fora é pior que o último. Guarda até o dobro do que uma
+        // resposta pede, para que remoções e quedas só obriguem a reabastecer depois de consumir essa folga.
+        private static final class Prefixo {
+
+            private static final int CAPACIDADE = 2 * LIMITE_MAXIMO;
+
+            private final String prefixo;
+            private final List<Termo> melhores = new ArrayList<>();
+            private boolean completa = true;
+
+            private Prefixo(String prefixo) {
+                this.prefixo = prefixo;
+            }
+
+            // Termo novo ou com quantidade maior: só pode subir na lista.
+            private void subiu(Termo termo) {
+                melhores.remove(termo);
+                inserir(termo);
+            }
+
+            private void inserir(Termo termo) {
+                int posicao = posicao(termo);
+                if (posicao < melhores.size() || completa) {
+                    melhores.add(posicao, termo);
+                    if (melhores.size() > CAPACIDADE) {
+                        melhores.remove(CAPACIDADE);
+                        completa = false;
+                    }
+                }
+            }
+
+            // Devolve se a lista precisa ser reabastecida: truncada e sem termos para uma resposta inteira.
+            // Quem cai para depois do último de uma lista truncada fica de fora, como os demais piores.
+            private boolean desceu(Termo termo, boolean removido) {
+                if (!melhores.remove(termo)) {
+                    return false;
+                }
+                if (!removido) {
+                    inserir(termo);
+                }
+                return !completa && melhores.size() < LIMITE_MAXIMO;
+            }
+
+            private int posicao(Termo termo) {
+                int posicao = Collections.binarySearch(melhores, termo, this::comparar);
+                return posicao < 0 ? -posicao - 1 : posicao;
+            }
+
+            private int comparar(Termo a, Termo b) {
+                int inicio = Boolean.compare(!a.normalizado.startsWith(prefixo), !b.normalizado.startsWith(prefixo));
+                return inicio != 0 ? inicio : POR_RELEVANCIA.compare(a, b);
+            }
+        }
+
+        private static void adicionarAte(List<SugestaoDTO> destino, List<SugestaoDTO> origem, int limite) {
+            for (SugestaoDTO sugestao : origem) {
+                if (destino.size() == limite) {
+                    return;
+                }
+                destino.add(sugestao);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.concessionaria.carros.log;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Limita, por logger, quantos eventos abaixo de WARN marcados com Marcadores.LEITURA passam a cada segundo nos
+// pacotes configurados. Roda antes de o evento ser montado, então o que é descartado não formata mensagem nem
+// aloca nada além da janela do logger. WARN, ERROR e eventos sem o marcador sempre passam. Configurado no
+// logback-producao.xml.
+public class AmostragemLogFilter extends TurboFilter {
+
+    private final List<String> prefixos = new ArrayList<>();
+    private final ConcurrentHashMap<String, Janela> janelas = new ConcurrentHashMap<>();
+    private final LongSupplier segundoAtual;
+    private int eventosPorSegundo = 100;
+
+    public AmostragemLogFilter() {
+        this(() -> System.currentTimeMillis() / 1000);
+    }
+
+    AmostragemLogFilter(LongSupplier segundoAtual) {
+        this.segundoAtual = segundoAtual;
+    }
+
+    public void addLogger(String prefixo) {
+        prefixos.add(prefixo);
+    }
+
+    public void setEventosPorSegundo(int eventosPorSegundo) {
+        this.eventosPorSegundo = eventosPorSegundo;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        // format nulo é só uma consulta isXxxEnabled(); abaixo do nível efetivo o evento já seria descartado.
+        if (format == null || !leitura(marker) || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()) || !amostrado(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        Janela janela = janelas.computeIfAbsent(logger.getName(), nome -> new Janela());
+        return janela.permitir(segundoAtual.getAsLong(), eventosPorSegundo) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private static boolean leitura(Marker marker) {
+        return marker != null && marker.contains(Marcadores.LEITURA);
+    }
+
+    private boolean amostrado(String nome) {
+        for (String prefixo : prefixos) {
+            if (nome.startsWith(prefixo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Janela {
+
+        private final AtomicLong segundo = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger eventos = new AtomicInteger();
+
+        // Na virada do segundo uma thread zera a contagem; as concorrentes podem passar um ou dois eventos
+        // a mais, o que é aceitável para amostragem.
+        boolean permitir(long agora, int limite) {
+            long atual = segundo.get();
+            if (agora != atual && segundo.compareAndSet(atual, agora)) {
+                eventos.set(0);
+            }
+            return eventos.incrementAndGet() <= limite;
+        }
+    }
+}
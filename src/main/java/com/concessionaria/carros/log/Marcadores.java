@@ -0,0 +1,14 @@
+package com.concessionaria.carros.log;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public final class Marcadores {
+
+    // Logs de consulta, que o AmostragemLogFilter pode descartar sob carga. Gravações, autenticação e
+    // auditoria não levam o marcador e sempre são escritas.
+    public static final Marker LEITURA = MarkerFactory.getMarker("LEITURA");
+
+    private Marcadores() {
+    }
+}
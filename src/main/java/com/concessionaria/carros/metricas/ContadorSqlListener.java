@@ -0,0 +1,22 @@
+package com.concessionaria.carros.metricas;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Registrado em hibernate.session.events.auto: o Hibernate cria uma instância por sessão.
+public class ContadorSqlListener extends BaseSessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        ContagemSql.registrarComando();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        ContagemSql.registrarComando();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        ContagemSql.registrarFlush();
+    }
+}
@@ -0,0 +1,45 @@
+package com.concessionaria.carros.metricas;
+
+// Contagem de comandos SQL e flushes da requisição HTTP em andamento na thread atual.
+public final class ContagemSql {
+
+    private static final ThreadLocal<ContagemSql> ATUAL = new ThreadLocal<>();
+
+    private int comandos;
+    private int flushes;
+
+    private ContagemSql() {
+    }
+
+    static ContagemSql iniciar() {
+        ContagemSql contagem = new ContagemSql();
+        ATUAL.set(contagem);
+        return contagem;
+    }
+
+    static void encerrar() {
+        ATUAL.remove();
+    }
+
+    static void registrarComando() {
+        ContagemSql contagem = ATUAL.get();
+        if (contagem != null) {
+            contagem.comandos++;
+        }
+    }
+
+    static void registrarFlush() {
+        ContagemSql contagem = ATUAL.get();
+        if (contagem != null) {
+            contagem.flushes++;
+        }
+    }
+
+    int getComandos() {
+        return comandos;
+    }
+
+    int getFlushes() {
+        return flushes;
+    }
+}
@@ -0,0 +1,50 @@
+package com.concessionaria.carros.metricas;
+
+import com.concessionaria.carros.exception.BusinessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+// Cronometra cada método público dos serviços de carros, operações e usuários.
+@Aspect
+public class MetricasServicoAspect {
+
+    static final String METRICA = "concessionaria.servico";
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricasServicoAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.concessionaria.carros.service.CarroService.*(..))"
+            + " || execution(public * com.concessionaria.carros.service.OperacaoService.*(..))"
+            + " || execution(public * com.concessionaria.carros.service.UsuarioService.*(..))")
+    public Object cronometrar(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        String resultado = "SUCCESS";
+        String excecao = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (BusinessException e) {
+            resultado = "BUSINESS_ERROR";
+            excecao = e.getClass().getSimpleName();
+            throw e;
+        } catch (Throwable e) {
+            resultado = "ERROR";
+            excecao = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            amostra.stop(Timer.builder(METRICA)
+                    .description("Tempo de execução dos métodos de serviço")
+                    .tag("classe", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("metodo", joinPoint.getSignature().getName())
+                    .tag("resultado", resultado)
+                    .tag("excecao", excecao)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.concessionaria.carros.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Publica quantos comandos SQL e flushes cada endpoint executou, por método e padrão de URI.
+public class MetricasSqlFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricasSqlFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContagemSql contagem = ContagemSql.iniciar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ContagemSql.encerrar();
+            Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = padrao != null ? padrao.toString() : "UNKNOWN";
+            resumo("concessionaria.http.sql.comandos", "Comandos SQL executados por requisição", request, uri)
+                    .record(contagem.getComandos());
+            resumo("concessionaria.http.sql.flushes", "Flushes do Hibernate por requisição", request, uri)
+                    .record(contagem.getFlushes());
+        }
+    }
+
+    private DistributionSummary resumo(String nome, String descricao, HttpServletRequest request, String uri) {
+        return DistributionSummary.builder(nome)
+                .description(descricao)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.concessionaria.carros.replica;
+
+import java.util.function.Supplier;
+
+// Força as leituras do bloco para o primário mesmo em transações readOnly. Usado por quem guarda o que leu
+// além da transação e não pode aceitar o atraso de uma réplica: reconciliações de estado em memória,
+// preenchimento de cache (LeituraPrimarioCacheAspect) e respostas que saem com ETag.
+public final class LeituraPrimario {
+
+    private static final ThreadLocal<Boolean> ATIVA = new ThreadLocal<>();
+
+    private LeituraPrimario() {
+    }
+
+    public static <T> T executar(Supplier<T> leitura) {
+        boolean ativada = ativar();
+        try {
+            return leitura.get();
+        } finally {
+            desativar(ativada);
+        }
+    }
+
+    static boolean ativa() {
+        return ATIVA.get() != null;
+    }
+
+    // Devolve se esta chamada ligou a marca, para que só ela a desligue em blocos aninhados.
+    static boolean ativar() {
+        if (ativa()) {
+            return false;
+        }
+        ATIVA.set(Boolean.TRUE);
+        return true;
+    }
+
+    static void desativar(boolean ativada) {
+        if (ativada) {
+            ATIVA.remove();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.concessionaria.carros.replica;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+// Métodos @Cacheable leem do primário. Os caches são invalidados logo depois do commit, e uma falta servida
+// por uma réplica atrasada gravaria de novo o valor antigo, que ficaria lá até a expiração. Num acerto não
+// há consulta, então a ordem em relação ao interceptador de cache não importa.
+@Aspect
+public class LeituraPrimarioCacheAspect {
+
+    @Around("@annotation(org.springframework.cache.annotation.Cacheable)")
+    public Object lerDoPrimario(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean ativada = LeituraPrimario.ativar();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            LeituraPrimario.desativar(ativada);
+        }
+    }
+}
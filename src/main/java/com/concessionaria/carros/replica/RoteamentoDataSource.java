@@ -0,0 +1,264 @@
+package com.concessionaria.carros.replica;
+
+import com.concessionaria.carros.seguranca.AutenticacaoFilter;
+import com.concessionaria.carros.seguranca.UsuarioAutenticado;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.WebUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Envia transações readOnly para uma réplica e todo o resto para o primário. A escolha é feita quando a
+// conexão física é pedida, por isso o DataSource precisa estar atrás de um LazyConnectionDataSourceProxy:
+// só assim a transação já está marcada como readOnly nesse momento.
+// Uma réplica só recebe leituras depois de uma verificação com atraso dentro do limite; se nenhuma estiver
+// apta, a leitura vai para o primário. Depois de uma escrita, o mesmo cliente lê do primário durante a janela
+// de aderência, para enxergar o que acabou de gravar. O usuário autenticado é lembrado aqui; o anônimo recebe
+// um cookie que dura a janela, porque o IP é o do gateway e juntaria clientes diferentes.
+public class RoteamentoDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoteamentoDataSource.class);
+    private static final String PRIMARIO = "primario";
+    private static final int MAXIMO_CLIENTES_ADERENTES = 100_000;
+    static final String COOKIE_ESCRITA_RECENTE = "escrita-recente";
+
+    public enum Selecao {
+        ROUND_ROBIN,
+        MENOS_CARREGADA
+    }
+
+    private final DataSource primario;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration atrasoMaximo;
+    private final Duration aderencia;
+    private final Selecao selecao;
+    private final Function<DataSource, Optional<Duration>> medidorAtraso;
+    private final Cache<Long, Boolean> escritasRecentes;
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    public RoteamentoDataSource(DataSource primario, Map<String, DataSource> replicas, Duration atrasoMaximo,
+                                Duration aderencia, Selecao selecao) {
+        this(primario, replicas, atrasoMaximo, aderencia, selecao, RoteamentoDataSource::medirAtrasoMysql);
+    }
+
+    RoteamentoDataSource(DataSource primario, Map<String, DataSource> replicas, Duration atrasoMaximo,
+                         Duration aderencia, Selecao selecao, Function<DataSource, Optional<Duration>> medidorAtraso) {
+        this.primario = primario;
+        this.atrasoMaximo = atrasoMaximo;
+        this.aderencia = aderencia;
+        this.selecao = selecao;
+        this.medidorAtraso = medidorAtraso;
+        this.escritasRecentes = Caffeine.newBuilder()
+                .maximumSize(MAXIMO_CLIENTES_ADERENTES)
+                .expireAfterWrite(aderencia)
+                .build();
+
+        Map<Object, Object> alvos = new HashMap<>();
+        alvos.put(PRIMARIO, primario);
+        replicas.forEach((nome, dataSource) -> {
+            alvos.put(nome, dataSource);
+            this.replicas.add(new Replica(nome, dataSource));
+        });
+        setTargetDataSources(alvos);
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        ServletRequestAttributes requisicao = requisicaoAtual();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (requisicao != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                registrarEscrita(requisicao);
+            }
+            return PRIMARIO;
+        }
+        if (LeituraPrimario.ativa() || escreveuRecentemente(requisicao)) {
+            return PRIMARIO;
+        }
+        Replica replica = selecionar();
+        return replica != null ? replica.nome : PRIMARIO;
+    }
+
+    @Scheduled(fixedDelayString = "${concessionaria.replicas.verificacao-ms:2000}")
+    public void verificarReplicas() {
+        for (Replica replica : replicas) {
+            Optional<Duration> atraso;
+            try {
+                atraso = medidorAtraso.apply(replica.dataSource);
+            } catch (RuntimeException e) {
+                logger.warn("Falha ao medir atraso da réplica {}: {}", replica.nome, e.getMessage());
+                atraso = Optional.empty();
+            }
+            boolean apta = atraso.map(valor -> valor.compareTo(atrasoMaximo) <= 0).orElse(false);
+            if (apta != replica.apta) {
+                if (apta) {
+                    logger.info("Réplica {} apta para leituras: atraso={}", replica.nome, atraso.get());
+                } else {
+                    logger.warn("Réplica {} fora do roteamento: atraso={}, limite={}", replica.nome,
+                            atraso.map(Duration::toString).orElse("desconhecido"), atrasoMaximo);
+                }
+            }
+            replica.apta = apta;
+        }
+    }
+
+    // Os pools são criados junto com o roteamento e não são beans: fecham com ele.
+    @Override
+    public void destroy() {
+        fechar(PRIMARIO, primario);
+        replicas.forEach(replica -> fechar(replica.nome, replica.dataSource));
+    }
+
+    // A janela começa no commit; sem sincronização ativa, começa já.
+    private void registrarEscrita(ServletRequestAttributes requisicao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    marcarEscrita(requisicao);
+                }
+            });
+        } else {
+            marcarEscrita(requisicao);
+        }
+    }
+
+    private void marcarEscrita(ServletRequestAttributes requisicao) {
+        UsuarioAutenticado usuario = usuario(requisicao.getRequest());
+        if (usuario != null) {
+            escritasRecentes.put(usuario.id(), Boolean.TRUE);
+            return;
+        }
+        HttpServletResponse response = requisicao.getResponse();
+        if (response == null || response.isCommitted()
+                || requisicao.getRequest().getAttribute(COOKIE_ESCRITA_RECENTE) != null) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE_ESCRITA_RECENTE, "1");
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) aderencia.toSeconds());
+        response.addCookie(cookie);
+        requisicao.getRequest().setAttribute(COOKIE_ESCRITA_RECENTE, Boolean.TRUE);
+    }
+
+    private boolean escreveuRecentemente(ServletRequestAttributes requisicao) {
+        if (requisicao == null) {
+            return false;
+        }
+        UsuarioAutenticado usuario = usuario(requisicao.getRequest());
+        if (usuario != null) {
+            return escritasRecentes.getIfPresent(usuario.id()) != null;
+        }
+        return WebUtils.getCookie(requisicao.getRequest(), COOKIE_ESCRITA_RECENTE) != null;
+    }
+
+    // O início gira a cada chamada, então empates de carga também se alternam entre as réplicas.
+    private Replica selecionar() {
+        int total = replicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), Math.max(total, 1));
+        Replica escolhida = null;
+        int menorCarga = Integer.MAX_VALUE;
+        for (int i = 0; i < total; i++) {
+            Replica replica = replicas.get((inicio + i) % total);
+            if (!replica.apta) {
+                continue;
+            }
+            if (selecao == Selecao.ROUND_ROBIN) {
+                return replica;
+            }
+            int carga = replica.carga();
+            if (carga < menorCarga) {
+                escolhida = replica;
+                menorCarga = carga;
+            }
+        }
+        return escolhida;
+    }
+
+    private static ServletRequestAttributes requisicaoAtual() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        return atributos instanceof ServletRequestAttributes servlet ? servlet : null;
+    }
+
+    private static UsuarioAutenticado usuario(HttpServletRequest request) {
+        return request.getAttribute(AutenticacaoFilter.ATRIBUTO_USUARIO) instanceof UsuarioAutenticado usuario
+                ? usuario : null;
+    }
+
+    private static void fechar(String nome, DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable pool) {
+            try {
+                pool.close();
+            } catch (Exception e) {
+                logger.warn("Falha ao fechar o pool {}: {}", nome, e.getMessage());
+            }
+        }
+    }
+
+    // Seconds_Behind_Source nulo significa replicação parada; sem linha, o servidor não é réplica.
+    // Nos dois casos a réplica fica fora do roteamento.
+    static Optional<Duration> medirAtrasoMysql(DataSource dataSource) {
+        try (Connection conexao = dataSource.getConnection();
+             Statement comando = conexao.createStatement();
+             ResultSet resultado = comando.executeQuery("SHOW REPLICA STATUS")) {
+            if (!resultado.next()) {
+                return Optional.empty();
+            }
+            long segundos = resultado.getLong("Seconds_Behind_Source");
+            return resultado.wasNull() ? Optional.empty() : Optional.of(Duration.ofSeconds(segundos));
+        } catch (SQLException e) {
+            logger.warn("Falha ao consultar status de replicação: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static final class Replica {
+
+        private final String nome;
+        private final DataSource dataSource;
+        private volatile boolean apta;
+
+        private Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+
+        private int carga() {
+            if (dataSource instanceof HikariDataSource hikari) {
+                HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                return pool != null ? pool.getActiveConnections() : 0;
+            }
+            return 0;
+        }
+    }
+}
@@ -1,17 +1,97 @@
 package com.concessionaria.carros.repository;
 
+import com.concessionaria.carros.dto.CarroDTO;
 import com.concessionaria.carros.entity.Carro;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface CarroRepository extends JpaRepository<Carro, Long> {
+public interface CarroRepository extends JpaRepository<Carro, Long>, JpaSpecificationExecutor<Carro> {
     Optional<Carro> findByPlaca(String placa);
-    List<Carro> findByDisponivelTrue();
     List<Carro> findByMarcaAndModelo(String marca, String modelo);
     List<Carro> findByMarca(String marca);
-    boolean existsByMarcaAndModelo(String marca, String modelo);
-} 
\ No newline at end of file
+
+    // SELECT ... FOR UPDATE SKIP LOCKED: timeout -2 equivale a LockOptions.SKIP_LOCKED no Hibernate.
+    // Ignora carros com reserva não terminada que comece até :limite; o subselect usa
+    // idx_reservas_carro_periodo e não trava as reservas.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select c from Carro c where c.marca = :marca and c.disponivel = true and not exists ("
+            + "select r.id from Reserva r where r.carro = c and r.fim > :hoje and r.inicio <= :limite) "
+            + "order by c.id")
+    List<Carro> findLivresParaOperacao(@Param("marca") String marca, @Param("hoje") LocalDate hoje,
+                                       @Param("limite") LocalDate limite, Pageable pageable);
+
+    // SELECT ... FOR UPDATE no carro: serializa as reservas concorrentes do mesmo carro.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Carro> findComTravaById(Long id);
+
+    @Query("select new com.concessionaria.carros.dto.CarroDTO("
+            + "c.id, c.marca, c.modelo, c.ano, c.placa, c.precoVenda, c.precoAluguel, c.disponivel) "
+            + "from Carro c where c.disponivel = true order by c.id")
+    List<CarroDTO> findDisponiveisProjetados();
+
+    // Uma única consulta para descobrir quais chaves de um lote já existem no banco.
+    @Query("select c.marca as marca, c.modelo as modelo, c.placa as placa from Carro c "
+            + "where (c.marca in :marcas and c.modelo in :modelos) or c.placa in :placas")
+    List<ChaveCarro> findChavesExistentes(@Param("marcas") Collection<String> marcas,
+                                          @Param("modelos") Collection<String> modelos,
+                                          @Param("placas") Collection<String> placas);
+
+    List<Carro> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Fetch size Integer.MIN_VALUE faz o driver do MySQL entregar as linhas uma a uma.
+    @Query("select c from Carro c order by c.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Carro> streamTodos();
+
+    @Query("select c.id as id, c.marca as marca, c.modelo as modelo, c.placa as placa from Carro c")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TermosCarro> streamTermos();
+
+    // Semente das estatísticas da frota: resolvida pelo índice (marca, disponivel) sem ler a tabela.
+    @Query("select c.marca as marca, count(c) as total, "
+            + "sum(case when c.disponivel = true then 1 else 0 end) as disponiveis "
+            + "from Carro c group by c.marca")
+    List<ContagemMarca> contarPorMarca();
+
+    interface ChaveCarro {
+        String getMarca();
+        String getModelo();
+        String getPlaca();
+    }
+
+    interface TermosCarro {
+        Long getId();
+        String getMarca();
+        String getModelo();
+        String getPlaca();
+    }
+
+    interface ContagemMarca {
+        String getMarca();
+        Long getTotal();
+        Long getDisponiveis();
+    }
+}
@@ -0,0 +1,50 @@
+package com.concessionaria.carros.repository;
+
+import com.concessionaria.carros.dto.FiltroCarrosDTO;
+import com.concessionaria.carros.entity.Carro;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CarroSpecifications {
+
+    private CarroSpecifications() {
+    }
+
+    public static Specification<Carro> filtrar(FiltroCarrosDTO filtro) {
+        return filtrar(filtro, true, true);
+    }
+
+    // Marca e ano podem ficar de fora para o cálculo das facetas, que aplica esses filtros em memória.
+    public static Specification<Carro> filtrar(FiltroCarrosDTO filtro, boolean comMarca, boolean comAno) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            if (comMarca && filtro.getMarca() != null && !filtro.getMarca().isEmpty()) {
+                predicados.add(root.get("marca").in(filtro.getMarca()));
+            }
+            if (comAno) {
+                entre(predicados, cb, root.get("ano"), filtro.getAnoMin(), filtro.getAnoMax());
+            }
+            entre(predicados, cb, root.get("precoVenda"), filtro.getPrecoVendaMin(), filtro.getPrecoVendaMax());
+            entre(predicados, cb, root.get("precoAluguel"), filtro.getPrecoAluguelMin(), filtro.getPrecoAluguelMax());
+            if (filtro.getDisponivel() != null) {
+                predicados.add(cb.equal(root.get("disponivel"), filtro.getDisponivel()));
+            }
+            return cb.and(predicados.toArray(new Predicate[0]));
+        };
+    }
+
+    private static <T extends Comparable<? super T>> void entre(List<Predicate> predicados, CriteriaBuilder cb,
+                                                                Path<T> caminho, T minimo, T maximo) {
+        if (minimo != null) {
+            predicados.add(cb.greaterThanOrEqualTo(caminho, minimo));
+        }
+        if (maximo != null) {
+            predicados.add(cb.lessThanOrEqualTo(caminho, maximo));
+        }
+    }
+}
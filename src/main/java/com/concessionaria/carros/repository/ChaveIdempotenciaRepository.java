@@ -0,0 +1,44 @@
+package com.concessionaria.carros.repository;
+
+import com.concessionaria.carros.entity.ChaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+// Cada escrita roda na própria transação: o registro da chave precisa ficar visível para as outras
+// instâncias antes de a operação começar, e a resposta é gravada depois de a operação ter sido confirmada.
+@Repository
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, String> {
+
+    // Insert puro: se a chave já existe, a violação da chave primária diz que outra execução chegou antes.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "insert into chaves_idempotencia (chave, hash_requisicao, criada_em) "
+            + "values (:chave, :hash, :criadaEm)", nativeQuery = true)
+    int registrar(@Param("chave") String chave, @Param("hash") String hash,
+                  @Param("criadaEm") LocalDateTime criadaEm);
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("update ChaveIdempotencia c set c.status = :status, c.localizacao = :localizacao, c.corpo = :corpo "
+            + "where c.chave = :chave")
+    int concluir(@Param("chave") String chave, @Param("status") int status,
+                 @Param("localizacao") String localizacao, @Param("corpo") byte[] corpo);
+
+    // Libera a chave de uma execução que falhou, para que um reenvio rode de novo.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("delete from ChaveIdempotencia c where c.chave = :chave and c.status is null")
+    int liberar(@Param("chave") String chave);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ChaveIdempotencia c where c.criadaEm < :limite")
+    int excluirAnteriores(@Param("limite") LocalDateTime limite);
+}
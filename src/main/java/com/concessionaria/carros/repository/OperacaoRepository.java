@@ -1,14 +1,84 @@
 package com.concessionaria.carros.repository;
 
+import com.concessionaria.carros.dto.OperacaoDTO;
 import com.concessionaria.carros.entity.Operacao;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OperacaoRepository extends JpaRepository<Operacao, Long> {
-    List<Operacao> findByCarroId(Long carroId);
-    List<Operacao> findByClienteId(Long clienteId);
-    List<Operacao> findByTipo(Operacao.TipoOperacao tipo);
-} 
\ No newline at end of file
+
+    // Projeção direta no DTO: um único SELECT com join em carros, sem carregar entidades.
+    String SELECAO_DTO = "select new com.concessionaria.carros.dto.OperacaoDTO("
+            + "o.id, c.id, o.cliente.id, o.tipo, o.valor, o.dataOperacao, o.dataDevolucao, c.marca) "
+            + "from Operacao o join o.carro c";
+
+    @Query(SELECAO_DTO + " order by o.id")
+    List<OperacaoDTO> findAllProjetadas();
+
+    @Query(SELECAO_DTO + " where o.id = :id")
+    Optional<OperacaoDTO> findProjetadaById(@Param("id") Long id);
+
+    @Query(SELECAO_DTO + " where c.id = :carroId order by o.id")
+    List<OperacaoDTO> findProjetadasByCarroId(@Param("carroId") Long carroId);
+
+    @Query(SELECAO_DTO + " where o.cliente.id = :clienteId order by o.id")
+    List<OperacaoDTO> findProjetadasByClienteId(@Param("clienteId") Long clienteId);
+
+    @Query(SELECAO_DTO + " where o.tipo = :tipo order by o.id")
+    List<OperacaoDTO> findProjetadasByTipo(@Param("tipo") Operacao.TipoOperacao tipo);
+
+    @EntityGraph(attributePaths = "carro")
+    Optional<Operacao> findComCarroById(Long id);
+
+    // Relatórios: o GROUP BY roda no banco sobre o índice de cobertura (data_operacao, tipo, carro_id, valor)
+    // e cada grupo volta como uma linha com contagem e soma, sem instanciar entidades.
+    String TOTAIS = "count(o) as quantidade, sum(o.valor) as total from Operacao o ";
+    String NO_PERIODO = " where o.dataOperacao >= :inicio and o.dataOperacao < :fim ";
+
+    @Query("select o.tipo as grupo, " + TOTAIS + NO_PERIODO + "group by o.tipo order by o.tipo")
+    List<TotalAgrupado> totalizarPorTipo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    @Query("select c.marca as grupo, " + TOTAIS + "join o.carro c" + NO_PERIODO
+            + "group by c.marca order by sum(o.valor) desc, c.marca")
+    List<TotalAgrupado> totalizarPorMarca(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    @Query("select format(o.dataOperacao as 'yyyy-MM-dd') as grupo, " + TOTAIS + NO_PERIODO
+            + "group by format(o.dataOperacao as 'yyyy-MM-dd') order by grupo")
+    List<TotalAgrupado> totalizarPorDia(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    @Query("select format(o.dataOperacao as 'yyyy-MM') as grupo, " + TOTAIS + NO_PERIODO
+            + "group by format(o.dataOperacao as 'yyyy-MM') order by grupo")
+    List<TotalAgrupado> totalizarPorMes(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    long countByTipoAndDataDevolucaoIsNull(Operacao.TipoOperacao tipo);
+
+    long countByTipoAndDataOperacaoGreaterThanEqual(Operacao.TipoOperacao tipo, LocalDateTime inicio);
+
+    // Candidatas ao arquivamento: aluguéis devolvidos e vendas anteriores ao limite, em ordem de id.
+    @Query(SELECAO_DTO + " where o.id > :aposId and (o.dataDevolucao < :limite "
+            + "or (o.tipo = :venda and o.dataOperacao < :limite)) order by o.id")
+    List<OperacaoDTO> findArquivaveis(@Param("aposId") Long aposId, @Param("venda") Operacao.TipoOperacao venda,
+                                      @Param("limite") LocalDateTime limite, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Operacao o where o.id in :ids")
+    int excluirPorIds(@Param("ids") Collection<Long> ids);
+
+    interface TotalAgrupado {
+        String getGrupo();
+        Long getQuantidade();
+        BigDecimal getTotal();
+    }
+}
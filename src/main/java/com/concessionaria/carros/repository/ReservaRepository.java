@@ -0,0 +1,38 @@
+package com.concessionaria.carros.repository;
+
+import com.concessionaria.carros.dto.ReservaDTO;
+import com.concessionaria.carros.entity.Reserva;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReservaRepository extends JpaRepository<Reserva, Long> {
+
+    String SELECAO_DTO = "select new com.concessionaria.carros.dto.ReservaDTO("
+            + "r.id, r.carro.id, r.cliente.id, r.inicio, r.fim, r.dataCriacao) from Reserva r";
+
+    @Query(SELECAO_DTO + " where r.id = :id")
+    Optional<ReservaDTO> findProjetadaById(@Param("id") Long id);
+
+    @Query(SELECAO_DTO + " where r.carro.id = :carroId and r.fim > :desde order by r.inicio")
+    List<ReservaDTO> findVigentesByCarroId(@Param("carroId") Long carroId, @Param("desde") LocalDate desde);
+
+    // Carga do índice de reservas: agrupadas por carro e em ordem de início.
+    @Query(SELECAO_DTO + " where r.fim > :desde order by r.carro.id, r.inicio")
+    List<ReservaDTO> findVigentes(@Param("desde") LocalDate desde);
+
+    // Dois períodos [a, b) e [c, d) se sobrepõem quando a < d e c < b. Como nenhuma reserva passa de
+    // DIAS_RESERVA_MAXIMO dias, as que se sobrepõem começam depois de inicioMinimo (inicio menos esse
+    // limite): a faixa em inicio dentro de idx_reservas_carro_periodo fica limitada dos dois lados e não
+    // cresce com o histórico do carro.
+    @Query("select case when count(r) > 0 then true else false end from Reserva r "
+            + "where r.carro.id = :carroId and r.inicio > :inicioMinimo and r.inicio < :fim and r.fim > :inicio")
+    boolean existsSobreposta(@Param("carroId") Long carroId, @Param("inicioMinimo") LocalDate inicioMinimo,
+                             @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+}
@@ -2,7 +2,11 @@ package com.concessionaria.carros.repository;
 
 import com.concessionaria.carros.entity.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -10,4 +14,11 @@ import java.util.Optional;
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByEmail(String email);
     boolean existsByEmail(String email);
-} 
\ No newline at end of file
+
+    // Troca o hash só se ainda for o lido no login: não sobrescreve uma troca de senha feita no meio.
+    @Transactional
+    @Modifying
+    @Query("update Usuario u set u.senha = :novaSenha where u.id = :id and u.senha = :senhaAtual")
+    int atualizarSenha(@Param("id") Long id, @Param("senhaAtual") String senhaAtual,
+                       @Param("novaSenha") String novaSenha);
+}
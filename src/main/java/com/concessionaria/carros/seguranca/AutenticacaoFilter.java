@@ -0,0 +1,58 @@
+package com.concessionaria.carros.seguranca;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+// Resolve a identidade do header Authorization; requisições sem token seguem anônimas.
+public class AutenticacaoFilter extends OncePerRequestFilter {
+
+    public static final String ATRIBUTO_USUARIO = "usuarioAutenticado";
+    private static final String PREFIXO = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public AutenticacaoFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    public static String extrairToken(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, PREFIXO, 0, PREFIXO.length())) {
+            return null;
+        }
+        return authorization.substring(PREFIXO.length()).trim();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/api/usuarios/login");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = extrairToken(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (token == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Optional<UsuarioAutenticado> usuario = tokenService.validar(token);
+        if (usuario.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.getWriter().write("{\"status\":401,\"message\":\"Token inválido ou expirado\"}");
+            return;
+        }
+        request.setAttribute(ATRIBUTO_USUARIO, usuario.get());
+        chain.doFilter(request, response);
+    }
+}
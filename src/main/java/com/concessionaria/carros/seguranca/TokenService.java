@@ -0,0 +1,242 @@
+package com.concessionaria.carros.seguranca;
+
+import com.concessionaria.carros.dto.TokenDTO;
+import com.concessionaria.carros.dto.UsuarioDTO;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.event.UsuarioEvent;
+import com.concessionaria.carros.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Tokens "v1.<payload>.<assinatura>" assinados com HMAC-SHA256 e validados só em memória.
+// O banco é consultado apenas quando a identidade do usuário não está no cache de sessões.
+@Service
+public class TokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final String VERSAO = "v1";
+    private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+
+    private final UsuarioRepository usuarioRepository;
+    private final SecretKeySpec chave;
+    private final Duration validade;
+    private final Clock relogio;
+    private final long maximoRevogados;
+    private final Cache<Long, Identidade> sessoes;
+    private final Cache<String, Long> sessoesRevogadas;
+    private final Cache<Long, Long> usuariosRevogados;
+    private final AtomicLong revogacaoGeral = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenService(UsuarioRepository usuarioRepository,
+                        @Value("${concessionaria.token.segredo:}") String segredo,
+                        @Value("${concessionaria.token.validade:PT1H}") Duration validade,
+                        @Value("${concessionaria.token.sessoes-max:100000}") long maximoSessoes,
+                        @Value("${concessionaria.token.revogados-max:100000}") long maximoRevogados) {
+        this(usuarioRepository, segredo, validade, maximoSessoes, maximoRevogados, Clock.systemUTC());
+    }
+
+    TokenService(UsuarioRepository usuarioRepository, String segredo, Duration validade,
+                 long maximoSessoes, long maximoRevogados, Clock relogio) {
+        this.usuarioRepository = usuarioRepository;
+        this.chave = new SecretKeySpec(decodificarSegredo(segredo), ALGORITMO);
+        this.validade = validade;
+        this.relogio = relogio;
+        this.maximoRevogados = maximoRevogados;
+        this.sessoes = Caffeine.newBuilder()
+                .maximumSize(maximoSessoes)
+                .expireAfterAccess(validade)
+                .build();
+        // Revogações não têm limite de tamanho no Caffeine: descartar uma antes da hora tornaria o token
+        // válido de novo. Cada uma dura até o token expirar por conta própria, e o limite é aplicado em
+        // registrarRevogacao, falhando para o lado fechado.
+        this.sessoesRevogadas = Caffeine.newBuilder()
+                .expireAfter(new ExpiraComOToken(relogio))
+                .build();
+        this.usuariosRevogados = Caffeine.newBuilder()
+                .expireAfterWrite(validade)
+                .build();
+    }
+
+    public TokenDTO emitir(UsuarioDTO usuario) {
+        Instant agora = relogio.instant();
+        Instant expiraEm = agora.plus(validade);
+        String sessao = UUID.randomUUID().toString();
+        String payload = usuario.getId() + ":" + sessao + ":" + agora.toEpochMilli() + ":" + expiraEm.getEpochSecond();
+        String corpo = VERSAO + "." + CODIFICADOR.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        String token = corpo + "." + CODIFICADOR.encodeToString(assinar(corpo));
+
+        sessoes.put(usuario.getId(), new Identidade(usuario.getId(), usuario.getNome(), usuario.getEmail()));
+        logger.info("Token emitido: usuarioId={}, sessao={}", usuario.getId(), sessao);
+        return new TokenDTO(token, "Bearer", expiraEm, usuario);
+    }
+
+    public Optional<UsuarioAutenticado> validar(String token) {
+        Optional<Claims> claims = ler(token);
+        if (claims.isEmpty()) {
+            return Optional.empty();
+        }
+        Claims c = claims.get();
+        if (sessoesRevogadas.getIfPresent(c.sessao()) != null || c.emitidoEm() <= revogacaoGeral.get()) {
+            return Optional.empty();
+        }
+        Long revogadoEm = usuariosRevogados.getIfPresent(c.usuarioId());
+        if (revogadoEm != null && c.emitidoEm() <= revogadoEm) {
+            return Optional.empty();
+        }
+        Identidade identidade = sessoes.get(c.usuarioId(), this::carregarIdentidade);
+        if (identidade == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new UsuarioAutenticado(identidade.id(), identidade.nome(), identidade.email(), c.sessao()));
+    }
+
+    public void revogar(String token) {
+        ler(token).ifPresent(c -> {
+            if (cabe(sessoesRevogadas)) {
+                sessoesRevogadas.put(c.sessao(), c.expiraEm());
+                logger.info("Token revogado: usuarioId={}, sessao={}", c.usuarioId(), c.sessao());
+            } else {
+                logger.warn("Limite de sessões revogadas atingido, revogando todos os tokens do usuário: id={}",
+                        c.usuarioId());
+                revogarUsuario(c.usuarioId());
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarUsuario(UsuarioEvent evento) {
+        Long id = evento.usuario().getId();
+        sessoes.invalidate(id);
+        if (evento.tipo() == TipoEvento.REMOVIDO || evento.senhaAlterada()) {
+            revogarUsuario(id);
+            logger.info("Tokens do usuário revogados: id={}, tipo={}", id, evento.tipo());
+        }
+    }
+
+    // Tokens emitidos até agora deixam de valer. Sem espaço para mais um usuário, a revogação vale para
+    // todos os tokens já emitidos: os clientes precisam entrar de novo, mas nenhum token revogado volta.
+    private void revogarUsuario(Long id) {
+        long agora = relogio.instant().toEpochMilli();
+        if (cabe(usuariosRevogados) || usuariosRevogados.getIfPresent(id) != null) {
+            usuariosRevogados.put(id, agora);
+        } else {
+            logger.warn("Limite de usuários revogados atingido, revogando todos os tokens emitidos");
+            revogacaoGeral.accumulateAndGet(agora, Math::max);
+        }
+    }
+
+    private boolean cabe(Cache<?, ?> revogacoes) {
+        if (revogacoes.estimatedSize() < maximoRevogados) {
+            return true;
+        }
+        revogacoes.cleanUp();
+        return revogacoes.estimatedSize() < maximoRevogados;
+    }
+
+    private Optional<Claims> ler(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int ponto = token.lastIndexOf('.');
+        if (ponto < 0 || !token.startsWith(VERSAO + ".")) {
+            return Optional.empty();
+        }
+        try {
+            String corpo = token.substring(0, ponto);
+            byte[] assinatura = DECODIFICADOR.decode(token.substring(ponto + 1));
+            if (!MessageDigest.isEqual(assinar(corpo), assinatura)) {
+                return Optional.empty();
+            }
+            String payload = new String(DECODIFICADOR.decode(corpo.substring(VERSAO.length() + 1)), StandardCharsets.UTF_8);
+            String[] partes = payload.split(":");
+            Claims claims = new Claims(Long.parseLong(partes[0]), partes[1],
+                    Long.parseLong(partes[2]), Long.parseLong(partes[3]));
+            if (claims.expiraEm() <= relogio.instant().getEpochSecond()) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Identidade carregarIdentidade(Long id) {
+        logger.info("Sessão fora do cache, carregando usuário: id={}", id);
+        return usuarioRepository.findById(id)
+                .map(u -> new Identidade(u.getId(), u.getNome(), u.getEmail()))
+                .orElse(null);
+    }
+
+    private byte[] assinar(String corpo) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac.doFinal(corpo.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao assinar token", e);
+        }
+    }
+
+    private static byte[] decodificarSegredo(String segredo) {
+        if (segredo == null || segredo.isBlank()) {
+            logger.warn("concessionaria.token.segredo não definido: usando chave aleatória, tokens não sobrevivem a reinícios");
+            byte[] aleatorio = new byte[32];
+            new SecureRandom().nextBytes(aleatorio);
+            return aleatorio;
+        }
+        byte[] bytes = Base64.getDecoder().decode(segredo);
+        if (bytes.length < 32) {
+            throw new IllegalStateException("concessionaria.token.segredo deve ter ao menos 256 bits em Base64");
+        }
+        return bytes;
+    }
+
+    // A sessão revogada sai do cache quando o próprio token expiraria (valor = expiração em epoch segundos).
+    private record ExpiraComOToken(Clock relogio) implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String sessao, Long expiraEm, long agora) {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, expiraEm - relogio.instant().getEpochSecond()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String sessao, Long expiraEm, long agora, long duracaoAtual) {
+            return expireAfterCreate(sessao, expiraEm, agora);
+        }
+
+        @Override
+        public long expireAfterRead(String sessao, Long expiraEm, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+
+    private record Claims(Long usuarioId, String sessao, long emitidoEm, long expiraEm) {
+    }
+
+    private record Identidade(Long id, String nome, String email) {
+    }
+}
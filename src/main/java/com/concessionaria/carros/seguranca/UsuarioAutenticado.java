@@ -0,0 +1,5 @@
+package com.concessionaria.carros.seguranca;
+
+// Identidade resolvida a partir do token; disponível como atributo da requisição.
+public record UsuarioAutenticado(Long id, String nome, String email, String sessao) {
+}
@@ -1,64 +1,190 @@
 package com.concessionaria.carros.service;
 
+import com.concessionaria.carros.dto.BuscaCarrosDTO;
 import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.FiltroCarrosDTO;
+import com.concessionaria.carros.dto.ItemLoteDTO;
+import com.concessionaria.carros.dto.PaginaCarrosDTO;
+import com.concessionaria.carros.dto.ResultadoLoteDTO;
+import com.concessionaria.carros.dto.SugestaoDTO;
 import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.TipoEvento;
 import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.exception.ConflitoException;
+import com.concessionaria.carros.exception.RecursoNaoEncontradoException;
+import com.concessionaria.carros.indice.IndiceDisponibilidade;
+import com.concessionaria.carros.indice.IndiceReservas;
+import com.concessionaria.carros.indice.IndiceSugestoes;
 import com.concessionaria.carros.repository.CarroRepository;
+import com.concessionaria.carros.repository.CarroSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.concessionaria.carros.log.Marcadores.LEITURA;
 
 @Service 
 @RequiredArgsConstructor 
 public class CarroService {
 
     private static final Logger logger = LoggerFactory.getLogger(CarroService.class);
+    private static final int TAMANHO_PAGINA_PADRAO = 50;
+    private static final int TAMANHO_PAGINA_MAXIMO = 500;
+    private static final int LIMITE_SUGESTOES_PADRAO = 10;
+    private static final int LIMITE_SUGESTOES_MAXIMO = IndiceSugestoes.LIMITE_MAXIMO;
+    private static final int TAMANHO_MAXIMO_LOTE = 20_000;
+    private static final int TAMANHO_BLOCO_LOTE = 500;
+    private static final int TAMANHO_BUSCA_PADRAO = 20;
+    private static final int TAMANHO_BUSCA_MAXIMO = 100;
+    // Acima disso o OFFSET fica caro; para percorrer tudo existe a listagem por cursor.
+    private static final int DESLOCAMENTO_BUSCA_MAXIMO = 10_000;
+    private static final Set<String> CAMPOS_ORDENACAO_BUSCA =
+            Set.of("id", "marca", "modelo", "ano", "precoVenda", "precoAluguel");
+
     private final CarroRepository carroRepository;
+    private final EntityManager entityManager;
+    private final IndiceDisponibilidade indiceDisponibilidade;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final IndiceSugestoes indiceSugestoes;
+    private final FacetasCarrosService facetasCarrosService;
+    private final IndiceReservas indiceReservas;
 
     @Transactional 
     public CarroDTO criar(CarroDTO dto) {
         logger.info("Criando novo carro: marca={}, modelo={}", dto.getMarca(), dto.getModelo());
         
-        if (carroRepository.existsByMarcaAndModelo(dto.getMarca(), dto.getModelo())) {
-            logger.warn("Tentativa de criar carro duplicado: marca={}, modelo={}", dto.getMarca(), dto.getModelo());
-            throw new BusinessException("Já existe um carro com esta marca e modelo");
+        Carro carro = salvarComChavesUnicas(novoCarro(dto));
+        logger.info("Carro criado com sucesso: id={}", carro.getId());
+        CarroDTO criado = converterParaDTO(carro);
+        eventPublisher.publishEvent(new CarroEvent(TipoEvento.CRIADO, criado));
+        return criado;
+    }
+
+    @Transactional
+    public ResultadoLoteDTO criarEmLote(List<CarroDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new BusinessException("O lote de carros está vazio");
+        }
+        if (dtos.size() > TAMANHO_MAXIMO_LOTE) {
+            logger.warn("Lote de carros acima do limite: tamanho={}", dtos.size());
+            throw new BusinessException("O lote excede o limite de " + TAMANHO_MAXIMO_LOTE + " carros");
         }
+        logger.info("Criando lote de carros: tamanho={}", dtos.size());
 
-        Carro carro = new Carro();
-        carro.setMarca(dto.getMarca());
-        carro.setModelo(dto.getModelo());
-        carro.setAno(dto.getAno());
-        carro.setPlaca(dto.getPlaca());
-        carro.setPrecoVenda(dto.getPrecoVenda());
-        carro.setPrecoAluguel(dto.getPrecoAluguel());
-        carro.setDisponivel(true);
+        Set<String> marcasModelosUsados = new HashSet<>();
+        Set<String> placasUsadas = new HashSet<>();
+        carregarChavesExistentes(dtos, marcasModelosUsados, placasUsadas);
 
-        carro = carroRepository.save(carro);
-        logger.info("Carro criado com sucesso: id={}", carro.getId());
-        return converterParaDTO(carro);
+        List<ItemLoteDTO> itens = new ArrayList<>(dtos.size());
+        List<Carro> bloco = new ArrayList<>(TAMANHO_BLOCO_LOTE);
+        List<ItemLoteDTO> itensBloco = new ArrayList<>(TAMANHO_BLOCO_LOTE);
+        int criados = 0;
+
+        for (int i = 0; i < dtos.size(); i++) {
+            CarroDTO dto = dtos.get(i);
+            String erro = validarItemLote(dto, marcasModelosUsados, placasUsadas);
+            if (erro != null) {
+                itens.add(new ItemLoteDTO(i, null, dto == null ? null : dto.getPlaca(), false, erro));
+                continue;
+            }
+
+            ItemLoteDTO item = new ItemLoteDTO(i, null, dto.getPlaca(), true, null);
+            itens.add(item);
+            itensBloco.add(item);
+            bloco.add(novoCarro(dto));
+            criados++;
+
+            if (bloco.size() == TAMANHO_BLOCO_LOTE) {
+                gravarBloco(bloco, itensBloco);
+            }
+        }
+        gravarBloco(bloco, itensBloco);
+
+        logger.info("Lote de carros processado: criados={}, rejeitados={}", criados, dtos.size() - criados);
+        return new ResultadoLoteDTO(dtos.size(), criados, dtos.size() - criados, itens);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaCarrosDTO listarTodos(String cursor, Integer tamanho) {
+        long aposId = decodificarCursor(cursor);
+        int limite = normalizarTamanhoPagina(tamanho);
+        logger.info(LEITURA, "Listando carros: aposId={}, tamanho={}", aposId, limite);
+
+        // Busca um registro a mais só para saber se existe próxima página.
+        List<Carro> carros = carroRepository.findByIdGreaterThanOrderByIdAsc(aposId, PageRequest.of(0, limite + 1));
+        boolean temProxima = carros.size() > limite;
+
+        List<CarroDTO> itens = carros.stream()
+                .limit(limite)
+                .map(CarroService::converterParaDTO)
+                .collect(Collectors.toList());
+        String proximoCursor = temProxima ? codificarCursor(itens.get(itens.size() - 1).getId()) : null;
+        return new PaginaCarrosDTO(itens, proximoCursor);
     }
 
     @Transactional(readOnly = true)
-    public List<CarroDTO> listarTodos() {
-        logger.info("Listando todos os carros");
-        return carroRepository.findAll().stream()
-                .map(this::converterParaDTO)
+    public BuscaCarrosDTO buscar(FiltroCarrosDTO filtro, Integer pagina, Integer tamanho,
+                                 String ordenarPor, String direcao) {
+        FiltroCarrosDTO normalizado = normalizarFiltro(filtro);
+        PageRequest paginacao = paginacaoBusca(pagina, tamanho, ordenarPor, direcao);
+        logger.info(LEITURA, "Buscando carros: filtro={}, pagina={}, tamanho={}",
+                normalizado, paginacao.getPageNumber(), paginacao.getPageSize());
+
+        Page<Carro> resultado = carroRepository.findAll(CarroSpecifications.filtrar(normalizado), paginacao);
+        List<CarroDTO> itens = resultado.getContent().stream()
+                .map(CarroService::converterParaDTO)
                 .collect(Collectors.toList());
+        return new BuscaCarrosDTO(itens, resultado.getNumber(), resultado.getSize(),
+                resultado.getTotalElements(), resultado.getTotalPages(), facetasCarrosService.calcular(normalizado));
+    }
+
+    @Transactional(readOnly = true)
+    public void transmitirTodos(Consumer<CarroDTO> consumidor) {
+        logger.info(LEITURA, "Transmitindo todos os carros");
+        try (Stream<Carro> carros = carroRepository.streamTodos()) {
+            carros.forEach(carro -> {
+                consumidor.accept(converterParaDTO(carro));
+                // Evita que o contexto de persistência acumule todas as entidades lidas.
+                entityManager.detach(carro);
+            });
+        }
     }
 
+    @Cacheable(cacheNames = "carros", key = "#id")
     @Transactional(readOnly = true)
     public CarroDTO buscarPorId(Long id) {
-        logger.info("Buscando carro por id: {}", id);
+        logger.info(LEITURA, "Buscando carro por id: {}", id);
         return carroRepository.findById(id)
-                .map(this::converterParaDTO)
+                .map(CarroService::converterParaDTO)
                 .orElseThrow(() -> {
                     logger.warn("Carro não encontrado: id={}", id);
-                    return new BusinessException("Carro não encontrado");
+                    return new RecursoNaoEncontradoException("Carro não encontrado");
                 });
     }
 
@@ -69,15 +195,9 @@ public class CarroService {
         Carro carro = carroRepository.findById(id)
                 .orElseThrow(() -> {
                     logger.warn("Carro não encontrado para atualização: id={}", id);
-                    return new BusinessException("Carro não encontrado");
+                    return new RecursoNaoEncontradoException("Carro não encontrado");
                 });
-
-        if (!carro.getMarca().equals(dto.getMarca()) || !carro.getModelo().equals(dto.getModelo())) {
-            if (carroRepository.existsByMarcaAndModelo(dto.getMarca(), dto.getModelo())) {
-                logger.warn("Tentativa de atualizar para marca/modelo duplicado: marca={}, modelo={}", dto.getMarca(), dto.getModelo());
-                throw new BusinessException("Já existe um carro com esta marca e modelo");
-            }
-        }
+        CarroDTO anterior = converterParaDTO(carro);
 
         carro.setMarca(dto.getMarca());
         carro.setModelo(dto.getModelo());
@@ -86,70 +206,259 @@ public class CarroService {
         carro.setPrecoVenda(dto.getPrecoVenda());
         carro.setPrecoAluguel(dto.getPrecoAluguel());
 
-        carro = carroRepository.save(carro);
+        carro = salvarComChavesUnicas(carro);
         logger.info("Carro atualizado com sucesso: id={}", carro.getId());
-        return converterParaDTO(carro);
+        CarroDTO atualizado = converterParaDTO(carro);
+        eventPublisher.publishEvent(new CarroEvent(TipoEvento.ATUALIZADO, atualizado, anterior));
+        return atualizado;
     }
 
     @Transactional
     public void deletar(Long id) {
         logger.info("Deletando carro: id={}", id);
         
-        if (!carroRepository.existsById(id)) {
-            logger.warn("Tentativa de deletar carro inexistente: id={}", id);
-            throw new BusinessException("Carro não encontrado");
-        }
+        Carro carro = carroRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.warn("Tentativa de deletar carro inexistente: id={}", id);
+                    return new RecursoNaoEncontradoException("Carro não encontrado");
+                });
         
-        carroRepository.deleteById(id);
+        carroRepository.delete(carro);
         logger.info("Carro deletado com sucesso: id={}", id);
+        eventPublisher.publishEvent(new CarroEvent(TipoEvento.REMOVIDO, converterParaDTO(carro)));
     }
 
     @Transactional(readOnly = true)
     public List<CarroDTO> buscarPorMarca(String marca) {
-        logger.info("Buscando carros por marca: {}", marca);
-        List<Carro> carros = carroRepository.findByMarca(marca);
-        if (carros.isEmpty()) {
-            logger.warn("Nenhum carro encontrado para a marca: {}", marca);
-            throw new BusinessException("Nenhum carro encontrado para a marca: " + marca);
-        }
-
-        return carros.stream()
-                .map(this::converterParaDTO)
+        logger.info(LEITURA, "Buscando carros por marca: {}", marca);
+        return carroRepository.findByMarca(marca).stream()
+                .map(CarroService::converterParaDTO)
                 .collect(Collectors.toList());
     }
 
+    @Cacheable(cacheNames = "carrosPorMarcaModelo", key = "#marca + '|' + #modelo")
     @Transactional(readOnly = true)
     public CarroDTO buscarPorMarcaEModelo(String marca, String modelo) {
-        logger.info("Buscando carro por marca e modelo: marca={}, modelo={}", marca, modelo);
+        logger.info(LEITURA, "Buscando carro por marca e modelo: marca={}, modelo={}", marca, modelo);
         List<Carro> carros = carroRepository.findByMarcaAndModelo(marca, modelo);
         if (carros.isEmpty()) {
             logger.warn("Nenhum carro encontrado para marca={} e modelo={}", marca, modelo);
-            throw new BusinessException("Nenhum carro encontrado para a marca e modelo especificados");
+            throw new RecursoNaoEncontradoException("Nenhum carro encontrado para a marca e modelo especificados");
         }
 
         return converterParaDTO(carros.get(0));
     }
 
-    @Transactional(readOnly = true)
     public List<CarroDTO> buscarDisponiveis() {
-        logger.info("Buscando carros disponíveis");
-        return carroRepository.findByDisponivelTrue().stream()
-                .map(this::converterParaDTO)
+        logger.info(LEITURA, "Buscando carros disponíveis");
+        return indiceDisponibilidade.listarDisponiveis();
+    }
+
+    // Disponíveis hoje e sem reserva que toque o período [de, ate). Aluguéis em andamento não têm data
+    // de devolução, então um carro alugado agora não entra mesmo que volte antes de "de".
+    public List<CarroDTO> buscarDisponiveisNoPeriodo(LocalDate de, LocalDate ate) {
+        logger.info(LEITURA, "Buscando carros livres no período: de={}, ate={}", de, ate);
+        ReservaService.validarPeriodo(de, ate);
+        return indiceDisponibilidade.listarDisponiveis().stream()
+                .filter(carro -> indiceReservas.livre(carro.getId(), de, ate))
                 .collect(Collectors.toList());
     }
 
+    public List<CarroDTO> buscarDisponiveisPorMarca(String marca) {
+        logger.info(LEITURA, "Buscando carros disponíveis por marca: {}", marca);
+        return indiceDisponibilidade.listarDisponiveisPorMarca(marca);
+    }
+
+    public List<SugestaoDTO> sugerir(String consulta, Integer limite) {
+        // Chamado a cada tecla digitada: fica em debug para não inundar o log.
+        logger.debug(LEITURA, "Buscando sugestões: q={}", consulta);
+        int tamanho = limite == null || limite < 1 ? LIMITE_SUGESTOES_PADRAO : Math.min(limite, LIMITE_SUGESTOES_MAXIMO);
+        return indiceSugestoes.sugerir(consulta, tamanho);
+    }
+
+    @Cacheable(cacheNames = "carrosPorPlaca", key = "#placa")
     @Transactional(readOnly = true)
     public CarroDTO buscarPorPlaca(String placa) {
-        logger.info("Buscando carro por placa: {}", placa);
+        logger.info(LEITURA, "Buscando carro por placa: {}", placa);
         return carroRepository.findByPlaca(placa)
-                .map(this::converterParaDTO)
+                .map(CarroService::converterParaDTO)
                 .orElseThrow(() -> {
                     logger.warn("Carro não encontrado com a placa: {}", placa);
-                    return new BusinessException("Carro não encontrado com a placa: " + placa);
+                    return new RecursoNaoEncontradoException("Carro não encontrado com a placa: " + placa);
                 });
     }
 
-    private CarroDTO converterParaDTO(Carro carro) {
+    // Unicidade de marca/modelo e placa garantida pelo banco; o flush antecipa a violação para dentro do método.
+    private Carro salvarComChavesUnicas(Carro carro) {
+        try {
+            return carroRepository.saveAndFlush(carro);
+        } catch (DataIntegrityViolationException e) {
+            String causa = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+            if (causa.contains("uk_carros_marca_modelo")) {
+                logger.warn("Carro duplicado: marca={}, modelo={}", carro.getMarca(), carro.getModelo());
+                throw new ConflitoException("Já existe um carro com esta marca e modelo");
+            }
+            if (causa.contains("uk_carros_placa")) {
+                logger.warn("Placa duplicada: placa={}", carro.getPlaca());
+                throw new ConflitoException("Já existe um carro com esta placa");
+            }
+            throw e;
+        }
+    }
+
+    private void carregarChavesExistentes(List<CarroDTO> dtos, Set<String> marcasModelos, Set<String> placas) {
+        Set<String> marcas = new HashSet<>();
+        Set<String> modelos = new HashSet<>();
+        Set<String> placasLote = new HashSet<>();
+        for (CarroDTO dto : dtos) {
+            if (dto != null) {
+                marcas.add(Objects.toString(dto.getMarca(), ""));
+                modelos.add(Objects.toString(dto.getModelo(), ""));
+                placasLote.add(Objects.toString(dto.getPlaca(), ""));
+            }
+        }
+        for (CarroRepository.ChaveCarro chave : carroRepository.findChavesExistentes(marcas, modelos, placasLote)) {
+            marcasModelos.add(chaveMarcaModelo(chave.getMarca(), chave.getModelo()));
+            placas.add(chave.getPlaca());
+        }
+    }
+
+    private String validarItemLote(CarroDTO dto, Set<String> marcasModelosUsados, Set<String> placasUsadas) {
+        if (dto == null) {
+            return "Carro ausente";
+        }
+        Set<ConstraintViolation<CarroDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            return violacoes.iterator().next().getMessage();
+        }
+        if (!marcasModelosUsados.add(chaveMarcaModelo(dto.getMarca(), dto.getModelo()))) {
+            return "Já existe um carro com esta marca e modelo";
+        }
+        if (!placasUsadas.add(dto.getPlaca())) {
+            return "Já existe um carro com esta placa";
+        }
+        return null;
+    }
+
+    private void gravarBloco(List<Carro> bloco, List<ItemLoteDTO> itensBloco) {
+        if (bloco.isEmpty()) {
+            return;
+        }
+        carroRepository.saveAll(bloco);
+        entityManager.flush();
+        for (int i = 0; i < bloco.size(); i++) {
+            Carro carro = bloco.get(i);
+            itensBloco.get(i).setId(carro.getId());
+            eventPublisher.publishEvent(new CarroEvent(TipoEvento.CRIADO, converterParaDTO(carro)));
+        }
+        // Libera as entidades já gravadas para o contexto de persistência não crescer com o lote.
+        entityManager.clear();
+        bloco.clear();
+        itensBloco.clear();
+    }
+
+    private String chaveMarcaModelo(String marca, String modelo) {
+        return marca + "|" + modelo;
+    }
+
+    private Carro novoCarro(CarroDTO dto) {
+        Carro carro = new Carro();
+        carro.setMarca(dto.getMarca());
+        carro.setModelo(dto.getModelo());
+        carro.setAno(dto.getAno());
+        carro.setPlaca(dto.getPlaca());
+        carro.setPrecoVenda(dto.getPrecoVenda());
+        carro.setPrecoAluguel(dto.getPrecoAluguel());
+        carro.setDisponivel(true);
+        return carro;
+    }
+
+    private int normalizarTamanhoPagina(Integer tamanho) {
+        if (tamanho == null) {
+            return TAMANHO_PAGINA_PADRAO;
+        }
+        if (tamanho <= 0) {
+            throw new BusinessException("O tamanho da página deve ser positivo");
+        }
+        return Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+    }
+
+    // Cópia com as marcas sem repetição e em ordem, para que filtros equivalentes caiam na mesma
+    // entrada do cache de facetas.
+    private FiltroCarrosDTO normalizarFiltro(FiltroCarrosDTO filtro) {
+        FiltroCarrosDTO normalizado = filtro == null ? new FiltroCarrosDTO() : new FiltroCarrosDTO(
+                filtro.getAnoMin(), filtro.getAnoMax(),
+                filtro.getPrecoVendaMin(), filtro.getPrecoVendaMax(),
+                filtro.getPrecoAluguelMin(), filtro.getPrecoAluguelMax(),
+                filtro.getMarca(), filtro.getDisponivel());
+        if (normalizado.getMarca() != null) {
+            List<String> marcas = normalizado.getMarca().stream()
+                    .filter(Objects::nonNull)
+                    .map(String::trim)
+                    .filter(marca -> !marca.isEmpty())
+                    .distinct()
+                    .sorted()
+                    .collect(Collectors.toList());
+            normalizado.setMarca(marcas.isEmpty() ? null : marcas);
+        }
+        validarIntervalo("ano", normalizado.getAnoMin(), normalizado.getAnoMax());
+        validarIntervalo("preço de venda", normalizado.getPrecoVendaMin(), normalizado.getPrecoVendaMax());
+        validarIntervalo("preço de aluguel", normalizado.getPrecoAluguelMin(), normalizado.getPrecoAluguelMax());
+        return normalizado;
+    }
+
+    private <T extends Comparable<? super T>> void validarIntervalo(String campo, T minimo, T maximo) {
+        if (minimo != null && maximo != null && minimo.compareTo(maximo) > 0) {
+            throw new BusinessException("Intervalo de " + campo + " inválido: mínimo maior que o máximo");
+        }
+    }
+
+    private PageRequest paginacaoBusca(Integer pagina, Integer tamanho, String ordenarPor, String direcao) {
+        int numero = pagina == null ? 0 : pagina;
+        if (numero < 0) {
+            throw new BusinessException("O número da página não pode ser negativo");
+        }
+        if (tamanho != null && tamanho <= 0) {
+            throw new BusinessException("O tamanho da página deve ser positivo");
+        }
+        int limite = tamanho == null ? TAMANHO_BUSCA_PADRAO : Math.min(tamanho, TAMANHO_BUSCA_MAXIMO);
+        if ((long) numero * limite > DESLOCAMENTO_BUSCA_MAXIMO) {
+            throw new BusinessException("Página muito distante; refine os filtros ou use a listagem por cursor");
+        }
+
+        String campo = ordenarPor == null ? "id" : ordenarPor;
+        if (!CAMPOS_ORDENACAO_BUSCA.contains(campo)) {
+            throw new BusinessException("Campo de ordenação inválido: " + campo);
+        }
+        Sort.Direction sentido = direcao == null ? Sort.Direction.ASC : Sort.Direction.fromOptionalString(direcao)
+                .orElseThrow(() -> new BusinessException("Direção de ordenação inválida: " + direcao));
+        // O id desempata registros iguais no campo escolhido e mantém as páginas estáveis.
+        Sort ordenacao = Sort.by(sentido, campo);
+        if (!"id".equals(campo)) {
+            ordenacao = ordenacao.and(Sort.by(Sort.Direction.ASC, "id"));
+        }
+        return PageRequest.of(numero, limite, ordenacao);
+    }
+
+    private String codificarCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cursor inválido recebido: {}", cursor);
+            throw new BusinessException("Cursor inválido");
+        }
+    }
+
+    // Também usada pelo OperacaoService nos eventos de carro das operações.
+    static CarroDTO converterParaDTO(Carro carro) {
         CarroDTO dto = new CarroDTO();
         dto.setId(carro.getId());
         dto.setMarca(carro.getMarca());
@@ -0,0 +1,90 @@
+package com.concessionaria.carros.service;
+
+import com.concessionaria.carros.dto.FacetasCarrosDTO;
+import com.concessionaria.carros.dto.FiltroCarrosDTO;
+import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.repository.CarroSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.concessionaria.carros.log.Marcadores.LEITURA;
+
+@Service
+@RequiredArgsConstructor
+public class FacetasCarrosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetasCarrosService.class);
+    static final int TAMANHO_FAIXA_ANO = 5;
+
+    private final EntityManager entityManager;
+
+    // Facetas disjuntivas: a contagem por marca respeita todos os filtros menos o de marca, e a por faixa
+    // de ano todos menos o de ano. Uma única consulta agrupada por (marca, ano) alimenta as duas dimensões.
+    @Cacheable(cacheNames = "facetasCarros", key = "#filtro")
+    @Transactional(readOnly = true)
+    public FacetasCarrosDTO calcular(FiltroCarrosDTO filtro) {
+        logger.info(LEITURA, "Calculando facetas de carros: filtro={}", filtro);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = cb.createTupleQuery();
+        Root<Carro> carro = consulta.from(Carro.class);
+        Path<String> marca = carro.get("marca");
+        Path<Integer> ano = carro.get("ano");
+        consulta.multiselect(marca, ano, cb.count(carro))
+                .where(CarroSpecifications.filtrar(filtro, false, false).toPredicate(carro, consulta, cb))
+                .groupBy(marca, ano);
+
+        Map<String, Long> marcas = new HashMap<>();
+        Map<String, Long> faixasAno = new TreeMap<>();
+        for (Tuple linha : entityManager.createQuery(consulta).getResultList()) {
+            String marcaLinha = linha.get(0, String.class);
+            Integer anoLinha = linha.get(1, Integer.class);
+            long quantidade = linha.get(2, Long.class);
+            if (atendeAno(filtro, anoLinha)) {
+                marcas.merge(marcaLinha, quantidade, Long::sum);
+            }
+            if (atendeMarca(filtro, marcaLinha)) {
+                faixasAno.merge(faixaAno(anoLinha), quantidade, Long::sum);
+            }
+        }
+        return new FacetasCarrosDTO(ordenarPorQuantidade(marcas), faixasAno);
+    }
+
+    static String faixaAno(int ano) {
+        int inicio = ano - Math.floorMod(ano, TAMANHO_FAIXA_ANO);
+        return inicio + "-" + (inicio + TAMANHO_FAIXA_ANO - 1);
+    }
+
+    private boolean atendeAno(FiltroCarrosDTO filtro, int ano) {
+        return (filtro.getAnoMin() == null || ano >= filtro.getAnoMin())
+                && (filtro.getAnoMax() == null || ano <= filtro.getAnoMax());
+    }
+
+    private boolean atendeMarca(FiltroCarrosDTO filtro, String marca) {
+        return filtro.getMarca() == null || filtro.getMarca().isEmpty() || filtro.getMarca().contains(marca);
+    }
+
+    private Map<String, Long> ordenarPorQuantidade(Map<String, Long> contagens) {
+        Map<String, Long> ordenado = new LinkedHashMap<>();
+        contagens.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entrada -> ordenado.put(entrada.getKey(), entrada.getValue()));
+        return ordenado;
+    }
+}
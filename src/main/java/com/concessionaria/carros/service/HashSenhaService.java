@@ -0,0 +1,141 @@
+package com.concessionaria.carros.service;
+
+import com.concessionaria.carros.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+// BCrypt em um pool limitado ao número de núcleos: picos de cadastro não consomem as threads do Tomcat
+// e, com o pool e a fila cheios, o pedido é recusado com 503 em vez de acumular latência.
+@Service
+public class HashSenhaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashSenhaService.class);
+    private static final Pattern FORMATO_BCRYPT = Pattern.compile("\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final Timer tempoGerar;
+    private final Timer tempoVerificar;
+    private final Timer espera;
+    private final Counter rejeitados;
+
+    public HashSenhaService(MeterRegistry meterRegistry,
+                            @Value("${concessionaria.senha.custo:10}") int custo,
+                            @Value("${concessionaria.senha.threads:0}") int threads,
+                            @Value("${concessionaria.senha.fila:64}") int capacidadeFila,
+                            @Value("${concessionaria.senha.timeout-ms:5000}") long timeoutMs) {
+        int tamanhoPool = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequencia = new AtomicInteger();
+        this.encoder = new BCryptPasswordEncoder(custo);
+        this.timeoutMs = timeoutMs;
+        this.executor = new ThreadPoolExecutor(tamanhoPool, tamanhoPool, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "hash-senha-" + sequencia.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.tempoGerar = tempo(meterRegistry, "gerar");
+        this.tempoVerificar = tempo(meterRegistry, "verificar");
+        this.espera = Timer.builder("concessionaria.senha.fila.espera")
+                .description("Tempo que o pedido de hash aguardou na fila do pool")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejeitados = Counter.builder("concessionaria.senha.rejeitados")
+                .description("Pedidos de hash recusados com o pool saturado")
+                .register(meterRegistry);
+        Gauge.builder("concessionaria.senha.fila.profundidade", executor.getQueue(), BlockingQueue::size)
+                .description("Pedidos de hash aguardando uma thread livre")
+                .register(meterRegistry);
+        logger.info("Pool de hash de senhas iniciado: threads={}, fila={}, custo={}", tamanhoPool, capacidadeFila, custo);
+    }
+
+    public String gerarHash(String senha) {
+        return executar(tempoGerar, () -> encoder.encode(senha));
+    }
+
+    // Usuários cadastrados antes do BCrypt têm a senha em texto puro no banco: ela ainda é aceita, com
+    // comparação em tempo constante, e precisaAtualizar faz o login seguinte gravar o hash no lugar.
+    public boolean verificar(String senha, String hash) {
+        if (senha == null || hash == null) {
+            return false;
+        }
+        if (!ehBcrypt(hash)) {
+            return MessageDigest.isEqual(senha.getBytes(StandardCharsets.UTF_8),
+                    hash.getBytes(StandardCharsets.UTF_8));
+        }
+        return executar(tempoVerificar, () -> encoder.matches(senha, hash));
+    }
+
+    public boolean precisaAtualizar(String hash) {
+        return !ehBcrypt(hash) || encoder.upgradeEncoding(hash);
+    }
+
+    private static boolean ehBcrypt(String hash) {
+        return FORMATO_BCRYPT.matcher(hash).matches();
+    }
+
+    private <T> T executar(Timer tempo, Callable<T> tarefa) {
+        long enfileiradoEm = System.nanoTime();
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(() -> {
+                espera.record(System.nanoTime() - enfileiradoEm, TimeUnit.NANOSECONDS);
+                return tempo.recordCallable(tarefa);
+            });
+        } catch (RejectedExecutionException e) {
+            rejeitados.increment();
+            logger.warn("Pool de hash de senhas saturado: fila={}", executor.getQueue().size());
+            throw new ServicoSobrecarregadoException("Serviço temporariamente sobrecarregado, tente novamente");
+        }
+        try {
+            return futuro.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            logger.warn("Tempo esgotado aguardando hash de senha: {}ms", timeoutMs);
+            throw new ServicoSobrecarregadoException("Serviço temporariamente sobrecarregado, tente novamente");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando hash de senha", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao processar senha", e.getCause());
+        }
+    }
+
+    private static Timer tempo(MeterRegistry meterRegistry, String operacao) {
+        return Timer.builder("concessionaria.senha.hash")
+                .description("Tempo de CPU gasto no BCrypt")
+                .tag("operacao", operacao)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void parar() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,195 @@
+package com.concessionaria.carros.service;
+
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.dto.PedidoOperacaoDTO;
+import com.concessionaria.carros.dto.PedidoOperacaoDTO.StatusPedido;
+import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.exception.FilaCheiaException;
+import com.concessionaria.carros.exception.RecursoNaoEncontradoException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Recebe operações em uma fila limitada e grava várias por transação em uma única thread escritora.
+@Service
+public class OperacaoAssincronaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperacaoAssincronaService.class);
+
+    private final OperacaoService operacaoService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate porPedido;
+    private final BlockingQueue<Pedido> fila;
+    private final Cache<String, PedidoOperacaoDTO> pedidos;
+    private final int tamanhoLote;
+    private final Timer atraso;
+    private final ExecutorService escritor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "operacoes-escritor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean ativo = true;
+
+    public OperacaoAssincronaService(OperacaoService operacaoService,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${concessionaria.operacoes.fila.capacidade:10000}") int capacidade,
+                                     @Value("${concessionaria.operacoes.fila.lote:200}") int tamanhoLote) {
+        this.operacaoService = operacaoService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.porPedido = new TransactionTemplate(transactionManager);
+        this.porPedido.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.tamanhoLote = tamanhoLote;
+        this.pedidos = Caffeine.newBuilder()
+                .maximumSize(capacidade * 10L)
+                .expireAfterWrite(Duration.ofHours(1))
+                .build();
+        this.atraso = Timer.builder("concessionaria.operacoes.fila.atraso")
+                .description("Tempo entre o recebimento do pedido e a gravação da operação")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("concessionaria.operacoes.fila.profundidade", fila, BlockingQueue::size)
+                .description("Pedidos de operação aguardando gravação")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        escritor.submit(this::drenar);
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        ativo = false;
+        escritor.shutdown();
+        if (!escritor.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("Escritor de operações encerrado com {} pedidos pendentes", fila.size());
+        }
+    }
+
+    public PedidoOperacaoDTO enfileirar(OperacaoDTO dto) {
+        PedidoOperacaoDTO pedido = new PedidoOperacaoDTO(UUID.randomUUID().toString(), StatusPedido.PENDENTE,
+                LocalDateTime.now(), null, null);
+        pedidos.put(pedido.getId(), pedido);
+        if (!fila.offer(new Pedido(pedido.getId(), dto, System.nanoTime()))) {
+            pedidos.invalidate(pedido.getId());
+            logger.warn("Fila de operações cheia: pendentes={}", fila.size());
+            throw new FilaCheiaException("Fila de operações cheia, tente novamente em instantes");
+        }
+        logger.info("Operação enfileirada: pedidoId={}, marca={}", pedido.getId(), dto.getMarca());
+        return pedido;
+    }
+
+    public PedidoOperacaoDTO buscarPedido(String id) {
+        PedidoOperacaoDTO pedido = pedidos.getIfPresent(id);
+        if (pedido == null) {
+            logger.warn("Pedido de operação não encontrado: id={}", id);
+            throw new RecursoNaoEncontradoException("Pedido de operação não encontrado");
+        }
+        return pedido;
+    }
+
+    private void drenar() {
+        List<Pedido> lote = new ArrayList<>(tamanhoLote);
+        while (ativo || !fila.isEmpty()) {
+            try {
+                Pedido primeiro = fila.poll(500, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                fila.drainTo(lote, tamanhoLote - 1);
+                processarLote(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Falha inesperada no escritor de operações", e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    // Cada pedido roda em um savepoint do lote: uma recusa de regra de negócio desfaz só o próprio pedido, e o
+    // lote segue em uma transação. OperacaoService.criar valida tudo antes de gravar, então o contexto de
+    // persistência não guarda nada do pedido recusado.
+    private void processarLote(List<Pedido> lote) {
+        BusinessException[] recusas = new BusinessException[lote.size()];
+        try {
+            List<OperacaoDTO> criadas = transactionTemplate.execute(status -> {
+                List<OperacaoDTO> resultado = new ArrayList<>(lote.size());
+                for (int i = 0; i < lote.size(); i++) {
+                    Pedido pedido = lote.get(i);
+                    try {
+                        resultado.add(porPedido.execute(savepoint -> operacaoService.criar(pedido.dto())));
+                    } catch (BusinessException erro) {
+                        recusas[i] = erro;
+                        resultado.add(null);
+                    }
+                }
+                return resultado;
+            });
+            for (int i = 0; i < lote.size(); i++) {
+                if (recusas[i] != null) {
+                    falhar(lote.get(i), recusas[i]);
+                } else {
+                    concluir(lote.get(i), criadas.get(i));
+                }
+            }
+            logger.info("Lote de operações gravado: tamanho={}", lote.size());
+        } catch (RuntimeException e) {
+            // Falha de banco ou no commit desfaz o lote inteiro; refaz cada um em sua própria transação.
+            logger.warn("Lote de {} operações falhou, reprocessando individualmente: {}", lote.size(), e.getMessage());
+            for (Pedido pedido : lote) {
+                try {
+                    concluir(pedido, transactionTemplate.execute(status -> operacaoService.criar(pedido.dto())));
+                } catch (RuntimeException erro) {
+                    falhar(pedido, erro);
+                }
+            }
+        }
+    }
+
+    private void concluir(Pedido pedido, OperacaoDTO operacao) {
+        atraso.record(System.nanoTime() - pedido.recebidoEm(), TimeUnit.NANOSECONDS);
+        atualizar(pedido, StatusPedido.CONCLUIDO, operacao, null);
+    }
+
+    private void falhar(Pedido pedido, RuntimeException erro) {
+        atraso.record(System.nanoTime() - pedido.recebidoEm(), TimeUnit.NANOSECONDS);
+        logger.warn("Pedido de operação rejeitado: pedidoId={}, motivo={}", pedido.id(), erro.getMessage());
+        atualizar(pedido, StatusPedido.FALHOU, null, erro.getMessage());
+    }
+
+    private void atualizar(Pedido pedido, StatusPedido status, OperacaoDTO operacao, String mensagem) {
+        pedidos.asMap().computeIfPresent(pedido.id(), (id, atual) ->
+                new PedidoOperacaoDTO(id, status, atual.getRecebidoEm(), operacao, mensagem));
+    }
+
+    private record Pedido(String id, OperacaoDTO dto, long recebidoEm) {
+    }
+}
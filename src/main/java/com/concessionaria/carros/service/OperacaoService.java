@@ -1,48 +1,122 @@
 package com.concessionaria.carros.service;
 
+import com.concessionaria.carros.arquivo.ArquivoOperacoes;
 import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.dto.RelatorioOperacoesDTO;
+import com.concessionaria.carros.dto.TotalGrupoDTO;
 import com.concessionaria.carros.entity.Carro;
 import com.concessionaria.carros.entity.Operacao;
+import com.concessionaria.carros.entity.Reserva;
 import com.concessionaria.carros.entity.Usuario;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.OperacaoEvent;
+import com.concessionaria.carros.event.TipoEvento;
 import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.exception.ConflitoException;
+import com.concessionaria.carros.exception.RecursoNaoEncontradoException;
 import com.concessionaria.carros.repository.CarroRepository;
 import com.concessionaria.carros.repository.OperacaoRepository;
+import com.concessionaria.carros.repository.ReservaRepository;
 import com.concessionaria.carros.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
+import static com.concessionaria.carros.log.Marcadores.LEITURA;
+
 @Service // Define esta classe como um componente de serviço do Spring.
 @RequiredArgsConstructor // Gera automaticamente o construtor com os atributos 'final'.
 public class OperacaoService {
 
     private static final Logger logger = LoggerFactory.getLogger(OperacaoService.class);
+    private static final int DIAS_RELATORIO_PADRAO = 30;
+    private static final int DIAS_RELATORIO_DIARIO_MAXIMO = 366;
+    private static final int DIAS_RELATORIO_MENSAL_MAXIMO = 3_660;
+    static final int DIAS_FOLGA_ALUGUEL = 7;
     private final OperacaoRepository operacaoRepository;
     private final CarroRepository carroRepository;
     private final UsuarioRepository usuarioRepository;
+    private final ReservaRepository reservaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ArquivoOperacoes arquivoOperacoes;
 
     @Transactional
     public OperacaoDTO criar(OperacaoDTO dto) {
         logger.info("Criando nova operação: marca={}, clienteId={}, tipo={}", dto.getMarca(), dto.getClienteId(), dto.getTipo());
         
-        List<Carro> carros = carroRepository.findByMarca(dto.getMarca());
-        if (carros.isEmpty()) {
-            logger.warn("Nenhum carro encontrado para a marca: {}", dto.getMarca());
-            throw new BusinessException("Nenhum carro encontrado para a marca: " + dto.getMarca());
-        }
-        Carro carro = carros.get(0);
-
         Usuario cliente = usuarioRepository.findById(dto.getClienteId())
                 .orElseThrow(() -> {
                     logger.warn("Cliente não encontrado: id={}", dto.getClienteId());
-                    return new BusinessException("Cliente não encontrado");
+                    return new RecursoNaoEncontradoException("Cliente não encontrado");
+                });
+
+        // Trava só o carro escolhido e pula os que outras transações já reservaram. Venda não pode levar
+        // carro com reserva atual ou futura. Aluguel não tem data de devolução: prefere carro sem reserva
+        // nenhuma e, faltando esse, aceita um cuja próxima reserva comece depois de DIAS_FOLGA_ALUGUEL.
+        LocalDate hoje = LocalDate.now();
+        LocalDate semReserva = hoje.plusDays(ReservaService.DIAS_ANTECEDENCIA_MAXIMA);
+        Carro carro = buscarLivre(dto.getMarca(), hoje, semReserva)
+                .or(() -> dto.getTipo() == Operacao.TipoOperacao.ALUGUEL
+                        ? buscarLivre(dto.getMarca(), hoje, hoje.plusDays(DIAS_FOLGA_ALUGUEL))
+                        : Optional.empty())
+                .orElseThrow(() -> {
+                    logger.warn("Nenhum carro disponível para a marca: {}", dto.getMarca());
+                    return new ConflitoException("Nenhum carro disponível para a marca: " + dto.getMarca());
                 });
 
+        return registrar(carro, cliente, dto);
+    }
+
+    // Aluguel do carro de uma reserva em curso. A busca de carros livres pula carros com reserva em curso, então
+    // este é o único caminho para o cliente que reservou retirar o carro.
+    @Transactional
+    public OperacaoDTO alugarReserva(Long reservaId, OperacaoDTO dto) {
+        logger.info("Alugando carro da reserva: reservaId={}, clienteId={}", reservaId, dto.getClienteId());
+        if (dto.getTipo() != Operacao.TipoOperacao.ALUGUEL) {
+            throw new BusinessException("Uma reserva só pode ser convertida em aluguel");
+        }
+        Reserva reserva = reservaRepository.findById(reservaId)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Reserva não encontrada"));
+        Usuario cliente = reserva.getCliente();
+        if (!cliente.getId().equals(dto.getClienteId())) {
+            logger.warn("Reserva de outro cliente: reservaId={}, clienteId={}", reservaId, dto.getClienteId());
+            throw new ConflitoException("A reserva pertence a outro cliente");
+        }
+        LocalDate hoje = LocalDate.now();
+        if (reserva.getInicio().isAfter(hoje) || !reserva.getFim().isAfter(hoje)) {
+            throw new ConflitoException("A reserva não está em curso hoje");
+        }
+
+        // Mesma trava das reservas: serializa com outro aluguel ou reserva do mesmo carro.
+        Carro carro = carroRepository.findComTravaById(reserva.getCarro().getId())
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Carro não encontrado"));
+        return registrar(carro, cliente, dto);
+    }
+
+    private Optional<Carro> buscarLivre(String marca, LocalDate hoje, LocalDate limite) {
+        return carroRepository.findLivresParaOperacao(marca, hoje, limite, PageRequest.of(0, 1)).stream().findFirst();
+    }
+
+    private OperacaoDTO registrar(Carro carro, Usuario cliente, OperacaoDTO dto) {
         validarOperacao(carro, dto.getTipo());
 
         Operacao operacao = new Operacao();
@@ -53,29 +127,32 @@ public class OperacaoService {
 
         carro.setDisponivel(false);
         carroRepository.save(carro);
+        eventPublisher.publishEvent(new CarroEvent(TipoEvento.ATUALIZADO, CarroService.converterParaDTO(carro)));
 
         operacao = operacaoRepository.save(operacao);
         logger.info("Operação criada com sucesso: id={}", operacao.getId());
 
-        return converterParaDTO(operacao);
+        OperacaoDTO criada = converterParaDTO(operacao);
+        eventPublisher.publishEvent(new OperacaoEvent(TipoEvento.CRIADO, criada));
+        return criada;
     }
 
+    // Só as operações ainda no banco: juntar o arquivo inteiro a cada listagem desfaria o arquivamento.
+    // As arquivadas aparecem nas buscas por id, carro, cliente e tipo e nos relatórios.
     @Transactional(readOnly = true)
     public List<OperacaoDTO> listarTodos() {
-        logger.info("Listando todas as operações");
-        return operacaoRepository.findAll().stream()
-                .map(this::converterParaDTO)
-                .collect(Collectors.toList());
+        logger.info(LEITURA, "Listando todas as operações");
+        return operacaoRepository.findAllProjetadas();
     }
 
     @Transactional(readOnly = true)
     public OperacaoDTO buscarPorId(Long id) {
-        logger.info("Buscando operação por id: {}", id);
-        return operacaoRepository.findById(id)
-                .map(this::converterParaDTO)
+        logger.info(LEITURA, "Buscando operação por id: {}", id);
+        return operacaoRepository.findProjetadaById(id)
+                .or(() -> arquivoOperacoes.buscarPorId(id))
                 .orElseThrow(() -> {
                     logger.warn("Operação não encontrada: id={}", id);
-                    return new BusinessException("Operação não encontrada");
+                    return new RecursoNaoEncontradoException("Operação não encontrada");
                 });
     }
 
@@ -83,81 +160,167 @@ public class OperacaoService {
     public OperacaoDTO finalizarAluguel(Long id) {
         logger.info("Finalizando aluguel: id={}", id);
         
-        Operacao operacao = operacaoRepository.findById(id)
+        Operacao operacao = operacaoRepository.findComCarroById(id)
                 .orElseThrow(() -> {
                     logger.warn("Operação não encontrada para finalização: id={}", id);
-                    return new BusinessException("Operação não encontrada");
+                    return new RecursoNaoEncontradoException("Operação não encontrada");
                 });
 
         if (operacao.getTipo() != Operacao.TipoOperacao.ALUGUEL) {
             logger.warn("Tentativa de finalizar operação que não é aluguel: id={}, tipo={}", id, operacao.getTipo());
-            throw new BusinessException("Apenas aluguéis podem ser finalizados");
+            throw new ConflitoException("Apenas aluguéis podem ser finalizados");
         }
 
         if (operacao.getDataDevolucao() != null) {
             logger.warn("Tentativa de finalizar aluguel já finalizado: id={}", id);
-            throw new BusinessException("Este aluguel já foi finalizado");
+            throw new ConflitoException("Este aluguel já foi finalizado");
         }
 
         operacao.setDataDevolucao(java.time.LocalDateTime.now());
         operacao.getCarro().setDisponivel(true);
         carroRepository.save(operacao.getCarro());
+        eventPublisher.publishEvent(new CarroEvent(TipoEvento.ATUALIZADO,
+                CarroService.converterParaDTO(operacao.getCarro())));
 
         operacao = operacaoRepository.save(operacao);
         logger.info("Aluguel finalizado com sucesso: id={}", operacao.getId());
-        
-        return converterParaDTO(operacao);
+
+        OperacaoDTO finalizada = converterParaDTO(operacao);
+        eventPublisher.publishEvent(new OperacaoEvent(TipoEvento.ATUALIZADO, finalizada));
+        return finalizada;
     }
 
     @Transactional(readOnly = true)
     public List<OperacaoDTO> buscarPorCarro(Long carroId) {
-        logger.info("Buscando operações por carro: id={}", carroId);
-        List<Operacao> operacoes = operacaoRepository.findByCarroId(carroId);
-        if (operacoes.isEmpty()) {
-            logger.warn("Nenhuma operação encontrada para o carro: id={}", carroId);
-            throw new BusinessException("Nenhuma operação encontrada para o carro");
-        }
-        return operacoes.stream()
-                .map(this::converterParaDTO)
-                .collect(Collectors.toList());
+        logger.info(LEITURA, "Buscando operações por carro: id={}", carroId);
+        return mesclar(operacaoRepository.findProjetadasByCarroId(carroId), arquivoOperacoes.buscarPorCarro(carroId));
     }
 
     @Transactional(readOnly = true)
     public List<OperacaoDTO> buscarPorCliente(Long clienteId) {
-        logger.info("Buscando operações por cliente: id={}", clienteId);
-        List<Operacao> operacoes = operacaoRepository.findByClienteId(clienteId);
-        if (operacoes.isEmpty()) {
-            logger.warn("Nenhuma operação encontrada para o cliente: id={}", clienteId);
-            throw new BusinessException("Nenhuma operação encontrada para o cliente");
-        }
-        return operacoes.stream()
-                .map(this::converterParaDTO)
-                .collect(Collectors.toList());
+        logger.info(LEITURA, "Buscando operações por cliente: id={}", clienteId);
+        return mesclar(operacaoRepository.findProjetadasByClienteId(clienteId),
+                arquivoOperacoes.buscarPorCliente(clienteId));
     }
 
     @Transactional(readOnly = true)
     public List<OperacaoDTO> buscarPorTipo(Operacao.TipoOperacao tipo) {
-        logger.info("Buscando operações por tipo: {}", tipo);
-        List<Operacao> operacoes = operacaoRepository.findByTipo(tipo);
-        if (operacoes.isEmpty()) {
-            logger.warn("Nenhuma operação encontrada do tipo: {}", tipo);
-            throw new BusinessException("Nenhuma operação encontrada do tipo: " + tipo);
+        logger.info(LEITURA, "Buscando operações por tipo: {}", tipo);
+        return mesclar(operacaoRepository.findProjetadasByTipo(tipo), arquivoOperacoes.buscarPorTipo(tipo));
+    }
+
+    @Transactional(readOnly = true)
+    public RelatorioOperacoesDTO gerarRelatorio(LocalDate inicio, LocalDate fim,
+                                                RelatorioOperacoesDTO.Agrupamento agrupamento) {
+        LocalDate ate = fim == null ? LocalDate.now() : fim;
+        LocalDate de = inicio == null ? ate.minusDays(DIAS_RELATORIO_PADRAO - 1) : inicio;
+        RelatorioOperacoesDTO.Agrupamento periodo =
+                agrupamento == null ? RelatorioOperacoesDTO.Agrupamento.DIA : agrupamento;
+        validarIntervaloRelatorio(de, ate, periodo);
+        logger.info(LEITURA, "Gerando relatório de operações: inicio={}, fim={}, agrupamento={}", de, ate, periodo);
+
+        LocalDateTime desde = de.atStartOfDay();
+        LocalDateTime antesDe = ate.plusDays(1).atStartOfDay();
+        // Operações arquivadas já saíram do banco: os totais delas vêm dos segmentos que cobrem o período.
+        Map<String, TotalGrupoDTO> arquivadasPorTipo = new HashMap<>();
+        Map<String, TotalGrupoDTO> arquivadasPorMarca = new HashMap<>();
+        Map<String, TotalGrupoDTO> arquivadasPorPeriodo = new HashMap<>();
+        DateTimeFormatter formatoPeriodo = periodo == RelatorioOperacoesDTO.Agrupamento.MES
+                ? DateTimeFormatter.ofPattern("yyyy-MM") : DateTimeFormatter.ISO_LOCAL_DATE;
+        arquivoOperacoes.percorrerPeriodo(desde, antesDe, operacao -> {
+            acumular(arquivadasPorTipo, operacao.getTipo().name(), operacao.getValor());
+            acumular(arquivadasPorMarca, operacao.getMarca(), operacao.getValor());
+            acumular(arquivadasPorPeriodo, operacao.getDataOperacao().format(formatoPeriodo), operacao.getValor());
+        });
+
+        List<TotalGrupoDTO> porTipo = combinar(operacaoRepository.totalizarPorTipo(desde, antesDe),
+                arquivadasPorTipo, Comparator.comparing(TotalGrupoDTO::getGrupo));
+        List<TotalGrupoDTO> porMarca = combinar(operacaoRepository.totalizarPorMarca(desde, antesDe),
+                arquivadasPorMarca, Comparator.comparing(TotalGrupoDTO::getTotal).reversed()
+                        .thenComparing(TotalGrupoDTO::getGrupo));
+        List<TotalGrupoDTO> porPeriodo = combinar(periodo == RelatorioOperacoesDTO.Agrupamento.MES
+                        ? operacaoRepository.totalizarPorMes(desde, antesDe)
+                        : operacaoRepository.totalizarPorDia(desde, antesDe),
+                arquivadasPorPeriodo, Comparator.comparing(TotalGrupoDTO::getGrupo));
+
+        // Os tipos particionam as operações, então o total geral sai dos grupos por tipo sem outra consulta.
+        long quantidade = porTipo.stream().mapToLong(TotalGrupoDTO::getQuantidade).sum();
+        BigDecimal total = porTipo.stream().map(TotalGrupoDTO::getTotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new RelatorioOperacoesDTO(de, ate, periodo, quantidade, total, media(total, quantidade),
+                porTipo, porMarca, porPeriodo);
+    }
+
+    private void validarIntervaloRelatorio(LocalDate inicio, LocalDate fim,
+                                           RelatorioOperacoesDTO.Agrupamento agrupamento) {
+        if (inicio.isAfter(fim)) {
+            throw new BusinessException("A data inicial do relatório é posterior à final");
+        }
+        long dias = ChronoUnit.DAYS.between(inicio, fim) + 1;
+        int maximo = agrupamento == RelatorioOperacoesDTO.Agrupamento.MES
+                ? DIAS_RELATORIO_MENSAL_MAXIMO : DIAS_RELATORIO_DIARIO_MAXIMO;
+        if (dias > maximo) {
+            logger.warn("Intervalo de relatório muito longo: inicio={}, fim={}, agrupamento={}", inicio, fim, agrupamento);
+            throw new BusinessException("O intervalo do relatório excede " + maximo
+                    + " dias para o agrupamento " + agrupamento);
         }
-        return operacoes.stream()
-                .map(this::converterParaDTO)
+    }
+
+    private void acumular(Map<String, TotalGrupoDTO> totais, String grupo, BigDecimal valor) {
+        TotalGrupoDTO total = totais.computeIfAbsent(grupo,
+                chave -> new TotalGrupoDTO(chave, 0, BigDecimal.ZERO, null));
+        total.setQuantidade(total.getQuantidade() + 1);
+        total.setTotal(total.getTotal().add(valor));
+    }
+
+    private List<TotalGrupoDTO> combinar(List<OperacaoRepository.TotalAgrupado> linhas,
+                                         Map<String, TotalGrupoDTO> arquivadas, Comparator<TotalGrupoDTO> ordem) {
+        if (arquivadas.isEmpty()) {
+            return linhas.stream()
+                    .map(linha -> new TotalGrupoDTO(linha.getGrupo(), linha.getQuantidade(), linha.getTotal(),
+                            media(linha.getTotal(), linha.getQuantidade())))
+                    .collect(Collectors.toList());
+        }
+        Map<String, TotalGrupoDTO> totais = new HashMap<>(arquivadas);
+        for (OperacaoRepository.TotalAgrupado linha : linhas) {
+            TotalGrupoDTO total = totais.computeIfAbsent(linha.getGrupo(),
+                    chave -> new TotalGrupoDTO(chave, 0, BigDecimal.ZERO, null));
+            total.setQuantidade(total.getQuantidade() + linha.getQuantidade());
+            total.setTotal(total.getTotal().add(linha.getTotal()));
+        }
+        return totais.values().stream()
+                .map(total -> new TotalGrupoDTO(total.getGrupo(), total.getQuantidade(), total.getTotal(),
+                        media(total.getTotal(), total.getQuantidade())))
+                .sorted(ordem)
                 .collect(Collectors.toList());
     }
 
+    // Uma operação pode aparecer dos dois lados se o arquivador parou entre gravar o segmento e apagar
+    // as linhas; nesse caso vale a do banco.
+    private List<OperacaoDTO> mesclar(List<OperacaoDTO> recentes, List<OperacaoDTO> arquivadas) {
+        if (arquivadas.isEmpty()) {
+            return recentes;
+        }
+        Map<Long, OperacaoDTO> porId = new TreeMap<>();
+        arquivadas.forEach(operacao -> porId.put(operacao.getId(), operacao));
+        recentes.forEach(operacao -> porId.put(operacao.getId(), operacao));
+        return new ArrayList<>(porId.values());
+    }
+
+    private BigDecimal media(BigDecimal total, long quantidade) {
+        return quantidade == 0 ? BigDecimal.ZERO : total.divide(BigDecimal.valueOf(quantidade), 2, RoundingMode.HALF_EVEN);
+    }
+
     private void validarOperacao(Carro carro, Operacao.TipoOperacao tipo) {
         if (!carro.getDisponivel()) {
             logger.warn("Tentativa de operação com carro indisponível: id={}", carro.getId());
-            throw new BusinessException("Carro não está disponível");
+            throw new ConflitoException("Carro não está disponível");
         }
     }
 
-    private OperacaoDTO converterParaDTO(Operacao operacao) {
+    OperacaoDTO converterParaDTO(Operacao operacao) {
         OperacaoDTO dto = new OperacaoDTO();
         dto.setId(operacao.getId());
+        dto.setCarroId(operacao.getCarro().getId());
         dto.setMarca(operacao.getCarro().getMarca());
         dto.setClienteId(operacao.getCliente().getId());
         dto.setTipo(operacao.getTipo());
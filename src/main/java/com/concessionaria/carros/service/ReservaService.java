@@ -0,0 +1,125 @@
+package com.concessionaria.carros.service;
+
+import com.concessionaria.carros.dto.ReservaDTO;
+import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.entity.Reserva;
+import com.concessionaria.carros.entity.Usuario;
+import com.concessionaria.carros.event.ReservaEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.exception.ConflitoException;
+import com.concessionaria.carros.exception.RecursoNaoEncontradoException;
+import com.concessionaria.carros.repository.CarroRepository;
+import com.concessionaria.carros.repository.ReservaRepository;
+import com.concessionaria.carros.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static com.concessionaria.carros.log.Marcadores.LEITURA;
+
+@Service
+@RequiredArgsConstructor
+public class ReservaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservaService.class);
+    static final int DIAS_RESERVA_MAXIMO = 90;
+    static final int DIAS_ANTECEDENCIA_MAXIMA = 366;
+    private final ReservaRepository reservaRepository;
+    private final CarroRepository carroRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public ReservaDTO criar(ReservaDTO dto) {
+        logger.info("Criando reserva: carroId={}, clienteId={}, inicio={}, fim={}",
+                dto.getCarroId(), dto.getClienteId(), dto.getInicio(), dto.getFim());
+        validarPeriodo(dto.getInicio(), dto.getFim());
+
+        Usuario cliente = usuarioRepository.findById(dto.getClienteId())
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Cliente não encontrado"));
+
+        // A trava no carro serializa as reservas dele: a verificação de sobreposição abaixo e o insert
+        // acontecem sem outra transação reservando o mesmo carro no meio.
+        Carro carro = carroRepository.findComTravaById(dto.getCarroId())
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Carro não encontrado"));
+        // Mesma regra da busca de carros livres: vendido ou alugado agora (aluguel sem data de devolução)
+        // não pode ser reservado.
+        if (!carro.getDisponivel()) {
+            throw new ConflitoException("Carro indisponível não pode ser reservado");
+        }
+        LocalDate inicioMinimo = dto.getInicio().minusDays(DIAS_RESERVA_MAXIMO);
+        if (reservaRepository.existsSobreposta(carro.getId(), inicioMinimo, dto.getInicio(), dto.getFim())) {
+            logger.warn("Reserva sobreposta: carroId={}, inicio={}, fim={}",
+                    carro.getId(), dto.getInicio(), dto.getFim());
+            throw new ConflitoException("O carro já está reservado em parte do período");
+        }
+
+        Reserva reserva = new Reserva();
+        reserva.setCarro(carro);
+        reserva.setCliente(cliente);
+        reserva.setInicio(dto.getInicio());
+        reserva.setFim(dto.getFim());
+        reserva = reservaRepository.save(reserva);
+        logger.info("Reserva criada com sucesso: id={}", reserva.getId());
+
+        ReservaDTO criada = converterParaDTO(reserva);
+        eventPublisher.publishEvent(new ReservaEvent(TipoEvento.CRIADO, criada));
+        return criada;
+    }
+
+    @Transactional(readOnly = true)
+    public ReservaDTO buscarPorId(Long id) {
+        logger.info(LEITURA, "Buscando reserva por id: {}", id);
+        return reservaRepository.findProjetadaById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Reserva não encontrada"));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReservaDTO> buscarPorCarro(Long carroId) {
+        logger.info(LEITURA, "Buscando reservas vigentes do carro: id={}", carroId);
+        return reservaRepository.findVigentesByCarroId(carroId, LocalDate.now());
+    }
+
+    @Transactional
+    public void cancelar(Long id) {
+        logger.info("Cancelando reserva: id={}", id);
+        ReservaDTO reserva = reservaRepository.findProjetadaById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Reserva não encontrada"));
+        reservaRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReservaEvent(TipoEvento.REMOVIDO, reserva));
+    }
+
+    // Também usada pela busca de carros livres, que aceita o mesmo formato de período.
+    static void validarPeriodo(LocalDate inicio, LocalDate fim) {
+        if (inicio == null || fim == null) {
+            throw new BusinessException("Informe as datas de início e de fim do período");
+        }
+        if (!fim.isAfter(inicio)) {
+            throw new BusinessException("A data de fim deve ser posterior à de início");
+        }
+        LocalDate hoje = LocalDate.now();
+        if (inicio.isBefore(hoje)) {
+            throw new BusinessException("A data de início não pode estar no passado");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) > DIAS_RESERVA_MAXIMO) {
+            throw new BusinessException("O período excede " + DIAS_RESERVA_MAXIMO + " dias");
+        }
+        if (ChronoUnit.DAYS.between(hoje, inicio) > DIAS_ANTECEDENCIA_MAXIMA) {
+            throw new BusinessException("Reservas podem ser feitas com até " + DIAS_ANTECEDENCIA_MAXIMA
+                    + " dias de antecedência");
+        }
+    }
+
+    private ReservaDTO converterParaDTO(Reserva reserva) {
+        return new ReservaDTO(reserva.getId(), reserva.getCarro().getId(), reserva.getCliente().getId(),
+                reserva.getInicio(), reserva.getFim(), reserva.getDataCriacao());
+    }
+}
@@ -2,87 +2,124 @@ package com.concessionaria.carros.service;
 
 import com.concessionaria.carros.dto.UsuarioDTO;
 import com.concessionaria.carros.entity.Usuario;
-import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.event.UsuarioEvent;
+import com.concessionaria.carros.exception.ConflitoException;
+import com.concessionaria.carros.exception.CredenciaisInvalidasException;
+import com.concessionaria.carros.exception.RecursoNaoEncontradoException;
 import com.concessionaria.carros.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static com.concessionaria.carros.log.Marcadores.LEITURA;
+
 @Service
 @RequiredArgsConstructor
 public class UsuarioService {
     
     private static final Logger logger = LoggerFactory.getLogger(UsuarioService.class);
     private final UsuarioRepository usuarioRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HashSenhaService hashSenhaService;
     
-    @Transactional
+    // criar, autenticar e atualizar não abrem transação: o BCrypt pode esperar segundos pelo pool de hash, e
+    // dentro de uma transação essa espera prenderia uma conexão do Hikari. Cada acesso ao banco usa a
+    // transação curta do próprio repositório, e o hash acontece entre eles.
     public UsuarioDTO criar(UsuarioDTO dto) {
         logger.info("Criando novo usuário: email={}", dto.getEmail());
         
         if (usuarioRepository.existsByEmail(dto.getEmail())) {
             logger.warn("Tentativa de criar usuário com email duplicado: {}", dto.getEmail());
-            throw new BusinessException("Já existe um usuário com este email");
+            throw new ConflitoException("Já existe um usuário com este email");
         }
         
         Usuario usuario = new Usuario();
         usuario.setNome(dto.getNome());
         usuario.setEmail(dto.getEmail());
-        usuario.setSenha(dto.getSenha());
+        usuario.setSenha(hashSenhaService.gerarHash(dto.getSenha()));
         
         usuario = usuarioRepository.save(usuario);
         logger.info("Usuário criado com sucesso: id={}", usuario.getId());
         return converterParaDTO(usuario);
     }
     
+    public UsuarioDTO autenticar(String email, String senha) {
+        logger.info("Autenticando usuário: email={}", email);
+        
+        Usuario usuario = usuarioRepository.findByEmail(email)
+                .filter(u -> hashSenhaService.verificar(senha, u.getSenha()))
+                .orElseThrow(() -> {
+                    logger.warn("Falha de autenticação: email={}", email);
+                    return new CredenciaisInvalidasException("Email ou senha inválidos");
+                });
+        
+        // Inclui as senhas em texto puro gravadas antes do BCrypt: são convertidas no primeiro login.
+        if (hashSenhaService.precisaAtualizar(usuario.getSenha())
+                && usuarioRepository.atualizarSenha(usuario.getId(), usuario.getSenha(),
+                        hashSenhaService.gerarHash(senha)) > 0) {
+            logger.info("Hash de senha atualizado para o custo atual: id={}", usuario.getId());
+        }
+        return converterParaDTO(usuario);
+    }
+    
     @Transactional(readOnly = true)
     public List<UsuarioDTO> listarTodos() {
-        logger.info("Listando todos os usuários");
+        logger.info(LEITURA, "Listando todos os usuários");
         return usuarioRepository.findAll().stream()
                 .map(this::converterParaDTO)
                 .collect(Collectors.toList());
     }
     
+    @Cacheable(cacheNames = "usuarios", key = "#id")
     @Transactional(readOnly = true)
     public UsuarioDTO buscarPorId(Long id) {
-        logger.info("Buscando usuário por id: {}", id);
+        logger.info(LEITURA, "Buscando usuário por id: {}", id);
         return usuarioRepository.findById(id)
                 .map(this::converterParaDTO)
                 .orElseThrow(() -> {
                     logger.warn("Usuário não encontrado: id={}", id);
-                    return new BusinessException("Usuário não encontrado");
+                    return new RecursoNaoEncontradoException("Usuário não encontrado");
                 });
     }
     
-    @Transactional
     public UsuarioDTO atualizar(Long id, UsuarioDTO dto) {
         logger.info("Atualizando usuário: id={}", id);
         
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> {
                     logger.warn("Usuário não encontrado para atualização: id={}", id);
-                    return new BusinessException("Usuário não encontrado");
+                    return new RecursoNaoEncontradoException("Usuário não encontrado");
                 });
         
         if (!usuario.getEmail().equals(dto.getEmail()) && 
             usuarioRepository.existsByEmail(dto.getEmail())) {
             logger.warn("Tentativa de atualizar para email duplicado: {}", dto.getEmail());
-            throw new BusinessException("Já existe um usuário com este email");
+            throw new ConflitoException("Já existe um usuário com este email");
         }
-        
+
+        // O hash ocupa o executor limitado de senhas: só depois de o pedido passar pelas verificações.
+        String novoHash = dto.getSenha() != null && !dto.getSenha().isEmpty()
+                ? hashSenhaService.gerarHash(dto.getSenha())
+                : null;
         usuario.setNome(dto.getNome());
         usuario.setEmail(dto.getEmail());
-        if (dto.getSenha() != null && !dto.getSenha().isEmpty()) {
-            usuario.setSenha(dto.getSenha());
+        if (novoHash != null) {
+            usuario.setSenha(novoHash);
         }
         
         usuario = usuarioRepository.save(usuario);
         logger.info("Usuário atualizado com sucesso: id={}", usuario.getId());
-        return converterParaDTO(usuario);
+        UsuarioDTO atualizado = converterParaDTO(usuario);
+        eventPublisher.publishEvent(new UsuarioEvent(TipoEvento.ATUALIZADO, atualizado, novoHash != null));
+        return atualizado;
     }
     
     @Transactional
@@ -91,11 +128,15 @@ public class UsuarioService {
         
         if (!usuarioRepository.existsById(id)) {
             logger.warn("Tentativa de deletar usuário inexistente: id={}", id);
-            throw new BusinessException("Usuário não encontrado");
+            throw new RecursoNaoEncontradoException("Usuário não encontrado");
         }
         
         usuarioRepository.deleteById(id);
         logger.info("Usuário deletado com sucesso: id={}", id);
+
+        UsuarioDTO removido = new UsuarioDTO();
+        removido.setId(id);
+        eventPublisher.publishEvent(new UsuarioEvent(TipoEvento.REMOVIDO, removido));
     }
     
     private UsuarioDTO converterParaDTO(Usuario usuario) {
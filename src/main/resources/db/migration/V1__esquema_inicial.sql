@@ -0,0 +1,45 @@
+-- Esquema equivalente ao gerado pelo ddl-auto=update até esta versão.
+-- Bancos existentes são marcados como V1 (baseline-on-migrate) e seguem a partir da V2.
+
+CREATE TABLE usuarios (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nome VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    senha VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_usuarios_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE carros (
+    id BIGINT NOT NULL,
+    marca VARCHAR(255) NOT NULL,
+    modelo VARCHAR(255) NOT NULL,
+    ano INT NOT NULL,
+    placa VARCHAR(255) NOT NULL,
+    preco_venda DECIMAL(38, 2) NOT NULL,
+    preco_aluguel DECIMAL(38, 2) NOT NULL,
+    disponivel BIT NOT NULL,
+    data_cadastro DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_carros_placa UNIQUE (placa)
+) ENGINE = InnoDB;
+
+-- MySQL não tem sequências: o Hibernate emula carros_seq com uma tabela de uma linha.
+CREATE TABLE carros_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO carros_seq VALUES (1);
+
+CREATE TABLE operacoes (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    carro_id BIGINT NOT NULL,
+    cliente_id BIGINT NOT NULL,
+    tipo ENUM ('VENDA', 'ALUGUEL') NOT NULL,
+    valor DECIMAL(38, 2) NOT NULL,
+    data_operacao DATETIME(6) NOT NULL,
+    data_devolucao DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_operacoes_carro FOREIGN KEY (carro_id) REFERENCES carros (id),
+    CONSTRAINT fk_operacoes_cliente FOREIGN KEY (cliente_id) REFERENCES usuarios (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,38 @@
+-- Bancos criados pelo ddl-auto têm a chave única de placa com nome gerado pelo Hibernate;
+-- renomeia para que as violações possam ser identificadas pelo nome.
+SET @indice_placa = (
+    SELECT index_name FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'carros' AND column_name = 'placa'
+      AND non_unique = 0 AND seq_in_index = 1
+    LIMIT 1);
+SET @sql = IF(@indice_placa IS NULL OR @indice_placa = 'uk_carros_placa',
+    'DO 0',
+    CONCAT('ALTER TABLE carros RENAME INDEX `', @indice_placa, '` TO uk_carros_placa'));
+PREPARE renomear FROM @sql;
+EXECUTE renomear;
+DEALLOCATE PREPARE renomear;
+
+-- findByMarcaAndModelo, existsByMarcaAndModelo e findByMarca (prefixo marca).
+ALTER TABLE carros ADD CONSTRAINT uk_carros_marca_modelo UNIQUE (marca, modelo);
+
+-- findDisponiveisProjetados: filtro por disponivel com ordenação pelo id (implícito no índice secundário).
+CREATE INDEX idx_carros_disponivel ON carros (disponivel);
+
+-- Buscas de operações por carro, cliente e tipo, todas ordenadas por id, e relatórios por data.
+-- Índices explícitos substituem os criados implicitamente pelas chaves estrangeiras.
+CREATE INDEX idx_operacoes_carro_id ON operacoes (carro_id);
+CREATE INDEX idx_operacoes_cliente_id ON operacoes (cliente_id);
+CREATE INDEX idx_operacoes_tipo ON operacoes (tipo);
+CREATE INDEX idx_operacoes_data_operacao ON operacoes (data_operacao);
+
+-- Bancos que vieram de IDENTITY podem não ter carros_seq ou tê-la atrás do maior id já gravado.
+-- O otimizador pooled (allocationSize = 50) entrega o bloco [next_val - 49, next_val]: para que o primeiro
+-- id gerado seja MAX(id) + 1, next_val precisa ficar em MAX(id) + 50.
+CREATE TABLE IF NOT EXISTS carros_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO carros_seq (next_val)
+SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT * FROM carros_seq);
+
+UPDATE carros_seq SET next_val = GREATEST(COALESCE(next_val, 1), (SELECT COALESCE(MAX(id), 0) + 50 FROM carros));
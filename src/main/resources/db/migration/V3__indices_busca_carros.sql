@@ -0,0 +1,6 @@
+-- Busca por filtros combinados: marca com faixa de ano e a consulta agrupada das facetas (marca, ano).
+CREATE INDEX idx_carros_marca_ano ON carros (marca, ano);
+
+-- Filtros de faixa sem marca.
+CREATE INDEX idx_carros_ano ON carros (ano);
+CREATE INDEX idx_carros_preco_venda ON carros (preco_venda);
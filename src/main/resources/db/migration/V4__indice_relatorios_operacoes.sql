@@ -0,0 +1,6 @@
+-- Relatórios de operações: filtro por faixa de data_operacao com GROUP BY em tipo, marca (via carro_id)
+-- e dia/mês. Com tipo, carro_id e valor no índice, as agregações são resolvidas sem ler a tabela.
+CREATE INDEX idx_operacoes_relatorio ON operacoes (data_operacao, tipo, carro_id, valor);
+
+-- Coberto pelo prefixo do índice acima.
+DROP INDEX idx_operacoes_data_operacao ON operacoes;
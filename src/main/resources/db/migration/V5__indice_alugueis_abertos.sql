@@ -0,0 +1,3 @@
+-- Contagem de aluguéis em aberto (tipo = 'ALUGUEL' e data_devolucao nula) para as estatísticas da frota.
+-- idx_operacoes_tipo continua servindo às buscas por tipo ordenadas por id.
+CREATE INDEX idx_operacoes_tipo_devolucao ON operacoes (tipo, data_devolucao);
@@ -0,0 +1,23 @@
+-- Reservas de aluguel com data futura. O período é [inicio, fim): fim é o dia da devolução, então uma
+-- reserva pode começar no mesmo dia em que a anterior termina.
+CREATE TABLE reservas (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    carro_id BIGINT NOT NULL,
+    cliente_id BIGINT NOT NULL,
+    inicio DATE NOT NULL,
+    fim DATE NOT NULL,
+    data_criacao DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_reservas_carro FOREIGN KEY (carro_id) REFERENCES carros (id),
+    CONSTRAINT fk_reservas_cliente FOREIGN KEY (cliente_id) REFERENCES usuarios (id),
+    CONSTRAINT ck_reservas_periodo CHECK (fim > inicio)
+) ENGINE = InnoDB;
+
+-- Sobreposição de um carro (carro_id = ? AND inicio < ? AND fim > ?): faixa em inicio dentro do carro,
+-- com fim no índice para não ler a tabela. Também substitui o índice implícito da chave estrangeira.
+CREATE INDEX idx_reservas_carro_periodo ON reservas (carro_id, inicio, fim);
+
+-- Carga do índice em memória: só as reservas que ainda não terminaram.
+CREATE INDEX idx_reservas_fim ON reservas (fim);
+
+CREATE INDEX idx_reservas_cliente_id ON reservas (cliente_id);
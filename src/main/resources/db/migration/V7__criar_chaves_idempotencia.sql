@@ -0,0 +1,14 @@
+-- Respostas já dadas a POSTs com Idempotency-Key, para reenvios que chegam depois de a chave sair da memória
+-- ou em outra instância. status nulo marca uma execução em andamento.
+CREATE TABLE chaves_idempotencia (
+    chave VARCHAR(300) NOT NULL,
+    hash_requisicao CHAR(64) NOT NULL,
+    status INT,
+    localizacao VARCHAR(255),
+    corpo LONGBLOB,
+    criada_em DATETIME(6) NOT NULL,
+    PRIMARY KEY (chave)
+) ENGINE = InnoDB;
+
+-- Limpeza periódica das chaves mais antigas que a retenção.
+CREATE INDEX idx_chaves_idempotencia_criada_em ON chaves_idempotencia (criada_em);
@@ -0,0 +1,13 @@
+-- Busca de carros livres por marca (findLivresParaOperacao) e contagens por marca. Bancos marcados como V1
+-- pelo baseline não executam a V1, e os criados pelo ddl-auto a partir da entidade já podem ter o índice:
+-- só cria quando ele ainda não existe.
+SET @indice_marca_disponivel = (
+    SELECT index_name FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'carros' AND index_name = 'idx_carros_marca_disponivel'
+    LIMIT 1);
+SET @sql = IF(@indice_marca_disponivel IS NULL,
+    'CREATE INDEX idx_carros_marca_disponivel ON carros (marca, disponivel)',
+    'DO 0');
+PREPARE criar FROM @sql;
+EXECUTE criar;
+DEALLOCATE PREPARE criar;
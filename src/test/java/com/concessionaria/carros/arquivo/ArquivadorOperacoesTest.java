@@ -0,0 +1,98 @@
+package com.concessionaria.carros.arquivo;
+
+import com.concessionaria.carros.cache.VersaoRecursos;
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.entity.Operacao;
+import com.concessionaria.carros.repository.OperacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArquivadorOperacoesTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2024, 5, 10, 3, 30);
+
+    @Mock
+    private OperacaoRepository operacaoRepository;
+
+    @Mock
+    private ArquivoOperacoes arquivoOperacoes;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private VersaoRecursos versaoRecursos;
+
+    private ArquivadorOperacoes arquivador;
+
+    @BeforeEach
+    void setUp() {
+        Clock relogio = Clock.fixed(AGORA.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        arquivador = new ArquivadorOperacoes(operacaoRepository, arquivoOperacoes,
+                new TransactionTemplate(transactionManager), versaoRecursos, Duration.ofDays(365), 2, relogio);
+    }
+
+    @Test
+    void arquivar_DeveGravarSegmentoAntesDeApagarCadaLote() {
+        arquivaveisAposId(0L).thenReturn(List.of(operacao(3), operacao(4)));
+        arquivaveisAposId(4L).thenReturn(List.of(operacao(9)));
+        arquivaveisAposId(9L).thenReturn(List.of());
+        when(arquivoOperacoes.arquivados(any())).thenReturn(Set.of());
+
+        int arquivadas = arquivador.arquivar();
+
+        assertEquals(3, arquivadas);
+        InOrder ordem = inOrder(arquivoOperacoes, operacaoRepository);
+        ordem.verify(arquivoOperacoes).gravar(List.of(operacao(3), operacao(4)));
+        ordem.verify(operacaoRepository).excluirPorIds(List.of(3L, 4L));
+        ordem.verify(arquivoOperacoes).gravar(List.of(operacao(9)));
+        ordem.verify(operacaoRepository).excluirPorIds(List.of(9L));
+        verify(versaoRecursos, times(2)).aoRemoverOperacoes();
+        verify(arquivoOperacoes).compactar();
+    }
+
+    @Test
+    void arquivar_NaoDeveDuplicarOperacoesJaArquivadas() {
+        arquivaveisAposId(0L).thenReturn(List.of(operacao(3), operacao(4)));
+        arquivaveisAposId(4L).thenReturn(List.of());
+        when(arquivoOperacoes.arquivados(List.of(3L, 4L))).thenReturn(Set.of(3L));
+
+        arquivador.arquivar();
+
+        verify(arquivoOperacoes).gravar(List.of(operacao(4)));
+        verify(operacaoRepository).excluirPorIds(List.of(3L, 4L));
+    }
+
+    // O limite é a data do relógio menos a idade configurada (365 dias).
+    private OngoingStubbing<List<OperacaoDTO>> arquivaveisAposId(long aposId) {
+        return when(operacaoRepository.findArquivaveis(eq(aposId), eq(Operacao.TipoOperacao.VENDA),
+                eq(AGORA.minusDays(365)), any(Pageable.class)));
+    }
+
+    private OperacaoDTO operacao(long id) {
+        return new OperacaoDTO(id, 1L, 1L, Operacao.TipoOperacao.VENDA, new BigDecimal("90000.00"),
+                AGORA.minusYears(2), null, "Toyota");
+    }
+}
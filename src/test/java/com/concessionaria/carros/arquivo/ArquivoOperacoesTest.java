@@ -0,0 +1,162 @@
+package com.concessionaria.carros.arquivo;
+
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.entity.Operacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArquivoOperacoesTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2020, 1, 1, 10, 0, 0, 123_000_000);
+
+    @TempDir
+    Path diretorio;
+
+    private ArquivoOperacoes arquivo;
+
+    @BeforeEach
+    void setUp() {
+        arquivo = new ArquivoOperacoes(diretorio.toString(), 16, 250);
+        arquivo.abrir();
+    }
+
+    @Test
+    void gravar_DevePreservarTodosOsCamposAoReabrir() {
+        OperacaoDTO aluguel = operacao(1, 7, 3, Operacao.TipoOperacao.ALUGUEL, INICIO);
+        aluguel.setDataDevolucao(INICIO.plusDays(3));
+        aluguel.setValor(new BigDecimal("1234567.89"));
+        arquivo.gravar(List.of(aluguel, operacao(2, 8, 3, Operacao.TipoOperacao.VENDA, INICIO)));
+
+        ArquivoOperacoes reaberto = new ArquivoOperacoes(diretorio.toString(), 16, 250);
+        reaberto.abrir();
+
+        assertEquals(aluguel, reaberto.buscarPorId(1).orElseThrow());
+        assertNull(reaberto.buscarPorId(2).orElseThrow().getDataDevolucao());
+        assertTrue(reaberto.buscarPorId(3).isEmpty());
+    }
+
+    @Test
+    void buscar_DeveEncontrarOperacoesEmVariosSegmentosEBlocos() {
+        arquivo.gravar(lote(1, 100));
+        arquivo.gravar(lote(101, 100));
+
+        List<OperacaoDTO> doCarro = arquivo.buscarPorCarro(5);
+        List<OperacaoDTO> doCliente = arquivo.buscarPorCliente(2);
+
+        assertEquals(20, doCarro.size());
+        assertTrue(doCarro.stream().allMatch(operacao -> operacao.getCarroId() == 5));
+        assertEquals(5L, doCarro.get(0).getId());
+        assertEquals(200 / 7 + 1, doCliente.size());
+        assertEquals(100, arquivo.buscarPorTipo(Operacao.TipoOperacao.VENDA).size());
+        assertEquals(Set.of(150L, 200L), arquivo.arquivados(List.of(150L, 200L, 201L)));
+    }
+
+    @Test
+    void percorrerPeriodo_DeveEntregarSomenteOperacoesDoIntervalo() {
+        arquivo.gravar(lote(1, 100));
+        List<OperacaoDTO> encontradas = new ArrayList<>();
+
+        arquivo.percorrerPeriodo(INICIO.plusDays(10), INICIO.plusDays(20), encontradas::add);
+
+        assertEquals(10, encontradas.size());
+        assertEquals(11L, encontradas.stream().mapToLong(OperacaoDTO::getId).min().getAsLong());
+    }
+
+    @Test
+    void abrir_DeveDescartarGravacaoInterrompida() throws Exception {
+        arquivo.gravar(lote(1, 10));
+        Path temporario = diretorio.resolve("operacoes-00000002.seg.tmp");
+        Files.write(temporario, new byte[]{1, 2, 3});
+
+        ArquivoOperacoes reaberto = new ArquivoOperacoes(diretorio.toString(), 16, 250);
+        reaberto.abrir();
+        reaberto.gravar(lote(11, 10));
+
+        assertFalse(Files.exists(temporario));
+        assertEquals(20, reaberto.buscarPorTipo(Operacao.TipoOperacao.ALUGUEL).size()
+                + reaberto.buscarPorTipo(Operacao.TipoOperacao.VENDA).size());
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            assertEquals(2, arquivos.count());
+        }
+    }
+
+    @Test
+    void gravar_CadaBlocoDeveTerUmSoTipo() throws Exception {
+        arquivo.gravar(lote(1, 100));
+
+        Segmento segmento = Segmento.abrir(diretorio.resolve("operacoes-00000001.seg"));
+
+        assertTrue(segmento.blocos().stream().allMatch(bloco -> Integer.bitCount(bloco.tipos()) == 1));
+        assertEquals(8, segmento.blocos().size());
+        assertEquals(50, arquivo.buscarPorTipo(Operacao.TipoOperacao.ALUGUEL).size());
+    }
+
+    @Test
+    void compactar_DeveJuntarSegmentosVizinhosAteOLimite() throws Exception {
+        arquivo.gravar(lote(1, 100));
+        arquivo.gravar(lote(101, 100));
+        arquivo.gravar(lote(201, 100));
+
+        assertEquals(2, arquivo.compactar());
+        arquivo.gravar(lote(301, 10));
+
+        assertEquals(List.of("operacoes-00000001-00000002.seg", "operacoes-00000003.seg", "operacoes-00000004.seg"),
+                arquivos());
+        assertEquals(31, arquivo.buscarPorCarro(5).size());
+        assertEquals(155, arquivo.buscarPorTipo(Operacao.TipoOperacao.VENDA).size());
+        assertEquals(2, arquivo.compactar());
+        assertEquals(List.of("operacoes-00000001-00000002.seg", "operacoes-00000003-00000004.seg"), arquivos());
+        assertEquals(31, arquivo.buscarPorCarro(5).size());
+    }
+
+    @Test
+    void abrir_DeveRemoverSegmentosQueJaForamCompactados() throws Exception {
+        arquivo.gravar(lote(1, 100));
+        arquivo.gravar(lote(101, 100));
+        Path copia = Files.createTempFile("segmento", ".seg");
+        Files.copy(diretorio.resolve("operacoes-00000002.seg"), copia, StandardCopyOption.REPLACE_EXISTING);
+        arquivo.compactar();
+        // Queda entre a gravação do segmento compactado e a remoção dos antigos.
+        Files.move(copia, diretorio.resolve("operacoes-00000002.seg"));
+
+        ArquivoOperacoes reaberto = new ArquivoOperacoes(diretorio.toString(), 16, 250);
+        reaberto.abrir();
+
+        assertEquals(List.of("operacoes-00000001-00000002.seg"), arquivos());
+        assertEquals(20, reaberto.buscarPorCarro(5).size());
+    }
+
+    private List<String> arquivos() throws Exception {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.map(arquivo -> arquivo.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    // Carros ciclam de 1 a 10, clientes de 1 a 7, um dia por operação e tipos alternados.
+    private List<OperacaoDTO> lote(long primeiroId, int quantidade) {
+        List<OperacaoDTO> operacoes = new ArrayList<>();
+        for (long id = primeiroId; id < primeiroId + quantidade; id++) {
+            Operacao.TipoOperacao tipo = id % 2 == 0 ? Operacao.TipoOperacao.VENDA : Operacao.TipoOperacao.ALUGUEL;
+            operacoes.add(operacao(id, (id - 1) % 10 + 1, (id - 1) % 7 + 1, tipo, INICIO.plusDays(id - 1)));
+        }
+        return operacoes;
+    }
+
+    private OperacaoDTO operacao(long id, long carroId, long clienteId, Operacao.TipoOperacao tipo,
+                                 LocalDateTime data) {
+        return new OperacaoDTO(id, carroId, clienteId, tipo, new BigDecimal("300.00"), data, null, "Marca " + carroId);
+    }
+}
@@ -0,0 +1,94 @@
+package com.concessionaria.carros.benchmark;
+
+import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.repository.CarroRepository;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Carga HTTP compartilhada pelos benchmarks de ponta a ponta: N clientes fazendo GETs em sequência.
+final class CargaHttp {
+
+    private CargaHttp() {
+    }
+
+    static Resultado medir(URI uri, int clientes, int porCliente) throws Exception {
+        HttpClient cliente = HttpClient.newHttpClient();
+        disparar(cliente, uri, 20, 20);
+        long inicio = System.nanoTime();
+        long[] latencias = disparar(cliente, uri, clientes, porCliente);
+        return new Resultado(latencias, System.nanoTime() - inicio);
+    }
+
+    static void popular(CarroRepository repository) {
+        if (repository.count() > 0) {
+            return;
+        }
+        repository.saveAll(IntStream.range(0, 1_000).mapToObj(i -> {
+            Carro carro = new Carro();
+            carro.setMarca("Marca " + (i % 20));
+            carro.setModelo("Modelo " + i);
+            carro.setAno(2015 + i % 10);
+            carro.setPlaca(String.format("BEN%04d", i));
+            carro.setPrecoVenda(new BigDecimal("90000.00"));
+            carro.setPrecoAluguel(new BigDecimal("250.00"));
+            return carro;
+        }).toList());
+    }
+
+    private static long[] disparar(HttpClient cliente, URI uri, int clientes, int porCliente) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clientes);
+        HttpRequest requisicao = HttpRequest.newBuilder(uri).GET().build();
+        List<Future<long[]>> futuros = new ArrayList<>();
+        for (int c = 0; c < clientes; c++) {
+            futuros.add(executor.submit(() -> {
+                long[] tempos = new long[porCliente];
+                for (int i = 0; i < porCliente; i++) {
+                    long inicio = System.nanoTime();
+                    HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                    assertEquals(200, resposta.statusCode());
+                    tempos[i] = System.nanoTime() - inicio;
+                }
+                return tempos;
+            }));
+        }
+        long[] latencias = new long[clientes * porCliente];
+        int posicao = 0;
+        for (Future<long[]> futuro : futuros) {
+            long[] tempos = futuro.get(5, TimeUnit.MINUTES);
+            System.arraycopy(tempos, 0, latencias, posicao, tempos.length);
+            posicao += tempos.length;
+        }
+        executor.shutdown();
+        return latencias;
+    }
+
+    record Resultado(long[] latencias, long duracaoNanos) {
+
+        String formatar(String modo) {
+            long[] ordenadas = latencias.clone();
+            Arrays.sort(ordenadas);
+            double segundos = duracaoNanos / 1e9;
+            return String.format("[%s] %d requisições em %.2fs -> %.0f req/s, p50=%.1fms, p99=%.1fms",
+                    modo, ordenadas.length, segundos, ordenadas.length / segundos,
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.99));
+        }
+
+        private double percentil(long[] ordenadas, double p) {
+            return ordenadas[(int) Math.min(ordenadas.length - 1, Math.floor(p * ordenadas.length))] / 1e6;
+        }
+    }
+}
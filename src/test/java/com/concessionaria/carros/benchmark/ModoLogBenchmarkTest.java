@@ -0,0 +1,57 @@
+package com.concessionaria.carros.benchmark;
+
+import com.concessionaria.carros.CarrosApplication;
+import com.concessionaria.carros.repository.CarroRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+// Compara o throughput com o log padrão (síncrono, INFO em toda chamada e show-sql) e com o perfil producao
+// (assíncrono, amostrado, só SQL lento), contra um MySQL real e com o log gravando em disco nos dois casos.
+// Fora do build padrão: mvn test -Dsurefire.excludedGroups= -Dgroups=benchmark -Dtest=ModoLogBenchmarkTest
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class ModoLogBenchmarkTest {
+
+    private static final int CLIENTES = 200;
+    private static final int REQUISICOES_POR_CLIENTE = 100;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @TempDir
+    Path diretorioLogs;
+
+    @Test
+    void compararLogPadraoEProducao() throws Exception {
+        System.out.println(medir("default").formatar("log padrão"));
+        System.out.println(medir("producao").formatar("log producao"));
+    }
+
+    private CargaHttp.Resultado medir(String perfil) throws Exception {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(CarrosApplication.class)
+                .profiles(perfil)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + mysql.getJdbcUrl(),
+                        "--spring.datasource.username=" + mysql.getUsername(),
+                        "--spring.datasource.password=" + mysql.getPassword(),
+                        "--spring.flyway.enabled=true",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.datasource.hikari.maximum-pool-size=20",
+                        "--logging.file.name=" + diretorioLogs.resolve(perfil + ".log"))) {
+            CargaHttp.popular(contexto.getBean(CarroRepository.class));
+            int porta = contexto.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            return CargaHttp.medir(URI.create("http://localhost:" + porta + "/api/carros?tamanho=20"),
+                    CLIENTES, REQUISICOES_POR_CLIENTE);
+        }
+    }
+}
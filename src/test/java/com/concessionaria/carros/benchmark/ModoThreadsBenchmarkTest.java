@@ -0,0 +1,58 @@
+package com.concessionaria.carros.benchmark;
+
+import com.concessionaria.carros.CarrosApplication;
+import com.concessionaria.carros.repository.CarroRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+
+// Compara o throughput de threads de plataforma e virtuais contra um MySQL real.
+// Fora do build padrão: mvn test -Pjava21 -Dsurefire.excludedGroups= -Dgroups=benchmark
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class ModoThreadsBenchmarkTest {
+
+    private static final int CLIENTES = 400;
+    private static final int REQUISICOES_POR_CLIENTE = 50;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Test
+    void compararThreadsDePlataformaEVirtuais() throws Exception {
+        CargaHttp.Resultado plataforma = medir(false);
+        System.out.println(plataforma.formatar("plataforma"));
+
+        if (Runtime.version().feature() >= 21) {
+            CargaHttp.Resultado virtual = medir(true);
+            System.out.println(virtual.formatar("virtual"));
+        } else {
+            System.out.println("Modo virtual ignorado: requer Java 21 (mvn -Pjava21)");
+        }
+    }
+
+    private CargaHttp.Resultado medir(boolean threadsVirtuais) throws Exception {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(CarrosApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + mysql.getJdbcUrl(),
+                "--spring.datasource.username=" + mysql.getUsername(),
+                "--spring.datasource.password=" + mysql.getPassword(),
+                "--spring.flyway.enabled=true",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.threads.virtual.enabled=" + threadsVirtuais,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.com.concessionaria=WARN")) {
+            CargaHttp.popular(contexto.getBean(CarroRepository.class));
+            int porta = contexto.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            return CargaHttp.medir(URI.create("http://localhost:" + porta + "/api/carros?tamanho=20"),
+                    CLIENTES, REQUISICOES_POR_CLIENTE);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.concessionaria.carros.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CacheVersionadoTest {
+
+    private CacheVersionado cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CacheVersionado("carros", Caffeine.newBuilder().build(), true);
+    }
+
+    @Test
+    void put_DepoisDeUmaFalta_DeveGravarOValorLido() {
+        assertNull(cache.get(1L));
+        cache.put(1L, "Corolla");
+
+        assertEquals("Corolla", cache.get(1L).get());
+    }
+
+    @Test
+    void put_DeLeituraAnteriorAInvalidacao_DeveSerRecusado() {
+        assertNull(cache.get(1L));
+        // O commit da escrita e a invalidação acontecem enquanto a leitura ainda consulta o banco.
+        cache.evict(1L);
+        cache.put(1L, "Corolla antigo");
+
+        assertNull(cache.get(1L));
+        cache.put(1L, "Corolla novo");
+        assertEquals("Corolla novo", cache.get(1L).get());
+    }
+
+    @Test
+    void put_DeveSerRecusadoSoParaAChaveInvalidada() {
+        assertNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        cache.evict(2L);
+        cache.put(1L, "Corolla");
+        cache.put(2L, "Civic antigo");
+
+        assertEquals("Corolla", cache.get(1L).get());
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    void put_SemFaltaRegistrada_DeveGravarDireto() {
+        cache.evict(1L);
+        cache.put(1L, "Corolla");
+
+        assertEquals("Corolla", cache.get(1L).get());
+    }
+
+    @Test
+    void clear_DeveRecusarLeiturasQueComecaramAntes() {
+        assertNull(cache.get(1L));
+        cache.clear();
+        cache.put(1L, "Corolla antigo");
+
+        assertNull(cache.get(1L));
+    }
+}
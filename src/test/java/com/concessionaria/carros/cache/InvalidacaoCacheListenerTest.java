@@ -0,0 +1,59 @@
+package com.concessionaria.carros.cache;
+
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.UsuarioDTO;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.event.UsuarioEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidacaoCacheListenerTest {
+
+    private CacheManager cacheManager;
+    private InvalidacaoCacheListener listener;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager("carros", "carrosPorPlaca", "carrosPorMarcaModelo", "usuarios");
+        listener = new InvalidacaoCacheListener(cacheManager);
+    }
+
+    @Test
+    void aoAlterarCarro_DeveInvalidarIdEChavesNaturaisAntigasENovas() {
+        CarroDTO anterior = carro("ABC1234", "Corolla");
+        CarroDTO atual = carro("XYZ9876", "Corolla Cross");
+        cacheManager.getCache("carros").put(1L, anterior);
+        cacheManager.getCache("carrosPorPlaca").put("ABC1234", anterior);
+        cacheManager.getCache("carrosPorMarcaModelo").put("Toyota|Corolla", anterior);
+        cacheManager.getCache("carrosPorPlaca").put("OUT0001", carro("OUT0001", "Etios"));
+
+        listener.aoAlterarCarro(new CarroEvent(TipoEvento.ATUALIZADO, atual, anterior));
+
+        assertNull(cacheManager.getCache("carros").get(1L));
+        assertNull(cacheManager.getCache("carrosPorPlaca").get("ABC1234"));
+        assertNull(cacheManager.getCache("carrosPorMarcaModelo").get("Toyota|Corolla"));
+        assertNotNull(cacheManager.getCache("carrosPorPlaca").get("OUT0001"));
+    }
+
+    @Test
+    void aoAlterarUsuario_DeveInvalidarUsuarioPorId() {
+        UsuarioDTO usuario = new UsuarioDTO(1L, "João Silva", "joao@email.com", null);
+        cacheManager.getCache("usuarios").put(1L, usuario);
+
+        listener.aoAlterarUsuario(new UsuarioEvent(TipoEvento.REMOVIDO, usuario));
+
+        assertNull(cacheManager.getCache("usuarios").get(1L));
+    }
+
+    private CarroDTO carro(String placa, String modelo) {
+        return new CarroDTO(1L, "Toyota", modelo, 2023, placa,
+                new BigDecimal("100000.00"), new BigDecimal("300.00"), true);
+    }
+}
@@ -0,0 +1,63 @@
+package com.concessionaria.carros.cache;
+
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.OperacaoEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersaoRecursosTest {
+
+    private VersaoRecursos versaoRecursos;
+
+    @BeforeEach
+    void setUp() {
+        versaoRecursos = new VersaoRecursos();
+    }
+
+    @Test
+    void aoAlterarCarro_DeveMudarEtagDaTabelaEDoCarroMasNaoDosOutros() {
+        String tabela = versaoRecursos.etagCarros();
+        String carro1 = versaoRecursos.etagCarro(1L);
+        String carro2 = versaoRecursos.etagCarro(2L);
+
+        versaoRecursos.aoAlterarCarro(new CarroEvent(TipoEvento.ATUALIZADO, carro(1L)));
+
+        assertNotEquals(tabela, versaoRecursos.etagCarros());
+        assertNotEquals(carro1, versaoRecursos.etagCarro(1L));
+        assertEquals(carro2, versaoRecursos.etagCarro(2L));
+        assertTrue(versaoRecursos.etagCarros().startsWith("\"") && versaoRecursos.etagCarros().endsWith("\""));
+    }
+
+    @Test
+    void etagOperacoes_DeveMudarComOperacoesEComCarros() {
+        String inicial = versaoRecursos.etagOperacoes();
+        String operacao = versaoRecursos.etagOperacao(5L);
+
+        versaoRecursos.aoAlterarCarro(new CarroEvent(TipoEvento.ATUALIZADO, carro(1L)));
+        String aposCarro = versaoRecursos.etagOperacoes();
+        assertNotEquals(inicial, aposCarro);
+        assertNotEquals(operacao, versaoRecursos.etagOperacao(5L));
+
+        OperacaoDTO dto = new OperacaoDTO();
+        dto.setId(7L);
+        String operacao5 = versaoRecursos.etagOperacao(5L);
+        versaoRecursos.aoAlterarOperacao(new OperacaoEvent(TipoEvento.CRIADO, dto));
+        assertNotEquals(aposCarro, versaoRecursos.etagOperacoes());
+        assertEquals(operacao5, versaoRecursos.etagOperacao(5L));
+
+        String aposOperacao = versaoRecursos.etagOperacoes();
+        versaoRecursos.aoRemoverOperacoes();
+        assertNotEquals(aposOperacao, versaoRecursos.etagOperacoes());
+    }
+
+    private CarroDTO carro(Long id) {
+        CarroDTO carro = new CarroDTO();
+        carro.setId(id);
+        return carro;
+    }
+}
@@ -1,22 +1,43 @@
 package com.concessionaria.carros.controller;
 
+import com.concessionaria.carros.cache.VersaoRecursos;
+import com.concessionaria.carros.dto.BuscaCarrosDTO;
 import com.concessionaria.carros.dto.CarroDTO;
-import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.dto.FacetasCarrosDTO;
+import com.concessionaria.carros.dto.FiltroCarrosDTO;
+import com.concessionaria.carros.dto.ItemLoteDTO;
+import com.concessionaria.carros.dto.PaginaCarrosDTO;
+import com.concessionaria.carros.dto.ResultadoLoteDTO;
+import com.concessionaria.carros.dto.SugestaoDTO;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.exception.RecursoNaoEncontradoException;
+import com.concessionaria.carros.idempotencia.Idempotencia;
+import com.concessionaria.carros.repository.ChaveIdempotenciaRepository;
 import com.concessionaria.carros.service.CarroService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -25,6 +46,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CarroController.class)
+@Import({VersaoRecursos.class, Idempotencia.class})
 class CarroControllerTest {
     
     @Autowired
@@ -35,6 +57,12 @@ class CarroControllerTest {
     
     @MockBean
     private CarroService carroService;
+
+    @MockBean
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
+    @Autowired
+    private VersaoRecursos versaoRecursos;
     
     private CarroDTO carroDTO;
     
@@ -67,16 +95,56 @@ class CarroControllerTest {
     }
     
     @Test
-    void listarTodos_DeveRetornarListaDeCarros() throws Exception {
-        List<CarroDTO> carros = Arrays.asList(carroDTO);
-        when(carroService.listarTodos()).thenReturn(carros);
+    void criarEmLote_DeveRetornarResultadoPorItem() throws Exception {
+        ResultadoLoteDTO resultado = new ResultadoLoteDTO(1, 1, 0,
+                Collections.singletonList(new ItemLoteDTO(0, 1L, "ABC1234", true, null)));
+        when(carroService.criarEmLote(anyList())).thenReturn(resultado);
         
-        mockMvc.perform(get("/api/carros"))
+        mockMvc.perform(post("/api/carros/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Collections.singletonList(carroDTO))))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].marca").value(carroDTO.getMarca()))
-                .andExpect(jsonPath("$[0].modelo").value(carroDTO.getModelo()));
+                .andExpect(jsonPath("$.criados").value(1))
+                .andExpect(jsonPath("$.itens[0].id").value(1))
+                .andExpect(jsonPath("$.itens[0].sucesso").value(true));
                 
-        verify(carroService).listarTodos();
+        verify(carroService).criarEmLote(anyList());
+    }
+    
+    @Test
+    void listarTodos_DeveRetornarPaginaDeCarros() throws Exception {
+        PaginaCarrosDTO pagina = new PaginaCarrosDTO(Arrays.asList(carroDTO), "MQ");
+        when(carroService.listarTodos(any(), any())).thenReturn(pagina);
+        
+        mockMvc.perform(get("/api/carros").param("tamanho", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].marca").value(carroDTO.getMarca()))
+                .andExpect(jsonPath("$.itens[0].modelo").value(carroDTO.getModelo()))
+                .andExpect(jsonPath("$.proximoCursor").value("MQ"));
+                
+        verify(carroService).listarTodos(null, 1);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void transmitirTodos_DeveEscreverUmCarroPorLinha() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<CarroDTO> consumidor = invocation.getArgument(0);
+            consumidor.accept(carroDTO);
+            consumidor.accept(carroDTO);
+            return null;
+        }).when(carroService).transmitirTodos(any(Consumer.class));
+        
+        MvcResult resultado = mockMvc.perform(get("/api/carros/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        String corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        
+        assertEquals(2, corpo.split("\n").length);
     }
     
     @Test
@@ -154,6 +222,102 @@ class CarroControllerTest {
         verify(carroService).buscarDisponiveis();
     }
 
+    @Test
+    void buscarDisponiveis_ComPeriodo_DeveConsultarCarrosLivresNoPeriodo() throws Exception {
+        when(carroService.buscarDisponiveisNoPeriodo(LocalDate.of(2030, 5, 10), LocalDate.of(2030, 5, 12)))
+                .thenReturn(Collections.singletonList(carroDTO));
+
+        mockMvc.perform(get("/api/carros/disponiveis").param("de", "2030-05-10").param("ate", "2030-05-12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].placa").value(carroDTO.getPlaca()));
+
+        verify(carroService, never()).buscarDisponiveis();
+    }
+
+    @Test
+    void buscarDisponiveis_ComEtagAtual_DeveResponder304SemConsultarServico() throws Exception {
+        String etag = RespostaCondicional.etag(versaoRecursos.etagCarros(), "json");
+
+        mockMvc.perform(get("/api/carros/disponiveis").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verifyNoInteractions(carroService);
+    }
+
+    @Test
+    void buscarPorId_ComEtagDeVersaoAnterior_DeveResponderNovoCorpoENovoEtag() throws Exception {
+        String etagAntigo = RespostaCondicional.etag(versaoRecursos.etagCarro(1L), "json");
+        versaoRecursos.aoAlterarCarro(new CarroEvent(TipoEvento.ATUALIZADO, carroDTO));
+        when(carroService.buscarPorId(1L)).thenReturn(carroDTO);
+
+        mockMvc.perform(get("/api/carros/1").header(HttpHeaders.IF_NONE_MATCH, etagAntigo))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG,
+                        RespostaCondicional.etag(versaoRecursos.etagCarro(1L), "json")))
+                .andExpect(jsonPath("$.placa").value(carroDTO.getPlaca()));
+
+        verify(carroService).buscarPorId(1L);
+    }
+
+    @Test
+    void buscarDisponiveisPorMarca_DeveRetornarCarrosDisponiveisDaMarca() throws Exception {
+        when(carroService.buscarDisponiveisPorMarca(anyString())).thenReturn(Collections.singletonList(carroDTO));
+        
+        mockMvc.perform(get("/api/carros/disponiveis/marca/Toyota"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].marca").value(carroDTO.getMarca()))
+                .andExpect(jsonPath("$[0].disponivel").value(true));
+                
+        verify(carroService).buscarDisponiveisPorMarca("Toyota");
+    }
+
+    @Test
+    void sugerir_DeveRetornarSugestoes() throws Exception {
+        when(carroService.sugerir("toy", 5)).thenReturn(Collections.singletonList(
+                new SugestaoDTO(SugestaoDTO.TipoSugestao.MARCA, "Toyota", null, 3)));
+        
+        mockMvc.perform(get("/api/carros/sugestoes").param("q", "toy").param("limite", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tipo").value("MARCA"))
+                .andExpect(jsonPath("$[0].texto").value("Toyota"))
+                .andExpect(jsonPath("$[0].quantidade").value(3));
+    }
+
+    @Test
+    void buscar_DeveRepassarFiltrosERetornarFacetas() throws Exception {
+        Map<String, Long> marcas = new LinkedHashMap<>();
+        marcas.put("Toyota", 7L);
+        marcas.put("Honda", 2L);
+        BuscaCarrosDTO resultado = new BuscaCarrosDTO(Collections.singletonList(carroDTO), 0, 20, 9, 1,
+                new FacetasCarrosDTO(marcas, Map.of("2020-2024", 9L)));
+        when(carroService.buscar(any(FiltroCarrosDTO.class), eq(0), eq(20), eq("ano"), eq("desc")))
+                .thenReturn(resultado);
+
+        mockMvc.perform(get("/api/carros/busca")
+                        .param("marca", "Toyota", "Honda")
+                        .param("anoMin", "2020")
+                        .param("precoVendaMax", "200000")
+                        .param("disponivel", "true")
+                        .param("pagina", "0")
+                        .param("tamanho", "20")
+                        .param("ordenarPor", "ano")
+                        .param("direcao", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].placa").value("ABC1234"))
+                .andExpect(jsonPath("$.total").value(9))
+                .andExpect(jsonPath("$.facetas.marcas.Toyota").value(7))
+                .andExpect(jsonPath("$.facetas.faixasAno['2020-2024']").value(9));
+
+        ArgumentCaptor<FiltroCarrosDTO> filtro = ArgumentCaptor.forClass(FiltroCarrosDTO.class);
+        verify(carroService).buscar(filtro.capture(), eq(0), eq(20), eq("ano"), eq("desc"));
+        assertEquals(Arrays.asList("Toyota", "Honda"), filtro.getValue().getMarca());
+        assertEquals(2020, filtro.getValue().getAnoMin());
+        assertEquals(new BigDecimal("200000"), filtro.getValue().getPrecoVendaMax());
+        assertEquals(Boolean.TRUE, filtro.getValue().getDisponivel());
+    }
+
     @Test
     void buscarPorPlaca_DeveRetornarCarro() throws Exception {
         when(carroService.buscarPorPlaca(anyString())).thenReturn(carroDTO);
@@ -169,7 +333,7 @@ class CarroControllerTest {
     @Test
     void buscarPorPlaca_DeveRetornar404QuandoCarroNaoEncontrado() throws Exception {
         when(carroService.buscarPorPlaca(anyString()))
-                .thenThrow(new BusinessException("Carro não encontrado com a placa: ABC1234"));
+                .thenThrow(new RecursoNaoEncontradoException("Carro não encontrado com a placa: ABC1234"));
         
         mockMvc.perform(get("/api/carros/placa/ABC1234"))
                 .andExpect(status().isNotFound());
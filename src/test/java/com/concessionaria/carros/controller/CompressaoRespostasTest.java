@@ -0,0 +1,91 @@
+package com.concessionaria.carros.controller;
+
+import com.concessionaria.carros.cache.VersaoRecursos;
+import com.concessionaria.carros.config.FormatosConfig;
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.idempotencia.Idempotencia;
+import com.concessionaria.carros.service.CarroService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+// Sobe o Tomcat embutido com a compressão de application.properties: o gzip é decidido pelo conector, então
+// MockMvc não enxerga se um ETag impede a compressão.
+@SpringBootTest(classes = CompressaoRespostasTest.Configuracao.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "server.compression.enabled=true",
+                "server.compression.mime-types=application/json,application/x-ndjson,application/cbor,"
+                        + "application/x-jackson-smile",
+                "server.compression.min-response-size=2KB"
+        })
+class CompressaoRespostasTest {
+
+    @LocalServerPort
+    private int porta;
+
+    @MockBean
+    private CarroService carroService;
+
+    @MockBean
+    private Idempotencia idempotencia;
+
+    @Test
+    void listagemComEtag_DeveSairComprimidaEmJsonECbor() throws Exception {
+        List<CarroDTO> carros = LongStream.rangeClosed(1, 200).mapToObj(this::carro).toList();
+        when(carroService.buscarDisponiveis()).thenReturn(carros);
+
+        for (String formato : List.of("application/json", "application/cbor")) {
+            HttpResponse<byte[]> resposta = buscar(formato);
+
+            assertEquals(200, resposta.statusCode());
+            assertEquals("gzip", resposta.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null), formato);
+            assertTrue(resposta.headers().firstValue(HttpHeaders.ETAG).orElseThrow().startsWith("W/"), formato);
+        }
+    }
+
+    private HttpResponse<byte[]> buscar(String formato) throws IOException, InterruptedException {
+        URI uri = URI.create("http://localhost:" + porta + "/api/carros/disponiveis");
+        HttpRequest requisicao = HttpRequest.newBuilder(uri)
+                .header(HttpHeaders.ACCEPT, formato)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+        return HttpClient.newHttpClient().send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private CarroDTO carro(long id) {
+        return new CarroDTO(id, "Toyota", "Corolla " + id, 2023, String.format("ABC%04d", id),
+                new BigDecimal("100000.00"), new BigDecimal("300.00"), true);
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class})
+    @Import({CarroController.class, VersaoRecursos.class, FormatosConfig.class})
+    static class Configuracao {
+    }
+}
@@ -0,0 +1,40 @@
+package com.concessionaria.carros.controller;
+
+import com.concessionaria.carros.dto.EstatisticasFrotaDTO;
+import com.concessionaria.carros.indice.EstatisticasFrota;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(EstatisticasController.class)
+class EstatisticasControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EstatisticasFrota estatisticasFrota;
+
+    @Test
+    void consultar_DeveRetornarContadoresDaFrota() throws Exception {
+        when(estatisticasFrota.consultar()).thenReturn(new EstatisticasFrotaDTO(12, 5,
+                Map.of("Toyota", 3L, "Honda", 2L), 4, 2, LocalDateTime.of(2024, 5, 10, 9, 30)));
+
+        mockMvc.perform(get("/api/estatisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCarros").value(12))
+                .andExpect(jsonPath("$.carrosDisponiveis").value(5))
+                .andExpect(jsonPath("$.disponiveisPorMarca.Toyota").value(3))
+                .andExpect(jsonPath("$.alugueisAbertos").value(4))
+                .andExpect(jsonPath("$.vendasHoje").value(2));
+    }
+}
@@ -1,23 +1,40 @@
 package com.concessionaria.carros.controller;
 
+import com.concessionaria.carros.cache.VersaoRecursos;
+import com.concessionaria.carros.config.FormatosConfig;
 import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.dto.PedidoOperacaoDTO;
+import com.concessionaria.carros.dto.RelatorioOperacoesDTO;
+import com.concessionaria.carros.dto.TotalGrupoDTO;
 import com.concessionaria.carros.entity.Operacao;
+import com.concessionaria.carros.exception.FilaCheiaException;
+import com.concessionaria.carros.idempotencia.Idempotencia;
+import com.concessionaria.carros.repository.ChaveIdempotenciaRepository;
+import com.concessionaria.carros.service.OperacaoAssincronaService;
 import com.concessionaria.carros.service.OperacaoService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
@@ -26,6 +43,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(OperacaoController.class)
+@Import({VersaoRecursos.class, FormatosConfig.class, Idempotencia.class})
 class OperacaoControllerTest {
     
     @Autowired
@@ -37,6 +55,15 @@ class OperacaoControllerTest {
     @MockBean
     private OperacaoService operacaoService;
     
+    @MockBean
+    private OperacaoAssincronaService operacaoAssincronaService;
+
+    @MockBean
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
+    @Autowired
+    private VersaoRecursos versaoRecursos;
+    
     private OperacaoDTO operacaoDTO;
     
     @BeforeEach
@@ -65,6 +92,110 @@ class OperacaoControllerTest {
         verify(operacaoService).criar(any(OperacaoDTO.class));
     }
     
+    @Test
+    void criar_ReenvioComMesmaIdempotencyKey_DeveReproduzirRespostaSemChamarServico() throws Exception {
+        operacaoDTO.setCarroId(1L);
+        when(operacaoService.criar(any(OperacaoDTO.class))).thenReturn(operacaoDTO);
+        String corpo = objectMapper.writeValueAsString(operacaoDTO);
+
+        mockMvc.perform(post("/api/operacoes").header(Idempotencia.CABECALHO, "pedido-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(Idempotencia.CABECALHO_REPRODUZIDA));
+        mockMvc.perform(post("/api/operacoes").header(Idempotencia.CABECALHO, "pedido-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Idempotencia.CABECALHO_REPRODUZIDA, "true"))
+                .andExpect(jsonPath("$.id").value(operacaoDTO.getId()));
+
+        verify(operacaoService, times(1)).criar(any(OperacaoDTO.class));
+    }
+    
+    @Test
+    void criarAssincrona_DeveAceitarPedidoComUrlDeStatus() throws Exception {
+        operacaoDTO.setCarroId(1L);
+        PedidoOperacaoDTO pedido = new PedidoOperacaoDTO("abc", PedidoOperacaoDTO.StatusPedido.PENDENTE,
+                LocalDateTime.now(), null, null);
+        when(operacaoAssincronaService.enfileirar(any(OperacaoDTO.class))).thenReturn(pedido);
+        
+        mockMvc.perform(post("/api/operacoes")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(operacaoDTO)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/operacoes/pedidos/abc"))
+                .andExpect(jsonPath("$.status").value("PENDENTE"));
+                
+        verify(operacaoService, never()).criar(any(OperacaoDTO.class));
+    }
+    
+    @Test
+    void criarAssincrona_ReenvioComMesmaIdempotencyKey_NaoDeveEnfileirarDeNovo() throws Exception {
+        operacaoDTO.setCarroId(1L);
+        PedidoOperacaoDTO pedido = new PedidoOperacaoDTO("abc", PedidoOperacaoDTO.StatusPedido.PENDENTE,
+                LocalDateTime.now(), null, null);
+        when(operacaoAssincronaService.enfileirar(any(OperacaoDTO.class))).thenReturn(pedido);
+        String corpo = objectMapper.writeValueAsString(operacaoDTO);
+
+        for (int envio = 0; envio < 2; envio++) {
+            mockMvc.perform(post("/api/operacoes")
+                    .header("Prefer", "respond-async")
+                    .header(Idempotencia.CABECALHO, "pedido-async-1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(corpo))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string("Location", "/api/operacoes/pedidos/abc"));
+        }
+
+        verify(operacaoAssincronaService, times(1)).enfileirar(any(OperacaoDTO.class));
+    }
+
+    @Test
+    void criarAssincrona_DeveRetornar429QuandoFilaCheia() throws Exception {
+        operacaoDTO.setCarroId(1L);
+        when(operacaoAssincronaService.enfileirar(any(OperacaoDTO.class)))
+                .thenThrow(new FilaCheiaException("Fila de operações cheia, tente novamente em instantes"));
+        
+        mockMvc.perform(post("/api/operacoes")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(operacaoDTO)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+    
+    @Test
+    void criarAssincrona_DeveReconhecerRespondAsyncEntreOutrasPreferencias() throws Exception {
+        operacaoDTO.setCarroId(1L);
+        PedidoOperacaoDTO pedido = new PedidoOperacaoDTO("abc", PedidoOperacaoDTO.StatusPedido.PENDENTE,
+                LocalDateTime.now(), null, null);
+        when(operacaoAssincronaService.enfileirar(any(OperacaoDTO.class))).thenReturn(pedido);
+
+        mockMvc.perform(post("/api/operacoes")
+                .header("Prefer", "return=minimal, Respond-Async; motivo=lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(operacaoDTO)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/operacoes/pedidos/abc"));
+
+        verify(operacaoService, never()).criar(any(OperacaoDTO.class));
+    }
+
+    @Test
+    void criar_ComPreferSemRespondAsync_DeveGravarNaHora() throws Exception {
+        operacaoDTO.setCarroId(1L);
+        when(operacaoService.criar(any(OperacaoDTO.class))).thenReturn(operacaoDTO);
+
+        mockMvc.perform(post("/api/operacoes")
+                .header("Prefer", "return=representation")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(operacaoDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(operacaoDTO.getId()));
+
+        verify(operacaoAssincronaService, never()).enfileirar(any(OperacaoDTO.class));
+    }
+
     @Test
     void listarTodos_DeveRetornarListaDeOperacoes() throws Exception {
         List<OperacaoDTO> operacoes = Collections.singletonList(operacaoDTO);
@@ -78,6 +209,41 @@ class OperacaoControllerTest {
         verify(operacaoService).listarTodos();
     }
     
+    @Test
+    void listarTodos_ComAcceptCbor_DeveResponderEmCbor() throws Exception {
+        when(operacaoService.listarTodos()).thenReturn(Collections.singletonList(operacaoDTO));
+
+        MvcResult resultado = mockMvc.perform(get("/api/operacoes").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        List<OperacaoDTO> lidas = Jackson2ObjectMapperBuilder.cbor().build()
+                .readValue(resultado.getResponse().getContentAsByteArray(), new TypeReference<List<OperacaoDTO>>() {
+                });
+        assertEquals(List.of(operacaoDTO), lidas);
+    }
+
+    @Test
+    void gerarRelatorio_DeveConverterParametrosERetornarTotais() throws Exception {
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        LocalDate fim = LocalDate.of(2024, 6, 30);
+        List<TotalGrupoDTO> porTipo = Collections.singletonList(
+                new TotalGrupoDTO("VENDA", 2, new BigDecimal("300000.00"), new BigDecimal("150000.00")));
+        RelatorioOperacoesDTO relatorio = new RelatorioOperacoesDTO(inicio, fim, RelatorioOperacoesDTO.Agrupamento.MES,
+                2, new BigDecimal("300000.00"), new BigDecimal("150000.00"), porTipo, porTipo, porTipo);
+        when(operacaoService.gerarRelatorio(inicio, fim, RelatorioOperacoesDTO.Agrupamento.MES)).thenReturn(relatorio);
+
+        mockMvc.perform(get("/api/operacoes/relatorios")
+                        .param("inicio", "2024-01-01")
+                        .param("fim", "2024-06-30")
+                        .param("agrupamento", "MES"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantidade").value(2))
+                .andExpect(jsonPath("$.media").value(150000.00))
+                .andExpect(jsonPath("$.porTipo[0].grupo").value("VENDA"));
+    }
+
     @Test
     void buscarPorId_DeveRetornarOperacaoQuandoEncontrada() throws Exception {
         when(operacaoService.buscarPorId(anyLong())).thenReturn(operacaoDTO);
@@ -89,6 +255,33 @@ class OperacaoControllerTest {
                 
         verify(operacaoService).buscarPorId(1L);
     }
+
+    @Test
+    void buscarPorId_ComEtagAtual_DeveResponder304SemConsultarServico() throws Exception {
+        String etag = RespostaCondicional.etag(versaoRecursos.etagOperacao(1L), "json");
+
+        mockMvc.perform(get("/api/operacoes/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verifyNoInteractions(operacaoService);
+    }
+
+    @Test
+    void listarTodos_EtagDeveSerFracoEDistinguirOFormato() throws Exception {
+        when(operacaoService.listarTodos()).thenReturn(List.of(operacaoDTO));
+        String etagJson = RespostaCondicional.etag(versaoRecursos.etagOperacoes(), "json");
+
+        mockMvc.perform(get("/api/operacoes").accept("application/cbor").header(HttpHeaders.IF_NONE_MATCH, etagJson))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG,
+                        RespostaCondicional.etag(versaoRecursos.etagOperacoes(), "cbor")))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        mockMvc.perform(get("/api/operacoes").header(HttpHeaders.IF_NONE_MATCH, etagJson))
+                .andExpect(status().isNotModified());
+
+        assertTrue(etagJson.startsWith("W/\""));
+    }
     
     @Test
     void finalizarAluguel_DeveFinalizarAluguelComSucesso() throws Exception {
@@ -0,0 +1,86 @@
+package com.concessionaria.carros.controller;
+
+import com.concessionaria.carros.dto.ReservaDTO;
+import com.concessionaria.carros.exception.ConflitoException;
+import com.concessionaria.carros.exception.RecursoNaoEncontradoException;
+import com.concessionaria.carros.service.ReservaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReservaController.class)
+class ReservaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ReservaService reservaService;
+
+    private ReservaDTO reservaDTO;
+
+    @BeforeEach
+    void setUp() {
+        reservaDTO = new ReservaDTO(null, 1L, 2L, LocalDate.of(2030, 5, 10), LocalDate.of(2030, 5, 12), null);
+    }
+
+    @Test
+    void criar_DeveResponder201ComLocalizacao() throws Exception {
+        ReservaDTO criada = new ReservaDTO(7L, 1L, 2L, reservaDTO.getInicio(), reservaDTO.getFim(), null);
+        when(reservaService.criar(any(ReservaDTO.class))).thenReturn(criada);
+
+        mockMvc.perform(post("/api/reservas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reservaDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/reservas/7"))
+                .andExpect(jsonPath("$.inicio").value("2030-05-10"));
+    }
+
+    @Test
+    void criar_ComPeriodoOcupado_DeveResponder409() throws Exception {
+        when(reservaService.criar(any(ReservaDTO.class)))
+                .thenThrow(new ConflitoException("O carro já está reservado em parte do período"));
+
+        mockMvc.perform(post("/api/reservas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reservaDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("O carro já está reservado em parte do período"));
+    }
+
+    @Test
+    void criar_SemDatas_DeveResponder400SemChamarServico() throws Exception {
+        reservaDTO.setInicio(null);
+
+        mockMvc.perform(post("/api/reservas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reservaDTO)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reservaService);
+    }
+
+    @Test
+    void cancelar_ReservaInexistente_DeveResponder404() throws Exception {
+        doThrow(new RecursoNaoEncontradoException("Reserva não encontrada")).when(reservaService).cancelar(9L);
+
+        mockMvc.perform(delete("/api/reservas/9"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,6 +1,10 @@
 package com.concessionaria.carros.controller;
 
+import com.concessionaria.carros.dto.LoginDTO;
+import com.concessionaria.carros.dto.TokenDTO;
 import com.concessionaria.carros.dto.UsuarioDTO;
+import com.concessionaria.carros.exception.CredenciaisInvalidasException;
+import com.concessionaria.carros.seguranca.TokenService;
 import com.concessionaria.carros.service.UsuarioService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,12 +15,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,6 +39,9 @@ class UsuarioControllerTest {
     @MockBean
     private UsuarioService usuarioService;
     
+    @MockBean
+    private TokenService tokenService;
+    
     private UsuarioDTO usuarioDTO;
     
     @BeforeEach
@@ -106,4 +115,39 @@ class UsuarioControllerTest {
                 
         verify(usuarioService).deletar(1L);
     }
-} 
\ No newline at end of file
+    
+    @Test
+    void login_DeveRetornarToken() throws Exception {
+        when(usuarioService.autenticar("joao@email.com", "senha123")).thenReturn(usuarioDTO);
+        when(tokenService.emitir(usuarioDTO)).thenReturn(new TokenDTO("v1.abc.def", "Bearer", Instant.now(), usuarioDTO));
+        
+        mockMvc.perform(post("/api/usuarios/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginDTO("joao@email.com", "senha123"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("v1.abc.def"))
+                .andExpect(jsonPath("$.tipo").value("Bearer"));
+    }
+    
+    @Test
+    void login_DeveRetornar401ComCredenciaisInvalidas() throws Exception {
+        when(usuarioService.autenticar(anyString(), anyString()))
+                .thenThrow(new CredenciaisInvalidasException("Email ou senha inválidos"));
+        
+        mockMvc.perform(post("/api/usuarios/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginDTO("joao@email.com", "errada"))))
+                .andExpect(status().isUnauthorized());
+        
+        verify(tokenService, never()).emitir(any(UsuarioDTO.class));
+    }
+    
+    @Test
+    void logout_DeveRevogarToken() throws Exception {
+        mockMvc.perform(post("/api/usuarios/logout")
+                .header("Authorization", "Bearer v1.abc.def"))
+                .andExpect(status().isNoContent());
+        
+        verify(tokenService).revogar("v1.abc.def");
+    }
+}
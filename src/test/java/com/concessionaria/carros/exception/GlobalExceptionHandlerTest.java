@@ -27,6 +27,30 @@ class GlobalExceptionHandlerTest {
         assertEquals("Erro de negócio", response.getBody().message());
     }
     
+    @Test
+    void handleRecursoNaoEncontradoException_DeveRetornarNotFound() {
+        ResponseEntity<GlobalExceptionHandler.ErrorResponse> response = handler.handleRecursoNaoEncontradoException(
+                new RecursoNaoEncontradoException("Carro não encontrado"));
+        
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Carro não encontrado", response.getBody().message());
+    }
+    
+    @Test
+    void handleConflitoException_DeveRetornarConflict() {
+        ResponseEntity<GlobalExceptionHandler.ErrorResponse> response = handler.handleConflitoException(
+                new ConflitoException("Carro não está disponível"));
+        
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Carro não está disponível", response.getBody().message());
+    }
+    
+    @Test
+    void excecoesDeNegocio_NaoDevemCapturarStackTrace() {
+        assertEquals(0, new BusinessException("Erro de negócio").getStackTrace().length);
+        assertEquals(0, new RecursoNaoEncontradoException("Carro não encontrado").getStackTrace().length);
+    }
+    
     @Test
     void handleValidationExceptions_DeveRetornarBadRequest() {
         MethodArgumentNotValidException exception = mock(MethodArgumentNotValidException.class);
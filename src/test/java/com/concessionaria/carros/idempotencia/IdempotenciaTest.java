@@ -0,0 +1,179 @@
+package com.concessionaria.carros.idempotencia;
+
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.entity.ChaveIdempotencia;
+import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.exception.ConflitoException;
+import com.concessionaria.carros.repository.ChaveIdempotenciaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotenciaTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final AtomicInteger execucoes = new AtomicInteger();
+    private ChaveIdempotenciaRepository repositorio;
+    private Idempotencia idempotencia;
+    private OperacaoDTO requisicao;
+
+    @BeforeEach
+    void setUp() {
+        repositorio = mock(ChaveIdempotenciaRepository.class);
+        when(repositorio.findById(anyString())).thenReturn(Optional.empty());
+        idempotencia = new Idempotencia(repositorio, objectMapper, 1_000, Duration.ofSeconds(5), Duration.ofHours(24));
+        requisicao = new OperacaoDTO(null, null, 1L, null, new BigDecimal("500.00"), null, null, "Toyota");
+    }
+
+    @Test
+    void executar_ReenvioComMesmaChave_DeveDevolverRespostaOriginalSemRodarAcao() {
+        ResponseEntity<OperacaoDTO> primeira = idempotencia.executar("operacoes", "k1", requisicao,
+                OperacaoDTO.class, this::criar);
+        ResponseEntity<OperacaoDTO> reenvio = idempotencia.executar("operacoes", "k1", requisicao,
+                OperacaoDTO.class, this::criar);
+
+        assertEquals(1, execucoes.get());
+        assertEquals(primeira.getBody(), reenvio.getBody());
+        assertEquals("true", reenvio.getHeaders().getFirst(Idempotencia.CABECALHO_REPRODUZIDA));
+        verify(repositorio).registrar(eq("operacoes:k1"), anyString(), any(LocalDateTime.class));
+        verify(repositorio).concluir(eq("operacoes:k1"), eq(200), isNull(), any(byte[].class));
+    }
+
+    @Test
+    void executar_DuplicataConcorrente_DeveEsperarAExecucaoEmAndamento() throws Exception {
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<OperacaoDTO>> original = executor.submit(() -> idempotencia.executar(
+                    "operacoes", "k2", requisicao, OperacaoDTO.class, () -> {
+                        iniciou.countDown();
+                        aguardar(liberar);
+                        return criar();
+                    }));
+            assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<OperacaoDTO>> duplicata = executor.submit(() -> idempotencia.executar(
+                    "operacoes", "k2", requisicao, OperacaoDTO.class, this::criar));
+
+            Thread.sleep(100);
+            assertFalse(duplicata.isDone());
+            liberar.countDown();
+
+            assertEquals(original.get(5, TimeUnit.SECONDS).getBody(), duplicata.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals(1, execucoes.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void executar_ChaveForaDaMemoria_DeveReproduzirRespostaGravadaNoBanco() throws Exception {
+        OperacaoDTO gravada = new OperacaoDTO(42L, 7L, 1L, null, new BigDecimal("500.00"), null, null, "Toyota");
+        String hash = hashDe(requisicao);
+        when(repositorio.findById("operacoes:k3")).thenReturn(Optional.of(new ChaveIdempotencia("operacoes:k3",
+                hash, 200, null, objectMapper.writeValueAsBytes(gravada), LocalDateTime.now())));
+
+        ResponseEntity<OperacaoDTO> resposta = idempotencia.executar("operacoes", "k3", requisicao,
+                OperacaoDTO.class, this::criar);
+
+        assertEquals(0, execucoes.get());
+        assertEquals(gravada, resposta.getBody());
+        verify(repositorio, never()).registrar(anyString(), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void executar_MesmaChaveComOutroCorpo_DeveSerRejeitada() {
+        idempotencia.executar("operacoes", "k4", requisicao, OperacaoDTO.class, this::criar);
+        requisicao.setMarca("Honda");
+
+        assertThrows(BusinessException.class, () -> idempotencia.executar("operacoes", "k4", requisicao,
+                OperacaoDTO.class, this::criar));
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void executar_FalhaNaAcao_NaoDeveSerMemorizadaELiberaAChave() {
+        assertThrows(ConflitoException.class, () -> idempotencia.executar("operacoes", "k5", requisicao,
+                OperacaoDTO.class, () -> {
+                    execucoes.incrementAndGet();
+                    throw new ConflitoException("Carro não está disponível");
+                }));
+        verify(repositorio).liberar("operacoes:k5");
+
+        idempotencia.executar("operacoes", "k5", requisicao, OperacaoDTO.class, this::criar);
+        assertEquals(2, execucoes.get());
+        verify(repositorio).concluir(eq("operacoes:k5"), anyInt(), isNull(), any(byte[].class));
+    }
+
+    @Test
+    void executar_FalhaAoGravarResposta_DeveDevolverRespostaEManterAChave() {
+        doThrow(new DataAccessResourceFailureException("Conexão perdida"))
+                .when(repositorio).concluir(anyString(), anyInt(), any(), any(byte[].class));
+
+        ResponseEntity<OperacaoDTO> primeira = idempotencia.executar("operacoes", "k6", requisicao,
+                OperacaoDTO.class, this::criar);
+        ResponseEntity<OperacaoDTO> reenvio = idempotencia.executar("operacoes", "k6", requisicao,
+                OperacaoDTO.class, this::criar);
+
+        assertEquals(200, primeira.getStatusCode().value());
+        assertEquals(primeira.getBody(), reenvio.getBody());
+        assertEquals("true", reenvio.getHeaders().getFirst(Idempotencia.CABECALHO_REPRODUZIDA));
+        assertEquals(1, execucoes.get());
+        verify(repositorio, times(3)).concluir(eq("operacoes:k6"), eq(200), isNull(), any(byte[].class));
+        verify(repositorio, never()).liberar(anyString());
+    }
+
+    @Test
+    void executar_ChavePendenteAlemDaEspera_NaoDeveRodarAAcaoDeNovo() {
+        when(repositorio.findById("operacoes:k7")).thenReturn(Optional.of(new ChaveIdempotencia("operacoes:k7",
+                "hash", null, null, null, LocalDateTime.now().minusMinutes(10))));
+
+        ConflitoException erro = assertThrows(ConflitoException.class, () -> idempotencia.executar("operacoes",
+                "k7", requisicao, OperacaoDTO.class, this::criar));
+
+        assertTrue(erro.getMessage().contains("não foi confirmado"));
+        assertEquals(0, execucoes.get());
+        verify(repositorio, never()).registrar(anyString(), anyString(), any(LocalDateTime.class));
+    }
+
+    private ResponseEntity<OperacaoDTO> criar() {
+        long id = execucoes.incrementAndGet();
+        return ResponseEntity.ok(new OperacaoDTO(id, 7L, 1L, null, requisicao.getValor(), null, null, "Toyota"));
+    }
+
+    private String hashDe(Object corpo) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(corpo));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.concessionaria.carros.indice;
+
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.EstatisticasFrotaDTO;
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.entity.Operacao;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.OperacaoEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.repository.CarroRepository;
+import com.concessionaria.carros.repository.OperacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EstatisticasFrotaTest {
+
+    private static final LocalDateTime AGORA = LocalDateTime.of(2024, 5, 10, 14, 0);
+
+    @Mock
+    private CarroRepository carroRepository;
+
+    @Mock
+    private OperacaoRepository operacaoRepository;
+
+    private EstatisticasFrota estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        Clock relogio = Clock.fixed(AGORA.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        estatisticas = new EstatisticasFrota(carroRepository, operacaoRepository, mock(PlatformTransactionManager.class),
+                relogio);
+        when(carroRepository.contarPorMarca()).thenReturn(List.of(contagem("Toyota", 4, 3), contagem("Honda", 2, 1)));
+        when(operacaoRepository.countByTipoAndDataDevolucaoIsNull(Operacao.TipoOperacao.ALUGUEL)).thenReturn(2L);
+        when(operacaoRepository.countByTipoAndDataOperacaoGreaterThanEqual(
+                Operacao.TipoOperacao.VENDA, AGORA.toLocalDate().atStartOfDay())).thenReturn(1L);
+        estatisticas.carregar();
+    }
+
+    @Test
+    void carregar_DeveSemearContadoresComAsConsultasAgregadas() {
+        EstatisticasFrotaDTO resultado = estatisticas.consultar();
+
+        assertEquals(6, resultado.getTotalCarros());
+        assertEquals(4, resultado.getCarrosDisponiveis());
+        assertEquals(Map.of("Toyota", 3L, "Honda", 1L), resultado.getDisponiveisPorMarca());
+        assertEquals(2, resultado.getAlugueisAbertos());
+        assertEquals(1, resultado.getVendasHoje());
+        assertEquals(AGORA, resultado.getReconciliadoEm());
+    }
+
+    @Test
+    void aoAlterarCarro_DeveAtualizarContadoresIncrementalmente() {
+        estatisticas.aoAlterarCarro(new CarroEvent(TipoEvento.CRIADO, carro("Fiat", true)));
+        estatisticas.aoAlterarCarro(new CarroEvent(TipoEvento.ATUALIZADO, carro("Toyota", false)));
+        estatisticas.aoAlterarCarro(new CarroEvent(TipoEvento.ATUALIZADO, carro("Ford", true), carro("Honda", true)));
+        estatisticas.aoAlterarCarro(new CarroEvent(TipoEvento.REMOVIDO, carro("Toyota", true)));
+
+        EstatisticasFrotaDTO resultado = estatisticas.consultar();
+        assertEquals(6, resultado.getTotalCarros());
+        assertEquals(3, resultado.getCarrosDisponiveis());
+        assertEquals(Map.of("Toyota", 1L, "Fiat", 1L, "Ford", 1L), resultado.getDisponiveisPorMarca());
+    }
+
+    @Test
+    void aoAlterarOperacao_DeveContarAlugueisAbertosEVendasDoDia() {
+        estatisticas.aoAlterarOperacao(new OperacaoEvent(TipoEvento.CRIADO, aluguel(null)));
+        estatisticas.aoAlterarOperacao(new OperacaoEvent(TipoEvento.ATUALIZADO, aluguel(AGORA)));
+        estatisticas.aoAlterarOperacao(new OperacaoEvent(TipoEvento.ATUALIZADO, aluguel(AGORA)));
+        estatisticas.aoAlterarOperacao(new OperacaoEvent(TipoEvento.CRIADO, new OperacaoDTO(2L, 2L, 1L,
+                Operacao.TipoOperacao.VENDA, new BigDecimal("90000.00"), AGORA.minusHours(1), null, "Honda")));
+
+        EstatisticasFrotaDTO resultado = estatisticas.consultar();
+        assertEquals(1, resultado.getAlugueisAbertos());
+        assertEquals(2, resultado.getVendasHoje());
+    }
+
+    @Test
+    void reconciliar_DeveCorrigirDivergenciasComOBanco() {
+        estatisticas.aoAlterarCarro(new CarroEvent(TipoEvento.CRIADO, carro("Fiat", true)));
+        assertEquals(7, estatisticas.consultar().getTotalCarros());
+
+        estatisticas.reconciliar();
+
+        assertEquals(6, estatisticas.consultar().getTotalCarros());
+        assertFalse(estatisticas.consultar().getDisponiveisPorMarca().containsKey("Fiat"));
+    }
+
+    @Test
+    void reconciliar_DeveSomarEventosRecebidosDuranteARecontagem() {
+        when(carroRepository.contarPorMarca()).thenAnswer(invocacao -> {
+            // Commits que chegam depois de a recontagem já ter começado e que ela não enxerga.
+            estatisticas.aoAlterarCarro(new CarroEvent(TipoEvento.CRIADO, carro("Fiat", true)));
+            estatisticas.aoAlterarOperacao(new OperacaoEvent(TipoEvento.CRIADO, aluguel(null)));
+            return List.of(contagem("Toyota", 4, 3), contagem("Honda", 2, 1));
+        });
+
+        estatisticas.reconciliar();
+
+        EstatisticasFrotaDTO resultado = estatisticas.consultar();
+        assertEquals(7, resultado.getTotalCarros());
+        assertEquals(Map.of("Toyota", 3L, "Honda", 1L, "Fiat", 1L), resultado.getDisponiveisPorMarca());
+        assertEquals(3, resultado.getAlugueisAbertos());
+    }
+
+    private CarroRepository.ContagemMarca contagem(String marca, long total, long disponiveis) {
+        return new CarroRepository.ContagemMarca() {
+            public String getMarca() {
+                return marca;
+            }
+
+            public Long getTotal() {
+                return total;
+            }
+
+            public Long getDisponiveis() {
+                return disponiveis;
+            }
+        };
+    }
+
+    private CarroDTO carro(String marca, boolean disponivel) {
+        return new CarroDTO(1L, marca, "Modelo", 2022, "ABC1234", new BigDecimal("90000.00"),
+                new BigDecimal("300.00"), disponivel);
+    }
+
+    private OperacaoDTO aluguel(LocalDateTime dataDevolucao) {
+        return new OperacaoDTO(1L, 1L, 1L, Operacao.TipoOperacao.ALUGUEL, new BigDecimal("300.00"),
+                AGORA.minusHours(1), dataDevolucao, "Toyota");
+    }
+}
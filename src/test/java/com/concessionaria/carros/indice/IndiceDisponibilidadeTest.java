@@ -0,0 +1,108 @@
+package com.concessionaria.carros.indice;
+
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.repository.CarroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceDisponibilidadeTest {
+
+    @Mock
+    private CarroRepository carroRepository;
+
+    @InjectMocks
+    private IndiceDisponibilidade indice;
+
+    @BeforeEach
+    void setUp() {
+        when(carroRepository.findDisponiveisProjetados()).thenReturn(Arrays.asList(
+                carro(1L, "Toyota", true),
+                carro(2L, "Honda", true),
+                carro(5L, "Toyota", true)));
+        indice.carregar();
+    }
+
+    @Test
+    void carregar_DeveIndexarCarrosDisponiveisPorMarca() {
+        assertEquals(3, indice.listarDisponiveis().size());
+        assertEquals(2, indice.listarDisponiveisPorMarca("Toyota").size());
+        assertTrue(indice.listarDisponiveisPorMarca("Fiat").isEmpty());
+    }
+
+    @Test
+    void aoAlterarCarro_DeveRemoverCarroQueFicouIndisponivel() {
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.ATUALIZADO, carro(1L, "Toyota", false)));
+
+        assertEquals(List.of(5L), ids(indice.listarDisponiveisPorMarca("Toyota")));
+        assertEquals(2, indice.listarDisponiveis().size());
+    }
+
+    @Test
+    void aoAlterarCarro_DeveMoverCarroQuandoMarcaMuda() {
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.ATUALIZADO, carro(2L, "Fiat", true)));
+
+        assertTrue(indice.listarDisponiveisPorMarca("Honda").isEmpty());
+        assertEquals(List.of(2L), ids(indice.listarDisponiveisPorMarca("Fiat")));
+    }
+
+    @Test
+    void aoAlterarCarro_DeveAdicionarCriadoERetirarRemovido() {
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.CRIADO, carro(3L, "Honda", true)));
+        CarroDTO removido = new CarroDTO();
+        removido.setId(2L);
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.REMOVIDO, removido));
+
+        List<CarroDTO> honda = indice.listarDisponiveisPorMarca("Honda");
+        assertEquals(1, honda.size());
+        assertEquals(3L, honda.get(0).getId());
+    }
+
+    @Test
+    void reconciliar_DeveSubstituirEstadoPeloDoBanco() {
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.CRIADO, carro(9L, "Fiat", true)));
+        when(carroRepository.findDisponiveisProjetados()).thenReturn(Collections.singletonList(carro(2L, "Honda", true)));
+
+        indice.reconciliar();
+
+        assertEquals(1, indice.listarDisponiveis().size());
+        assertTrue(indice.listarDisponiveisPorMarca("Fiat").isEmpty());
+    }
+
+    @Test
+    void reconciliar_DeveReaplicarEventosRecebidosDuranteALeitura() {
+        when(carroRepository.findDisponiveisProjetados()).thenAnswer(invocacao -> {
+            // Commits que chegam depois de a leitura já ter começado e que ela não enxerga.
+            indice.aoAlterarCarro(new CarroEvent(TipoEvento.CRIADO, carro(9L, "Fiat", true)));
+            indice.aoAlterarCarro(new CarroEvent(TipoEvento.ATUALIZADO, carro(1L, "Toyota", false)));
+            return Arrays.asList(carro(1L, "Toyota", true), carro(2L, "Honda", true));
+        });
+
+        indice.reconciliar();
+
+        assertEquals(List.of(2L, 9L), ids(indice.listarDisponiveis()));
+    }
+
+    private List<Long> ids(List<CarroDTO> carros) {
+        return carros.stream().map(CarroDTO::getId).toList();
+    }
+
+    private CarroDTO carro(Long id, String marca, boolean disponivel) {
+        return new CarroDTO(id, marca, "Modelo " + id, 2023, "PLA" + id,
+                new BigDecimal("100000.00"), new BigDecimal("300.00"), disponivel);
+    }
+}
@@ -0,0 +1,86 @@
+package com.concessionaria.carros.indice;
+
+import com.concessionaria.carros.dto.ReservaDTO;
+import com.concessionaria.carros.event.ReservaEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceReservasTest {
+
+    private static final LocalDate DIA = LocalDate.now().plusDays(10);
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @InjectMocks
+    private IndiceReservas indice;
+
+    @BeforeEach
+    void setUp() {
+        // Carro 1 reservado em [DIA, DIA+3) e [DIA+5, DIA+7).
+        when(reservaRepository.findVigentes(any(LocalDate.class))).thenReturn(Arrays.asList(
+                reserva(1L, 1L, 0, 3),
+                reserva(2L, 1L, 5, 7)));
+        indice.carregar();
+    }
+
+    @Test
+    void livre_DeveDetectarSobreposicaoComQualquerReservaDoCarro() {
+        assertFalse(indice.livre(1L, DIA.plusDays(2), DIA.plusDays(4)));
+        assertFalse(indice.livre(1L, DIA.minusDays(1), DIA.plusDays(1)));
+        assertFalse(indice.livre(1L, DIA.plusDays(4), DIA.plusDays(9)));
+        assertFalse(indice.livre(1L, DIA.minusDays(5), DIA.plusDays(20)));
+        assertTrue(indice.livre(2L, DIA, DIA.plusDays(7)));
+    }
+
+    @Test
+    void livre_DevePermitirPeriodoQueComecaNoDiaDaDevolucao() {
+        assertTrue(indice.livre(1L, DIA.plusDays(3), DIA.plusDays(5)));
+        assertTrue(indice.livre(1L, DIA.minusDays(2), DIA));
+        assertTrue(indice.livre(1L, DIA.plusDays(7), DIA.plusDays(8)));
+    }
+
+    @Test
+    void aoAlterarReserva_DeveAplicarCriacaoECancelamento() {
+        indice.aoAlterarReserva(new ReservaEvent(TipoEvento.CRIADO, reserva(3L, 1L, 3, 5)));
+        assertFalse(indice.livre(1L, DIA.plusDays(3), DIA.plusDays(4)));
+
+        indice.aoAlterarReserva(new ReservaEvent(TipoEvento.REMOVIDO, reserva(1L, 1L, 0, 3)));
+        assertTrue(indice.livre(1L, DIA, DIA.plusDays(3)));
+        assertFalse(indice.livre(1L, DIA.plusDays(4), DIA.plusDays(6)));
+    }
+
+    @Test
+    void reconciliar_DeveReaplicarEventosRecebidosDuranteALeitura() {
+        when(reservaRepository.findVigentes(any(LocalDate.class))).thenAnswer(invocacao -> {
+            // Commits que chegam depois de a leitura já ter começado e que ela não enxerga.
+            indice.aoAlterarReserva(new ReservaEvent(TipoEvento.CRIADO, reserva(3L, 2L, 0, 2)));
+            indice.aoAlterarReserva(new ReservaEvent(TipoEvento.REMOVIDO, reserva(2L, 1L, 5, 7)));
+            return Arrays.asList(reserva(1L, 1L, 0, 3), reserva(2L, 1L, 5, 7));
+        });
+
+        indice.reconciliar();
+
+        assertFalse(indice.livre(2L, DIA, DIA.plusDays(1)));
+        assertTrue(indice.livre(1L, DIA.plusDays(5), DIA.plusDays(7)));
+        assertFalse(indice.livre(1L, DIA, DIA.plusDays(1)));
+    }
+
+    private ReservaDTO reserva(Long id, Long carroId, int inicio, int fim) {
+        return new ReservaDTO(id, carroId, 1L, DIA.plusDays(inicio), DIA.plusDays(fim), null);
+    }
+}
@@ -0,0 +1,186 @@
+package com.concessionaria.carros.indice;
+
+import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.SugestaoDTO;
+import com.concessionaria.carros.dto.SugestaoDTO.TipoSugestao;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.repository.CarroRepository;
+import com.concessionaria.carros.repository.CarroRepository.TermosCarro;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceSugestoesTest {
+
+    private CarroRepository carroRepository;
+    private IndiceSugestoes indice;
+
+    @BeforeEach
+    void setUp() {
+        carroRepository = mock(CarroRepository.class);
+        when(carroRepository.streamTermos()).thenReturn(Stream.of(
+                new Termos(1L, "Citroën", "C3", "ABC1234"),
+                new Termos(2L, "Chevrolet", "Onix", "ABD5678"),
+                new Termos(3L, "Chevrolet", "Cruze", "XYZ0001"),
+                new Termos(4L, "Toyota", "Corolla Cross", "XYZ0002")));
+        indice = new IndiceSugestoes(carroRepository, mock(PlatformTransactionManager.class));
+        indice.carregar();
+    }
+
+    @Test
+    void sugerir_DeveIgnorarAcentosEOrdenarPorQuantidade() {
+        List<SugestaoDTO> resultado = indice.sugerir("C", 3);
+
+        assertEquals(3, resultado.size());
+        assertEquals("Chevrolet", resultado.get(0).getTexto());
+        assertEquals(2, resultado.get(0).getQuantidade());
+        assertTrue(indice.sugerir("citroen", 5).stream().anyMatch(s -> s.getTexto().equals("Citroën")));
+    }
+
+    @Test
+    void sugerir_DeveEncontrarPrefixoEmPalavraInterna() {
+        List<SugestaoDTO> resultado = indice.sugerir("cross", 5);
+
+        assertEquals(1, resultado.size());
+        assertEquals(TipoSugestao.MODELO, resultado.get(0).getTipo());
+        assertEquals("Toyota Corolla Cross", resultado.get(0).getTexto());
+    }
+
+    @Test
+    void sugerir_DevePriorizarPlacasQuandoConsultaTemDigitos() {
+        List<SugestaoDTO> resultado = indice.sugerir("xyz-00", 5);
+
+        assertEquals(2, resultado.size());
+        assertEquals(TipoSugestao.PLACA, resultado.get(0).getTipo());
+        assertEquals(3L, resultado.get(0).getCarroId());
+        assertEquals("XYZ0001", resultado.get(0).getTexto());
+    }
+
+    @Test
+    void sugerir_DeveTolerarErroDeDigitacao() {
+        List<SugestaoDTO> resultado = indice.sugerir("chevrloet", 5);
+
+        assertFalse(resultado.isEmpty());
+        assertEquals("Chevrolet", resultado.get(0).getTexto());
+    }
+
+    @Test
+    void sugerir_DeveRetornarVazioParaConsultaEmBranco() {
+        assertTrue(indice.sugerir("  ", 5).isEmpty());
+    }
+
+    @Test
+    void aoAlterarCarro_DeveAtualizarIndiceIncrementalmente() {
+        CarroDTO onix = carro(2L, "Chevrolet", "Onix", "ABD5678");
+        CarroDTO renomeado = carro(2L, "Chevrolet", "Onix Plus", "ABD5678");
+
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.ATUALIZADO, renomeado, onix));
+        assertEquals("Chevrolet Onix Plus", indice.sugerir("onix", 5).get(0).getTexto());
+        assertEquals(1, indice.sugerir("onix", 5).size());
+
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.REMOVIDO, renomeado));
+        assertTrue(indice.sugerir("onix", 5).isEmpty());
+        assertTrue(indice.sugerir("abd", 5).isEmpty());
+        assertEquals(1, indice.sugerir("chevrolet", 1).get(0).getQuantidade());
+
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.CRIADO, carro(5L, "Fiat", "Pulse", "FIA2024")));
+        assertEquals("Fiat", indice.sugerir("fi", 1).get(0).getTexto());
+    }
+
+    @Test
+    void sugerir_DeveManterOsMelhoresDoPrefixoQuandoAsQuantidadesMudam() {
+        for (long id = 100; id < 260; id++) {
+            indice.aoAlterarCarro(new CarroEvent(TipoEvento.CRIADO, carro(id, "Fiat", "Modelo " + id, "FIA" + id)));
+        }
+        CarroDTO repetido = carro(260L, "Fiat", "Modelo 259", "FIA0260");
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.CRIADO, repetido));
+        assertEquals("Fiat Modelo 259", indice.sugerir("fiat m", 1).get(0).getTexto());
+
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.REMOVIDO, repetido));
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.REMOVIDO, carro(259L, "Fiat", "Modelo 259", "FIA259")));
+        // Consome a folga da lista truncada de "fiat m" até ela precisar ser reabastecida.
+        for (long id = 100; id < 160; id++) {
+            indice.aoAlterarCarro(new CarroEvent(TipoEvento.REMOVIDO, carro(id, "Fiat", "Modelo " + id, "FIA" + id)));
+        }
+
+        List<SugestaoDTO> modelos = indice.sugerir("fiat m", IndiceSugestoes.LIMITE_MAXIMO);
+        assertEquals("Fiat Modelo 160", modelos.get(0).getTexto());
+        assertEquals("Fiat Modelo 209", modelos.get(IndiceSugestoes.LIMITE_MAXIMO - 1).getTexto());
+        assertTrue(modelos.stream().noneMatch(s -> s.getTexto().equals("Fiat Modelo 259")));
+        assertEquals(IndiceSugestoes.LIMITE_MAXIMO, indice.sugerir("fiat", 100).size());
+    }
+
+    @Test
+    void reconciliar_DeveReaplicarEventosRecebidosDuranteALeitura() {
+        when(carroRepository.streamTermos()).thenAnswer(invocacao -> {
+            // Commit que chega depois de a leitura já ter começado e que ela não enxerga.
+            indice.aoAlterarCarro(new CarroEvent(TipoEvento.CRIADO, carro(5L, "Fiat", "Pulse", "FIA0005")));
+            return Stream.of(new Termos(1L, "Citroën", "C3", "ABC1234"));
+        });
+
+        indice.reconciliar();
+
+        assertEquals(List.of("Fiat Pulse"), indice.sugerir("pul", 5).stream().map(SugestaoDTO::getTexto).toList());
+        assertTrue(indice.sugerir("onix", 5).isEmpty());
+    }
+
+    @Test
+    void reconciliar_NaoDeveContarDuasVezesEventosQueALeituraJaEnxergou() {
+        when(carroRepository.streamTermos()).thenAnswer(invocacao -> {
+            // Commits retidos que a leitura já inclui: o carro 5 criado e o carro 3 removido.
+            indice.aoAlterarCarro(new CarroEvent(TipoEvento.CRIADO, carro(5L, "Chevrolet", "Onix", "CHE0005")));
+            indice.aoAlterarCarro(new CarroEvent(TipoEvento.REMOVIDO, carro(3L, "Chevrolet", "Cruze", "XYZ0001")));
+            return Stream.of(
+                    new Termos(2L, "Chevrolet", "Onix", "ABD5678"),
+                    new Termos(5L, "Chevrolet", "Onix", "CHE0005"));
+        });
+
+        indice.reconciliar();
+
+        List<SugestaoDTO> chevrolet = indice.sugerir("chevrolet", 5);
+        assertEquals("Chevrolet", chevrolet.get(0).getTexto());
+        assertEquals(2, chevrolet.get(0).getQuantidade());
+        assertEquals(2, chevrolet.get(1).getQuantidade());
+
+        indice.aoAlterarCarro(new CarroEvent(TipoEvento.REMOVIDO, carro(5L, "Chevrolet", "Onix", "CHE0005")));
+        assertEquals(1, indice.sugerir("chevrolet onix", 5).get(0).getQuantidade());
+    }
+
+    @Test
+    void distanciaPrefixo_DeveMedirContraOMelhorPrefixo() {
+        assertEquals(0, IndiceSugestoes.distanciaPrefixo("coro", "corolla cross", 2));
+        assertEquals(1, IndiceSugestoes.distanciaPrefixo("corola", "corolla cross", 2));
+        assertEquals(2, IndiceSugestoes.distanciaPrefixo("chevrloet", "chevrolet", 2));
+    }
+
+    private CarroDTO carro(Long id, String marca, String modelo, String placa) {
+        return new CarroDTO(id, marca, modelo, 2023, placa, new BigDecimal("80000.00"), new BigDecimal("200.00"), true);
+    }
+
+    private record Termos(Long id, String marca, String modelo, String placa) implements TermosCarro {
+        public Long getId() {
+            return id;
+        }
+
+        public String getMarca() {
+            return marca;
+        }
+
+        public String getModelo() {
+            return modelo;
+        }
+
+        public String getPlaca() {
+            return placa;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.concessionaria.carros.log;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AmostragemLogFilterTest {
+
+    private final AtomicLong segundo = new AtomicLong(1_000);
+    private final LoggerContext contexto = new LoggerContext();
+    private AmostragemLogFilter filtro;
+    private Logger servico;
+
+    @BeforeEach
+    void setUp() {
+        filtro = new AmostragemLogFilter(segundo::get);
+        filtro.addLogger("com.concessionaria.carros.service");
+        filtro.setEventosPorSegundo(2);
+        servico = contexto.getLogger("com.concessionaria.carros.service.CarroService");
+        servico.setLevel(Level.INFO);
+    }
+
+    @Test
+    void decide_DeveDescartarInfoAcimaDoLimiteEVoltarNoSegundoSeguinte() {
+        assertEquals(FilterReply.NEUTRAL, info(servico));
+        assertEquals(FilterReply.NEUTRAL, info(servico));
+        assertEquals(FilterReply.DENY, info(servico));
+
+        segundo.incrementAndGet();
+        assertEquals(FilterReply.NEUTRAL, info(servico));
+    }
+
+    @Test
+    void decide_NaoDeveAmostrarWarnConsultasDeNivelNemOutrosPacotes() {
+        info(servico);
+        info(servico);
+
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(Marcadores.LEITURA, servico, Level.WARN, "falha", null, null));
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(Marcadores.LEITURA, servico, Level.INFO, null, null, null));
+        assertEquals(FilterReply.NEUTRAL, info(contexto.getLogger("com.concessionaria.carros.controller.X")));
+        assertEquals(FilterReply.NEUTRAL, info(contexto.getLogger("com.concessionaria.carros.controller.X")));
+        assertEquals(FilterReply.NEUTRAL, info(contexto.getLogger("com.concessionaria.carros.controller.X")));
+    }
+
+    @Test
+    void decide_NaoDeveGastarLimiteComEventosAbaixoDoNivelDoLogger() {
+        for (int i = 0; i < 10; i++) {
+            filtro.decide(Marcadores.LEITURA, servico, Level.DEBUG, "detalhe", null, null);
+        }
+
+        assertEquals(FilterReply.NEUTRAL, info(servico));
+    }
+
+    @Test
+    void decide_NaoDeveAmostrarLogsSemOMarcadorDeLeitura() {
+        for (int i = 0; i < 10; i++) {
+            FilterReply resposta = filtro.decide(null, servico, Level.INFO, "Carro criado com sucesso: id={}",
+                    new Object[]{1L}, null);
+            assertEquals(FilterReply.NEUTRAL, resposta);
+        }
+
+        assertEquals(FilterReply.NEUTRAL, info(servico));
+    }
+
+    private FilterReply info(Logger logger) {
+        return filtro.decide(Marcadores.LEITURA, logger, Level.INFO, "Buscando carro por id: {}", new Object[]{1L},
+                null);
+    }
+}
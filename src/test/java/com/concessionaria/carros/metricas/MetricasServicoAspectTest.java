@@ -0,0 +1,67 @@
+package com.concessionaria.carros.metricas;
+
+import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.repository.CarroRepository;
+import com.concessionaria.carros.service.CarroService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MetricasServicoAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CarroRepository carroRepository;
+    private CarroService carroService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        carroRepository = mock(CarroRepository.class);
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(
+                new CarroService(carroRepository, null, null, null, null, null, null, null));
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(new MetricasServicoAspect(meterRegistry));
+        carroService = fabrica.getProxy();
+    }
+
+    @Test
+    void deveRegistrarSucessoEErroDeNegocioComTagsDiferentes() {
+        Carro carro = new Carro();
+        carro.setId(1L);
+        when(carroRepository.findById(1L)).thenReturn(Optional.of(carro));
+        when(carroRepository.findById(2L)).thenReturn(Optional.empty());
+
+        carroService.buscarPorId(1L);
+        assertThrows(BusinessException.class, () -> carroService.buscarPorId(2L));
+
+        assertEquals(1, timer("SUCCESS").count());
+        assertEquals(1, timer("BUSINESS_ERROR").count());
+        assertEquals("RecursoNaoEncontradoException", meterRegistry.get(MetricasServicoAspect.METRICA)
+                .tag("resultado", "BUSINESS_ERROR").timer().getId().getTag("excecao"));
+    }
+
+    @Test
+    void deveRegistrarErroInesperado() {
+        when(carroRepository.findById(1L)).thenThrow(new IllegalStateException("falha"));
+
+        assertThrows(IllegalStateException.class, () -> carroService.buscarPorId(1L));
+
+        assertEquals(1, timer("ERROR").count());
+    }
+
+    private Timer timer(String resultado) {
+        return meterRegistry.get(MetricasServicoAspect.METRICA)
+                .tag("classe", "CarroService")
+                .tag("metodo", "buscarPorId")
+                .tag("resultado", resultado)
+                .timer();
+    }
+}
@@ -0,0 +1,208 @@
+package com.concessionaria.carros.replica;
+
+import com.concessionaria.carros.seguranca.AutenticacaoFilter;
+import com.concessionaria.carros.seguranca.UsuarioAutenticado;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Dois bancos H2 independentes, cada um com uma tabela que diz o próprio nome: a consulta revela para onde
+// a conexão foi roteada.
+class RoteamentoDataSourceTest {
+
+    private final Map<String, Duration> atrasos = new HashMap<>();
+    private HikariDataSource primario;
+    private HikariDataSource replica1;
+    private HikariDataSource replica2;
+    private RoteamentoDataSource roteamento;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate escrita;
+    private TransactionTemplate leitura;
+
+    @BeforeEach
+    void setUp() {
+        primario = banco("primario");
+        replica1 = banco("replica-1");
+        replica2 = banco("replica-2");
+        atrasos.put("replica-1", Duration.ZERO);
+        atrasos.put("replica-2", Duration.ZERO);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1);
+        replicas.put("replica-2", replica2);
+        roteamento = new RoteamentoDataSource(primario, replicas, Duration.ofSeconds(5), Duration.ofMinutes(1),
+                RoteamentoDataSource.Selecao.MENOS_CARREGADA,
+                dataSource -> Optional.ofNullable(atrasos.get(((HikariDataSource) dataSource).getPoolName())));
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(roteamento);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        escrita = new TransactionTemplate(transactionManager);
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        primario.close();
+        replica1.close();
+        replica2.close();
+    }
+
+    @Test
+    void leituraAntesDaPrimeiraVerificacao_DeveIrParaOPrimario() {
+        assertEquals("primario", origem(leitura));
+    }
+
+    @Test
+    void transacaoReadOnly_DeveIrParaReplicaEEscritaParaOPrimario() {
+        roteamento.verificarReplicas();
+
+        assertEquals("primario", origem(escrita));
+        assertTrue(origem(leitura).startsWith("replica-"));
+    }
+
+    @Test
+    void replicaComAtrasoAcimaDoLimite_DeveSairDoRoteamento() {
+        atrasos.put("replica-1", Duration.ofSeconds(30));
+        atrasos.remove("replica-2");
+        roteamento.verificarReplicas();
+        assertEquals("primario", origem(leitura));
+
+        atrasos.put("replica-1", Duration.ofSeconds(1));
+        roteamento.verificarReplicas();
+        assertEquals("replica-1", origem(leitura));
+    }
+
+    @Test
+    void menosCarregada_DeveEvitarReplicaComConexoesEmUso() throws Exception {
+        roteamento.verificarReplicas();
+
+        try (Connection ocupada = replica1.getConnection()) {
+            assertEquals("replica-2", origem(leitura));
+            assertEquals("replica-2", origem(leitura));
+        }
+    }
+
+    @Test
+    void aposEscritaDoUsuario_DeveLerDoPrimarioSoParaEleDuranteAJanela() {
+        roteamento.verificarReplicas();
+        requisicaoDe(usuario(1L));
+        escrita.executeWithoutResult(status -> jdbcTemplate.update("update origem set nome = nome"));
+
+        assertEquals("primario", origem(leitura));
+
+        requisicaoDe(usuario(2L));
+        assertTrue(origem(leitura).startsWith("replica-"));
+    }
+
+    @Test
+    void aposEscritaAnonima_DeveMarcarSoOClienteDoCookieEnaoOIpCompartilhado() {
+        roteamento.verificarReplicas();
+        MockHttpServletResponse response = requisicaoDe(new MockHttpServletRequest());
+        escrita.executeWithoutResult(status -> jdbcTemplate.update("update origem set nome = nome"));
+
+        Cookie cookie = response.getCookie(RoteamentoDataSource.COOKIE_ESCRITA_RECENTE);
+        assertNotNull(cookie);
+        assertEquals(60, cookie.getMaxAge());
+        assertTrue(origem(leitura).startsWith("replica-"));
+
+        MockHttpServletRequest comCookie = new MockHttpServletRequest();
+        comCookie.setCookies(cookie);
+        requisicaoDe(comCookie);
+        assertEquals("primario", origem(leitura));
+    }
+
+    @Test
+    void destroy_DeveFecharOsPools() {
+        roteamento.destroy();
+
+        assertTrue(primario.isClosed());
+        assertTrue(replica1.isClosed());
+        assertTrue(replica2.isClosed());
+    }
+
+    @Test
+    void leituraPrimario_DeveIgnorarReplicasMesmoEmTransacaoReadOnly() {
+        roteamento.verificarReplicas();
+
+        assertEquals("primario", LeituraPrimario.executar(() -> origem(leitura)));
+    }
+
+    @Test
+    void metodoCacheable_DeveLerDoPrimarioParaNaoRepovoarOCacheComDadoAtrasado() {
+        roteamento.verificarReplicas();
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(new Consulta());
+        fabrica.addAspect(new LeituraPrimarioCacheAspect());
+        Consulta consulta = fabrica.getProxy();
+
+        assertEquals("primario", consulta.paraCache());
+        assertTrue(consulta.semCache().startsWith("replica-"));
+    }
+
+    private String origem(TransactionTemplate transacao) {
+        return transacao.execute(status -> jdbcTemplate.queryForObject("select nome from origem", String.class));
+    }
+
+    private MockHttpServletResponse requisicaoDe(MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+
+    private static MockHttpServletRequest usuario(Long id) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(AutenticacaoFilter.ATRIBUTO_USUARIO,
+                new UsuarioAutenticado(id, "Usuário " + id, "usuario" + id + "@email.com", "sessao"));
+        return request;
+    }
+
+    private static HikariDataSource banco(String nome) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:roteamento-" + nome + ";DB_CLOSE_DELAY=-1");
+        dataSource.setPoolName(nome);
+        dataSource.setMaximumPoolSize(2);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists origem (nome varchar(20))");
+        jdbc.update("delete from origem");
+        jdbc.update("insert into origem (nome) values (?)", nome);
+        return dataSource;
+    }
+
+    class Consulta {
+
+        @Cacheable("origem")
+        public String paraCache() {
+            return origem(leitura);
+        }
+
+        public String semCache() {
+            return origem(leitura);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.concessionaria.carros.repository;
+
+import com.concessionaria.carros.dto.FiltroCarrosDTO;
+import com.concessionaria.carros.entity.Operacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Roda EXPLAIN no SQL real de cada consulta dos repositórios, sobre o esquema das migrations,
+// e falha se alguma tabela for lida por varredura completa (type = ALL).
+@DataJpaTest(properties = {"spring.flyway.enabled=true", "spring.jpa.hibernate.ddl-auto=none"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ConsultasExplainTest {
+
+    private static final int CARROS = 2_000;
+    private static final int CLIENTES = 200;
+    private static final int OPERACOES = 4_000;
+    private static final int RESERVAS = 3_000;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUrlParam("queryInterceptors", CapturaSqlInterceptor.class.getName());
+
+    @DynamicPropertySource
+    static void propriedades(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    private static boolean populado;
+
+    @Autowired
+    private CarroRepository carroRepository;
+
+    @Autowired
+    private OperacaoRepository operacaoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        if (populado) {
+            return;
+        }
+        // Distribuição próxima da produção: poucos carros disponíveis e poucas vendas, para que o
+        // otimizador tenha motivo para usar os índices seletivos.
+        LocalDateTime agora = LocalDateTime.now();
+        jdbcTemplate.batchUpdate("insert into usuarios (id, nome, email, senha) values (?, ?, ?, ?)",
+                IntStream.rangeClosed(1, CLIENTES)
+                        .mapToObj(i -> new Object[]{i, "Cliente " + i, "cliente" + i + "@email.com", "hash"})
+                        .toList());
+        jdbcTemplate.batchUpdate("insert into carros (id, marca, modelo, ano, placa, preco_venda, preco_aluguel, "
+                        + "disponivel, data_cadastro) values (?, ?, ?, ?, ?, 90000, 250, ?, ?)",
+                IntStream.rangeClosed(1, CARROS)
+                        .mapToObj(i -> new Object[]{i, "Marca " + (i % 40), "Modelo " + i, 2015 + i % 10,
+                                String.format("PLC%04d", i), i % 20 == 0, Timestamp.valueOf(agora)})
+                        .toList());
+        jdbcTemplate.batchUpdate("insert into operacoes (carro_id, cliente_id, tipo, valor, data_operacao) "
+                        + "values (?, ?, ?, 250, ?)",
+                IntStream.range(0, OPERACOES)
+                        .mapToObj(i -> new Object[]{i % CARROS + 1, i % CLIENTES + 1,
+                                i % 20 == 0 ? "VENDA" : "ALUGUEL", Timestamp.valueOf(agora.minusHours(i))})
+                        .toList());
+        // Reservas de três dias, sem sobreposição, espalhadas pelos próximos meses.
+        LocalDate hoje = LocalDate.now();
+        jdbcTemplate.batchUpdate("insert into reservas (carro_id, cliente_id, inicio, fim, data_criacao) "
+                        + "values (?, ?, ?, ?, ?)",
+                IntStream.range(0, RESERVAS)
+                        .mapToObj(i -> new Object[]{i % CARROS + 1, i % CLIENTES + 1,
+                                Date.valueOf(hoje.plusDays(i / CARROS * 4L)),
+                                Date.valueOf(hoje.plusDays(i / CARROS * 4L + 3)), Timestamp.valueOf(agora)})
+                        .toList());
+        jdbcTemplate.execute("analyze table usuarios, carros, operacoes, reservas");
+        populado = true;
+    }
+
+    @Test
+    void consultasDosRepositoriosNaoDevemFazerVarreduraCompleta() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        Map<String, Runnable> consultas = new LinkedHashMap<>();
+        consultas.put("CarroRepository.findByPlaca", () -> carroRepository.findByPlaca("PLC0100"));
+        consultas.put("CarroRepository.findByMarcaAndModelo", () -> carroRepository.findByMarcaAndModelo("Marca 3", "Modelo 3"));
+        consultas.put("CarroRepository.findByMarca", () -> carroRepository.findByMarca("Marca 3"));
+        consultas.put("CarroRepository.findLivresParaOperacao", () -> transacao.executeWithoutResult(
+                status -> carroRepository.findLivresParaOperacao("Marca 0", LocalDate.now(),
+                        LocalDate.now().plusDays(366), PageRequest.of(0, 1))));
+        consultas.put("CarroRepository.findDisponiveisProjetados", carroRepository::findDisponiveisProjetados);
+        consultas.put("CarroRepository.findChavesExistentes", () -> carroRepository.findChavesExistentes(
+                Set.of("Marca 1"), Set.of("Modelo 1", "Modelo 41"), Set.of("PLC0005")));
+        consultas.put("CarroRepository.findByIdGreaterThanOrderByIdAsc",
+                () -> carroRepository.findByIdGreaterThanOrderByIdAsc(1_500L, PageRequest.of(0, 50)));
+        consultas.put("CarroRepository.findAll(CarroSpecifications)", () -> carroRepository.findAll(
+                CarroSpecifications.filtrar(new FiltroCarrosDTO(2020, null, null, null, null, null,
+                        List.of("Marca 3", "Marca 4"), null)),
+                PageRequest.of(0, 20, Sort.by("ano"))));
+        consultas.put("OperacaoRepository.findProjetadaById", () -> operacaoRepository.findProjetadaById(10L));
+        consultas.put("OperacaoRepository.findProjetadasByCarroId", () -> operacaoRepository.findProjetadasByCarroId(7L));
+        consultas.put("OperacaoRepository.findProjetadasByClienteId", () -> operacaoRepository.findProjetadasByClienteId(3L));
+        consultas.put("OperacaoRepository.findProjetadasByTipo",
+                () -> operacaoRepository.findProjetadasByTipo(Operacao.TipoOperacao.VENDA));
+        consultas.put("OperacaoRepository.findComCarroById", () -> operacaoRepository.findComCarroById(10L));
+        LocalDateTime semana = LocalDate.now().minusDays(7).atStartOfDay();
+        LocalDateTime amanha = LocalDate.now().plusDays(1).atStartOfDay();
+        consultas.put("OperacaoRepository.totalizarPorTipo", () -> operacaoRepository.totalizarPorTipo(semana, amanha));
+        consultas.put("OperacaoRepository.totalizarPorMarca", () -> operacaoRepository.totalizarPorMarca(semana, amanha));
+        consultas.put("OperacaoRepository.totalizarPorDia", () -> operacaoRepository.totalizarPorDia(semana, amanha));
+        consultas.put("OperacaoRepository.totalizarPorMes", () -> operacaoRepository.totalizarPorMes(semana, amanha));
+        consultas.put("CarroRepository.contarPorMarca", carroRepository::contarPorMarca);
+        consultas.put("OperacaoRepository.countByTipoAndDataDevolucaoIsNull",
+                () -> operacaoRepository.countByTipoAndDataDevolucaoIsNull(Operacao.TipoOperacao.ALUGUEL));
+        consultas.put("OperacaoRepository.countByTipoAndDataOperacaoGreaterThanEqual",
+                () -> operacaoRepository.countByTipoAndDataOperacaoGreaterThanEqual(Operacao.TipoOperacao.VENDA, semana));
+        consultas.put("CarroRepository.findComTravaById", () -> transacao.executeWithoutResult(
+                status -> carroRepository.findComTravaById(7L)));
+        LocalDate daquiUmaSemana = LocalDate.now().plusDays(7);
+        consultas.put("ReservaRepository.findProjetadaById", () -> reservaRepository.findProjetadaById(10L));
+        consultas.put("ReservaRepository.findVigentesByCarroId",
+                () -> reservaRepository.findVigentesByCarroId(7L, LocalDate.now()));
+        consultas.put("ReservaRepository.existsSobreposta",
+                () -> reservaRepository.existsSobreposta(7L, daquiUmaSemana.minusDays(90),
+                        daquiUmaSemana, daquiUmaSemana.plusDays(2)));
+        consultas.put("UsuarioRepository.findByEmail", () -> usuarioRepository.findByEmail("cliente7@email.com"));
+        // Leituras completas por definição (listagens e carga dos índices em memória) ficam de fora:
+        // findAll, findAllProjetadas, streamTodos, streamTermos e ReservaRepository.findVigentes.
+
+        List<String> varreduras = new ArrayList<>();
+        consultas.forEach((nome, consulta) -> {
+            CapturaSqlInterceptor.CAPTURADAS.clear();
+            consulta.run();
+            List<String> executadas = CapturaSqlInterceptor.CAPTURADAS.stream()
+                    .filter(sql -> {
+                        String normalizado = sql.trim().toLowerCase(Locale.ROOT);
+                        return normalizado.startsWith("select") && normalizado.contains(" from ");
+                    })
+                    .toList();
+            assertTrue(!executadas.isEmpty(), "Nenhum SQL capturado para " + nome);
+            for (String sql : executadas) {
+                for (Map<String, Object> linha : jdbcTemplate.queryForList("explain " + sql)) {
+                    if ("ALL".equals(linha.get("type"))) {
+                        varreduras.add(nome + ": varredura completa em " + linha.get("table") + " -> " + sql);
+                    }
+                }
+            }
+        });
+
+        assertTrue(varreduras.isEmpty(), String.join("\n", varreduras));
+    }
+}
@@ -0,0 +1,108 @@
+package com.concessionaria.carros.repository;
+
+import com.concessionaria.carros.entity.Carro;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Atualiza pelas migrations um banco criado pelo ddl-auto com ids IDENTITY e carros já gravados, e confirma
+// que os ids gerados pela sequência depois da migração não colidem com os existentes.
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=none"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class MigracaoSequenciaCarrosTest {
+
+    private static final int CARROS_EXISTENTES = 120;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void propriedades(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CarroRepository carroRepository;
+
+    @Test
+    void migrate_BancoComCarrosDaEraIdentity_NovosIdsNaoDevemColidir() {
+        criarEsquemaLegado();
+        jdbcTemplate.batchUpdate("insert into carros (id, marca, modelo, ano, placa, preco_venda, preco_aluguel, "
+                        + "disponivel, data_cadastro) values (?, ?, ?, 2020, ?, 90000, 250, 1, now())",
+                IntStream.rangeClosed(1, CARROS_EXISTENTES)
+                        .mapToObj(i -> new Object[]{i, "Marca " + i, "Modelo " + i, String.format("OLD%04d", i)})
+                        .toList());
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        // Mais de um bloco de alocação, para cobrir também a segunda leitura da sequência.
+        List<Carro> novos = carroRepository.saveAllAndFlush(IntStream.rangeClosed(1, 60)
+                .mapToObj(this::novoCarro)
+                .toList());
+
+        assertTrue(novos.stream().allMatch(carro -> carro.getId() > CARROS_EXISTENTES));
+        assertEquals(CARROS_EXISTENTES + 60L, carroRepository.count());
+    }
+
+    // Esquema que o ddl-auto=update gerava antes das migrations: ids IDENTITY, sem carros_seq e com a chave
+    // única de placa no nome gerado pelo Hibernate.
+    private void criarEsquemaLegado() {
+        jdbcTemplate.execute("create table usuarios (id bigint not null auto_increment, email varchar(255) not null, "
+                + "nome varchar(255) not null, senha varchar(255) not null, primary key (id), "
+                + "constraint UK_usuarios_email unique (email)) engine=InnoDB");
+        jdbcTemplate.execute("create table carros (id bigint not null auto_increment, ano integer not null, "
+                + "data_cadastro datetime(6) not null, disponivel bit not null, marca varchar(255) not null, "
+                + "modelo varchar(255) not null, placa varchar(255) not null, preco_aluguel decimal(38,2) not null, "
+                + "preco_venda decimal(38,2) not null, primary key (id), "
+                + "constraint UK_7x5kjx4ch0l0ye3qv1m8r1bvb unique (placa)) engine=InnoDB");
+        jdbcTemplate.execute("create table operacoes (id bigint not null auto_increment, carro_id bigint not null, "
+                + "cliente_id bigint not null, data_devolucao datetime(6), data_operacao datetime(6) not null, "
+                + "tipo enum ('VENDA','ALUGUEL') not null, valor decimal(38,2) not null, primary key (id), "
+                + "constraint FK_operacoes_carro foreign key (carro_id) references carros (id), "
+                + "constraint FK_operacoes_cliente foreign key (cliente_id) references usuarios (id)) engine=InnoDB");
+    }
+
+    private Carro novoCarro(int i) {
+        Carro carro = new Carro();
+        carro.setMarca("Nova " + i);
+        carro.setModelo("Modelo " + i);
+        carro.setAno(2024);
+        carro.setPlaca(String.format("NEW%04d", i));
+        carro.setPrecoVenda(new BigDecimal("100000.00"));
+        carro.setPrecoAluguel(new BigDecimal("300.00"));
+        return carro;
+    }
+}
@@ -0,0 +1,179 @@
+package com.concessionaria.carros.repository;
+
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.entity.Operacao;
+import com.concessionaria.carros.entity.Usuario;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OperacaoRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OperacaoRepository operacaoRepository;
+
+    private Statistics estatisticas;
+    private Carro toyota;
+    private Usuario cliente;
+    private Operacao aluguel;
+
+    @BeforeEach
+    void setUp() {
+        toyota = entityManager.persist(novoCarro("Toyota", "Corolla", "ABC1234"));
+        Carro honda = entityManager.persist(novoCarro("Honda", "Civic", "DEF5678"));
+        cliente = entityManager.persist(novoUsuario("joao@email.com"));
+        Usuario outroCliente = entityManager.persist(novoUsuario("maria@email.com"));
+
+        aluguel = entityManager.persist(novaOperacao(toyota, cliente, Operacao.TipoOperacao.ALUGUEL));
+        entityManager.persist(novaOperacao(toyota, outroCliente, Operacao.TipoOperacao.VENDA));
+        entityManager.persist(novaOperacao(honda, cliente, Operacao.TipoOperacao.VENDA));
+        entityManager.persist(novaOperacao(honda, outroCliente, Operacao.TipoOperacao.ALUGUEL));
+        entityManager.flush();
+        entityManager.clear();
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    @Test
+    void findAllProjetadas_DeveExecutarUmaUnicaConsulta() {
+        List<OperacaoDTO> resultado = operacaoRepository.findAllProjetadas();
+
+        assertEquals(4, resultado.size());
+        assertTrue(resultado.stream().allMatch(dto -> dto.getMarca() != null && dto.getClienteId() != null));
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void findProjetadasByCarroId_DeveExecutarUmaUnicaConsulta() {
+        List<OperacaoDTO> resultado = operacaoRepository.findProjetadasByCarroId(toyota.getId());
+
+        assertEquals(2, resultado.size());
+        assertTrue(resultado.stream().allMatch(dto -> "Toyota".equals(dto.getMarca())));
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void findProjetadasByClienteId_DeveExecutarUmaUnicaConsulta() {
+        List<OperacaoDTO> resultado = operacaoRepository.findProjetadasByClienteId(cliente.getId());
+
+        assertEquals(2, resultado.size());
+        assertTrue(resultado.stream().allMatch(dto -> cliente.getId().equals(dto.getClienteId())));
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void findProjetadasByTipo_DeveExecutarUmaUnicaConsulta() {
+        List<OperacaoDTO> resultado = operacaoRepository.findProjetadasByTipo(Operacao.TipoOperacao.VENDA);
+
+        assertEquals(2, resultado.size());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void findComCarroById_DeveCarregarCarroNaMesmaConsulta() {
+        Operacao operacao = operacaoRepository.findComCarroById(aluguel.getId()).orElseThrow();
+
+        assertEquals("Toyota", operacao.getCarro().getMarca());
+        assertEquals(cliente.getId(), operacao.getCliente().getId());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void totalizar_DeveAgruparNoBancoSemCarregarEntidades() {
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        LocalDateTime fim = inicio.plusDays(1);
+
+        List<OperacaoRepository.TotalAgrupado> porTipo = operacaoRepository.totalizarPorTipo(inicio, fim);
+        List<OperacaoRepository.TotalAgrupado> porMarca = operacaoRepository.totalizarPorMarca(inicio, fim);
+        List<OperacaoRepository.TotalAgrupado> porDia = operacaoRepository.totalizarPorDia(inicio, fim);
+        List<OperacaoRepository.TotalAgrupado> porMes = operacaoRepository.totalizarPorMes(inicio, fim);
+
+        assertEquals(List.of("ALUGUEL", "VENDA"),
+                porTipo.stream().map(OperacaoRepository.TotalAgrupado::getGrupo).toList());
+        assertEquals(2L, porTipo.get(0).getQuantidade());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(porTipo.get(0).getTotal()));
+        assertEquals(2, porMarca.size());
+        assertEquals(LocalDate.now().toString(), porDia.get(0).getGrupo());
+        assertEquals(4L, porDia.get(0).getQuantidade());
+        assertEquals(LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM")), porMes.get(0).getGrupo());
+        assertEquals(4, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void totalizar_DeveIgnorarOperacoesForaDoPeriodo() {
+        LocalDateTime amanha = LocalDate.now().plusDays(1).atStartOfDay();
+
+        assertTrue(operacaoRepository.totalizarPorTipo(amanha, amanha.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void findArquivaveis_DeveTrazerVendasEAlugueisDevolvidosAntesDoLimite() {
+        LocalDateTime limite = LocalDateTime.now().plusDays(1);
+        Operacao devolvido = entityManager.find(Operacao.class, aluguel.getId());
+        devolvido.setDataDevolucao(LocalDateTime.now());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<OperacaoDTO> arquivaveis = operacaoRepository.findArquivaveis(0L, Operacao.TipoOperacao.VENDA, limite,
+                PageRequest.of(0, 10));
+
+        assertEquals(3, arquivaveis.size());
+        assertTrue(arquivaveis.stream().noneMatch(dto -> dto.getTipo() == Operacao.TipoOperacao.ALUGUEL
+                && dto.getDataDevolucao() == null));
+        assertEquals(3, operacaoRepository.excluirPorIds(arquivaveis.stream().map(OperacaoDTO::getId).toList()));
+        assertEquals(1, operacaoRepository.count());
+    }
+
+    private Carro novoCarro(String marca, String modelo, String placa) {
+        Carro carro = new Carro();
+        carro.setMarca(marca);
+        carro.setModelo(modelo);
+        carro.setAno(2023);
+        carro.setPlaca(placa);
+        carro.setPrecoVenda(new BigDecimal("100000.00"));
+        carro.setPrecoAluguel(new BigDecimal("300.00"));
+        return carro;
+    }
+
+    private Usuario novoUsuario(String email) {
+        Usuario usuario = new Usuario();
+        usuario.setNome("Cliente");
+        usuario.setEmail(email);
+        usuario.setSenha("123456");
+        return usuario;
+    }
+
+    private Operacao novaOperacao(Carro carro, Usuario cliente, Operacao.TipoOperacao tipo) {
+        Operacao operacao = new Operacao();
+        operacao.setCarro(carro);
+        operacao.setCliente(cliente);
+        operacao.setTipo(tipo);
+        operacao.setValor(new BigDecimal("500.00"));
+        return operacao;
+    }
+}
@@ -0,0 +1,120 @@
+package com.concessionaria.carros.repository;
+
+import com.concessionaria.carros.dto.ReservaDTO;
+import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.entity.Reserva;
+import com.concessionaria.carros.entity.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ReservaRepositoryTest {
+
+    private static final LocalDate DIA = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private CarroRepository carroRepository;
+
+    private Carro toyota;
+    private Carro honda;
+
+    @BeforeEach
+    void setUp() {
+        toyota = entityManager.persist(novoCarro("Toyota", "Corolla", "ABC1234"));
+        honda = entityManager.persist(novoCarro("Honda", "Civic", "DEF5678"));
+        Usuario cliente = entityManager.persist(novoUsuario("joao@email.com"));
+
+        entityManager.persist(novaReserva(toyota, cliente, DIA, DIA.plusDays(3)));
+        entityManager.persist(novaReserva(toyota, cliente, DIA.minusDays(20), DIA.minusDays(15)));
+        entityManager.persist(novaReserva(honda, cliente, DIA.plusDays(1), DIA.plusDays(2)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void existsSobreposta_DeveConsiderarPeriodoSemiAberto() {
+        assertTrue(sobreposta(toyota, DIA.plusDays(2), DIA.plusDays(5)));
+        assertTrue(sobreposta(toyota, DIA.minusDays(1), DIA.plusDays(1)));
+        assertFalse(sobreposta(toyota, DIA.plusDays(3), DIA.plusDays(5)));
+        assertFalse(sobreposta(toyota, DIA.minusDays(2), DIA));
+        assertFalse(sobreposta(honda, DIA.plusDays(2), DIA.plusDays(4)));
+    }
+
+    @Test
+    void existsSobreposta_DeveEncontrarReservaDeDuracaoMaximaQueComecouAntes() {
+        Usuario cliente = entityManager.persist(novoUsuario("maria@email.com"));
+        entityManager.persist(novaReserva(honda, cliente, DIA.minusDays(89), DIA.plusDays(1)));
+        entityManager.flush();
+
+        assertTrue(sobreposta(honda, DIA, DIA.plusDays(1)));
+        assertFalse(sobreposta(honda, DIA.minusDays(100), DIA.minusDays(89)));
+    }
+
+    @Test
+    void findVigentes_DeveIgnorarReservasJaTerminadasEOrdenarPorCarroEInicio() {
+        List<ReservaDTO> vigentes = reservaRepository.findVigentes(DIA.minusDays(10));
+
+        assertEquals(2, vigentes.size());
+        assertEquals(List.of(toyota.getId(), honda.getId()).stream().sorted().toList(),
+                vigentes.stream().map(ReservaDTO::getCarroId).toList());
+        assertEquals(1, reservaRepository.findVigentesByCarroId(toyota.getId(), DIA.minusDays(10)).size());
+    }
+
+    @Test
+    void findLivresParaOperacao_DeveIgnorarCarroComReservaAteOLimite() {
+        LocalDate hoje = LocalDate.now();
+
+        assertTrue(carroRepository.findLivresParaOperacao("Toyota", hoje, hoje.plusDays(366), PageRequest.of(0, 1))
+                .isEmpty());
+        assertEquals(List.of(toyota.getId()), carroRepository.findLivresParaOperacao("Toyota", hoje, hoje,
+                PageRequest.of(0, 1)).stream().map(Carro::getId).toList());
+    }
+
+    private boolean sobreposta(Carro carro, LocalDate inicio, LocalDate fim) {
+        return reservaRepository.existsSobreposta(carro.getId(), inicio.minusDays(90), inicio, fim);
+    }
+
+    private Carro novoCarro(String marca, String modelo, String placa) {
+        Carro carro = new Carro();
+        carro.setMarca(marca);
+        carro.setModelo(modelo);
+        carro.setAno(2023);
+        carro.setPlaca(placa);
+        carro.setPrecoVenda(new BigDecimal("100000.00"));
+        carro.setPrecoAluguel(new BigDecimal("300.00"));
+        return carro;
+    }
+
+    private Usuario novoUsuario(String email) {
+        Usuario usuario = new Usuario();
+        usuario.setNome("Cliente");
+        usuario.setEmail(email);
+        usuario.setSenha("123456");
+        return usuario;
+    }
+
+    private Reserva novaReserva(Carro carro, Usuario cliente, LocalDate inicio, LocalDate fim) {
+        Reserva reserva = new Reserva();
+        reserva.setCarro(carro);
+        reserva.setCliente(cliente);
+        reserva.setInicio(inicio);
+        reserva.setFim(fim);
+        return reserva;
+    }
+}
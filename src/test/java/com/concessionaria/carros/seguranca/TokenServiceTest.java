@@ -0,0 +1,178 @@
+package com.concessionaria.carros.seguranca;
+
+import com.concessionaria.carros.dto.UsuarioDTO;
+import com.concessionaria.carros.entity.Usuario;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.event.UsuarioEvent;
+import com.concessionaria.carros.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenServiceTest {
+
+    private static final String SEGREDO = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private UsuarioRepository usuarioRepository;
+    private MutableClock relogio;
+    private TokenService tokenService;
+    private UsuarioDTO usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository = mock(UsuarioRepository.class);
+        relogio = new MutableClock(Instant.parse("2024-01-01T10:00:00Z"));
+        tokenService = new TokenService(usuarioRepository, SEGREDO, Duration.ofHours(1), 100, 100, relogio);
+        usuario = new UsuarioDTO(1L, "João Silva", "joao@email.com", null);
+    }
+
+    @Test
+    void validar_DeveResolverIdentidadeSemConsultarOBanco() {
+        String token = tokenService.emitir(usuario).getToken();
+
+        Optional<UsuarioAutenticado> autenticado = tokenService.validar(token);
+
+        assertTrue(autenticado.isPresent());
+        assertEquals(1L, autenticado.get().id());
+        assertEquals("joao@email.com", autenticado.get().email());
+        verifyNoInteractions(usuarioRepository);
+    }
+
+    @Test
+    void validar_DeveRecusarTokenAdulterado() {
+        String token = tokenService.emitir(usuario).getToken();
+        String[] partes = token.split("\\.");
+        String payloadFalso = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(new String(Base64.getUrlDecoder().decode(partes[1])).replaceFirst("^1:", "2:").getBytes());
+
+        assertTrue(tokenService.validar(partes[0] + "." + payloadFalso + "." + partes[2]).isEmpty());
+        assertTrue(tokenService.validar("lixo").isEmpty());
+        assertTrue(tokenService.validar("v1.%%%.###").isEmpty());
+    }
+
+    @Test
+    void validar_DeveRecusarTokenExpirado() {
+        String token = tokenService.emitir(usuario).getToken();
+
+        relogio.avancar(Duration.ofHours(1));
+
+        assertTrue(tokenService.validar(token).isEmpty());
+    }
+
+    @Test
+    void revogar_DeveInvalidarApenasASessaoDoToken() {
+        String primeiro = tokenService.emitir(usuario).getToken();
+        String segundo = tokenService.emitir(usuario).getToken();
+
+        tokenService.revogar(primeiro);
+
+        assertTrue(tokenService.validar(primeiro).isEmpty());
+        assertTrue(tokenService.validar(segundo).isPresent());
+    }
+
+    @Test
+    void aoAlterarUsuario_DeveRevogarTokensDeUsuarioRemovido() {
+        String token = tokenService.emitir(usuario).getToken();
+
+        tokenService.aoAlterarUsuario(new UsuarioEvent(TipoEvento.REMOVIDO, usuario));
+
+        assertTrue(tokenService.validar(token).isEmpty());
+    }
+
+    @Test
+    void aoAlterarUsuario_TrocaDeSenhaDeveRevogarTokensJaEmitidos() {
+        String anterior = tokenService.emitir(usuario).getToken();
+
+        tokenService.aoAlterarUsuario(new UsuarioEvent(TipoEvento.ATUALIZADO, usuario, true));
+        relogio.avancar(Duration.ofSeconds(1));
+        String posterior = tokenService.emitir(usuario).getToken();
+
+        assertTrue(tokenService.validar(anterior).isEmpty());
+        assertTrue(tokenService.validar(posterior).isPresent());
+    }
+
+    @Test
+    void revogar_AcimaDoLimiteNaoDeveReabilitarRevogacoesAnteriores() {
+        TokenService limitado = new TokenService(usuarioRepository, SEGREDO, Duration.ofHours(1), 100, 2, relogio);
+        UsuarioDTO outro = new UsuarioDTO(2L, "Maria", "maria@email.com", null);
+        String primeiro = limitado.emitir(usuario).getToken();
+        String segundo = limitado.emitir(usuario).getToken();
+        String terceiro = limitado.emitir(outro).getToken();
+        String outroAinda = limitado.emitir(outro).getToken();
+
+        limitado.revogar(primeiro);
+        limitado.revogar(segundo);
+        limitado.revogar(terceiro);
+
+        assertTrue(limitado.validar(primeiro).isEmpty());
+        assertTrue(limitado.validar(segundo).isEmpty());
+        assertTrue(limitado.validar(terceiro).isEmpty());
+        // Sem espaço para a sessão, a revogação vale para todos os tokens do usuário.
+        assertTrue(limitado.validar(outroAinda).isEmpty());
+    }
+
+    @Test
+    void aoAlterarUsuario_SemEspacoParaRevogarUsuarioDeveRevogarTodosOsTokens() {
+        TokenService limitado = new TokenService(usuarioRepository, SEGREDO, Duration.ofHours(1), 100, 1, relogio);
+        UsuarioDTO outro = new UsuarioDTO(2L, "Maria", "maria@email.com", null);
+        String token = limitado.emitir(usuario).getToken();
+
+        limitado.aoAlterarUsuario(new UsuarioEvent(TipoEvento.REMOVIDO, outro));
+        UsuarioDTO terceiro = new UsuarioDTO(3L, "Ana", "ana@email.com", null);
+        limitado.aoAlterarUsuario(new UsuarioEvent(TipoEvento.REMOVIDO, terceiro));
+        relogio.avancar(Duration.ofSeconds(1));
+
+        assertTrue(limitado.validar(token).isEmpty());
+        assertTrue(limitado.validar(limitado.emitir(usuario).getToken()).isPresent());
+    }
+
+    @Test
+    void validar_DeveRecarregarIdentidadeAposAtualizacao() {
+        String token = tokenService.emitir(usuario).getToken();
+        when(usuarioRepository.findById(1L))
+                .thenReturn(Optional.of(new Usuario(1L, "João Souza", "joao.souza@email.com", "hash")));
+
+        tokenService.aoAlterarUsuario(new UsuarioEvent(TipoEvento.ATUALIZADO, usuario));
+
+        assertEquals("joao.souza@email.com", tokenService.validar(token).orElseThrow().email());
+        tokenService.validar(token);
+        verify(usuarioRepository, times(1)).findById(1L);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant agora;
+
+        MutableClock(Instant agora) {
+            this.agora = agora;
+        }
+
+        void avancar(Duration duracao) {
+            agora = agora.plus(duracao);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
@@ -1,9 +1,21 @@
 package com.concessionaria.carros.service;
 
+import com.concessionaria.carros.dto.BuscaCarrosDTO;
 import com.concessionaria.carros.dto.CarroDTO;
+import com.concessionaria.carros.dto.FacetasCarrosDTO;
+import com.concessionaria.carros.dto.FiltroCarrosDTO;
+import com.concessionaria.carros.dto.PaginaCarrosDTO;
+import com.concessionaria.carros.dto.ResultadoLoteDTO;
 import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.TipoEvento;
 import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.indice.IndiceDisponibilidade;
+import com.concessionaria.carros.indice.IndiceReservas;
+import com.concessionaria.carros.indice.IndiceSugestoes;
 import com.concessionaria.carros.repository.CarroRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,11 +23,25 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
 import java.math.BigDecimal;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,6 +54,27 @@ class CarroServiceTest {
     @Mock
     private CarroRepository carroRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private IndiceDisponibilidade indiceDisponibilidade;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private IndiceSugestoes indiceSugestoes;
+
+    @Mock
+    private FacetasCarrosService facetasCarrosService;
+
+    @Mock
+    private IndiceReservas indiceReservas;
+
     @InjectMocks
     private CarroService carroService;
 
@@ -59,35 +106,131 @@ class CarroServiceTest {
 
     @Test
     void criar_DeveCriarCarroComSucesso() {
-        when(carroRepository.existsByMarcaAndModelo(anyString(), anyString())).thenReturn(false);
-        when(carroRepository.save(any(Carro.class))).thenReturn(carro);
+        when(carroRepository.saveAndFlush(any(Carro.class))).thenReturn(carro);
 
         CarroDTO resultado = carroService.criar(carroDTO);
 
         assertNotNull(resultado);
         assertEquals(carroDTO.getMarca(), resultado.getMarca());
         assertEquals(carroDTO.getModelo(), resultado.getModelo());
-        verify(carroRepository).save(any(Carro.class));
+        verify(carroRepository).saveAndFlush(any(Carro.class));
+
+        ArgumentCaptor<CarroEvent> evento = ArgumentCaptor.forClass(CarroEvent.class);
+        verify(eventPublisher).publishEvent(evento.capture());
+        assertEquals(TipoEvento.CRIADO, evento.getValue().tipo());
+        assertEquals(resultado, evento.getValue().carro());
     }
 
     @Test
     void criar_DeveLancarExcecaoQuandoMarcaEModeloJaExistem() {
-        when(carroRepository.existsByMarcaAndModelo(anyString(), anyString())).thenReturn(true);
+        when(carroRepository.saveAndFlush(any(Carro.class))).thenThrow(violacao("uk_carros_marca_modelo"));
 
-        assertThrows(BusinessException.class, () -> carroService.criar(carroDTO));
-        verify(carroRepository, never()).save(any(Carro.class));
+        BusinessException excecao = assertThrows(BusinessException.class, () -> carroService.criar(carroDTO));
+        assertEquals("Já existe um carro com esta marca e modelo", excecao.getMessage());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void listarTodos_DeveRetornarListaDeCarros() {
+    void criar_DeveLancarExcecaoQuandoPlacaJaExiste() {
+        when(carroRepository.saveAndFlush(any(Carro.class))).thenThrow(violacao("uk_carros_placa"));
+
+        BusinessException excecao = assertThrows(BusinessException.class, () -> carroService.criar(carroDTO));
+        assertEquals("Já existe um carro com esta placa", excecao.getMessage());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void criarEmLote_DeveGravarNovosERejeitarDuplicados() {
+        CarroRepository.ChaveCarro existente = mock(CarroRepository.ChaveCarro.class);
+        when(existente.getMarca()).thenReturn("Toyota");
+        when(existente.getModelo()).thenReturn("Corolla");
+        when(existente.getPlaca()).thenReturn("ABC1234");
+        when(carroRepository.findChavesExistentes(anySet(), anySet(), anySet()))
+                .thenReturn(Collections.singletonList(existente));
+        when(validator.validate(any(CarroDTO.class))).thenReturn(Collections.emptySet());
+        when(carroRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Carro> bloco = invocation.getArgument(0);
+            long id = 10L;
+            for (Carro novo : bloco) {
+                novo.setId(id++);
+            }
+            return bloco;
+        });
+
+        CarroDTO civic = new CarroDTO(null, "Honda", "Civic", 2022, "DEF5678",
+                new BigDecimal("120000.00"), new BigDecimal("350.00"), null);
+        CarroDTO civicRepetido = new CarroDTO(null, "Honda", "Civic", 2022, "GHI9012",
+                new BigDecimal("120000.00"), new BigDecimal("350.00"), null);
+
+        ResultadoLoteDTO resultado = carroService.criarEmLote(Arrays.asList(carroDTO, civic, civicRepetido));
+
+        assertEquals(3, resultado.getTotal());
+        assertEquals(1, resultado.getCriados());
+        assertEquals(2, resultado.getRejeitados());
+        assertFalse(resultado.getItens().get(0).isSucesso());
+        assertTrue(resultado.getItens().get(1).isSucesso());
+        assertEquals(10L, resultado.getItens().get(1).getId());
+        assertFalse(resultado.getItens().get(2).isSucesso());
+        verify(carroRepository, times(1)).findChavesExistentes(anySet(), anySet(), anySet());
+        verify(entityManager).flush();
+        verify(eventPublisher).publishEvent(any(CarroEvent.class));
+    }
+
+    @Test
+    void criarEmLote_DeveLancarExcecaoQuandoLoteVazio() {
+        assertThrows(BusinessException.class, () -> carroService.criarEmLote(Collections.emptyList()));
+        verifyNoInteractions(carroRepository);
+    }
+
+    @Test
+    void listarTodos_DeveRetornarPrimeiraPaginaSemCursor() {
         List<Carro> carros = Collections.singletonList(carro);
-        when(carroRepository.findAll()).thenReturn(carros);
+        when(carroRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(carros);
 
-        List<CarroDTO> resultado = carroService.listarTodos();
+        PaginaCarrosDTO resultado = carroService.listarTodos(null, null);
 
         assertNotNull(resultado);
-        assertEquals(1, resultado.size());
-        assertEquals(carro.getMarca(), resultado.get(0).getMarca());
+        assertEquals(1, resultado.getItens().size());
+        assertEquals(carro.getMarca(), resultado.getItens().get(0).getMarca());
+        assertNull(resultado.getProximoCursor());
+    }
+
+    @Test
+    void listarTodos_DeveRetornarCursorQuandoExisteProximaPagina() {
+        Carro outro = new Carro();
+        outro.setId(2L);
+        outro.setMarca("Honda");
+        outro.setModelo("Civic");
+        when(carroRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(new ArrayList<>(Arrays.asList(carro, outro)));
+        when(carroRepository.findByIdGreaterThanOrderByIdAsc(eq(1L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(outro));
+
+        PaginaCarrosDTO primeira = carroService.listarTodos(null, 1);
+        PaginaCarrosDTO segunda = carroService.listarTodos(primeira.getProximoCursor(), 1);
+
+        assertEquals(1, primeira.getItens().size());
+        assertNotNull(primeira.getProximoCursor());
+        assertEquals(2L, segunda.getItens().get(0).getId());
+        assertNull(segunda.getProximoCursor());
+    }
+
+    @Test
+    void listarTodos_DeveLancarExcecaoQuandoCursorInvalido() {
+        assertThrows(BusinessException.class, () -> carroService.listarTodos("%%%", null));
+        verify(carroRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void transmitirTodos_DeveEntregarCadaCarroEDesanexarEntidade() {
+        when(carroRepository.streamTodos()).thenReturn(Stream.of(carro));
+        List<CarroDTO> recebidos = new ArrayList<>();
+
+        carroService.transmitirTodos(recebidos::add);
+
+        assertEquals(1, recebidos.size());
+        assertEquals(carro.getPlaca(), recebidos.get(0).getPlaca());
+        verify(entityManager).detach(carro);
     }
 
     @Test
@@ -150,9 +293,8 @@ class CarroServiceTest {
     }
 
     @Test
-    void buscarDisponiveis_DeveRetornarCarrosDisponiveis() {
-        List<Carro> carros = Collections.singletonList(carro);
-        when(carroRepository.findByDisponivelTrue()).thenReturn(carros);
+    void buscarDisponiveis_DeveRetornarCarrosDisponiveisDoIndice() {
+        when(indiceDisponibilidade.listarDisponiveis()).thenReturn(Collections.singletonList(carroDTO));
 
         List<CarroDTO> resultado = carroService.buscarDisponiveis();
 
@@ -160,20 +302,55 @@ class CarroServiceTest {
         assertFalse(resultado.isEmpty());
         assertEquals(1, resultado.size());
         assertTrue(resultado.get(0).getDisponivel());
+        verifyNoInteractions(carroRepository);
+    }
+
+    @Test
+    void buscarDisponiveisPorMarca_DeveConsultarIndicePorMarca() {
+        when(indiceDisponibilidade.listarDisponiveisPorMarca("Toyota")).thenReturn(Collections.singletonList(carroDTO));
+
+        List<CarroDTO> resultado = carroService.buscarDisponiveisPorMarca("Toyota");
+
+        assertEquals(1, resultado.size());
+        assertEquals("Toyota", resultado.get(0).getMarca());
+        verifyNoInteractions(carroRepository);
+    }
+
+    @Test
+    void buscarDisponiveisNoPeriodo_DeveExcluirCarrosReservadosNoPeriodo() {
+        CarroDTO reservado = new CarroDTO();
+        reservado.setId(2L);
+        LocalDate de = LocalDate.now().plusDays(5);
+        LocalDate ate = de.plusDays(2);
+        when(indiceDisponibilidade.listarDisponiveis()).thenReturn(Arrays.asList(carroDTO, reservado));
+        when(indiceReservas.livre(1L, de, ate)).thenReturn(true);
+        when(indiceReservas.livre(2L, de, ate)).thenReturn(false);
+
+        List<CarroDTO> resultado = carroService.buscarDisponiveisNoPeriodo(de, ate);
+
+        assertEquals(List.of(carroDTO), resultado);
+        verifyNoInteractions(carroRepository);
+    }
+
+    @Test
+    void buscarDisponiveisNoPeriodo_DeveRejeitarPeriodoInvertido() {
+        LocalDate de = LocalDate.now().plusDays(5);
+
+        assertThrows(BusinessException.class, () -> carroService.buscarDisponiveisNoPeriodo(de, de));
+        verifyNoInteractions(indiceDisponibilidade);
     }
 
     @Test
     void atualizar_DeveAtualizarCarroComSucesso() {
         when(carroRepository.findById(anyLong())).thenReturn(Optional.of(carro));
-        when(carroRepository.existsByMarcaAndModelo(anyString(), anyString())).thenReturn(false);
-        when(carroRepository.save(any(Carro.class))).thenReturn(carro);
+        when(carroRepository.saveAndFlush(any(Carro.class))).thenReturn(carro);
 
         CarroDTO resultado = carroService.atualizar(1L, carroDTO);
 
         assertNotNull(resultado);
         assertEquals(carroDTO.getMarca(), resultado.getMarca());
         assertEquals(carroDTO.getModelo(), resultado.getModelo());
-        verify(carroRepository).save(any(Carro.class));
+        verify(carroRepository).saveAndFlush(any(Carro.class));
     }
 
     @Test
@@ -181,16 +358,16 @@ class CarroServiceTest {
         when(carroRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(BusinessException.class, () -> carroService.atualizar(1L, carroDTO));
-        verify(carroRepository, never()).save(any(Carro.class));
+        verify(carroRepository, never()).saveAndFlush(any(Carro.class));
     }
 
     @Test
     void atualizar_DeveLancarExcecaoQuandoMarcaEModeloJaExistemEmOutroCarro() {
         when(carroRepository.findById(anyLong())).thenReturn(Optional.of(carro));
-        when(carroRepository.existsByMarcaAndModelo(anyString(), anyString())).thenReturn(true);
+        when(carroRepository.saveAndFlush(any(Carro.class))).thenThrow(violacao("uk_carros_marca_modelo"));
 
         assertThrows(BusinessException.class, () -> carroService.atualizar(1L, carroDTO));
-        verify(carroRepository, never()).save(any(Carro.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -210,4 +387,57 @@ class CarroServiceTest {
         assertThrows(BusinessException.class, () -> carroService.deletar(1L));
         verify(carroRepository, never()).delete(any(Carro.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void sugerir_DeveLimitarQuantidadeDeResultados() {
+        carroService.sugerir("toy", 1000);
+        carroService.sugerir("toy", null);
+
+        verify(indiceSugestoes).sugerir("toy", 50);
+        verify(indiceSugestoes).sugerir("toy", 10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buscar_DeveRetornarPaginaComFacetasDoFiltroNormalizado() {
+        FiltroCarrosDTO filtro = new FiltroCarrosDTO();
+        filtro.setMarca(Arrays.asList(" Toyota", "Honda", "Toyota", ""));
+        filtro.setAnoMin(2018);
+        FacetasCarrosDTO facetas = new FacetasCarrosDTO(Map.of("Toyota", 1L), Map.of("2020-2024", 1L));
+        when(carroRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenAnswer(invocacao -> new PageImpl<>(List.of(carro), invocacao.getArgument(1), 41));
+        when(facetasCarrosService.calcular(any(FiltroCarrosDTO.class))).thenReturn(facetas);
+
+        BuscaCarrosDTO resultado = carroService.buscar(filtro, 2, 10, "precoVenda", "desc");
+
+        ArgumentCaptor<Pageable> paginacao = ArgumentCaptor.forClass(Pageable.class);
+        verify(carroRepository).findAll(any(Specification.class), paginacao.capture());
+        assertEquals(PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "precoVenda").and(Sort.by("id"))),
+                paginacao.getValue());
+        ArgumentCaptor<FiltroCarrosDTO> filtroUsado = ArgumentCaptor.forClass(FiltroCarrosDTO.class);
+        verify(facetasCarrosService).calcular(filtroUsado.capture());
+        assertEquals(List.of("Honda", "Toyota"), filtroUsado.getValue().getMarca());
+        assertEquals(1, resultado.getItens().size());
+        assertEquals(41, resultado.getTotal());
+        assertEquals(5, resultado.getTotalPaginas());
+        assertSame(facetas, resultado.getFacetas());
+    }
+
+    @Test
+    void buscar_DeveLancarExcecaoParaOrdenacaoOuIntervaloInvalidos() {
+        FiltroCarrosDTO invertido = new FiltroCarrosDTO();
+        invertido.setPrecoVendaMin(new BigDecimal("90000"));
+        invertido.setPrecoVendaMax(new BigDecimal("50000"));
+
+        assertThrows(BusinessException.class, () -> carroService.buscar(null, 0, 10, "placa", null));
+        assertThrows(BusinessException.class, () -> carroService.buscar(null, 0, 10, "ano", "lado"));
+        assertThrows(BusinessException.class, () -> carroService.buscar(null, 5_000, 100, null, null));
+        assertThrows(BusinessException.class, () -> carroService.buscar(invertido, null, null, null, null));
+        verifyNoInteractions(carroRepository, facetasCarrosService);
+    }
+
+    private DataIntegrityViolationException violacao(String chave) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException("Duplicate entry 'x' for key 'carros." + chave + "'"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.concessionaria.carros.service;
+
+import com.concessionaria.carros.dto.FacetasCarrosDTO;
+import com.concessionaria.carros.dto.FiltroCarrosDTO;
+import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.repository.CarroRepository;
+import com.concessionaria.carros.repository.CarroSpecifications;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(FacetasCarrosService.class)
+class FacetasCarrosServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CarroRepository carroRepository;
+
+    @Autowired
+    private FacetasCarrosService facetasCarrosService;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(novoCarro("Toyota", "Corolla", 2021, "90000", "ABC1001"));
+        entityManager.persist(novoCarro("Toyota", "Yaris", 2017, "70000", "ABC1002"));
+        entityManager.persist(novoCarro("Toyota", "Hilux", 2023, "250000", "ABC1003"));
+        entityManager.persist(novoCarro("Honda", "Civic", 2022, "120000", "ABC1004"));
+        entityManager.persist(novoCarro("Honda", "Fit", 2015, "50000", "ABC1005"));
+        entityManager.persist(novoCarro("Ford", "Ka", 2019, "45000", "ABC1006"));
+        entityManager.flush();
+        entityManager.clear();
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    @Test
+    void filtrar_DeveCombinarFiltrosEOrdenar() {
+        FiltroCarrosDTO filtro = new FiltroCarrosDTO();
+        filtro.setMarca(List.of("Toyota", "Honda"));
+        filtro.setAnoMin(2016);
+        filtro.setPrecoVendaMax(new BigDecimal("150000"));
+
+        Page<Carro> pagina = carroRepository.findAll(CarroSpecifications.filtrar(filtro),
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "precoVenda")));
+
+        assertEquals(3, pagina.getTotalElements());
+        assertEquals(List.of("Civic", "Corolla"), pagina.getContent().stream().map(Carro::getModelo).toList());
+    }
+
+    @Test
+    void calcular_DeveContarCadaDimensaoIgnorandoOProprioFiltroEmUmaConsulta() {
+        FiltroCarrosDTO filtro = new FiltroCarrosDTO();
+        filtro.setMarca(List.of("Toyota"));
+        filtro.setAnoMin(2020);
+        filtro.setPrecoVendaMax(new BigDecimal("200000"));
+
+        FacetasCarrosDTO facetas = facetasCarrosService.calcular(filtro);
+
+        // Marcas: ano >= 2020 e preço <= 200000, qualquer marca.
+        assertEquals(Map.of("Toyota", 1L, "Honda", 1L), facetas.getMarcas());
+        // Faixas de ano: Toyota com preço <= 200000, qualquer ano.
+        assertEquals(Map.of("2015-2019", 1L, "2020-2024", 1L), facetas.getFaixasAno());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void calcular_DeveOrdenarMarcasPorQuantidade() {
+        FacetasCarrosDTO facetas = facetasCarrosService.calcular(new FiltroCarrosDTO());
+
+        assertEquals(List.of("Toyota", "Honda", "Ford"), List.copyOf(facetas.getMarcas().keySet()));
+        assertEquals(List.of("2015-2019", "2020-2024"), List.copyOf(facetas.getFaixasAno().keySet()));
+        assertEquals(3L, facetas.getFaixasAno().get("2015-2019"));
+    }
+
+    private Carro novoCarro(String marca, String modelo, int ano, String precoVenda, String placa) {
+        Carro carro = new Carro();
+        carro.setMarca(marca);
+        carro.setModelo(modelo);
+        carro.setAno(ano);
+        carro.setPlaca(placa);
+        carro.setPrecoVenda(new BigDecimal(precoVenda));
+        carro.setPrecoAluguel(new BigDecimal("300.00"));
+        return carro;
+    }
+}
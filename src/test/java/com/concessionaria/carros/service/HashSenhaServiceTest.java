@@ -0,0 +1,66 @@
+package com.concessionaria.carros.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashSenhaServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HashSenhaService hashSenhaService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hashSenhaService = new HashSenhaService(meterRegistry, 4, 2, 8, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashSenhaService.parar();
+    }
+
+    @Test
+    void gerarHash_DeveProduzirHashVerificavel() {
+        String hash = hashSenhaService.gerarHash("123456");
+
+        assertNotEquals("123456", hash);
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(hashSenhaService.verificar("123456", hash));
+        assertFalse(hashSenhaService.verificar("654321", hash));
+    }
+
+    @Test
+    void verificar_DeveRecusarSenhaOuHashNulos() {
+        assertFalse(hashSenhaService.verificar(null, "$2a$04$abc"));
+        assertFalse(hashSenhaService.verificar("123456", null));
+    }
+
+    @Test
+    void precisaAtualizar_DeveDetectarCustoMenorQueOConfigurado() {
+        String hashAntigo = new HashSenhaService(new SimpleMeterRegistry(), 4, 1, 1, 5000).gerarHash("123456");
+        HashSenhaService custoMaior = new HashSenhaService(new SimpleMeterRegistry(), 5, 1, 1, 5000);
+
+        assertTrue(custoMaior.precisaAtualizar(hashAntigo));
+        assertFalse(hashSenhaService.precisaAtualizar(hashAntigo));
+    }
+
+    @Test
+    void senhaEmTextoPuroAnteriorAoBcrypt_DeveSerAceitaEMarcadaParaAtualizar() {
+        assertTrue(hashSenhaService.verificar("123456", "123456"));
+        assertFalse(hashSenhaService.verificar("654321", "123456"));
+        assertTrue(hashSenhaService.precisaAtualizar("123456"));
+        assertEquals(0, meterRegistry.get("concessionaria.senha.hash").tag("operacao", "verificar").timer().count());
+    }
+
+    @Test
+    void deveRegistrarMetricasDeHashEEspera() {
+        hashSenhaService.gerarHash("123456");
+
+        assertEquals(1, meterRegistry.get("concessionaria.senha.hash").tag("operacao", "gerar").timer().count());
+        assertEquals(1, meterRegistry.get("concessionaria.senha.fila.espera").timer().count());
+    }
+}
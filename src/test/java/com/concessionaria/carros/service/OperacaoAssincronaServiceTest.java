@@ -0,0 +1,101 @@
+package com.concessionaria.carros.service;
+
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.dto.PedidoOperacaoDTO;
+import com.concessionaria.carros.entity.Operacao;
+import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.exception.FilaCheiaException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OperacaoAssincronaServiceTest {
+
+    private final OperacaoService operacaoService = mock(OperacaoService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OperacaoAssincronaService service;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.parar();
+    }
+
+    @Test
+    void enfileirar_DeveRejeitarQuandoFilaCheia() {
+        service = new OperacaoAssincronaService(operacaoService, transactionManager, meterRegistry, 1, 10);
+
+        service.enfileirar(pedido("Toyota"));
+
+        assertThrows(FilaCheiaException.class, () -> service.enfileirar(pedido("Honda")));
+        assertEquals(1.0, meterRegistry.get("concessionaria.operacoes.fila.profundidade").gauge().value());
+    }
+
+    @Test
+    void escritor_DeveConcluirPedidosEIsolarFalhas() throws Exception {
+        service = new OperacaoAssincronaService(operacaoService, transactionManager, meterRegistry, 10, 10);
+        OperacaoDTO criada = pedido("Toyota");
+        criada.setId(7L);
+        when(operacaoService.criar(any(OperacaoDTO.class))).thenAnswer(invocation -> {
+            OperacaoDTO dto = invocation.getArgument(0);
+            if ("Fiat".equals(dto.getMarca())) {
+                throw new BusinessException("Nenhum carro disponível para a marca: Fiat");
+            }
+            return criada;
+        });
+
+        PedidoOperacaoDTO valido = service.enfileirar(pedido("Toyota"));
+        PedidoOperacaoDTO invalido = service.enfileirar(pedido("Fiat"));
+        service.iniciar();
+
+        aguardar(() -> service.buscarPedido(valido.getId()).getStatus() != PedidoOperacaoDTO.StatusPedido.PENDENTE
+                && service.buscarPedido(invalido.getId()).getStatus() != PedidoOperacaoDTO.StatusPedido.PENDENTE);
+
+        assertEquals(PedidoOperacaoDTO.StatusPedido.CONCLUIDO, service.buscarPedido(valido.getId()).getStatus());
+        assertEquals(7L, service.buscarPedido(valido.getId()).getOperacao().getId());
+        assertEquals(PedidoOperacaoDTO.StatusPedido.FALHOU, service.buscarPedido(invalido.getId()).getStatus());
+        assertEquals(2, meterRegistry.get("concessionaria.operacoes.fila.atraso").timer().count());
+        // A recusa fica no savepoint do pedido: o lote não é refeito pedido a pedido.
+        verify(operacaoService, times(2)).criar(any(OperacaoDTO.class));
+    }
+
+    @Test
+    void buscarPedido_DeveLancarExcecaoQuandoPedidoNaoExiste() {
+        service = new OperacaoAssincronaService(operacaoService, transactionManager, meterRegistry, 10, 10);
+
+        assertThrows(BusinessException.class, () -> service.buscarPedido("inexistente"));
+    }
+
+    private OperacaoDTO pedido(String marca) {
+        OperacaoDTO dto = new OperacaoDTO();
+        dto.setCarroId(1L);
+        dto.setClienteId(1L);
+        dto.setMarca(marca);
+        dto.setTipo(Operacao.TipoOperacao.VENDA);
+        dto.setValor(new BigDecimal("100000.00"));
+        return dto;
+    }
+
+    private void aguardar(Supplier<Boolean> condicao) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!condicao.get() && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertTrue(condicao.get(), "Pedidos não foram processados a tempo");
+    }
+}
@@ -0,0 +1,141 @@
+package com.concessionaria.carros.service;
+
+import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.entity.Operacao;
+import com.concessionaria.carros.entity.Usuario;
+import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.repository.CarroRepository;
+import com.concessionaria.carros.repository.OperacaoRepository;
+import com.concessionaria.carros.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// SKIP LOCKED depende do MySQL 8, por isso o teste sobe um contêiner e é ignorado sem Docker.
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class OperacaoServiceConcorrenciaTest {
+
+    private static final int CARROS = 20;
+    private static final int PEDIDOS = 60;
+    private static final int THREADS = 16;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void propriedades(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> String.valueOf(THREADS + 4));
+    }
+
+    @Autowired
+    private OperacaoService operacaoService;
+
+    @Autowired
+    private OperacaoRepository operacaoRepository;
+
+    @Autowired
+    private CarroRepository carroRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @AfterEach
+    void limpar() {
+        operacaoRepository.deleteAllInBatch();
+        carroRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void criar_NaoDeveAlocarOMesmoCarroDuasVezesSobConcorrencia() throws Exception {
+        for (int i = 0; i < CARROS; i++) {
+            carroRepository.save(novoCarro("Toyota", "Modelo " + i, "TOY" + String.format("%04d", i)));
+        }
+        carroRepository.save(novoCarro("Honda", "Civic", "HON0001"));
+        Usuario cliente = usuarioRepository.save(novoUsuario());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<OperacaoDTO>> futuros = new ArrayList<>();
+        for (int i = 0; i < PEDIDOS; i++) {
+            futuros.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    return operacaoService.criar(novoPedido(cliente.getId()));
+                } catch (BusinessException e) {
+                    return null;
+                }
+            }));
+        }
+        largada.countDown();
+
+        Set<Long> carrosAlocados = new HashSet<>();
+        int sucessos = 0;
+        for (Future<OperacaoDTO> futuro : futuros) {
+            OperacaoDTO operacao = futuro.get(60, TimeUnit.SECONDS);
+            if (operacao != null) {
+                sucessos++;
+                assertTrue(carrosAlocados.add(operacao.getCarroId()), "Carro alocado duas vezes: " + operacao.getCarroId());
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(CARROS, sucessos);
+        assertEquals(CARROS, operacaoRepository.count());
+        assertEquals(1, carroRepository.findAll().stream().filter(Carro::getDisponivel).count());
+    }
+
+    private OperacaoDTO novoPedido(Long clienteId) {
+        OperacaoDTO dto = new OperacaoDTO();
+        dto.setMarca("Toyota");
+        dto.setClienteId(clienteId);
+        dto.setTipo(Operacao.TipoOperacao.VENDA);
+        dto.setValor(new BigDecimal("100000.00"));
+        return dto;
+    }
+
+    private Carro novoCarro(String marca, String modelo, String placa) {
+        Carro carro = new Carro();
+        carro.setMarca(marca);
+        carro.setModelo(modelo);
+        carro.setAno(2023);
+        carro.setPlaca(placa);
+        carro.setPrecoVenda(new BigDecimal("100000.00"));
+        carro.setPrecoAluguel(new BigDecimal("300.00"));
+        return carro;
+    }
+
+    private Usuario novoUsuario() {
+        Usuario usuario = new Usuario();
+        usuario.setNome("Cliente Concorrente");
+        usuario.setEmail("concorrente@email.com");
+        usuario.setSenha("123456");
+        return usuario;
+    }
+}
@@ -1,12 +1,21 @@
 package com.concessionaria.carros.service;
 
+import com.concessionaria.carros.arquivo.ArquivoOperacoes;
 import com.concessionaria.carros.dto.OperacaoDTO;
+import com.concessionaria.carros.dto.RelatorioOperacoesDTO;
+import com.concessionaria.carros.dto.TotalGrupoDTO;
 import com.concessionaria.carros.entity.Carro;
 import com.concessionaria.carros.entity.Operacao;
+import com.concessionaria.carros.entity.Reserva;
 import com.concessionaria.carros.entity.Usuario;
+import com.concessionaria.carros.event.CarroEvent;
+import com.concessionaria.carros.event.OperacaoEvent;
 import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.exception.ConflitoException;
+import com.concessionaria.carros.exception.RecursoNaoEncontradoException;
 import com.concessionaria.carros.repository.CarroRepository;
 import com.concessionaria.carros.repository.OperacaoRepository;
+import com.concessionaria.carros.repository.ReservaRepository;
 import com.concessionaria.carros.repository.UsuarioRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,15 +23,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +50,15 @@ class OperacaoServiceTest {
     @Mock
     private UsuarioRepository usuarioRepository;
     
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ArquivoOperacoes arquivoOperacoes;
+    
     @InjectMocks
     private OperacaoService operacaoService;
     
@@ -76,7 +98,7 @@ class OperacaoServiceTest {
     
     @Test
     void criar_DeveCriarOperacaoComSucesso() {
-        when(carroRepository.findByMarca("Toyota")).thenReturn(Arrays.asList(carro));
+        when(carroRepository.findLivresParaOperacao(eq("Toyota"), any(), any(), any())).thenReturn(List.of(carro));
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
         when(operacaoRepository.save(any(Operacao.class))).thenReturn(operacao);
         
@@ -85,40 +107,110 @@ class OperacaoServiceTest {
         assertNotNull(resultado);
         assertEquals(operacaoDTO.getTipo(), resultado.getTipo());
         assertEquals(operacaoDTO.getMarca(), resultado.getMarca());
+        assertFalse(carro.getDisponivel());
         verify(operacaoRepository).save(any(Operacao.class));
+        verify(eventPublisher).publishEvent(any(CarroEvent.class));
+        verify(eventPublisher).publishEvent(any(OperacaoEvent.class));
     }
     
     @Test
-    void criar_DeveLancarExcecaoQuandoCarroNaoEncontrado() {
-        when(carroRepository.findByMarca("Toyota")).thenReturn(Arrays.asList());
+    void criar_VendaDeveIgnorarCarrosComReservaFuturaEAluguelPreferirCarroSemReserva() {
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(carroRepository.findLivresParaOperacao(eq("Toyota"), any(), any(), any())).thenReturn(List.of());
+        LocalDate hoje = LocalDate.now();
+        LocalDate semReserva = hoje.plusDays(ReservaService.DIAS_ANTECEDENCIA_MAXIMA);
+
+        assertThrows(ConflitoException.class, () -> operacaoService.criar(operacaoDTO));
+        verify(carroRepository).findLivresParaOperacao(eq("Toyota"), eq(hoje), eq(semReserva), any());
+        verify(carroRepository, times(1)).findLivresParaOperacao(any(), any(), any(), any());
+
+        operacaoDTO.setTipo(Operacao.TipoOperacao.ALUGUEL);
+        assertThrows(ConflitoException.class, () -> operacaoService.criar(operacaoDTO));
+        verify(carroRepository, times(2)).findLivresParaOperacao(eq("Toyota"), eq(hoje), eq(semReserva), any());
+        verify(carroRepository).findLivresParaOperacao(eq("Toyota"), eq(hoje),
+                eq(hoje.plusDays(OperacaoService.DIAS_FOLGA_ALUGUEL)), any());
+    }
+
+    @Test
+    void criar_AluguelNaoDeveBuscarCarroComReservaQuandoHaCarroSemReserva() {
+        operacaoDTO.setTipo(Operacao.TipoOperacao.ALUGUEL);
+        LocalDate semReserva = LocalDate.now().plusDays(ReservaService.DIAS_ANTECEDENCIA_MAXIMA);
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(carroRepository.findLivresParaOperacao(eq("Toyota"), any(), eq(semReserva), any()))
+                .thenReturn(List.of(carro));
+        when(operacaoRepository.save(any(Operacao.class))).thenReturn(operacao);
+
+        operacaoService.criar(operacaoDTO);
+
+        verify(carroRepository, times(1)).findLivresParaOperacao(any(), any(), any(), any());
+        assertFalse(carro.getDisponivel());
+    }
+
+    @Test
+    void alugarReserva_DeveAlugarOCarroDaReservaEmCurso() {
+        Reserva reserva = reserva(LocalDate.now(), LocalDate.now().plusDays(3));
+        operacaoDTO.setTipo(Operacao.TipoOperacao.ALUGUEL);
+        when(reservaRepository.findById(9L)).thenReturn(Optional.of(reserva));
+        when(carroRepository.findComTravaById(1L)).thenReturn(Optional.of(carro));
+        when(operacaoRepository.save(any(Operacao.class))).thenReturn(operacao);
+
+        operacaoService.alugarReserva(9L, operacaoDTO);
+
+        assertFalse(carro.getDisponivel());
+        verify(operacaoRepository).save(argThat(salva -> salva.getCarro() == carro && salva.getCliente() == usuario));
+        verify(carroRepository, never()).findLivresParaOperacao(any(), any(), any(), any());
+    }
+
+    @Test
+    void alugarReserva_DeveRecusarReservaDeOutroClienteOuForaDoPeriodo() {
+        operacaoDTO.setTipo(Operacao.TipoOperacao.ALUGUEL);
+        when(reservaRepository.findById(9L))
+                .thenReturn(Optional.of(reserva(LocalDate.now().plusDays(1), LocalDate.now().plusDays(3))));
+        assertThrows(ConflitoException.class, () -> operacaoService.alugarReserva(9L, operacaoDTO));
+
+        operacaoDTO.setClienteId(2L);
+        when(reservaRepository.findById(9L))
+                .thenReturn(Optional.of(reserva(LocalDate.now(), LocalDate.now().plusDays(3))));
+        assertThrows(ConflitoException.class, () -> operacaoService.alugarReserva(9L, operacaoDTO));
+
+        operacaoDTO.setClienteId(1L);
+        operacaoDTO.setTipo(Operacao.TipoOperacao.VENDA);
+        assertThrows(BusinessException.class, () -> operacaoService.alugarReserva(9L, operacaoDTO));
+        verify(operacaoRepository, never()).save(any(Operacao.class));
+    }
+
+    @Test
+    void criar_DeveLancarExcecaoQuandoNenhumCarroDisponivel() {
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(carroRepository.findLivresParaOperacao(eq("Toyota"), any(), any(), any())).thenReturn(List.of());
         
-        assertThrows(BusinessException.class, () -> operacaoService.criar(operacaoDTO));
+        assertThrows(ConflitoException.class, () -> operacaoService.criar(operacaoDTO));
         verify(operacaoRepository, never()).save(any(Operacao.class));
     }
     
     @Test
     void criar_DeveLancarExcecaoQuandoClienteNaoEncontrado() {
-        when(carroRepository.findByMarca("Toyota")).thenReturn(Arrays.asList(carro));
         when(usuarioRepository.findById(1L)).thenReturn(Optional.empty());
         
-        assertThrows(BusinessException.class, () -> operacaoService.criar(operacaoDTO));
+        assertThrows(RecursoNaoEncontradoException.class, () -> operacaoService.criar(operacaoDTO));
+        verify(carroRepository, never()).findLivresParaOperacao(any(), any(), any(), any());
         verify(operacaoRepository, never()).save(any(Operacao.class));
     }
     
     @Test
     void criar_DeveLancarExcecaoQuandoCarroNaoDisponivel() {
         carro.setDisponivel(false);
-        when(carroRepository.findByMarca("Toyota")).thenReturn(Arrays.asList(carro));
+        when(carroRepository.findLivresParaOperacao(eq("Toyota"), any(), any(), any())).thenReturn(List.of(carro));
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
         
-        assertThrows(BusinessException.class, () -> operacaoService.criar(operacaoDTO));
+        assertThrows(ConflitoException.class, () -> operacaoService.criar(operacaoDTO));
         verify(operacaoRepository, never()).save(any(Operacao.class));
     }
     
     @Test
     void listarTodos_DeveRetornarListaDeOperacoes() {
-        List<Operacao> operacoes = Arrays.asList(operacao);
-        when(operacaoRepository.findAll()).thenReturn(operacoes);
+        List<OperacaoDTO> operacoes = Arrays.asList(projecao());
+        when(operacaoRepository.findAllProjetadas()).thenReturn(operacoes);
         
         List<OperacaoDTO> resultado = operacaoService.listarTodos();
         
@@ -129,7 +221,7 @@ class OperacaoServiceTest {
     
     @Test
     void buscarPorId_DeveRetornarOperacaoQuandoEncontrada() {
-        when(operacaoRepository.findById(1L)).thenReturn(Optional.of(operacao));
+        when(operacaoRepository.findProjetadaById(1L)).thenReturn(Optional.of(projecao()));
         
         OperacaoDTO resultado = operacaoService.buscarPorId(1L);
         
@@ -140,15 +232,15 @@ class OperacaoServiceTest {
     
     @Test
     void buscarPorId_DeveLancarExcecaoQuandoOperacaoNaoEncontrada() {
-        when(operacaoRepository.findById(1L)).thenReturn(Optional.empty());
+        when(operacaoRepository.findProjetadaById(1L)).thenReturn(Optional.empty());
         
-        assertThrows(BusinessException.class, () -> operacaoService.buscarPorId(1L));
+        assertThrows(RecursoNaoEncontradoException.class, () -> operacaoService.buscarPorId(1L));
     }
     
     @Test
     void finalizarAluguel_DeveFinalizarAluguelComSucesso() {
         operacao.setTipo(Operacao.TipoOperacao.ALUGUEL);
-        when(operacaoRepository.findById(1L)).thenReturn(Optional.of(operacao));
+        when(operacaoRepository.findComCarroById(1L)).thenReturn(Optional.of(operacao));
         when(operacaoRepository.save(any(Operacao.class))).thenReturn(operacao);
         
         OperacaoDTO resultado = operacaoService.finalizarAluguel(1L);
@@ -157,35 +249,37 @@ class OperacaoServiceTest {
         assertNotNull(resultado.getDataDevolucao());
         assertTrue(operacao.getCarro().getDisponivel());
         verify(operacaoRepository).save(any(Operacao.class));
+        verify(eventPublisher).publishEvent(any(CarroEvent.class));
+        verify(eventPublisher).publishEvent(any(OperacaoEvent.class));
     }
     
     @Test
     void finalizarAluguel_DeveLancarExcecaoQuandoOperacaoNaoEncontrada() {
-        when(operacaoRepository.findById(1L)).thenReturn(Optional.empty());
+        when(operacaoRepository.findComCarroById(1L)).thenReturn(Optional.empty());
         
-        assertThrows(BusinessException.class, () -> operacaoService.finalizarAluguel(1L));
+        assertThrows(RecursoNaoEncontradoException.class, () -> operacaoService.finalizarAluguel(1L));
     }
     
     @Test
     void finalizarAluguel_DeveLancarExcecaoQuandoOperacaoNaoEhAluguel() {
-        when(operacaoRepository.findById(1L)).thenReturn(Optional.of(operacao));
+        when(operacaoRepository.findComCarroById(1L)).thenReturn(Optional.of(operacao));
         
-        assertThrows(BusinessException.class, () -> operacaoService.finalizarAluguel(1L));
+        assertThrows(ConflitoException.class, () -> operacaoService.finalizarAluguel(1L));
     }
     
     @Test
     void finalizarAluguel_DeveLancarExcecaoQuandoAluguelJaFinalizado() {
         operacao.setTipo(Operacao.TipoOperacao.ALUGUEL);
         operacao.setDataDevolucao(LocalDateTime.now());
-        when(operacaoRepository.findById(1L)).thenReturn(Optional.of(operacao));
+        when(operacaoRepository.findComCarroById(1L)).thenReturn(Optional.of(operacao));
         
-        assertThrows(BusinessException.class, () -> operacaoService.finalizarAluguel(1L));
+        assertThrows(ConflitoException.class, () -> operacaoService.finalizarAluguel(1L));
     }
     
     @Test
     void buscarPorCarro_DeveRetornarOperacoesDoCarro() {
-        List<Operacao> operacoes = Arrays.asList(operacao);
-        when(operacaoRepository.findByCarroId(1L)).thenReturn(operacoes);
+        List<OperacaoDTO> operacoes = Arrays.asList(projecao());
+        when(operacaoRepository.findProjetadasByCarroId(1L)).thenReturn(operacoes);
         
         List<OperacaoDTO> resultado = operacaoService.buscarPorCarro(1L);
         
@@ -195,16 +289,16 @@ class OperacaoServiceTest {
     }
     
     @Test
-    void buscarPorCarro_DeveLancarExcecaoQuandoNenhumaOperacaoEncontrada() {
-        when(operacaoRepository.findByCarroId(1L)).thenReturn(Arrays.asList());
+    void buscarPorCarro_DeveRetornarListaVaziaQuandoNenhumaOperacaoEncontrada() {
+        when(operacaoRepository.findProjetadasByCarroId(1L)).thenReturn(Arrays.asList());
         
-        assertThrows(BusinessException.class, () -> operacaoService.buscarPorCarro(1L));
+        assertTrue(operacaoService.buscarPorCarro(1L).isEmpty());
     }
     
     @Test
     void buscarPorCliente_DeveRetornarOperacoesDoCliente() {
-        List<Operacao> operacoes = Arrays.asList(operacao);
-        when(operacaoRepository.findByClienteId(1L)).thenReturn(operacoes);
+        List<OperacaoDTO> operacoes = Arrays.asList(projecao());
+        when(operacaoRepository.findProjetadasByClienteId(1L)).thenReturn(operacoes);
         
         List<OperacaoDTO> resultado = operacaoService.buscarPorCliente(1L);
         
@@ -214,16 +308,16 @@ class OperacaoServiceTest {
     }
     
     @Test
-    void buscarPorCliente_DeveLancarExcecaoQuandoNenhumaOperacaoEncontrada() {
-        when(operacaoRepository.findByClienteId(1L)).thenReturn(Arrays.asList());
+    void buscarPorCliente_DeveRetornarListaVaziaQuandoNenhumaOperacaoEncontrada() {
+        when(operacaoRepository.findProjetadasByClienteId(1L)).thenReturn(Arrays.asList());
         
-        assertThrows(BusinessException.class, () -> operacaoService.buscarPorCliente(1L));
+        assertTrue(operacaoService.buscarPorCliente(1L).isEmpty());
     }
     
     @Test
     void buscarPorTipo_DeveRetornarOperacoesDoTipo() {
-        List<Operacao> operacoes = Arrays.asList(operacao);
-        when(operacaoRepository.findByTipo(Operacao.TipoOperacao.VENDA)).thenReturn(operacoes);
+        List<OperacaoDTO> operacoes = Arrays.asList(projecao());
+        when(operacaoRepository.findProjetadasByTipo(Operacao.TipoOperacao.VENDA)).thenReturn(operacoes);
         
         List<OperacaoDTO> resultado = operacaoService.buscarPorTipo(Operacao.TipoOperacao.VENDA);
         
@@ -233,9 +327,135 @@ class OperacaoServiceTest {
     }
     
     @Test
-    void buscarPorTipo_DeveLancarExcecaoQuandoNenhumaOperacaoEncontrada() {
-        when(operacaoRepository.findByTipo(Operacao.TipoOperacao.VENDA)).thenReturn(Arrays.asList());
+    void buscarPorTipo_DeveRetornarListaVaziaQuandoNenhumaOperacaoEncontrada() {
+        when(operacaoRepository.findProjetadasByTipo(Operacao.TipoOperacao.VENDA)).thenReturn(Arrays.asList());
         
-        assertThrows(BusinessException.class, () -> operacaoService.buscarPorTipo(Operacao.TipoOperacao.VENDA));
+        assertTrue(operacaoService.buscarPorTipo(Operacao.TipoOperacao.VENDA).isEmpty());
+    }
+    
+    @Test
+    void gerarRelatorio_DeveSomarGruposECalcularMedias() {
+        LocalDateTime inicio = LocalDate.of(2024, 3, 1).atStartOfDay();
+        LocalDateTime fim = LocalDate.of(2024, 4, 1).atStartOfDay();
+        when(operacaoRepository.totalizarPorTipo(inicio, fim)).thenReturn(List.of(
+                total("ALUGUEL", 3, "900.00"), total("VENDA", 1, "100000.00")));
+        when(operacaoRepository.totalizarPorMarca(inicio, fim)).thenReturn(List.of(total("Toyota", 4, "100900.00")));
+        when(operacaoRepository.totalizarPorMes(inicio, fim)).thenReturn(List.of(total("2024-03", 4, "100900.00")));
+
+        RelatorioOperacoesDTO relatorio = operacaoService.gerarRelatorio(LocalDate.of(2024, 3, 1),
+                LocalDate.of(2024, 3, 31), RelatorioOperacoesDTO.Agrupamento.MES);
+
+        assertEquals(4, relatorio.getQuantidade());
+        assertEquals(new BigDecimal("100900.00"), relatorio.getTotal());
+        assertEquals(new BigDecimal("25225.00"), relatorio.getMedia());
+        assertEquals(new BigDecimal("300.00"), relatorio.getPorTipo().get(0).getMedia());
+        assertEquals("Toyota", relatorio.getPorMarca().get(0).getGrupo());
+        assertEquals("2024-03", relatorio.getPorPeriodo().get(0).getGrupo());
+        verify(operacaoRepository, never()).totalizarPorDia(any(), any());
+    }
+
+    @Test
+    void gerarRelatorio_DeveRetornarZerosQuandoNaoHaOperacoes() {
+        RelatorioOperacoesDTO relatorio = operacaoService.gerarRelatorio(null, null, null);
+
+        assertEquals(RelatorioOperacoesDTO.Agrupamento.DIA, relatorio.getAgrupamento());
+        assertEquals(LocalDate.now(), relatorio.getFim());
+        assertEquals(LocalDate.now().minusDays(29), relatorio.getInicio());
+        assertEquals(0, relatorio.getQuantidade());
+        assertEquals(BigDecimal.ZERO, relatorio.getMedia());
+        verify(operacaoRepository).totalizarPorDia(any(), any());
+    }
+
+    @Test
+    void gerarRelatorio_DeveLancarExcecaoParaIntervaloInvalido() {
+        LocalDate hoje = LocalDate.now();
+
+        assertThrows(BusinessException.class, () -> operacaoService.gerarRelatorio(hoje, hoje.minusDays(1), null));
+        assertThrows(BusinessException.class, () -> operacaoService.gerarRelatorio(hoje.minusYears(2), hoje,
+                RelatorioOperacoesDTO.Agrupamento.DIA));
+        verifyNoInteractions(operacaoRepository);
+    }
+
+    @Test
+    void buscarPorId_DeveConsultarArquivoQuandoOperacaoSaiuDoBanco() {
+        OperacaoDTO arquivada = projecao();
+        when(operacaoRepository.findProjetadaById(1L)).thenReturn(Optional.empty());
+        when(arquivoOperacoes.buscarPorId(1L)).thenReturn(Optional.of(arquivada));
+
+        assertSame(arquivada, operacaoService.buscarPorId(1L));
+    }
+
+    @Test
+    void buscarPorCarro_DeveMesclarBancoEArquivoSemDuplicar() {
+        OperacaoDTO recente = projecao();
+        OperacaoDTO duplicadaNoArquivo = projecao();
+        duplicadaNoArquivo.setValor(BigDecimal.ONE);
+        OperacaoDTO antiga = projecao();
+        antiga.setId(-5L);
+        when(operacaoRepository.findProjetadasByCarroId(1L)).thenReturn(List.of(recente));
+        when(arquivoOperacoes.buscarPorCarro(1L)).thenReturn(List.of(antiga, duplicadaNoArquivo));
+
+        List<OperacaoDTO> resultado = operacaoService.buscarPorCarro(1L);
+
+        assertEquals(List.of(antiga, recente), resultado);
+    }
+
+    @Test
+    void gerarRelatorio_DeveSomarOperacoesArquivadasDoPeriodo() {
+        LocalDateTime inicio = LocalDate.of(2021, 3, 1).atStartOfDay();
+        LocalDateTime fim = LocalDate.of(2021, 3, 3).atStartOfDay();
+        when(operacaoRepository.totalizarPorTipo(inicio, fim)).thenReturn(List.of(total("VENDA", 1, "100.00")));
+        when(operacaoRepository.totalizarPorMarca(inicio, fim)).thenReturn(List.of(total("Toyota", 1, "100.00")));
+        when(operacaoRepository.totalizarPorDia(inicio, fim)).thenReturn(List.of(total("2021-03-02", 1, "100.00")));
+        OperacaoDTO arquivada = projecao();
+        arquivada.setTipo(Operacao.TipoOperacao.ALUGUEL);
+        arquivada.setValor(new BigDecimal("50.00"));
+        arquivada.setDataOperacao(inicio.plusHours(9));
+        doAnswer(invocacao -> {
+            invocacao.<Consumer<OperacaoDTO>>getArgument(2).accept(arquivada);
+            return null;
+        }).when(arquivoOperacoes).percorrerPeriodo(eq(inicio), eq(fim), any());
+
+        RelatorioOperacoesDTO relatorio = operacaoService.gerarRelatorio(LocalDate.of(2021, 3, 1),
+                LocalDate.of(2021, 3, 2), RelatorioOperacoesDTO.Agrupamento.DIA);
+
+        assertEquals(2, relatorio.getQuantidade());
+        assertEquals(new BigDecimal("150.00"), relatorio.getTotal());
+        assertEquals(List.of("ALUGUEL", "VENDA"), relatorio.getPorTipo().stream().map(TotalGrupoDTO::getGrupo).toList());
+        assertEquals(new BigDecimal("150.00"), relatorio.getPorMarca().get(0).getTotal());
+        assertEquals(new BigDecimal("75.00"), relatorio.getPorMarca().get(0).getMedia());
+        assertEquals(List.of("2021-03-01", "2021-03-02"),
+                relatorio.getPorPeriodo().stream().map(TotalGrupoDTO::getGrupo).toList());
+    }
+
+    private OperacaoRepository.TotalAgrupado total(String grupo, long quantidade, String valor) {
+        return new OperacaoRepository.TotalAgrupado() {
+            public String getGrupo() {
+                return grupo;
+            }
+
+            public Long getQuantidade() {
+                return quantidade;
+            }
+
+            public BigDecimal getTotal() {
+                return new BigDecimal(valor);
+            }
+        };
+    }
+
+    private OperacaoDTO projecao() {
+        return new OperacaoDTO(operacao.getId(), carro.getId(), usuario.getId(), operacao.getTipo(),
+                operacao.getValor(), operacao.getDataOperacao(), operacao.getDataDevolucao(), carro.getMarca());
+    }
+
+    private Reserva reserva(LocalDate inicio, LocalDate fim) {
+        Reserva reserva = new Reserva();
+        reserva.setId(9L);
+        reserva.setCarro(carro);
+        reserva.setCliente(usuario);
+        reserva.setInicio(inicio);
+        reserva.setFim(fim);
+        return reserva;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,147 @@
+package com.concessionaria.carros.service;
+
+import com.concessionaria.carros.dto.ReservaDTO;
+import com.concessionaria.carros.entity.Carro;
+import com.concessionaria.carros.entity.Reserva;
+import com.concessionaria.carros.entity.Usuario;
+import com.concessionaria.carros.event.ReservaEvent;
+import com.concessionaria.carros.event.TipoEvento;
+import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.exception.ConflitoException;
+import com.concessionaria.carros.exception.RecursoNaoEncontradoException;
+import com.concessionaria.carros.repository.CarroRepository;
+import com.concessionaria.carros.repository.ReservaRepository;
+import com.concessionaria.carros.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservaServiceTest {
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private CarroRepository carroRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ReservaService reservaService;
+
+    private Carro carro;
+    private Usuario cliente;
+    private ReservaDTO reservaDTO;
+
+    @BeforeEach
+    void setUp() {
+        carro = new Carro();
+        carro.setId(1L);
+        carro.setDisponivel(true);
+        cliente = new Usuario();
+        cliente.setId(2L);
+
+        LocalDate inicio = LocalDate.now().plusDays(7);
+        reservaDTO = new ReservaDTO(null, 1L, 2L, inicio, inicio.plusDays(2), null);
+    }
+
+    @Test
+    void criar_DeveReservarCarroLivreNoPeriodo() {
+        when(usuarioRepository.findById(2L)).thenReturn(Optional.of(cliente));
+        when(carroRepository.findComTravaById(1L)).thenReturn(Optional.of(carro));
+        when(reservaRepository.existsSobreposta(1L, inicioMinimo(), reservaDTO.getInicio(), reservaDTO.getFim()))
+                .thenReturn(false);
+        when(reservaRepository.save(any(Reserva.class))).thenAnswer(invocacao -> {
+            Reserva reserva = invocacao.getArgument(0);
+            reserva.setId(10L);
+            return reserva;
+        });
+
+        ReservaDTO resultado = reservaService.criar(reservaDTO);
+
+        assertEquals(10L, resultado.getId());
+        assertEquals(reservaDTO.getInicio(), resultado.getInicio());
+        ArgumentCaptor<ReservaEvent> evento = ArgumentCaptor.forClass(ReservaEvent.class);
+        verify(eventPublisher).publishEvent(evento.capture());
+        assertEquals(TipoEvento.CRIADO, evento.getValue().tipo());
+    }
+
+    @Test
+    void criar_DeveLancarConflitoQuandoPeriodoSobrepoeOutraReserva() {
+        when(usuarioRepository.findById(2L)).thenReturn(Optional.of(cliente));
+        when(carroRepository.findComTravaById(1L)).thenReturn(Optional.of(carro));
+        when(reservaRepository.existsSobreposta(1L, inicioMinimo(), reservaDTO.getInicio(), reservaDTO.getFim()))
+                .thenReturn(true);
+
+        assertThrows(ConflitoException.class, () -> reservaService.criar(reservaDTO));
+        verify(reservaRepository, never()).save(any(Reserva.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void criar_DeveLancarConflitoQuandoCarroEstaVendidoOuAlugado() {
+        carro.setDisponivel(false);
+        when(usuarioRepository.findById(2L)).thenReturn(Optional.of(cliente));
+        when(carroRepository.findComTravaById(1L)).thenReturn(Optional.of(carro));
+
+        assertThrows(ConflitoException.class, () -> reservaService.criar(reservaDTO));
+        verify(reservaRepository, never()).save(any(Reserva.class));
+    }
+
+    @Test
+    void criar_DeveLancarNaoEncontradoQuandoCarroNaoExiste() {
+        when(usuarioRepository.findById(2L)).thenReturn(Optional.of(cliente));
+        when(carroRepository.findComTravaById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(RecursoNaoEncontradoException.class, () -> reservaService.criar(reservaDTO));
+    }
+
+    @Test
+    void criar_DeveValidarPeriodoAntesDeConsultarOBanco() {
+        LocalDate hoje = LocalDate.now();
+        reservaDTO.setFim(reservaDTO.getInicio());
+        assertThrows(BusinessException.class, () -> reservaService.criar(reservaDTO));
+
+        reservaDTO.setInicio(hoje.minusDays(1));
+        reservaDTO.setFim(hoje.plusDays(1));
+        assertThrows(BusinessException.class, () -> reservaService.criar(reservaDTO));
+
+        reservaDTO.setInicio(hoje.plusDays(1));
+        reservaDTO.setFim(hoje.plusDays(2 + ReservaService.DIAS_RESERVA_MAXIMO));
+        assertThrows(BusinessException.class, () -> reservaService.criar(reservaDTO));
+
+        verifyNoInteractions(usuarioRepository, carroRepository, reservaRepository);
+    }
+
+    @Test
+    void cancelar_DeveRemoverReservaEPublicarEvento() {
+        ReservaDTO existente = new ReservaDTO(10L, 1L, 2L, reservaDTO.getInicio(), reservaDTO.getFim(), null);
+        when(reservaRepository.findProjetadaById(10L)).thenReturn(Optional.of(existente));
+
+        reservaService.cancelar(10L);
+
+        verify(reservaRepository).deleteById(10L);
+        verify(eventPublisher).publishEvent(new ReservaEvent(TipoEvento.REMOVIDO, existente));
+    }
+
+    private LocalDate inicioMinimo() {
+        return reservaDTO.getInicio().minusDays(ReservaService.DIAS_RESERVA_MAXIMO);
+    }
+}
@@ -2,6 +2,7 @@ package com.concessionaria.carros.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 import java.util.Arrays;
@@ -14,10 +15,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.concessionaria.carros.dto.UsuarioDTO;
 import com.concessionaria.carros.entity.Usuario;
+import com.concessionaria.carros.event.UsuarioEvent;
 import com.concessionaria.carros.exception.BusinessException;
+import com.concessionaria.carros.exception.CredenciaisInvalidasException;
 import com.concessionaria.carros.repository.UsuarioRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +30,12 @@ class UsuarioServiceTest {
     @Mock
     private UsuarioRepository usuarioRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HashSenhaService hashSenhaService;
+
     @InjectMocks
     private UsuarioService usuarioService;
 
@@ -68,6 +78,49 @@ class UsuarioServiceTest {
         verify(usuarioRepository, never()).save(any(Usuario.class));
     }
 
+    @Test
+    void criar_DeveGravarHashDaSenha() {
+        when(usuarioRepository.existsByEmail(anyString())).thenReturn(false);
+        when(hashSenhaService.gerarHash("123456")).thenReturn("$2a$10$hash");
+        when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuario);
+
+        usuarioService.criar(usuarioDTO);
+
+        verify(usuarioRepository).save(argThat(salvo -> "$2a$10$hash".equals(salvo.getSenha())));
+    }
+
+    @Test
+    void autenticar_DeveRetornarUsuarioComSenhaCorreta() {
+        when(usuarioRepository.findByEmail("joao@email.com")).thenReturn(Optional.of(usuario));
+        when(hashSenhaService.verificar("123456", usuario.getSenha())).thenReturn(true);
+
+        UsuarioDTO resultado = usuarioService.autenticar("joao@email.com", "123456");
+
+        assertEquals(usuario.getId(), resultado.getId());
+        assertNull(resultado.getSenha());
+    }
+
+    @Test
+    void autenticar_SenhaEmTextoPuro_DeveGravarHashNoPrimeiroLogin() {
+        when(usuarioRepository.findByEmail("joao@email.com")).thenReturn(Optional.of(usuario));
+        when(hashSenhaService.verificar("123456", "123456")).thenReturn(true);
+        when(hashSenhaService.precisaAtualizar("123456")).thenReturn(true);
+        when(hashSenhaService.gerarHash("123456")).thenReturn("$2a$10$hash");
+
+        usuarioService.autenticar("joao@email.com", "123456");
+
+        verify(usuarioRepository).atualizarSenha(1L, "123456", "$2a$10$hash");
+        verify(usuarioRepository, never()).save(any(Usuario.class));
+    }
+
+    @Test
+    void autenticar_DeveLancarExcecaoComSenhaIncorreta() {
+        when(usuarioRepository.findByEmail("joao@email.com")).thenReturn(Optional.of(usuario));
+        when(hashSenhaService.verificar("errada", usuario.getSenha())).thenReturn(false);
+
+        assertThrows(CredenciaisInvalidasException.class, () -> usuarioService.autenticar("joao@email.com", "errada"));
+    }
+
     @Test
     void atualizar_DeveAtualizarUsuarioComSucesso() {
         when(usuarioRepository.findById(anyLong())).thenReturn(Optional.of(usuario));
@@ -81,12 +134,25 @@ class UsuarioServiceTest {
         verify(usuarioRepository).save(any(Usuario.class));
     }
 
+    @Test
+    void atualizar_ComNovaSenha_DevePublicarEventoDeSenhaAlterada() {
+        when(hashSenhaService.gerarHash("123456")).thenReturn("$2a$10$hash");
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuario);
+
+        usuarioService.atualizar(1L, usuarioDTO);
+
+        verify(eventPublisher).publishEvent(argThat((Object evento) ->
+                evento instanceof UsuarioEvent e && e.senhaAlterada()));
+    }
+
     @Test
     void atualizar_DeveLancarExcecaoQuandoUsuarioNaoEncontrado() {
         when(usuarioRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(BusinessException.class, () -> usuarioService.atualizar(1L, usuarioDTO));
         verify(usuarioRepository, never()).save(any(Usuario.class));
+        verify(hashSenhaService, never()).gerarHash(anyString());
     }
 
     @Test